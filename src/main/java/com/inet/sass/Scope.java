@@ -78,6 +78,18 @@ public class Scope {
             return false;
         }
 
+        /**
+         * Get the innermost scope in the chain that contains definitions.
+         * @return the scope, the root scope if there are no definitions
+         */
+        public DefinitionScope<T> owner() {
+            DefinitionScope<T> scope = this;
+            while( scope.definitions == null && scope.parent != null ) {
+                scope = scope.parent;
+            }
+            return scope;
+        }
+
         public T get( String name ) {
             final String unifiedName = getUnifiedName(name);
             HashMap<String, T> definitions = this.definitions;
@@ -173,6 +185,15 @@ public class Scope {
         return functions.get( name );
     }
 
+    /**
+     * Get an opaque key for the function lookup of this scope. Two scopes with the same key resolve every function
+     * name to the same definition as long as no further function is defined.
+     * @return the key
+     */
+    public Object getFunctionScopeKey() {
+        return functions.owner();
+    }
+
     public MixinDefNode getMixinDefinition( String name ) {
         return mixins.get( name );
     }
@@ -20,7 +20,11 @@ import java.util.LinkedHashSet;
 import java.util.Set;
 
 import com.inet.sass.parser.Variable;
+import com.inet.sass.selector.SelectorTable;
 import com.inet.sass.tree.BlockNode;
+import com.inet.sass.tree.BuiltInFunctionCache;
+import com.inet.sass.tree.ContentNode;
+import com.inet.sass.tree.FunctionCallCache;
 import com.inet.sass.tree.FunctionDefNode;
 import com.inet.sass.tree.MixinDefNode;
 import com.inet.sass.visitor.Extension;
@@ -50,6 +54,8 @@ public class ScssContext {
 
     private BlockNode parentBlock;
 
+    private ContentNode.Binding contentBinding;
+
     /**
      * Collection of mappings from an @extend-selector (its simple selector
      * sequence) to a containing block's selectors. E.g. the following
@@ -63,6 +69,16 @@ public class ScssContext {
      */
     private Set<Extension> extendsSet = new LinkedHashSet<Extension>();
 
+    private final FunctionCallCache functionCallCache = new FunctionCallCache();
+
+    private final SelectorTable selectorTable = new SelectorTable();
+
+    private int functionDefinitionVersion;
+
+    private boolean intrinsics;
+
+    private BuiltInFunctionCache builtInFunctionCache;
+
     public ScssContext(UrlMode urlMode, ScssStylesheet stylesheet ) {
         this.urlMode = urlMode;
         this.stylesheet = stylesheet;
@@ -70,6 +86,7 @@ public class ScssContext {
 
     public void defineFunction(FunctionDefNode function) {
         scope.defineFunction(function);
+        functionDefinitionVersion++;
     }
 
     public void defineMixin(MixinDefNode mixin) {
@@ -166,6 +183,26 @@ public class ScssContext {
         return scope.getFunctionDefinition(name);
     }
 
+    /**
+     * Get a key for the function lookup in the current scope. A cached result
+     * of {@link #getFunctionDefinition(String)} is valid as long as the key and
+     * the {@link #getFunctionDefinitionVersion() version} are unchanged.
+     * 
+     * @return the opaque key
+     */
+    public Object getFunctionScopeKey() {
+        return scope.getFunctionScopeKey();
+    }
+
+    /**
+     * Get a counter that changes every time a function is defined.
+     * 
+     * @return the version
+     */
+    public int getFunctionDefinitionVersion() {
+        return functionDefinitionVersion;
+    }
+
     public void addExtension(Extension extension) {
         extendsSet.add(extension);
     }
@@ -174,6 +211,58 @@ public class ScssContext {
         return extendsSet;
     }
 
+    /**
+     * The cache for the results of pure user defined functions.
+     * @return the cache of this compile
+     */
+    public FunctionCallCache getFunctionCallCache() {
+        return functionCallCache;
+    }
+
+    /**
+     * The optional cache for the results of memoizable built-in functions.
+     * @return the cache or null if disabled
+     */
+    public BuiltInFunctionCache getBuiltInFunctionCache() {
+        return builtInFunctionCache;
+    }
+
+    /**
+     * Set the cache for the results of memoizable built-in functions.
+     * @param cache the cache or null to disable it
+     */
+    public void setBuiltInFunctionCache( BuiltInFunctionCache cache ) {
+        builtInFunctionCache = cache;
+    }
+
+    /**
+     * The table that shares equal selectors of this compile.
+     * @return the selector table
+     */
+    public SelectorTable getSelectorTable() {
+        return selectorTable;
+    }
+
+    /**
+     * If the function definitions with a native replacement in
+     * {@link com.inet.sass.function.Intrinsics} use it.
+     * 
+     * @return true, if enabled
+     */
+    public boolean isIntrinsics() {
+        return intrinsics;
+    }
+
+    /**
+     * Enable the native replacements of well known function definitions.
+     * 
+     * @param intrinsics
+     *            the new value
+     */
+    public void setIntrinsics(boolean intrinsics) {
+        this.intrinsics = intrinsics;
+    }
+
     public UrlMode getUrlMode() {
         return urlMode;
     }
@@ -213,4 +302,20 @@ public class ScssContext {
     public void setParentBlock( BlockNode node ) {
         parentBlock = node;
     }
+
+    /**
+     * Get the caller of the mixin that is currently expanded
+     * @return the binding for @content rules or null outside of a mixin
+     */
+    public ContentNode.Binding getContentBinding() {
+        return contentBinding;
+    }
+
+    /**
+     * Change the caller of the mixin that is currently expanded
+     * @param binding the new value
+     */
+    public void setContentBinding( ContentNode.Binding binding ) {
+        contentBinding = binding;
+    }
 }
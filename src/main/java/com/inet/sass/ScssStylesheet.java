@@ -17,8 +17,15 @@
 
 package com.inet.sass;
 
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -28,8 +35,14 @@ import com.inet.sass.handler.SCSSDocumentHandler;
 import com.inet.sass.handler.SCSSErrorHandler;
 import com.inet.sass.parser.ScssParser;
 import com.inet.sass.resolver.ScssStylesheetResolver;
+import com.inet.sass.tree.BuiltInFunctionCache;
+import com.inet.sass.tree.CssEmitter;
+import com.inet.sass.tree.FunctionCallCache;
 import com.inet.sass.tree.Node;
+import com.inet.sass.tree.SourceMapGenerator;
 import com.inet.sass.visitor.ExtendNodeHandler;
+import com.inet.sass.visitor.MediaGroupHandler;
+import com.inet.sass.visitor.RuleMergeHandler;
 
 public class ScssStylesheet extends Node {
 
@@ -44,6 +57,18 @@ public class ScssStylesheet extends Node {
 
     private List<String> sourceUris = new ArrayList<String>();
 
+    private FunctionCallCache functionCallCache;
+
+    private boolean mergeRules;
+
+    private boolean groupMediaQueries;
+
+    private boolean parallel;
+
+    private boolean intrinsics;
+
+    private BuiltInFunctionCache builtInFunctionCache;
+
     /**
      * Read in a file SCSS and parse it into a ScssStylesheet
      * 
@@ -175,8 +200,113 @@ public class ScssStylesheet extends Node {
      */
     public void compile(ScssContext.UrlMode urlMode) throws Exception {
         ScssContext context = new ScssContext( urlMode, this );
+        context.setIntrinsics( intrinsics );
+        context.setBuiltInFunctionCache( builtInFunctionCache );
+        functionCallCache = context.getFunctionCallCache();
         traverse(context);
-        ExtendNodeHandler.modifyTree(context, this);
+        ExtendNodeHandler.modifyTree(context, this, parallel);
+        if( groupMediaQueries ) {
+            MediaGroupHandler.modifyTree( this );
+        }
+        if( mergeRules ) {
+            RuleMergeHandler.modifyTree( this );
+        }
+    }
+
+    /**
+     * Enable the optimization pass after compile that removes overridden
+     * declarations and merges adjacent blocks with identical declarations
+     * and adjacent @media nodes with the same media list.
+     * 
+     * @param mergeRules
+     *            true, to optimize the compiled CSS
+     */
+    public void setMergeRules( boolean mergeRules ) {
+        this.mergeRules = mergeRules;
+    }
+
+    public boolean isMergeRules() {
+        return mergeRules;
+    }
+
+    /**
+     * Enable the grouping of the rules with the same media query into one
+     * @media block after compile. Rules are only moved if no rule in between
+     * sets a property of the same family.
+     * 
+     * @param groupMediaQueries
+     *            true, to group the @media blocks
+     */
+    public void setGroupMediaQueries( boolean groupMediaQueries ) {
+        this.groupMediaQueries = groupMediaQueries;
+    }
+
+    public boolean isGroupMediaQueries() {
+        return groupMediaQueries;
+    }
+
+    /**
+     * Enable the use of the common fork-join pool for the phases which work
+     * on independent top-level nodes: the rewriting of the selectors by
+     * @extend and the printing of the compiled CSS. The output is the same as
+     * in the sequential mode.
+     * 
+     * @param parallel
+     *            true, to use multiple threads
+     */
+    public void setParallel( boolean parallel ) {
+        this.parallel = parallel;
+    }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Enable the native replacements of well known function definitions like
+     * divide() and luminance() of Bootstrap, see
+     * {@link com.inet.sass.function.Intrinsics}. A @function is only replaced
+     * if its name and argument list match the intrinsic.
+     * 
+     * @param intrinsics
+     *            true, to use the native replacements
+     */
+    public void setIntrinsics( boolean intrinsics ) {
+        this.intrinsics = intrinsics;
+    }
+
+    public boolean isIntrinsics() {
+        return intrinsics;
+    }
+
+    /**
+     * Enable the memoization of built-in function results like darken() or
+     * mix(). The same cache can be used for multiple stylesheets, for example
+     * for all variants of a themed build.
+     * 
+     * @param cache
+     *            the cache or null to disable it
+     */
+    public void setBuiltInFunctionCache( BuiltInFunctionCache cache ) {
+        this.builtInFunctionCache = cache;
+    }
+
+    /**
+     * The cache of the built-in function results with its hit and miss counters.
+     * 
+     * @return the cache or null if disabled
+     */
+    public BuiltInFunctionCache getBuiltInFunctionCache() {
+        return builtInFunctionCache;
+    }
+
+    /**
+     * The cache of the function results of the last compile with its statistics.
+     * 
+     * @return the cache or null if not compiled
+     */
+    public FunctionCallCache getFunctionCallCache() {
+        return functionCallCache;
     }
 
     /**
@@ -188,7 +318,53 @@ public class ScssStylesheet extends Node {
      */
     @Override
     public String printState() {
-        return buildString(PRINT_STRATEGY);
+        return CssEmitter.toString(this);
+    }
+
+    @Override
+    public void write(CssEmitter out) throws IOException {
+        String delimeter;
+        switch( out.getStyle() ) {
+            case COMPACT:
+                delimeter = "\n";
+                break;
+            case COMPRESSED:
+                delimeter = "";
+                break;
+            default:
+                delimeter = "\n\n";
+        }
+        // add charset declaration, if it is not default "ASCII".
+        if( charset != null && !"ASCII".equals( charset ) ) {
+            out.append( "@charset \"" ).append( charset ).append( "\";" ).append( delimeter );
+        }
+        List<Node> children = getChildren();
+        if( parallel && children.size() > 1 && !out.hasSourceMap() ) {
+            // render the top-level nodes concurrently and concatenate them in order
+            String[] chunks = CssEmitter.toStrings( children, out.getStyle() );
+            for( int i = 0; i < chunks.length; i++ ) {
+                int mark = i > 0 ? out.pending( delimeter ) : 0;
+                out.append( chunks[i] );
+                out.discardPending( mark );
+            }
+            return;
+        }
+        for( int i = 0; i < children.size(); i++ ) {
+            int mark = i > 0 ? out.pending( delimeter ) : 0;
+            children.get( i ).write( out );
+            out.discardPending( mark );
+        }
+    }
+
+    /**
+     * Prints out the compiled CSS in the given output style.
+     * 
+     * @param style
+     *            the output style
+     * @return the CSS
+     */
+    public String printState( CssEmitter.OutputStyle style ) {
+        return CssEmitter.toString( this, style );
     }
 
     @Override
@@ -279,7 +455,104 @@ public class ScssStylesheet extends Node {
                 "ScssStylesheet cannot be copied");
     }
 
-    public void write(Writer writer) throws IOException {
-        writer.write(printState());
+    /**
+     * Write the compiled CSS to the writer. The CSS is streamed node by node
+     * without building the whole output in memory.
+     * 
+     * @param writer
+     *            the target, is flushed but not closed
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public void write( Writer writer ) throws IOException {
+        write( writer, CssEmitter.OutputStyle.EXPANDED );
+    }
+
+    /**
+     * Write the compiled CSS to the writer in the given output style.
+     * 
+     * @param writer
+     *            the target, is flushed but not closed
+     * @param style
+     *            the output style
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public void write( Writer writer, CssEmitter.OutputStyle style ) throws IOException {
+        if( !(writer instanceof BufferedWriter || writer instanceof StringWriter) ) {
+            writer = new BufferedWriter( writer );
+        }
+        CssEmitter out = new CssEmitter( writer, style );
+        write( out );
+        out.flush();
+    }
+
+    /**
+     * Write the compiled CSS to the writer and the positions of the rules and
+     * declarations in the source files to the source map. The map is
+     * finished after writing. A reference to the map, like a
+     * "sourceMappingURL" comment or header, must be added by the caller.
+     * 
+     * @param writer
+     *            the target, is flushed but not closed
+     * @param style
+     *            the output style
+     * @param sourceMap
+     *            the target of the source map
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public void write( Writer writer, CssEmitter.OutputStyle style, SourceMapGenerator sourceMap ) throws IOException {
+        if( !(writer instanceof BufferedWriter || writer instanceof StringWriter) ) {
+            writer = new BufferedWriter( writer );
+        }
+        CssEmitter out = new CssEmitter( writer, style, sourceMap );
+        write( out );
+        out.flush();
+        sourceMap.finish();
+    }
+
+    /**
+     * Write the compiled CSS as UTF-8 to the stream.
+     * 
+     * @param stream
+     *            the target, is flushed but not closed
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public void write( OutputStream stream ) throws IOException {
+        write( stream, CssEmitter.OutputStyle.EXPANDED );
+    }
+
+    /**
+     * Write the compiled CSS as UTF-8 to the stream in the given output style.
+     * 
+     * @param stream
+     *            the target, is flushed but not closed
+     * @param style
+     *            the output style
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public void write( OutputStream stream, CssEmitter.OutputStyle style ) throws IOException {
+        write( new OutputStreamWriter( stream, StandardCharsets.UTF_8 ), style );
+    }
+
+    /**
+     * Returns the compiled CSS as UTF-8 in the given output style.
+     * 
+     * @param style
+     *            the output style
+     * @return the encoded CSS
+     */
+    public byte[] toByteArray( CssEmitter.OutputStyle style ) {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        try {
+            write( stream, style );
+        } catch( IOException e ) {
+            // a ByteArrayOutputStream does not throw
+            throw new UncheckedIOException( e );
+        }
+        return stream.toByteArray();
     }
 }
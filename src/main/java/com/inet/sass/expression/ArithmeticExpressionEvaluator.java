@@ -71,6 +71,72 @@ public class ArithmeticExpressionEvaluator {
         return value == BinaryOperator.isTrue( left );
     }
 
+    /**
+     * Get the binary operator of a term.
+     * 
+     * @param term the term
+     * @return the operator or null if the term is not an operator
+     */
+    private static BinaryOperator getOperator( SassListItem term ) {
+        switch( term.getItemType() ) {
+            case SCSS_OPERATOR_OR:
+                return BinaryOperator.OR;
+            case SCSS_OPERATOR_AND:
+                return BinaryOperator.AND;
+            case SCSS_OPERATOR_EQUALS:
+                return BinaryOperator.EQUALS;
+            case SCSS_OPERATOR_NOT_EQUAL:
+                return BinaryOperator.NOT_EQUAL;
+            case SAC_OPERATOR_LT:
+                return BinaryOperator.LESS_THAN;
+            case SAC_OPERATOR_GT:
+                return BinaryOperator.GREATER_THAN;
+            case SAC_OPERATOR_LE:
+                return BinaryOperator.LESS_THAN_OR_EQUALS;
+            case SAC_OPERATOR_GE:
+                return BinaryOperator.GREATER_THAN_OR_EQUALS;
+            case SAC_OPERATOR_PLUS:
+                return BinaryOperator.ADD;
+            case SAC_OPERATOR_MINUS:
+                return BinaryOperator.MINUS;
+            case SAC_OPERATOR_MULTIPLY:
+                return BinaryOperator.MUL;
+            case SAC_OPERATOR_SLASH:
+                return BinaryOperator.DIV;
+            case SAC_OPERATOR_MOD:
+                return BinaryOperator.MOD;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Skip the right operand of a short circuit evaluation. This are all terms up to the next operator with a lower
+     * precedence, for example "b == c" in "a and b == c or d".
+     * 
+     * @param terms all terms
+     * @param index the index of the short circuit operator
+     * @param operator the short circuit operator
+     * @return the index of the last skipped term
+     */
+    private static int skipRightOperand( List<SassListItem> terms, int index, BinaryOperator operator ) {
+        boolean afterOperand = false;
+        for( int i = index + 1; i < terms.size(); i++ ) {
+            SassListItem term = terms.get( i );
+            if( term == LexicalUnitImpl.WHITESPACE ) {
+                continue;
+            }
+            if( afterOperand ) {
+                BinaryOperator next = getOperator( term );
+                if( next == null || next.precedence < operator.precedence ) {
+                    return i - 1;
+                }
+            }
+            afterOperand = !afterOperand;
+        }
+        return terms.size() - 1;
+    }
+
     private static Object createExpression( ScssContext context, List<SassListItem> terms ) {
         SassListItem current = null;
         boolean afterOperand = false;
@@ -84,49 +150,9 @@ public class ArithmeticExpressionEvaluator {
             }
             if( afterOperand ) {
                 afterOperand = false;
-                BinaryOperator operator;
-                switch( current.getItemType() ) {
-                    case SCSS_OPERATOR_OR:
-                        operator = BinaryOperator.OR;
-                        break;
-                    case SCSS_OPERATOR_AND:
-                        operator = BinaryOperator.AND;
-                        break;
-                    case SCSS_OPERATOR_EQUALS:
-                        operator = BinaryOperator.EQUALS;
-                        break;
-                    case SCSS_OPERATOR_NOT_EQUAL:
-                        operator = BinaryOperator.NOT_EQUAL;
-                        break;
-                    case SAC_OPERATOR_LT:
-                        operator = BinaryOperator.LESS_THAN;
-                        break;
-                    case SAC_OPERATOR_GT:
-                        operator = BinaryOperator.GREATER_THAN;
-                        break;
-                    case SAC_OPERATOR_LE:
-                        operator = BinaryOperator.LESS_THAN_OR_EQUALS;
-                        break;
-                    case SAC_OPERATOR_GE:
-                        operator = BinaryOperator.GREATER_THAN_OR_EQUALS;
-                        break;
-                    case SAC_OPERATOR_PLUS:
-                        operator = BinaryOperator.ADD;
-                        break;
-                    case SAC_OPERATOR_MINUS:
-                        operator = BinaryOperator.MINUS;
-                        break;
-                    case SAC_OPERATOR_MULTIPLY:
-                        operator = BinaryOperator.MUL;
-                        break;
-                    case SAC_OPERATOR_SLASH:
-                        operator = BinaryOperator.DIV;
-                        break;
-                    case SAC_OPERATOR_MOD:
-                        operator = BinaryOperator.MOD;
-                        break;
-                    default:
-                        throw new ParseException( "Illegal arithmetic expression: " + new SassList( Separator.SPACE, terms ).printState(), current );
+                BinaryOperator operator = getOperator( current );
+                if( operator == null ) {
+                    throw new ParseException( "Illegal arithmetic expression: " + new SassList( Separator.SPACE, terms ).printState(), current );
                 }
                 while( !operators.isEmpty() ) {
                     Object previous = operators.peek();
@@ -137,7 +163,10 @@ public class ArithmeticExpressionEvaluator {
                 }
 
                 if( isShortCircuitEvaluation( operator, operands ) ) {
-                    break inputTermLoop;
+                    // the left operand is the result, the right operand is not evaluated
+                    i = skipRightOperand( terms, i, operator );
+                    afterOperand = true;
+                    continue inputTermLoop;
                 }
                 operators.push( operator );
 
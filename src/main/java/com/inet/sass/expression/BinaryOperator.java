@@ -45,45 +45,41 @@ public enum BinaryOperator {
     EQUALS(LexicalUnitImpl.SCSS_OPERATOR_EQUALS, 3) {
         @Override
         public SassListItem eval(SassListItem leftValue, SassListItem rightValue) {
-            boolean value = leftValue.unquotedString().equals(
-                    rightValue.unquotedString());
-            return createBooleanUnit(value);
+            return createBooleanUnit(isEqual(leftValue, rightValue));
         }
     },
     NOT_EQUAL(LexicalUnitImpl.SCSS_OPERATOR_NOT_EQUAL, 3) {
         @Override
         public SassListItem eval(SassListItem leftValue, SassListItem rightValue) {
-            boolean value = !leftValue.unquotedString().equals(
-                    rightValue.unquotedString());
-            return createBooleanUnit(value);
+            return createBooleanUnit(!isEqual(leftValue, rightValue));
         }
     },
     LESS_THAN(LexicalUnitImpl.SAC_OPERATOR_LT, 3) {
         @Override
         public LexicalUnitImpl evalInternal(LexicalUnitImpl leftValue,
                 LexicalUnitImpl rightValue) {
-            return createBooleanUnit(getDoubleValue(leftValue) < getDoubleValue(rightValue));
+            return createBooleanUnit(getDoubleValue(leftValue) < getDoubleValue(rightValue, leftValue));
         }
     },
     GREATER_THAN(LexicalUnitImpl.SAC_OPERATOR_GT, 3) {
         @Override
         public LexicalUnitImpl evalInternal(LexicalUnitImpl leftValue,
                 LexicalUnitImpl rightValue) {
-            return createBooleanUnit(getDoubleValue(leftValue) > getDoubleValue(rightValue));
+            return createBooleanUnit(getDoubleValue(leftValue) > getDoubleValue(rightValue, leftValue));
         }
     },
     LESS_THAN_OR_EQUALS(LexicalUnitImpl.SAC_OPERATOR_LE, 3) {
         @Override
         public LexicalUnitImpl evalInternal(LexicalUnitImpl leftValue,
                 LexicalUnitImpl rightValue) {
-            return createBooleanUnit(getDoubleValue(leftValue) <= getDoubleValue(rightValue));
+            return createBooleanUnit(getDoubleValue(leftValue) <= getDoubleValue(rightValue, leftValue));
         }
     },
     GREATER_THAN_OR_EQUALS(LexicalUnitImpl.SAC_OPERATOR_GE, 3) {
         @Override
         public LexicalUnitImpl evalInternal(LexicalUnitImpl leftValue,
                 LexicalUnitImpl rightValue) {
-            return createBooleanUnit(getDoubleValue(leftValue) >= getDoubleValue(rightValue));
+            return createBooleanUnit(getDoubleValue(leftValue) >= getDoubleValue(rightValue, leftValue));
         }
     },
     ADD(LexicalUnitImpl.SAC_OPERATOR_PLUS, 4) {
@@ -188,6 +184,33 @@ public enum BinaryOperator {
         return unit.getDoubleValue();
     }
 
+    /**
+     * Get the value of a number converted into the unit of another number.
+     */
+    private static double getDoubleValue(LexicalUnitImpl unit, LexicalUnitImpl target) {
+        getDoubleValue(unit);
+        return unit.convertValue(target);
+    }
+
+    /**
+     * Compare two values for == and !=. Numbers with convertible units are
+     * compared after converting the right value into the unit of the left
+     * value, for example 1in == 96px. All other values are compared by their
+     * text.
+     */
+    private static boolean isEqual(SassListItem leftValue, SassListItem rightValue) {
+        if (leftValue instanceof LexicalUnitImpl && rightValue instanceof LexicalUnitImpl) {
+            LexicalUnitImpl left = (LexicalUnitImpl) leftValue;
+            LexicalUnitImpl right = (LexicalUnitImpl) rightValue;
+            if (left.isNumber() && right.isNumber() && !left.isUnitlessNumber() && !right.isUnitlessNumber()
+                    && !left.getDimensionUnitText().equals(right.getDimensionUnitText()) && left.isComparable(right)) {
+                // print the converted value like the left value, so the same precision is used
+                rightValue = left.copyWithValue(right.convertValue(left));
+            }
+        }
+        return leftValue.unquotedString().equals(rightValue.unquotedString());
+    }
+
     private static LexicalUnitImpl createBooleanUnit(boolean value) {
         return LexicalUnitImpl.createIdent(String.valueOf(value));
     }
@@ -20,6 +20,7 @@ import java.util.ArrayList;
 
 import com.inet.sass.ScssContext;
 import com.inet.sass.parser.ActualArgumentList;
+import com.inet.sass.parser.DiagnosticException;
 import com.inet.sass.parser.FormalArgumentList;
 import com.inet.sass.parser.LexicalUnitImpl;
 import com.inet.sass.parser.ParseException;
@@ -41,11 +42,13 @@ public abstract class AbstractFunctionGenerator implements
 
     private String[] functionNames;
     private FormalArgumentList arguments;
+    private ArgumentBinding binding;
 
     public AbstractFunctionGenerator(FormalArgumentList arguments,
             String... functionNames) {
         this.functionNames = functionNames;
         this.arguments = arguments;
+        this.binding = new ArgumentBinding(arguments);
     }
 
     @Override
@@ -59,15 +62,17 @@ public abstract class AbstractFunctionGenerator implements
 
     @Override
     public SassListItem compute(ScssContext context, LexicalUnitImpl function) {
+        SassListItem[] values = binding.bind(function.getParameterList(), checkForUnsetParameters());
+        if (values != null) {
+            return computeForArguments(context, function, values);
+        }
         ActualArgumentList args = function.getParameterList().expandVariableArguments();
         FormalArgumentList functionArguments;
         try {
             functionArguments = arguments.replaceFormalArguments(args,
                     checkForUnsetParameters());
         } catch (ParseException e) {
-            ParseException ex = new ParseException( "Error in parameters of function " + function.getFunctionName(), function );
-            ex.initCause( e );
-            throw ex;
+            throw new DiagnosticException( "Error in parameters of function " + function.getFunctionName(), function, e );
         }
         return computeForArgumentList(context, function, functionArguments);
     }
@@ -94,6 +99,26 @@ public abstract class AbstractFunctionGenerator implements
      */
     protected abstract SassListItem computeForArgumentList( ScssContext context, LexicalUnitImpl function, FormalArgumentList actualArguments );
 
+    /**
+     * Computes the value of the function with the argument values in the
+     * order of the formal arguments. This is called for the common calls
+     * without variable arguments. The default implementation creates the
+     * argument list for {@link #computeForArgumentList}, frequently used
+     * functions override it to access the values directly.
+     * 
+     * @param context
+     *            current compilation context
+     * @param function
+     *            the function to be evaluated
+     * @param values
+     *            the values of the arguments, the index is the position of
+     *            the formal argument
+     * @return the value of the function
+     */
+    protected SassListItem computeForArguments( ScssContext context, LexicalUnitImpl function, SassListItem[] values ) {
+        return computeForArgumentList( context, function, binding.toFormalArgumentList( values ) );
+    }
+
     /**
      * Returns true if this function should ensure that all parameters have been
      * set. This is the most common use case. The value false can be used for
@@ -41,7 +41,18 @@ public abstract class AbstractSingleParameterFunctionGenerator extends
     @Override
     protected SassListItem computeForArgumentList(ScssContext context,
             LexicalUnitImpl function, FormalArgumentList arglist) {
-        SassListItem param = getParam(arglist, 0);
+        return computeForItem( function, getParam( arglist, 0 ) );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected SassListItem computeForArguments( ScssContext context, LexicalUnitImpl function, SassListItem[] values ) {
+        return computeForItem( function, values[0] );
+    }
+
+    private SassListItem computeForItem( LexicalUnitImpl function, SassListItem param ) {
         if (!(param instanceof LexicalUnitImpl)) {
             throw new ParseException("Function " + function.getFunctionName()
                     + " must have exactly one single value parameter", function);
@@ -21,6 +21,7 @@ import com.inet.sass.parser.FormalArgumentList;
 import com.inet.sass.parser.LexicalUnitImpl;
 import com.inet.sass.parser.ParseException;
 import com.inet.sass.parser.SassListItem;
+import com.inet.sass.util.Color;
 import com.inet.sass.util.ColorUtil;
 
 class AdjustColorFunctionGenerator extends AbstractFunctionGenerator {
@@ -38,18 +39,21 @@ class AdjustColorFunctionGenerator extends AbstractFunctionGenerator {
                 "scale-color");
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isMemoizable() {
+        return true;
+    }
+
     @Override
     protected SassListItem computeForArgumentList(ScssContext context,
             LexicalUnitImpl function, FormalArgumentList actualArguments) {
         String functionName = function.getFunctionName();
         checkParams(function, actualArguments);
-        LexicalUnitImpl color = getColor(function, actualArguments);
-        double alpha = 1;
-        if (ColorUtil.isRgba(color) || ColorUtil.isHsla(color)) {
-            int lastIndex = color.getParameterList().size() - 1;
-            alpha = color.getParameterList().get(lastIndex).getContainedValue()
-                    .getDoubleValue();
-        }
+        Color color = getColor(function, actualArguments);
+        double alpha = color.getAlpha();
         Double[] adjustBy = getAdjustments(function, actualArguments);
         if (adjustBy[6] != null) {
             if ("adjust-color".equals(functionName)) {
@@ -69,37 +73,27 @@ class AdjustColorFunctionGenerator extends AbstractFunctionGenerator {
                     function);
         }
         if (adjustRGB) {
-            int[] rgb = ColorUtil.colorToRgb(color);
+            int[] rgb = color.toRgb();
             if ("adjust-color".equals(functionName)) {
                 adjustRgb(rgb, adjustBy);
             } else {
                 scaleRgb(rgb, adjustBy);
             }
-            return ColorUtil.createRgbaOrHexColor(rgb, alpha,
-                    function.getLineNumber(), function.getColumnNumber());
-        }
-        if (adjustHsl) {
-            double[] hsl = ColorUtil.colorToHsl(color);
+            color = Color.rgb(rgb[0], rgb[1], rgb[2], alpha);
+        } else if (adjustHsl) {
+            double[] hsl = color.toHsl();
             if ("adjust-color".equals(functionName)) {
                 adjustHsl(hsl, adjustBy);
             } else {
                 scaleHsl(hsl, adjustBy);
             }
-            return ColorUtil.createHslaOrHslColor(hsl, alpha,
-                    function.getLineNumber(), function.getColumnNumber());
-        }
-        // Only alpha modified, preserve whether an RGB or HSL color.
-        if (ColorUtil.isHsla(color) || ColorUtil.isHslColor(color)) {
-            return ColorUtil
-                    .createHslaOrHslColor(ColorUtil.colorToHsl(color), alpha,
-                            function.getLineNumber(),
-                            function.getColumnNumber());
+            color = Color.hsl(hsl[0], hsl[1], hsl[2], alpha);
         } else {
-            return ColorUtil
-                    .createRgbaOrHexColor(ColorUtil.colorToRgb(color), alpha,
-                            function.getLineNumber(),
-                            function.getColumnNumber());
+            // Only alpha modified, the cached HSL values are preserved.
+            color = color.withAlpha(alpha);
         }
+        return LexicalUnitImpl.createColor(function.getUri(),
+                function.getLineNumber(), function.getColumnNumber(), color);
     }
 
     private void scaleHsl(double[] hsl, Double[] adjustBy) {
@@ -144,16 +138,10 @@ class AdjustColorFunctionGenerator extends AbstractFunctionGenerator {
         rgb[2] = Math.min(255, Math.max(0, rgb[2]));
     }
 
-    private LexicalUnitImpl getColor(LexicalUnitImpl function,
+    private Color getColor(LexicalUnitImpl function,
             FormalArgumentList actualArguments) {
-        SassListItem resultItem = getParam(actualArguments, "color");
-        if (!(resultItem instanceof LexicalUnitImpl)) {
-            throw new ParseException(
-                    "The color argument must represent a valid color", function);
-        }
-        LexicalUnitImpl result = (LexicalUnitImpl) resultItem;
-        if (!ColorUtil.isColor(result) && !ColorUtil.isRgba(result)
-                && !ColorUtil.isHsla(result)) {
+        Color result = ColorUtil.getColor(getParam(actualArguments, "color"));
+        if (result == null) {
             throw new ParseException(
                     "The color argument must represent a valid color", function);
         }
@@ -18,12 +18,11 @@
 package com.inet.sass.function;
 
 import com.inet.sass.ScssContext;
-import com.inet.sass.parser.ActualArgumentList;
 import com.inet.sass.parser.FormalArgumentList;
 import com.inet.sass.parser.LexicalUnitImpl;
 import com.inet.sass.parser.ParseException;
 import com.inet.sass.parser.SassListItem;
-import com.inet.sass.util.ColorUtil;
+import com.inet.sass.util.Color;
 
 class AlphaFunctionGenerator extends AbstractFunctionGenerator {
 
@@ -41,16 +40,10 @@ class AlphaFunctionGenerator extends AbstractFunctionGenerator {
             return function; // css filter function
         }
 
-        double opacity;
-        if( ColorUtil.isRgba( color ) || ColorUtil.isHsla( color ) ) {
-            ActualArgumentList parameterList = color.getParameterList();
-            SassListItem last = parameterList.get( parameterList.size() - 1 );
-            opacity = ((LexicalUnitImpl)last).getDoubleValue();
-        } else if( ColorUtil.isColor( color ) ) {
-            opacity = 1.0;
-        } else {
+        Color value = color.getColor();
+        if( value == null ) {
             throw new ParseException( "The function " + function.getFunctionName() + " requires a color as its first parameter: " + color, function );
         }
-        return LexicalUnitImpl.createNumber( function.getUri(), function.getLineNumber(), function.getColumnNumber(), opacity );
+        return LexicalUnitImpl.createNumber( function.getUri(), function.getLineNumber(), function.getColumnNumber(), value.getAlpha() );
     }
 }
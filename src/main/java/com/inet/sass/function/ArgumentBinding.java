@@ -0,0 +1,130 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass.function;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import com.inet.sass.parser.ActualArgumentList;
+import com.inet.sass.parser.FormalArgumentList;
+import com.inet.sass.parser.SassListItem;
+import com.inet.sass.parser.Variable;
+
+/**
+ * Binds the actual arguments of a call to the formal parameters of a built-in function. The positions of the
+ * parameter names are resolved once per function. A call is bound into an array indexed by the parameter position
+ * without creating intermediate lists.
+ * <p>
+ * Only the common calls are handled: no variable arguments on either side and no errors. For all other calls
+ * {@link #bind(ActualArgumentList, boolean)} returns null and the caller must use
+ * {@link FormalArgumentList#replaceFormalArguments(ActualArgumentList, boolean)}, which also creates the error
+ * messages.
+ */
+class ArgumentBinding {
+
+    private final String[]                 names;
+
+    private final SassListItem[]           defaults;
+
+    private final HashMap<String, Integer> positions = new HashMap<>();
+
+    private final boolean                  variableArguments;
+
+    ArgumentBinding( FormalArgumentList formalArguments ) {
+        int size = formalArguments.size();
+        names = new String[size];
+        defaults = new SassListItem[size];
+        for( int i = 0; i < size; i++ ) {
+            Variable param = formalArguments.get( i );
+            names[i] = param.getName();
+            defaults[i] = param.getExpr();
+            positions.put( names[i], i );
+        }
+        variableArguments = formalArguments.hasVariableArguments();
+    }
+
+    /**
+     * Get the position of a parameter.
+     *
+     * @param name the parameter name
+     * @return the position or -1 if there is no such parameter
+     */
+    int indexOf( String name ) {
+        Integer index = positions.get( name );
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Bind the actual arguments of a call.
+     *
+     * @param actualArguments the arguments of the call
+     * @param checkForUnsetParameters true, if every parameter must have a value
+     * @return the values in the order of the formal parameters or null if the call must be bound with the general
+     *         algorithm
+     */
+    SassListItem[] bind( ActualArgumentList actualArguments, boolean checkForUnsetParameters ) {
+        if( variableArguments || actualArguments.hasVariableArguments() ) {
+            return null;
+        }
+        SassListItem[] values = new SassListItem[names.length];
+        List<Variable> named = actualArguments.getNamedVariables();
+        for( int i = 0; i < named.size(); i++ ) {
+            Variable arg = named.get( i );
+            int index = indexOf( arg.getName() );
+            if( index < 0 || values[index] != null ) {
+                // unknown or duplicate name
+                return null;
+            }
+            values[index] = arg.getExpr();
+        }
+        int formalIndex = 0;
+        for( int i = 0; i < actualArguments.size(); i++ ) {
+            while( formalIndex < values.length && values[formalIndex] != null ) {
+                formalIndex++;
+            }
+            if( formalIndex == values.length ) {
+                // too many arguments
+                return null;
+            }
+            values[formalIndex++] = actualArguments.get( i );
+        }
+        for( int i = 0; i < values.length; i++ ) {
+            if( values[i] == null ) {
+                if( defaults[i] == null && checkForUnsetParameters ) {
+                    return null;
+                }
+                values[i] = defaults[i];
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Create the argument list for generators which work with names.
+     *
+     * @param values the bound values
+     * @return the list
+     */
+    FormalArgumentList toFormalArgumentList( SassListItem[] values ) {
+        ArrayList<Variable> list = new ArrayList<>( values.length );
+        for( int i = 0; i < values.length; i++ ) {
+            list.add( new Variable( names[i], values[i] ) );
+        }
+        return new FormalArgumentList( list, false );
+    }
+}
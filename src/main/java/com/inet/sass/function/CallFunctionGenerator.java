@@ -33,6 +33,14 @@ class CallFunctionGenerator extends AbstractFunctionGenerator {
         super( createArgumentList( new String[] { "function", "args" }, true ), "call" );
     }
 
+    /**
+     * The called function is only known at runtime.
+     */
+    @Override
+    public boolean isPure() {
+        return false;
+    }
+
     /**
      * {@inheritDoc}
      */
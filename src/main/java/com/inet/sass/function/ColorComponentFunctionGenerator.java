@@ -21,7 +21,7 @@ import com.inet.sass.parser.FormalArgumentList;
 import com.inet.sass.parser.LexicalUnitImpl;
 import com.inet.sass.parser.ParseException;
 import com.inet.sass.parser.SassListItem;
-import com.inet.sass.util.ColorUtil;
+import com.inet.sass.util.Color;
 
 class ColorComponentFunctionGenerator extends AbstractFunctionGenerator {
 
@@ -54,32 +54,33 @@ class ColorComponentFunctionGenerator extends AbstractFunctionGenerator {
             componentNumber = 2;
             hslComponent = true;
         }
-        checkParameters(function, actualArguments);
-        LexicalUnitImpl color = getParam(actualArguments, "color")
-                .getContainedValue();
+        LexicalUnitImpl color = checkParameters(function, actualArguments);
+        Color value = color.getColor();
         if (hslComponent) {
-            double[] components = ColorUtil.colorToHsl(color);
-            if (componentNumber == 0) {
-                return LexicalUnitImpl.createDEG( color.getUri(), color.getLineNumber(), color.getColumnNumber(), components[componentNumber] );
-            } else {
-                return LexicalUnitImpl.createPercentage( color.getUri(), color.getLineNumber(), color.getColumnNumber(), components[componentNumber] );
+            switch (componentNumber) {
+                case 0:
+                    return LexicalUnitImpl.createDEG( color.getUri(), color.getLineNumber(), color.getColumnNumber(), value.getHue() );
+                case 1:
+                    return LexicalUnitImpl.createPercentage( color.getUri(), color.getLineNumber(), color.getColumnNumber(), value.getSaturation() );
+                default:
+                    return LexicalUnitImpl.createPercentage( color.getUri(), color.getLineNumber(), color.getColumnNumber(), value.getLightness() );
             }
         } else {
-            int[] components = ColorUtil.colorToRgb(color);
-            return LexicalUnitImpl.createInteger( color.getUri(), color.getLineNumber(), color.getColumnNumber(), components[componentNumber] );
+            int component = value.getRgb() >> (16 - 8 * componentNumber) & 0xFF;
+            return LexicalUnitImpl.createInteger( color.getUri(), color.getLineNumber(), color.getColumnNumber(), component );
         }
     }
 
-    private void checkParameters(LexicalUnitImpl function,
+    private LexicalUnitImpl checkParameters(LexicalUnitImpl function,
             FormalArgumentList args) {
         SassListItem arg = getParam(args, "color");
         if (!(arg instanceof LexicalUnitImpl)) {
             throw new ParseException( "Function " + function.getFunctionName() + " must have exactly one single value parameter: " + arg, function );
         }
         LexicalUnitImpl firstParam = (LexicalUnitImpl) arg;
-        if (!ColorUtil.isColor(firstParam) && !ColorUtil.isRgba(firstParam)
-                && !ColorUtil.isHsla(firstParam)) {
+        if (firstParam.getColor() == null) {
             throw new ParseException( "The parameter of the function " + function.getFunctionName() + " must be a valid color: " + firstParam, function );
         }
+        return firstParam;
     }
 }
\ No newline at end of file
@@ -31,13 +31,7 @@ class ComparableFunctionGenerator extends AbstractFunctionGenerator {
     protected SassListItem computeForArgumentList( ScssContext context, LexicalUnitImpl function, FormalArgumentList actualArguments ) {
         LexicalUnitImpl x = getParam( actualArguments, "x" ).getContainedValue();
         LexicalUnitImpl y = getParam( actualArguments, "y" ).getContainedValue();
-        String value;
-        try {
-            x.checkAndGetUnit(y);
-            value = "true";
-        } catch( Exception e ) {
-            value = "false";
-        }
+        String value = x.isComparable( y ) ? "true" : "false";
         return LexicalUnitImpl.createIdent( x.getUri(), x.getLineNumber(), x.getColumnNumber(), value );
     }
 }
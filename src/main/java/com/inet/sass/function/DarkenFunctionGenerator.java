@@ -34,13 +34,30 @@ class DarkenFunctionGenerator extends AbstractFunctionGenerator {
         super(createArgumentList(argumentNames, false), "darken");
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isMemoizable() {
+        return true;
+    }
+
     @Override
     protected SassListItem computeForArgumentList(ScssContext context,
             LexicalUnitImpl function, FormalArgumentList actualArguments) {
-        LexicalUnitImpl color = getParam(actualArguments, "color")
-                .getContainedValue();
-        double amount = getParam( actualArguments, "amount" ).getContainedValue().getDoubleValue();
-        return ColorUtil.darken(color, amount);
+        return darken( getParam( actualArguments, "color" ), getParam( actualArguments, "amount" ) );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected SassListItem computeForArguments( ScssContext context, LexicalUnitImpl function, SassListItem[] values ) {
+        return darken( values[0], values[1] );
+    }
+
+    private static SassListItem darken( SassListItem color, SassListItem amount ) {
+        return ColorUtil.darken( color.getContainedValue(), amount.getContainedValue().getDoubleValue() );
     }
 
 }
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass.function;
+
+import com.inet.sass.ScssContext;
+import com.inet.sass.parser.FormalArgumentList;
+import com.inet.sass.parser.LexicalUnitImpl;
+import com.inet.sass.parser.ParseException;
+import com.inet.sass.parser.SassListItem;
+
+/**
+ * The function math.div() of the sass:math module. It divides the numbers like
+ * the slash operator without the ambiguity of the slash separator. Incompatible
+ * units produce a compound unit like px/s.
+ */
+class DivFunctionGenerator extends AbstractFunctionGenerator {
+
+    private static String[] argumentNames = { "number1", "number2" };
+
+    DivFunctionGenerator() {
+        super( createArgumentList( argumentNames, false ), "math.div" );
+    }
+
+    @Override
+    protected SassListItem computeForArguments( ScssContext context, LexicalUnitImpl function, SassListItem[] values ) {
+        return divide( function, values[0], values[1] );
+    }
+
+    @Override
+    protected SassListItem computeForArgumentList( ScssContext context, LexicalUnitImpl function, FormalArgumentList actualArguments ) {
+        return divide( function, getParam( actualArguments, 0 ), getParam( actualArguments, 1 ) );
+    }
+
+    private static SassListItem divide( LexicalUnitImpl function, SassListItem number1, SassListItem number2 ) {
+        return toNumber( function, number1 ).quotient( toNumber( function, number2 ) );
+    }
+
+    /**
+     * Get the number value of a parameter of the math functions.
+     * 
+     * @param function the called function
+     * @param param the parameter
+     * @return the number
+     */
+    static LexicalUnitImpl toNumber( LexicalUnitImpl function, SassListItem param ) {
+        if( !(param instanceof LexicalUnitImpl) || !((LexicalUnitImpl)param).isNumber() ) {
+            throw new ParseException( "The parameters of " + function.getFunctionName() + "() must be numbers", function );
+        }
+        return (LexicalUnitImpl)param;
+    }
+
+    /**
+     * Get the value of a parameter of the math functions which must be a number without unit.
+     * 
+     * @param function the called function
+     * @param param the parameter
+     * @param name the name of the parameter
+     * @return the value
+     */
+    static double toUnitlessValue( LexicalUnitImpl function, SassListItem param, String name ) {
+        LexicalUnitImpl number = toNumber( function, param );
+        if( !number.isUnitlessNumber() ) {
+            throw new ParseException( "$" + name + ": Expected " + number.printState() + " to have no units", function );
+        }
+        return number.getDoubleValue();
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass.function;
+
+import com.inet.sass.ScssContext;
+import com.inet.sass.parser.FormalArgumentList;
+import com.inet.sass.parser.LexicalUnitImpl;
+import com.inet.sass.parser.SassListItem;
+
+/**
+ * Native replacement of the function divide() of Bootstrap 5, which divides
+ * with a @while loop of subtractions per digit. The loop is repeated here with
+ * the same double arithmetic so that the result is identical.
+ */
+class DivideIntrinsic extends AbstractFunctionGenerator {
+
+    private static final String[] argumentNames = { "dividend", "divisor", "precision" };
+
+    DivideIntrinsic() {
+        super( createArgumentList( argumentNames, new SassListItem[] { null, null, LexicalUnitImpl.createInteger( null, 0, 0, 10 ) } ), "divide" );
+    }
+
+    @Override
+    protected SassListItem computeForArguments( ScssContext context, LexicalUnitImpl function, SassListItem[] values ) {
+        if( !isNumber( values[0] ) || !isNumber( values[1] ) || !isNumber( values[2] ) ) {
+            return null;
+        }
+        LexicalUnitImpl dividend = (LexicalUnitImpl)values[0];
+        LexicalUnitImpl divisor = (LexicalUnitImpl)values[1];
+        String dividendUnit = dividend.getDimensionUnitText();
+        String divisorUnit = divisor.getDimensionUnitText();
+        if( !dividendUnit.isEmpty() && !divisorUnit.isEmpty() && !dividendUnit.equals( divisorUnit ) ) {
+            // the SCSS code converts the units in every step
+            return null;
+        }
+        LexicalUnitImpl absDividend = dividend.copyWithValue( Math.abs( dividend.getDoubleValue() ) );
+        if( "0".equals( absDividend.unquotedString() ) ) {
+            return LexicalUnitImpl.createInteger( function.getUri(), function.getLineNumber(), function.getColumnNumber(), 0 );
+        }
+        if( "0".equals( divisor.copyWithValue( Math.abs( divisor.getDoubleValue() ) ).unquotedString() ) ) {
+            // let the SCSS code report the error
+            return null;
+        }
+        double result = divide( dividend.getDoubleValue(), divisor.getDoubleValue(), ((LexicalUnitImpl)values[2]).getDoubleValue() );
+        // the raw value keeps a negative zero like the SCSS code
+        LexicalUnitImpl value = LexicalUnitImpl.createInteger( function.getUri(), function.getLineNumber(), function.getColumnNumber(), 0 ).copyWithValue( result );
+        if( !dividendUnit.equals( divisorUnit ) ) {
+            switch( dividendUnit ) {
+                case "px":
+                case "rem":
+                case "em":
+                case "%":
+                    return value.multiply( absDividend.copyWithValue( 1 ) );
+            }
+        }
+        return value;
+    }
+
+    @Override
+    protected SassListItem computeForArgumentList( ScssContext context, LexicalUnitImpl function, FormalArgumentList actualArguments ) {
+        return computeForArguments( context, function, new SassListItem[] { getParam( actualArguments, 0 ), getParam( actualArguments, 1 ), getParam( actualArguments, 2 ) } );
+    }
+
+    /**
+     * The digit loop of the SCSS function for numbers without a zero. Every
+     * step uses the same operations in the same order as the SCSS code.
+     * 
+     * @param dividend
+     *            the dividend
+     * @param divisor
+     *            the divisor
+     * @param precision
+     *            the count of decimal places
+     * @return the quotient
+     */
+    static double divide( double dividend, double divisor, double precision ) {
+        double sign = dividend > 0 && divisor > 0 || dividend < 0 && divisor < 0 ? 1 : -1;
+        dividend = Math.abs( dividend );
+        divisor = Math.abs( divisor );
+        double remainder = dividend;
+        double result = 0;
+        double factor = 10;
+        while( remainder > 0 && precision >= 0 ) {
+            double quotient = 0;
+            while( remainder >= divisor ) {
+                remainder = remainder - divisor;
+                quotient = quotient + 1;
+            }
+            result = result * 10 + quotient;
+            factor = factor * .1;
+            remainder = remainder * 10;
+            precision = precision - 1;
+            if( precision < 0 && remainder >= divisor * 5 ) {
+                result = result + 1;
+            }
+        }
+        return result * factor * sign;
+    }
+
+    private static boolean isNumber( SassListItem item ) {
+        return item instanceof LexicalUnitImpl && ((LexicalUnitImpl)item).isNumber();
+    }
+}
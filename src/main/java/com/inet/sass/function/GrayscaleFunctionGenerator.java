@@ -18,7 +18,7 @@ package com.inet.sass.function;
 
 import com.inet.sass.parser.LexicalUnitImpl;
 import com.inet.sass.parser.ParseException;
-import com.inet.sass.util.ColorUtil;
+import com.inet.sass.util.Color;
 
 class GrayscaleFunctionGenerator extends
         AbstractSingleParameterFunctionGenerator {
@@ -29,13 +29,20 @@ class GrayscaleFunctionGenerator extends
         super(createArgumentList(argumentNames, false), "grayscale");
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isMemoizable() {
+        return true;
+    }
+
     @Override
     protected LexicalUnitImpl computeForParam( LexicalUnitImpl function, LexicalUnitImpl firstParam ) {
-        if( ColorUtil.isColor( firstParam ) || ColorUtil.isRgba( firstParam ) || ColorUtil.isHsla( firstParam ) ) {
-            double[] hsl = ColorUtil.colorToHsl( firstParam );
-            hsl[1] = 0;
-            double alpha = ColorUtil.getAlpha( firstParam );
-            return ColorUtil.createHslaOrHslColor( hsl, alpha, firstParam.getLineNumber(), firstParam.getColumnNumber() );
+        Color color = firstParam.getColor();
+        if( color != null ) {
+            Color gray = Color.hsl( color.getHue(), 0, color.getLightness(), color.getAlpha() );
+            return LexicalUnitImpl.createColor( null, firstParam.getLineNumber(), firstParam.getColumnNumber(), gray );
         }
         if( firstParam.isNumber() ) {
             return function; // css filter function
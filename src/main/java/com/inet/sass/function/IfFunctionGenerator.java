@@ -31,10 +31,12 @@ class IfFunctionGenerator implements SCSSFunctionGenerator {
 
     private String[] functionNames;
     private FormalArgumentList arguments;
+    private ArgumentBinding binding;
 
     IfFunctionGenerator() {
         arguments = AbstractFunctionGenerator.createArgumentList(argumentNames,
                 false);
+        binding = new ArgumentBinding(arguments);
         functionNames = new String[] { "if" };
     }
 
@@ -46,6 +48,10 @@ class IfFunctionGenerator implements SCSSFunctionGenerator {
     @Override
     public SassListItem compute(ScssContext context, LexicalUnitImpl function) {
         ActualArgumentList args = function.getParameterList();
+        SassListItem[] values = binding.bind(args, true);
+        if (values != null) {
+            return compute(context, values[0], values[1], values[2]);
+        }
         FormalArgumentList functionArguments;
         try {
             functionArguments = arguments.replaceFormalArguments(args, true);
@@ -60,15 +66,20 @@ class IfFunctionGenerator implements SCSSFunctionGenerator {
 
     protected SassListItem computeForArgumentList(ScssContext context,
             LexicalUnitImpl function, FormalArgumentList actualArguments) {
-        SassListItem firstParam = AbstractFunctionGenerator.getParam(
-                actualArguments, "condition").evaluateFunctionsAndExpressions(
+        return compute(context,
+                AbstractFunctionGenerator.getParam(actualArguments, "condition"),
+                AbstractFunctionGenerator.getParam(actualArguments, "if-true"),
+                AbstractFunctionGenerator.getParam(actualArguments, "if-false"));
+    }
+
+    private static SassListItem compute(ScssContext context,
+            SassListItem condition, SassListItem ifTrue, SassListItem ifFalse) {
+        SassListItem firstParam = condition.evaluateFunctionsAndExpressions(
                 context, true);
         if (BinaryOperator.isTrue(firstParam)) {
-            return AbstractFunctionGenerator.getParam(actualArguments,
-                    "if-true").evaluateFunctionsAndExpressions(context, true);
+            return ifTrue.evaluateFunctionsAndExpressions(context, true);
         } else {
-            return AbstractFunctionGenerator.getParam(actualArguments,
-                    "if-false").evaluateFunctionsAndExpressions(context, true);
+            return ifFalse.evaluateFunctionsAndExpressions(context, true);
         }
     }
 }
\ No newline at end of file
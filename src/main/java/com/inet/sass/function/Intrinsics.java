@@ -0,0 +1,188 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass.function;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.inet.sass.parser.FormalArgumentList;
+import com.inet.sass.parser.SassListItem;
+import com.inet.sass.parser.Variable;
+import com.inet.sass.tree.Node;
+import com.inet.sass.tree.ReturnNode;
+import com.inet.sass.tree.VariableNode;
+import com.inet.sass.tree.controldirective.EachDefNode;
+import com.inet.sass.tree.controldirective.ElseNode;
+import com.inet.sass.tree.controldirective.ForNode;
+import com.inet.sass.tree.controldirective.IfElseDefNode;
+import com.inet.sass.tree.controldirective.IfNode;
+import com.inet.sass.tree.controldirective.WhileNode;
+
+/**
+ * Registry of native replacements for well known user defined functions like
+ * the polyfills of Bootstrap. If enabled with
+ * {@link com.inet.sass.ScssStylesheet#setIntrinsics(boolean)}, a @function
+ * with the name, the argument list and the body of an intrinsic is executed
+ * natively. An intrinsic must produce exactly the same result as the SCSS
+ * code, it can return null to fall back to the interpretation of the SCSS
+ * code.
+ */
+public final class Intrinsics {
+
+    private static final Map<String, Entry> INTRINSICS = new ConcurrentHashMap<>();
+
+    static {
+        // divide() of scss/vendor/_rfs.scss in Bootstrap 5.2.3
+        register( new DivideIntrinsic(), "338d8bf2bcc3e5eeead8f25e46e98e7e63d482ca198ed47ac0fe68ab58ea59c0" );
+        // luminance() of scss/_functions.scss in Bootstrap 5.2.3
+        register( new LuminanceIntrinsic(), "bebff33244e193136fdba79805e033d3a89412fe28880778b3b89f48c7b45a71" );
+    }
+
+    private Intrinsics() {
+        // static registry
+    }
+
+    /**
+     * Register an intrinsic. The names of the generator are the function
+     * names, its argument list is the signature that a function definition
+     * must have, including the default values.
+     * 
+     * @param intrinsic
+     *            the native implementation
+     * @param bodies
+     *            the fingerprints of the function bodies which the intrinsic
+     *            replaces, see {@link #fingerprint(List)}
+     */
+    public static void register( AbstractFunctionGenerator intrinsic, String... bodies ) {
+        Entry entry = new Entry( intrinsic, bodies );
+        for( String name : intrinsic.getFunctionNames() ) {
+            INTRINSICS.put( name, entry );
+        }
+    }
+
+    /**
+     * Find the intrinsic for a function definition.
+     * 
+     * @param name
+     *            the name of the function
+     * @param arguments
+     *            the formal arguments of the function definition
+     * @param body
+     *            the statements of the function definition
+     * @return the intrinsic or null
+     */
+    public static SCSSFunctionGenerator find( String name, FormalArgumentList arguments, List<Node> body ) {
+        Entry entry = INTRINSICS.get( name );
+        if( entry == null ) {
+            return null;
+        }
+        AbstractFunctionGenerator intrinsic = entry.intrinsic;
+        FormalArgumentList signature = intrinsic.getArguments();
+        if( signature.size() != arguments.size() || signature.hasVariableArguments() != arguments.hasVariableArguments() ) {
+            return null;
+        }
+        for( int i = 0; i < signature.size(); i++ ) {
+            Variable expected = signature.get( i );
+            Variable actual = arguments.get( i );
+            if( !expected.getName().equals( actual.getName() ) || !Objects.equals( printState( expected.getExpr() ), printState( actual.getExpr() ) ) ) {
+                return null;
+            }
+        }
+        // a function with the same signature but other code must be interpreted
+        return Arrays.asList( entry.bodies ).contains( fingerprint( body ) ) ? intrinsic : null;
+    }
+
+    /**
+     * Create the fingerprint of a function body. It is the SHA-256 hash of a
+     * normalized print of the statements, so it does not depend on white
+     * space and comments.
+     * 
+     * @param body
+     *            the statements of a function definition
+     * @return the hash as hex string
+     */
+    public static String fingerprint( List<Node> body ) {
+        StringBuilder builder = new StringBuilder();
+        appendNodes( builder, body );
+        try {
+            byte[] hash = MessageDigest.getInstance( "SHA-256" ).digest( builder.toString().getBytes( StandardCharsets.UTF_8 ) );
+            StringBuilder hex = new StringBuilder();
+            for( byte b : hash ) {
+                hex.append( Character.forDigit( b >> 4 & 0xF, 16 ) ).append( Character.forDigit( b & 0xF, 16 ) );
+            }
+            return hex.toString();
+        } catch( NoSuchAlgorithmException ex ) {
+            throw new IllegalStateException( ex );
+        }
+    }
+
+    private static void appendNodes( StringBuilder builder, List<Node> nodes ) {
+        for( Node node : nodes ) {
+            builder.append( node.getClass().getSimpleName() ).append( '(' );
+            if( node instanceof VariableNode ) {
+                VariableNode variable = (VariableNode)node;
+                builder.append( variable.getName() ).append( ':' ).append( printState( variable.getExpr() ) ).append( variable.isGuarded() ? "!default" : "" );
+            } else if( node instanceof ReturnNode ) {
+                builder.append( printState( ((ReturnNode)node).getExpr() ) );
+            } else if( node instanceof IfElseDefNode ) {
+                // only the branches
+            } else if( node instanceof IfNode ) {
+                builder.append( printState( ((IfNode)node).getExpression() ) );
+            } else if( node instanceof ElseNode ) {
+                builder.append( printState( ((ElseNode)node).getExpression() ) );
+            } else if( node instanceof WhileNode ) {
+                builder.append( printState( ((WhileNode)node).getCondition() ) );
+            } else if( node instanceof EachDefNode ) {
+                EachDefNode each = (EachDefNode)node;
+                builder.append( each.getVariableNames() ).append( " in " ).append( printState( each.getVariables() ) );
+            } else if( node instanceof ForNode ) {
+                ForNode forNode = (ForNode)node;
+                builder.append( forNode.getVariableName() ).append( ':' ).append( printState( forNode.getFrom() ) ).append( forNode.isExclusive() ? " to " : " through " ).append( printState( forNode.getTo() ) );
+            } else {
+                builder.append( node.toString() );
+            }
+            builder.append( ")[" );
+            appendNodes( builder, node.getChildren() );
+            builder.append( ']' );
+        }
+    }
+
+    private static String printState( SassListItem item ) {
+        return item == null ? null : item.printState();
+    }
+
+    /**
+     * A registered intrinsic with the bodies it replaces.
+     */
+    private static class Entry {
+
+        private final AbstractFunctionGenerator intrinsic;
+
+        private final String[]                  bodies;
+
+        Entry( AbstractFunctionGenerator intrinsic, String[] bodies ) {
+            this.intrinsic = intrinsic;
+            this.bodies = bodies;
+        }
+    }
+}
@@ -21,7 +21,7 @@ import com.inet.sass.parser.FormalArgumentList;
 import com.inet.sass.parser.LexicalUnitImpl;
 import com.inet.sass.parser.ParseException;
 import com.inet.sass.parser.SassListItem;
-import com.inet.sass.util.ColorUtil;
+import com.inet.sass.util.Color;
 
 class InvertFunctionGenerator extends AbstractFunctionGenerator {
 
@@ -29,6 +29,14 @@ class InvertFunctionGenerator extends AbstractFunctionGenerator {
         super( createArgumentList( new String[] { "color", "weight" }, false ), "invert" );
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isMemoizable() {
+        return true;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -57,16 +65,18 @@ class InvertFunctionGenerator extends AbstractFunctionGenerator {
             }
         }
 
-        int[] rgb = ColorUtil.colorToRgb( color );
-        if( rgb == null ) {
+        Color value = color.getColor();
+        if( value == null ) {
             throw new ParseException( "The function 'invert' requires a color as its first parameter: " + color, function );
         }
-        int[] newRgb = new int[3];
-        for( int i = 0; i < 3; i++ ) {
-            int val = rgb[i];
-            newRgb[i] = (int)Math.round( val * (1-weight) + (255 - val) * weight );
-        }
-        return ColorUtil.createHexColor( function.getUri(), function.getLineNumber(), function.getColumnNumber(), newRgb );
+        int red = invert( value.getRed(), weight );
+        int green = invert( value.getGreen(), weight );
+        int blue = invert( value.getBlue(), weight );
+        return LexicalUnitImpl.createColor( function.getUri(), function.getLineNumber(), function.getColumnNumber(), Color.rgb( red, green, blue, 1 ) );
+    }
+
+    private static int invert( int channel, double weight ) {
+        return (int)Math.round( channel * (1 - weight) + (255 - channel) * weight );
     }
 
     /**
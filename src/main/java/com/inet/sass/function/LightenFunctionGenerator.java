@@ -34,14 +34,30 @@ class LightenFunctionGenerator extends AbstractFunctionGenerator {
         super(createArgumentList(argumentNames, false), "lighten");
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isMemoizable() {
+        return true;
+    }
+
     @Override
     protected SassListItem computeForArgumentList(ScssContext context,
             LexicalUnitImpl function, FormalArgumentList actualArguments) {
-        LexicalUnitImpl color = getParam(actualArguments, "color")
-                .getContainedValue();
-        double amount = getParam(actualArguments, "amount").getContainedValue()
-                .getDoubleValue();
-        return ColorUtil.lighten(color, amount);
+        return lighten( getParam( actualArguments, "color" ), getParam( actualArguments, "amount" ) );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected SassListItem computeForArguments( ScssContext context, LexicalUnitImpl function, SassListItem[] values ) {
+        return lighten( values[0], values[1] );
+    }
+
+    private static SassListItem lighten( SassListItem color, SassListItem amount ) {
+        return ColorUtil.lighten( color.getContainedValue(), amount.getContainedValue().getDoubleValue() );
     }
 
 }
@@ -16,7 +16,7 @@
  */
 package com.inet.sass.function;
 
-import java.util.ArrayList;
+import java.util.Collections;
 
 import com.inet.sass.ScssContext;
 import com.inet.sass.parser.FormalArgumentList;
@@ -41,17 +41,12 @@ class ListAppendFunctionGenerator extends ListFunctionGenerator {
         SassListItem appendItem = getParam(actualArguments, "val");
 
         SassList list = asList(listAsItem);
-        ArrayList<SassListItem> newList = new ArrayList<SassListItem>();
-        for (SassListItem item : list) {
-            newList.add(item);
-        }
-        newList.add(appendItem);
 
         SassList.Separator sep = getSeparator(getParam(actualArguments,
                 "separator"));
         if (sep == null) { // determine the separator in "auto" mode
             sep = getAutoSeparator(list);
         }
-        return new SassList(sep, newList);
+        return list.append(sep, Collections.singletonList(appendItem));
     }
 }
\ No newline at end of file
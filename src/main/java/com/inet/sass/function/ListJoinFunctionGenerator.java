@@ -16,8 +16,6 @@
  */
 package com.inet.sass.function;
 
-import java.util.ArrayList;
-
 import com.inet.sass.ScssContext;
 import com.inet.sass.parser.FormalArgumentList;
 import com.inet.sass.parser.LexicalUnitImpl;
@@ -42,20 +40,13 @@ class ListJoinFunctionGenerator extends ListFunctionGenerator {
 
         SassList firstList = asList(firstListAsItem);
         SassList secondList = asList(secondListAsItem);
-        ArrayList<SassListItem> newList = new ArrayList<SassListItem>();
-        for (SassListItem firstItem : firstList) {
-            newList.add(firstItem);
-        }
-        for (SassListItem secondItem : secondList) {
-            newList.add(secondItem);
-        }
 
         SassList.Separator sep = getSeparator(getParam(actualArguments,
                 "separator"));
         if (sep == null) { // determine the separator in "auto" mode
             sep = getAutoSeparator(firstList, secondList);
         }
-        return new SassList(sep, newList);
+        return firstList.join(sep, secondList);
     }
 
 }
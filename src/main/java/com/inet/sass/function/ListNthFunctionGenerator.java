@@ -34,11 +34,21 @@ class ListNthFunctionGenerator extends AbstractFunctionGenerator {
     @Override
     protected SassListItem computeForArgumentList(ScssContext context,
             LexicalUnitImpl function, FormalArgumentList actualArguments) {
-        SassListItem listAsItem = getParam(actualArguments, "list");
+        return nth(getParam(actualArguments, "list"),
+                getParam(actualArguments, "n"));
+    }
+
+    @Override
+    protected SassListItem computeForArguments(ScssContext context,
+            LexicalUnitImpl function, SassListItem[] values) {
+        return nth(values[0], values[1]);
+    }
+
+    private static SassListItem nth(SassListItem listAsItem,
+            SassListItem nAsItem) {
         if (!(listAsItem instanceof SassList)) {
             listAsItem = new SassList(listAsItem);
         }
-        SassListItem nAsItem = getParam(actualArguments, "n");
         if( nAsItem.getItemType() != LexicalUnitImpl.SAC_INTEGER ) {
             throw new ParseException(
                     "The second parameter of nth() must be an integer. Actual value: "
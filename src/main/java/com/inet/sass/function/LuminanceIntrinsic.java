@@ -0,0 +1,91 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass.function;
+
+import com.inet.sass.ScssContext;
+import com.inet.sass.parser.FormalArgumentList;
+import com.inet.sass.parser.LexicalUnitImpl;
+import com.inet.sass.parser.SassList;
+import com.inet.sass.parser.SassListItem;
+import com.inet.sass.parser.Variable;
+import com.inet.sass.tree.FunctionDefNode;
+import com.inet.sass.util.Color;
+
+/**
+ * Native replacement of the function luminance() of Bootstrap 5. It uses the
+ * gamma table $_luminance-list of the stylesheet and the divide() function,
+ * it is only applied if divide() is also replaced by its intrinsic.
+ */
+class LuminanceIntrinsic extends AbstractFunctionGenerator {
+
+    private static final String[] argumentNames = { "color" };
+
+    LuminanceIntrinsic() {
+        super( createArgumentList( argumentNames, false ), "luminance" );
+    }
+
+    @Override
+    protected SassListItem computeForArguments( ScssContext context, LexicalUnitImpl function, SassListItem[] values ) {
+        if( !(values[0] instanceof LexicalUnitImpl) ) {
+            return null;
+        }
+        Color color = ((LexicalUnitImpl)values[0]).getColor();
+        FunctionDefNode divide = context.getFunctionDefinition( "divide" );
+        Variable table = context.getVariable( "_luminance-list" );
+        if( color == null || divide == null || !(divide.getIntrinsic() instanceof DivideIntrinsic) || table == null || !(table.getExpr() instanceof SassList) ) {
+            return null;
+        }
+        SassList list = (SassList)table.getExpr();
+        int rgb = color.getRgb();
+        double r = channel( rgb >> 16 & 0xFF, list );
+        double g = channel( rgb >> 8 & 0xFF, list );
+        double b = channel( rgb & 0xFF, list );
+        if( Double.isNaN( r ) || Double.isNaN( g ) || Double.isNaN( b ) ) {
+            return null;
+        }
+        return LexicalUnitImpl.createNumber( function.getUri(), function.getLineNumber(), function.getColumnNumber(), .2126 * r + .7152 * g + .0722 * b );
+    }
+
+    @Override
+    protected SassListItem computeForArgumentList( ScssContext context, LexicalUnitImpl function, FormalArgumentList actualArguments ) {
+        return computeForArguments( context, function, new SassListItem[] { getParam( actualArguments, 0 ) } );
+    }
+
+    /**
+     * The linear value of a color channel.
+     * 
+     * @param value
+     *            the channel value 0 - 255
+     * @param list
+     *            the gamma table
+     * @return the value or NaN if the table has not the expected content
+     */
+    private static double channel( int value, SassList list ) {
+        if( value == 0 ) {
+            // divide() returns 0 for a zero dividend
+            return 0;
+        }
+        double ratio = DivideIntrinsic.divide( value, 255, 10 );
+        if( ratio < .03928 ) {
+            return DivideIntrinsic.divide( ratio, 12.92, 10 );
+        }
+        if( list.size() <= value || !(list.get( value ) instanceof LexicalUnitImpl) || !((LexicalUnitImpl)list.get( value )).isNumber() ) {
+            return Double.NaN;
+        }
+        return ((LexicalUnitImpl)list.get( value )).getDoubleValue();
+    }
+}
@@ -19,9 +19,8 @@ package com.inet.sass.function;
 import com.inet.sass.parser.FormalArgumentList;
 import com.inet.sass.parser.LexicalUnitImpl;
 import com.inet.sass.parser.ParseException;
-import com.inet.sass.parser.SassList;
 import com.inet.sass.parser.SassListItem;
-import com.inet.sass.parser.SassList.Separator;
+import com.inet.sass.parser.SassMap;
 
 /**
  * Base class for Map functions
@@ -32,20 +31,15 @@ public abstract class MapFunctionGenerator extends AbstractFunctionGenerator {
         super( formalArguments, functionNames );
     }
 
-    static SassList getMapParam( String paramName, LexicalUnitImpl function, FormalArgumentList actualArguments ) {
-        SassListItem map = getParam( actualArguments, paramName );
-        if( map instanceof SassList ) {
-            SassList list = (SassList)map;
-            if( list.size() > 0 ) {
-                // we need only to check the first entry, the other has the parser already checked
-                SassListItem first = list.get( 0 );
-                if( first.getClass() == SassList.class && ((SassList)first).getSeparator() == Separator.COLON ) {
-                    return list;
-                }
-            } else {
-                return list;
-            }
+    static SassMap getMapParam( String paramName, LexicalUnitImpl function, FormalArgumentList actualArguments ) {
+        return toMap( paramName, function, getParam( actualArguments, paramName ) );
+    }
+
+    static SassMap toMap( String paramName, LexicalUnitImpl function, SassListItem item ) {
+        SassMap map = SassMap.valueOf( item );
+        if( map != null ) {
+            return map;
         }
-        throw new ParseException( "Param " + paramName + " of function map-merge(map1,map2) is not a map: " + map.printState(), function );
+        throw new ParseException( "Param " + paramName + " of function " + function.getFunctionName() + " is not a map: " + item.printState(), function );
     }
 }
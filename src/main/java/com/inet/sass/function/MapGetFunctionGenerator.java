@@ -15,13 +15,11 @@
  */
 package com.inet.sass.function;
 
-import java.util.Objects;
-
 import com.inet.sass.ScssContext;
 import com.inet.sass.parser.FormalArgumentList;
 import com.inet.sass.parser.LexicalUnitImpl;
-import com.inet.sass.parser.SassList;
 import com.inet.sass.parser.SassListItem;
+import com.inet.sass.parser.SassMap;
 
 /**
  * The SASS function "map-get(map,x)".
@@ -37,15 +35,22 @@ class MapGetFunctionGenerator extends MapFunctionGenerator {
      */
     @Override
     protected SassListItem computeForArgumentList( ScssContext context, LexicalUnitImpl function, FormalArgumentList actualArguments ) {
-        SassList map = getMapParam( "map", function, actualArguments );
-        String key = getParam( actualArguments, "key" ).unquotedString();
+        return mapGet( function, getParam( actualArguments, "map" ), getParam( actualArguments, "key" ) );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected SassListItem computeForArguments( ScssContext context, LexicalUnitImpl function, SassListItem[] values ) {
+        return mapGet( function, values[0], values[1] );
+    }
 
-        for( SassListItem item : map ) {
-            SassListItem itemKey = ((SassList)item).get( 0 );
-            String keyStr = itemKey.unquotedString();
-            if( Objects.equals( key, keyStr )) {
-                return ((SassList)item).get( 1 );
-            }
+    private static SassListItem mapGet( LexicalUnitImpl function, SassListItem mapItem, SassListItem key ) {
+        SassMap map = toMap( "map", function, mapItem );
+        SassListItem value = map.getValue( key );
+        if( value != null ) {
+            return value;
         }
         return LexicalUnitImpl.createNull( function.getUri(), function.getLineNumber(), function.getColumnNumber() );
     }
@@ -15,13 +15,11 @@
  */
 package com.inet.sass.function;
 
-import java.util.Objects;
-
 import com.inet.sass.ScssContext;
 import com.inet.sass.parser.FormalArgumentList;
 import com.inet.sass.parser.LexicalUnitImpl;
-import com.inet.sass.parser.SassList;
 import com.inet.sass.parser.SassListItem;
+import com.inet.sass.parser.SassMap;
 
 /**
  * The SASS function "map-has-key(map,x)".
@@ -37,16 +35,8 @@ class MapHasKeyFunctionGenerator extends MapFunctionGenerator {
      */
     @Override
     protected SassListItem computeForArgumentList( ScssContext context, LexicalUnitImpl function, FormalArgumentList actualArguments ) {
-        SassList map = getMapParam( "map", function, actualArguments );
-        String key = getParam( actualArguments, "key" ).unquotedString();
-
-        for( SassListItem item : map ) {
-            SassListItem itemKey = ((SassList)item).get( 0 );
-            String keyStr = itemKey.unquotedString();
-            if( Objects.equals( key, keyStr )) {
-                return LexicalUnitImpl.createIdent( function.getUri(), function.getLineNumber(), function.getColumnNumber(), "true" );
-            }
-        }
-        return LexicalUnitImpl.createIdent( function.getUri(), function.getLineNumber(), function.getColumnNumber(), "false" );
+        SassMap map = getMapParam( "map", function, actualArguments );
+        boolean contains = map.containsKey( getParam( actualArguments, "key" ) );
+        return LexicalUnitImpl.createIdent( function.getUri(), function.getLineNumber(), function.getColumnNumber(), contains ? "true" : "false" );
     }
 }
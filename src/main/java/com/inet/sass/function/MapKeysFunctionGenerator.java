@@ -23,6 +23,7 @@ import com.inet.sass.parser.FormalArgumentList;
 import com.inet.sass.parser.LexicalUnitImpl;
 import com.inet.sass.parser.SassList;
 import com.inet.sass.parser.SassListItem;
+import com.inet.sass.parser.SassMap;
 import com.inet.sass.parser.SassList.Separator;
 
 class MapKeysFunctionGenerator extends MapFunctionGenerator {
@@ -33,13 +34,12 @@ class MapKeysFunctionGenerator extends MapFunctionGenerator {
 
     @Override
     protected SassListItem computeForArgumentList( ScssContext context, LexicalUnitImpl function, FormalArgumentList actualArguments ) {
-        SassList map = getMapParam( "map", function, actualArguments );
+        SassMap map = getMapParam( "map", function, actualArguments );
 
-        ArrayList<SassListItem> items = new ArrayList<>();
         int size = map.size();
+        ArrayList<SassListItem> items = new ArrayList<>( size );
         for( int i = 0; i < size; i++ ) {
-            SassList item = (SassList)map.get( i );
-            items.add( item.get( 0 ) );
+            items.add( map.getKey( i ) );
         }
         return new SassList( Separator.COMMA, items );
     }
@@ -0,0 +1,285 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass.function;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.inet.sass.ScssContext;
+import com.inet.sass.expression.BinaryOperator;
+import com.inet.sass.parser.DiagnosticException;
+import com.inet.sass.parser.FormalArgumentList;
+import com.inet.sass.parser.LexicalUnitImpl;
+import com.inet.sass.parser.ParseException;
+import com.inet.sass.parser.SassListItem;
+import com.inet.sass.util.Color;
+
+/**
+ * Adapter for a Java method with the annotation {@link SassFunction}. The
+ * conversion of the arguments and the return value is composed into a single
+ * method handle when the function is registered, the calls do not use
+ * reflection.
+ */
+class MethodFunctionGenerator extends AbstractFunctionGenerator {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private final String[]                    argumentNames;
+
+    /** The method with the type (LexicalUnitImpl, ScssContext, SassListItem[])SassListItem. */
+    private final MethodHandle                invoker;
+
+    private MethodFunctionGenerator( String name, String[] argumentNames, MethodHandle invoker ) {
+        super( createArgumentList( argumentNames, false ), name );
+        this.argumentNames = argumentNames;
+        this.invoker = invoker;
+    }
+
+    /**
+     * Create the generators for all annotated methods.
+     * 
+     * @param functions
+     *            a class for static methods or an instance for instance and
+     *            static methods
+     * @return the generators
+     * @throws IllegalArgumentException
+     *             if a method has an unsupported signature
+     */
+    static List<SCSSFunctionGenerator> create( Object functions ) {
+        Class<?> clazz = functions instanceof Class ? (Class<?>)functions : functions.getClass();
+        Object receiver = functions instanceof Class ? null : functions;
+        List<SCSSFunctionGenerator> generators = new ArrayList<>();
+        for( Method method : clazz.getMethods() ) {
+            SassFunction annotation = method.getAnnotation( SassFunction.class );
+            if( annotation != null ) {
+                String name = annotation.value().isEmpty() ? method.getName() : annotation.value();
+                generators.add( create( name, annotation.parameters(), method, receiver ) );
+            }
+        }
+        return generators;
+    }
+
+    private static MethodFunctionGenerator create( String name, String[] names, Method method, Object receiver ) {
+        try {
+            method.setAccessible( true );
+            MethodHandle handle = LOOKUP.unreflect( method );
+            if( !Modifier.isStatic( method.getModifiers() ) ) {
+                if( receiver == null ) {
+                    throw new IllegalArgumentException( "Sass function " + name + " requires an instance of " + method.getDeclaringClass().getName() );
+                }
+                handle = handle.bindTo( receiver );
+            }
+
+            Parameter[] parameters = method.getParameters();
+            int first = parameters.length > 0 && parameters[0].getType() == ScssContext.class ? 1 : 0;
+            if( first == 0 ) {
+                handle = MethodHandles.dropArguments( handle, 0, ScssContext.class );
+            }
+            String[] argumentNames = new String[parameters.length - first];
+            if( names.length > 0 && names.length != argumentNames.length ) {
+                throw new IllegalArgumentException( "Sass function " + name + " declares " + names.length + " parameter names for " + argumentNames.length + " parameters" );
+            }
+            MethodHandle[] converters = new MethodHandle[argumentNames.length];
+            for( int i = 0; i < argumentNames.length; i++ ) {
+                Parameter parameter = parameters[first + i];
+                if( names.length > 0 ) {
+                    argumentNames[i] = names[i];
+                } else {
+                    // without the compiler option -parameters the names are arg0, arg1, ...
+                    argumentNames[i] = parameter.getName();
+                }
+                converters[i] = argumentConverter( name, parameter.getType() );
+            }
+            handle = MethodHandles.filterArguments( handle, 1, converters );
+            handle = handle.asSpreader( SassListItem[].class, argumentNames.length );
+            handle = MethodHandles.collectArguments( returnConverter( name, method.getReturnType() ), 1, handle );
+            return new MethodFunctionGenerator( name, argumentNames, handle );
+        } catch( IllegalAccessException ex ) {
+            throw new IllegalArgumentException( "Sass function " + name + " is not accessible", ex );
+        }
+    }
+
+    private static MethodHandle argumentConverter( String name, Class<?> type ) throws IllegalAccessException {
+        MethodHandle converter;
+        if( type == SassListItem.class ) {
+            return MethodHandles.identity( SassListItem.class );
+        } else if( type == LexicalUnitImpl.class ) {
+            converter = find( "toUnit", LexicalUnitImpl.class, SassListItem.class );
+        } else if( type == String.class ) {
+            converter = find( "toText", String.class, SassListItem.class );
+        } else if( type == boolean.class || type == Boolean.class ) {
+            converter = find( "toBoolean", boolean.class, SassListItem.class );
+        } else if( type == Color.class ) {
+            converter = find( "toColor", Color.class, SassListItem.class );
+        } else if( type == int.class || type == Integer.class || type == long.class || type == Long.class ) {
+            converter = find( "toInteger", int.class, SassListItem.class );
+        } else if( type == double.class || type == Double.class || type == float.class || type == Float.class ) {
+            converter = find( "toDouble", double.class, SassListItem.class );
+        } else {
+            throw new IllegalArgumentException( "Unsupported parameter type " + type.getName() + " of Sass function " + name );
+        }
+        if( type == float.class || type == Float.class ) {
+            converter = MethodHandles.explicitCastArguments( converter, MethodType.methodType( float.class, SassListItem.class ) );
+        } else if( type == long.class || type == Long.class ) {
+            converter = MethodHandles.explicitCastArguments( converter, MethodType.methodType( long.class, SassListItem.class ) );
+        }
+        return converter.asType( MethodType.methodType( type, SassListItem.class ) );
+    }
+
+    private static MethodHandle returnConverter( String name, Class<?> type ) throws IllegalAccessException {
+        MethodHandle converter;
+        if( SassListItem.class.isAssignableFrom( type ) ) {
+            converter = find( "fromItem", SassListItem.class, LexicalUnitImpl.class, SassListItem.class );
+        } else if( type == String.class ) {
+            converter = find( "fromString", SassListItem.class, LexicalUnitImpl.class, String.class );
+        } else if( type == boolean.class || type == Boolean.class ) {
+            converter = find( "fromBoolean", SassListItem.class, LexicalUnitImpl.class, Boolean.class );
+        } else if( type == Color.class ) {
+            converter = find( "fromColor", SassListItem.class, LexicalUnitImpl.class, Color.class );
+        } else if( type == int.class || type == long.class || type == double.class || type == float.class || Number.class.isAssignableFrom( type ) ) {
+            converter = find( "fromNumber", SassListItem.class, LexicalUnitImpl.class, Number.class );
+        } else {
+            throw new IllegalArgumentException( "Unsupported return type " + type.getName() + " of Sass function " + name );
+        }
+        return converter.asType( MethodType.methodType( SassListItem.class, LexicalUnitImpl.class, type ) );
+    }
+
+    private static MethodHandle find( String name, Class<?> returnType, Class<?>... parameterTypes ) throws IllegalAccessException {
+        try {
+            return LOOKUP.findStatic( MethodFunctionGenerator.class, name, MethodType.methodType( returnType, parameterTypes ) );
+        } catch( NoSuchMethodException ex ) {
+            throw new IllegalStateException( ex );
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected SassListItem computeForArguments( ScssContext context, LexicalUnitImpl function, SassListItem[] values ) {
+        try {
+            return (SassListItem)invoker.invokeExact( function, context, values );
+        } catch( ParseException | Error ex ) {
+            // errors of the compiler and of the VM like OutOfMemoryError are not wrapped
+            throw ex;
+        } catch( Throwable ex ) {
+            throw new DiagnosticException( "Error in function " + function.getFunctionName() + ": " + ex, function, ex );
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected SassListItem computeForArgumentList( ScssContext context, LexicalUnitImpl function, FormalArgumentList actualArguments ) {
+        SassListItem[] values = new SassListItem[argumentNames.length];
+        for( int i = 0; i < values.length; i++ ) {
+            values[i] = getParam( actualArguments, argumentNames[i] );
+        }
+        return computeForArguments( context, function, values );
+    }
+
+    private static LexicalUnitImpl toUnit( SassListItem item ) {
+        return item.getContainedValue();
+    }
+
+    private static String toText( SassListItem item ) {
+        return item.unquotedString();
+    }
+
+    private static boolean toBoolean( SassListItem item ) {
+        return BinaryOperator.isTrue( item );
+    }
+
+    private static Color toColor( SassListItem item ) {
+        LexicalUnitImpl unit = item.getContainedValue();
+        Color color = unit.getColor();
+        if( color == null ) {
+            throw new ParseException( "Expected a color, actual value: " + unit.printState(), unit );
+        }
+        return color;
+    }
+
+    private static int toInteger( SassListItem item ) {
+        LexicalUnitImpl unit = toNumber( item );
+        double value = unit.getDoubleValue();
+        if( value != (int)value ) {
+            throw new ParseException( "Expected an integer, actual value: " + unit.printState(), unit );
+        }
+        return (int)value;
+    }
+
+    private static double toDouble( SassListItem item ) {
+        return toNumber( item ).getDoubleValue();
+    }
+
+    /**
+     * Get a number without unit. A unit would be lost by the conversion to a
+     * Java number, so it is an error.
+     * 
+     * @param item the argument
+     * @return the number
+     */
+    private static LexicalUnitImpl toNumber( SassListItem item ) {
+        LexicalUnitImpl unit = item.getContainedValue();
+        if( !unit.isNumber() ) {
+            throw new ParseException( "Expected a number, actual value: " + unit.printState(), unit );
+        }
+        if( !unit.isUnitlessNumber() ) {
+            throw new ParseException( "Expected a number without unit, actual value: " + unit.printState(), unit );
+        }
+        return unit;
+    }
+
+    private static SassListItem fromItem( LexicalUnitImpl function, SassListItem value ) {
+        return value != null ? value : LexicalUnitImpl.createNull( function.getUri(), function.getLineNumber(), function.getColumnNumber() );
+    }
+
+    private static SassListItem fromString( LexicalUnitImpl function, String value ) {
+        if( value == null ) {
+            return fromItem( function, null );
+        }
+        return LexicalUnitImpl.createString( function.getUri(), function.getLineNumber(), function.getColumnNumber(), value );
+    }
+
+    private static SassListItem fromBoolean( LexicalUnitImpl function, Boolean value ) {
+        if( value == null ) {
+            return fromItem( function, null );
+        }
+        return LexicalUnitImpl.createIdent( function.getUri(), function.getLineNumber(), function.getColumnNumber(), value ? "true" : "false" );
+    }
+
+    private static SassListItem fromColor( LexicalUnitImpl function, Color value ) {
+        if( value == null ) {
+            return fromItem( function, null );
+        }
+        return LexicalUnitImpl.createColor( function.getUri(), function.getLineNumber(), function.getColumnNumber(), value );
+    }
+
+    private static SassListItem fromNumber( LexicalUnitImpl function, Number value ) {
+        if( value == null ) {
+            return fromItem( function, null );
+        }
+        return LexicalUnitImpl.createNumber( function.getUri(), function.getLineNumber(), function.getColumnNumber(), value.doubleValue() );
+    }
+}
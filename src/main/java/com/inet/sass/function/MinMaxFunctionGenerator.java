@@ -46,11 +46,11 @@ class MinMaxFunctionGenerator extends AbstractFunctionGenerator {
         for (int i = 1; i < params.size(); ++i) {
             LexicalUnitImpl value = getParam(function, params.get(i));
             if ("min".equals(function.getFunctionName())) {
-                if (value.getDoubleValue() < result.getDoubleValue()) {
+                if (value.convertValue(result) < result.getDoubleValue()) {
                     result = value;
                 }
             } else {
-                if (value.getDoubleValue() > result.getDoubleValue()) {
+                if (value.convertValue(result) > result.getDoubleValue()) {
                     result = value;
                 }
             }
@@ -21,7 +21,7 @@ import com.inet.sass.parser.FormalArgumentList;
 import com.inet.sass.parser.LexicalUnitImpl;
 import com.inet.sass.parser.ParseException;
 import com.inet.sass.parser.SassListItem;
-import com.inet.sass.util.ColorUtil;
+import com.inet.sass.util.Color;
 
 class MixFunctionGenerator extends AbstractFunctionGenerator {
 
@@ -32,17 +32,36 @@ class MixFunctionGenerator extends AbstractFunctionGenerator {
         super(createArgumentList(argumentNames, defaultValues, false), "mix");
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isMemoizable() {
+        return true;
+    }
+
     @Override
     protected SassListItem computeForArgumentList(ScssContext context,
             LexicalUnitImpl function, FormalArgumentList actualArguments) {
-        LexicalUnitImpl color1 = checkAndGetColor(actualArguments, "color1",
-                function);
-        LexicalUnitImpl color2 = checkAndGetColor(actualArguments, "color2",
-                function);
-        double weight = getParam(actualArguments, "weight").getContainedValue()
-                .getDoubleValue();
-        double alpha1 = ColorUtil.getAlpha(color1);
-        double alpha2 = ColorUtil.getAlpha(color2);
+        return mix( function, getParam( actualArguments, "color1" ), getParam( actualArguments, "color2" ), getParam( actualArguments, "weight" ) );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected SassListItem computeForArguments( ScssContext context, LexicalUnitImpl function, SassListItem[] values ) {
+        return mix( function, values[0], values[1], values[2] );
+    }
+
+    private static SassListItem mix( LexicalUnitImpl function, SassListItem color1Item, SassListItem color2Item, SassListItem weightItem ) {
+        LexicalUnitImpl color1 = checkAndGetColor(color1Item, function);
+        LexicalUnitImpl color2 = checkAndGetColor(color2Item, function);
+        double weight = weightItem.getContainedValue().getDoubleValue();
+        Color value1 = color1.getColor();
+        Color value2 = color2.getColor();
+        double alpha1 = value1.getAlpha();
+        double alpha2 = value2.getAlpha();
         double p = weight / 100;
         double w = p * 2 - 1;
         double a = alpha1 - alpha2;
@@ -54,29 +73,24 @@ class MixFunctionGenerator extends AbstractFunctionGenerator {
         }
         double w1 = ((w + a) / (1 + w * a) + 1) / 2.0;
         double w2 = 1 - w1;
-        int[] rgb1 = ColorUtil.colorToRgb(color1);
-        int[] rgb2 = ColorUtil.colorToRgb(color2);
-        int[] result = new int[3];
-        for (int i = 0; i < 3; i++) {
-            result[i] = (int)Math.round(w1 * rgb1[i] + w2 * rgb2[i]);
-        }
+        int red = (int)Math.round(w1 * value1.getRed() + w2 * value2.getRed());
+        int green = (int)Math.round(w1 * value1.getGreen() + w2 * value2.getGreen());
+        int blue = (int)Math.round(w1 * value1.getBlue() + w2 * value2.getBlue());
         double alpha = alpha1 * p + alpha2 * (1 - p);
-        return ColorUtil.createRgbaOrHexColor(result, alpha,
-                function.getLineNumber(), function.getColumnNumber());
+        return LexicalUnitImpl.createColor(function.getUri(),
+                function.getLineNumber(), function.getColumnNumber(),
+                Color.rgb(red, green, blue, alpha));
     }
 
-    private LexicalUnitImpl checkAndGetColor(
-            FormalArgumentList actualArguments, String argName,
+    private static LexicalUnitImpl checkAndGetColor(SassListItem colorItem,
             LexicalUnitImpl function) {
-        SassListItem colorItem = getParam(actualArguments, argName);
         if (!(colorItem instanceof LexicalUnitImpl)) {
             throw new ParseException(
                     "The color arguments of mix() must be valid colors. Actual argument: "
                             + colorItem.toString(), function);
         }
         LexicalUnitImpl color = (LexicalUnitImpl) colorItem;
-        if (!ColorUtil.isColor(color) && !ColorUtil.isRgba(color)
-                && !ColorUtil.isHsla(color)) {
+        if (color.getColor() == null) {
             throw new ParseException(
                     "The color arguments of mix() must be valid colors. Actual argument: "
                             + colorItem.toString(), function);
@@ -33,6 +33,14 @@ class PercentageFunctionGenerator extends
         super(createArgumentList( new String[]{ "value" }, false), "percentage");
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isMemoizable() {
+        return true;
+    }
+
     @Override
     protected LexicalUnitImpl computeForParam( LexicalUnitImpl function, LexicalUnitImpl firstParam ) {
         double value = firstParam.getDoubleValue();
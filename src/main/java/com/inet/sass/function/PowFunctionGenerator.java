@@ -0,0 +1,49 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass.function;
+
+import com.inet.sass.ScssContext;
+import com.inet.sass.parser.FormalArgumentList;
+import com.inet.sass.parser.LexicalUnitImpl;
+import com.inet.sass.parser.SassListItem;
+
+/**
+ * The function math.pow() of the sass:math module. Both numbers must be unitless.
+ */
+class PowFunctionGenerator extends AbstractFunctionGenerator {
+
+    private static String[] argumentNames = { "base", "exponent" };
+
+    PowFunctionGenerator() {
+        super( createArgumentList( argumentNames, false ), "math.pow" );
+    }
+
+    @Override
+    protected SassListItem computeForArguments( ScssContext context, LexicalUnitImpl function, SassListItem[] values ) {
+        return pow( function, values[0], values[1] );
+    }
+
+    @Override
+    protected SassListItem computeForArgumentList( ScssContext context, LexicalUnitImpl function, FormalArgumentList actualArguments ) {
+        return pow( function, getParam( actualArguments, 0 ), getParam( actualArguments, 1 ) );
+    }
+
+    private static SassListItem pow( LexicalUnitImpl function, SassListItem base, SassListItem exponent ) {
+        double value = Math.pow( DivFunctionGenerator.toUnitlessValue( function, base, argumentNames[0] ), DivFunctionGenerator.toUnitlessValue( function, exponent, argumentNames[1] ) );
+        return LexicalUnitImpl.createNumber( function.getUri(), function.getLineNumber(), function.getColumnNumber(), value );
+    }
+}
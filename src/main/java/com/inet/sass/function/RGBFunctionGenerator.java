@@ -17,16 +17,12 @@
 
 package com.inet.sass.function;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import com.inet.sass.ScssContext;
-import com.inet.sass.parser.ActualArgumentList;
 import com.inet.sass.parser.FormalArgumentList;
 import com.inet.sass.parser.LexicalUnitImpl;
 import com.inet.sass.parser.ParseException;
-import com.inet.sass.parser.SassList;
 import com.inet.sass.parser.SassListItem;
+import com.inet.sass.util.Color;
 
 class RGBFunctionGenerator extends AbstractFunctionGenerator {
 
@@ -36,25 +32,43 @@ class RGBFunctionGenerator extends AbstractFunctionGenerator {
         super(createArgumentList(argumentNames, false), "rgb");
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isMemoizable() {
+        return true;
+    }
+
     @Override
     protected SassListItem computeForArgumentList(ScssContext context,
             LexicalUnitImpl function, FormalArgumentList actualArguments) {
-        List<SassListItem> components = new ArrayList<SassListItem>();
+        return rgb( function, getParam( actualArguments, 0 ), getParam( actualArguments, 1 ), getParam( actualArguments, 2 ) );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected SassListItem computeForArguments( ScssContext context, LexicalUnitImpl function, SassListItem[] values ) {
+        return rgb( function, values );
+    }
+
+    private static SassListItem rgb( LexicalUnitImpl function, SassListItem... values ) {
+        int[] components = new int[3];
         String uri = function.getUri();
         int line = function.getLineNumber();
         int column = function.getColumnNumber();
         for (int i = 0; i < 3; ++i) {
-            SassListItem item = getParam(actualArguments, i);
+            SassListItem item = values[i];
             if( !LexicalUnitImpl.checkLexicalUnitType( item, //
                                                        LexicalUnitImpl.SAC_INTEGER, //
                                                        LexicalUnitImpl.SAC_REAL, //
                                                        LexicalUnitImpl.SAC_PERCENTAGE ) ) {
                 throw new ParseException( "Invalid parameter to the function rgb(): " + item.toString(), uri, line, column );
             }
-            components.add(item);
+            components[i] = item.getContainedValue().getIntegerValue();
         }
-        ActualArgumentList params = new ActualArgumentList(
-                SassList.Separator.COMMA, components);
-        return LexicalUnitImpl.createRGBColor( uri, line, column, params );
+        return LexicalUnitImpl.createColor( uri, line, column, Color.rgb( components[0], components[1], components[2], 1 ) );
     }
 }
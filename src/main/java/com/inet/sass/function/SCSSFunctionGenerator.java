@@ -17,9 +17,12 @@
 package com.inet.sass.function;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import com.inet.sass.ScssContext;
 import com.inet.sass.parser.LexicalUnitImpl;
@@ -49,6 +52,29 @@ public interface SCSSFunctionGenerator {
         for( String functionName : generator.getFunctionNames() ) {
             Registry.FUNCTIONS.put( functionName, generator );
         }
+        Registry.version++;
+    }
+
+    /**
+     * Register all methods with the annotation {@link SassFunction} as custom
+     * sass functions. The arguments and the return value are converted with
+     * method handles that are created once here.
+     * @param functions a class for static methods or an instance for instance and static methods
+     * @throws IllegalArgumentException if a method has an unsupported signature
+     */
+    public static void registerCustomFunctions( Object functions ) {
+        for( SCSSFunctionGenerator generator : MethodFunctionGenerator.create( functions ) ) {
+            registerCustomFunction( generator );
+        }
+    }
+
+    /**
+     * Get a counter that changes with every registration. Callers that cache the result of
+     * {@link #getGenerator(String)} compare it to detect a changed registry.
+     * @return the version
+     */
+    public static int getRegistryVersion() {
+        return Registry.version;
     }
 
     /**
@@ -75,12 +101,38 @@ public interface SCSSFunctionGenerator {
      */
     SassListItem compute( ScssContext context, LexicalUnitImpl function );
 
+    /**
+     * Returns true if the result of the function depends only on its parameters and the function has no side effects.
+     * The results of pure functions can be cached. Only the built-in functions are pure by default.
+     * 
+     * @return true, if pure
+     */
+    default boolean isPure() {
+        return Registry.DEFAULTS.contains( this );
+    }
+
+    /**
+     * Returns true if the results of this function can be memoized in a
+     * {@link com.inet.sass.tree.BuiltInFunctionCache} by the function name and the evaluated arguments. This requires
+     * a pure function that evaluates all its arguments before the call and is expensive enough to benefit from it.
+     * 
+     * @return true, if eligible
+     */
+    default boolean isMemoizable() {
+        return false;
+    }
+
     abstract class Registry {
         static final Map<String, SCSSFunctionGenerator> FUNCTIONS = new HashMap<>();
 
+        static final Set<SCSSFunctionGenerator>         DEFAULTS  = Collections.newSetFromMap( new IdentityHashMap<>() );
+
+        static volatile int                             version;
+
         static {
             for( SCSSFunctionGenerator serializer : defaultFunctions() ) {
                 registerCustomFunction( serializer );
+                DEFAULTS.add( serializer );
             }
         }
 
@@ -92,6 +144,7 @@ public interface SCSSFunctionGenerator {
             list.add( new CeilFunctionGenerator() );
             list.add( new ComparableFunctionGenerator() );
             list.add( new DarkenFunctionGenerator() );
+            list.add( new DivFunctionGenerator() );
             list.add( new FloorFunctionGenerator() );
             list.add( new GetFunctionFunctionGenerator() );
             list.add( new GrayscaleFunctionGenerator() );
@@ -112,10 +165,12 @@ public interface SCSSFunctionGenerator {
             list.add( new MinMaxFunctionGenerator() );
             list.add( new MixFunctionGenerator() );
             list.add( new PercentageFunctionGenerator() );
+            list.add( new PowFunctionGenerator() );
             list.add( new RectFunctionGenerator() );
             list.add( new RGBFunctionGenerator() );
             list.add( new RoundFunctionGenerator() );
             list.add( new SaturationModificationFunctionGenerator() );
+            list.add( new SqrtFunctionGenerator() );
             list.add( new StrIndexFunctionGenerator() );
             list.add( new StrLengthFunctionGenerator() );
             list.add( new StrSliceFunctionGenerator() );
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass.function;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a Java method as a custom Sass function. The methods are registered with
+ * {@link SCSSFunctionGenerator#registerCustomFunctions(Object)}, for example:
+ * 
+ * <pre>
+ * &#64;SassFunction( "asset-hash" )
+ * public String hash( String path ) { ... }
+ * </pre>
+ * 
+ * Supported parameter types are {@link com.inet.sass.parser.SassListItem},
+ * {@link com.inet.sass.parser.LexicalUnitImpl}, String (unquoted), the primitive
+ * number types and their wrappers, boolean and {@link com.inet.sass.util.Color}.
+ * A first parameter of type {@link com.inet.sass.ScssContext} receives the
+ * current compilation context. The same types are supported as return value, a
+ * String is returned as quoted string and null as Sass null.
+ * <p>
+ * The primitive number types accept only numbers without unit. Use
+ * {@link com.inet.sass.parser.LexicalUnitImpl} for a number with unit.
+ * <p>
+ * The names for keyword arguments are taken from {@link #parameters()}. If it
+ * is empty the names of the Java parameters are used, which are only available
+ * if the class was compiled with the option <code>-parameters</code>, otherwise
+ * the names are arg0, arg1 and so on.
+ */
+@Documented
+@Retention( RetentionPolicy.RUNTIME )
+@Target( ElementType.METHOD )
+public @interface SassFunction {
+
+    /**
+     * The name of the function in the SCSS files.
+     * 
+     * @return the name, the name of the method if empty
+     */
+    String value() default "";
+
+    /**
+     * The names of the parameters in the SCSS files without $, in the order of
+     * the Java parameters and without the {@link com.inet.sass.ScssContext}.
+     * 
+     * @return the names, the names of the Java parameters if empty
+     */
+    String[] parameters() default {};
+}
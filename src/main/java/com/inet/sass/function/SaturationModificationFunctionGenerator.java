@@ -21,6 +21,7 @@ import com.inet.sass.parser.FormalArgumentList;
 import com.inet.sass.parser.LexicalUnitImpl;
 import com.inet.sass.parser.ParseException;
 import com.inet.sass.parser.SassListItem;
+import com.inet.sass.util.Color;
 import com.inet.sass.util.ColorUtil;
 
 class SaturationModificationFunctionGenerator extends
@@ -33,34 +34,48 @@ class SaturationModificationFunctionGenerator extends
                 "desaturate");
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isMemoizable() {
+        return true;
+    }
+
     @Override
     public SassListItem computeForArgumentList(ScssContext context,
             LexicalUnitImpl function, FormalArgumentList actualArguments) {
-        LexicalUnitImpl color = checkAndGetColor(function, actualArguments);
-        double amount = checkAndGetAmount(function, actualArguments);
-        double alpha = ColorUtil.getAlpha(color);
-        double[] hsl = ColorUtil.colorToHsl(color);
+        return saturate( function, getParam( actualArguments, "color" ), getParam( actualArguments, "amount" ) );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected SassListItem computeForArguments( ScssContext context, LexicalUnitImpl function, SassListItem[] values ) {
+        return saturate( function, values[0], values[1] );
+    }
+
+    private static SassListItem saturate( LexicalUnitImpl function, SassListItem colorItem, SassListItem amountItem ) {
+        Color color = checkAndGetColor(function, colorItem);
+        double amount = checkAndGetAmount(function, amountItem);
+        double saturation = color.getSaturation();
         if ("saturate".equals(function.getFunctionName())) {
-            hsl[1] += amount;
+            saturation += amount;
         } else {
-            hsl[1] -= amount;
+            saturation -= amount;
         }
-        hsl[1] = Math.max(0, Math.min(100, hsl[1]));
-        return ColorUtil.createHslaOrHslColor(hsl, alpha,
-                function.getLineNumber(), function.getColumnNumber());
+        saturation = Math.max(0, Math.min(100, saturation));
+        Color result = Color.hsl(color.getHue(), saturation,
+                color.getLightness(), color.getAlpha());
+        return LexicalUnitImpl.createColor(null, function.getLineNumber(),
+                function.getColumnNumber(), result);
     }
 
-    private LexicalUnitImpl checkAndGetColor(LexicalUnitImpl function,
-            FormalArgumentList actualArguments) {
-        SassListItem colorItem = getParam(actualArguments, "color");
-        if (!(colorItem instanceof LexicalUnitImpl)) {
-            throw new ParseException("The first argument of "
-                    + function.getFunctionName() + "() must be a valid color",
-                    function);
-        }
-        LexicalUnitImpl color = (LexicalUnitImpl) colorItem;
-        if (!ColorUtil.isColor(color) && !ColorUtil.isRgba(color)
-                && !ColorUtil.isHsla(color)) {
+    private static Color checkAndGetColor(LexicalUnitImpl function,
+            SassListItem colorItem) {
+        Color color = ColorUtil.getColor(colorItem);
+        if (color == null) {
             throw new ParseException("The first argument of "
                     + function.getFunctionName() + "() must be a valid color",
                     function);
@@ -68,9 +83,8 @@ class SaturationModificationFunctionGenerator extends
         return color;
     }
 
-    private double checkAndGetAmount(LexicalUnitImpl function,
-            FormalArgumentList actualArguments) {
-        SassListItem amountItem = getParam(actualArguments, "amount");
+    private static double checkAndGetAmount(LexicalUnitImpl function,
+            SassListItem amountItem) {
         if (!LexicalUnitImpl.checkLexicalUnitType(amountItem,
                 LexicalUnitImpl.SAC_PERCENTAGE)) {
             throw new ParseException("The amount argument of "
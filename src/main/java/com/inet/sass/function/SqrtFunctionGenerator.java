@@ -0,0 +1,37 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass.function;
+
+import com.inet.sass.parser.LexicalUnitImpl;
+
+/**
+ * The function math.sqrt() of the sass:math module. The number must be unitless.
+ */
+class SqrtFunctionGenerator extends AbstractSingleParameterFunctionGenerator {
+
+    private static String[] argumentNames = { "number" };
+
+    SqrtFunctionGenerator() {
+        super( createArgumentList( argumentNames, false ), "math.sqrt" );
+    }
+
+    @Override
+    protected LexicalUnitImpl computeForParam( LexicalUnitImpl function, LexicalUnitImpl param ) {
+        double value = Math.sqrt( DivFunctionGenerator.toUnitlessValue( function, param, argumentNames[0] ) );
+        return LexicalUnitImpl.createNumber( function.getUri(), function.getLineNumber(), function.getColumnNumber(), value );
+    }
+}
@@ -28,6 +28,14 @@ class StrSliceFunctionGenerator extends AbstractFunctionGenerator {
         super( createArgumentList( new String[] { "string", "start-at", "end-at" }, false ), "str-slice" );
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isMemoizable() {
+        return true;
+    }
+
     /**
      * {@inheritDoc}
      */
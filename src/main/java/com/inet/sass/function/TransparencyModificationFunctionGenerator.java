@@ -17,12 +17,11 @@
 package com.inet.sass.function;
 
 import com.inet.sass.ScssContext;
-import com.inet.sass.parser.ActualArgumentList;
 import com.inet.sass.parser.FormalArgumentList;
 import com.inet.sass.parser.LexicalUnitImpl;
 import com.inet.sass.parser.ParseException;
 import com.inet.sass.parser.SassListItem;
-import com.inet.sass.util.ColorUtil;
+import com.inet.sass.util.Color;
 
 class TransparencyModificationFunctionGenerator extends
         AbstractFunctionGenerator {
@@ -34,54 +33,51 @@ class TransparencyModificationFunctionGenerator extends
                 "fade-out", "opacify", "fade-in");
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isMemoizable() {
+        return true;
+    }
+
     @Override
     protected SassListItem computeForArgumentList(ScssContext context,
             LexicalUnitImpl function, FormalArgumentList actualArguments) {
-        checkParameters(function, actualArguments);
+        return transparentize( function, getParam( actualArguments, 0 ), getParam( actualArguments, 1 ) );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected SassListItem computeForArguments( ScssContext context, LexicalUnitImpl function, SassListItem[] values ) {
+        return transparentize( function, values[0], values[1] );
+    }
+
+    private static SassListItem transparentize( LexicalUnitImpl function, SassListItem item, SassListItem amountItem ) {
+        Color color = checkParameters(function, item, amountItem);
         double factor = 1.0; // for opacify/fade-in
         if ("fade-out".equals(function.getFunctionName())
                 || "transparentize".equals(function.getFunctionName())) {
             factor = -1.0;
         }
-        double amount = getParam(actualArguments, "amount").getContainedValue()
-                .getDoubleValue();
-        LexicalUnitImpl color = (LexicalUnitImpl) getParam(actualArguments,
-                "color");
-        double opacity = 1.0;
-        boolean rgba = ColorUtil.isRgba(color);
-        boolean hsla = ColorUtil.isHsla(color);
-        boolean hsl = ColorUtil.isHslColor(color);
-        if (rgba || hsla) {
-            ActualArgumentList colorComponents = color.getParameterList();
-            int lastIndex = colorComponents.size() - 1;
-            opacity = getDouble(colorComponents, lastIndex);
-        }
-        opacity += factor * amount;
+        double amount = amountItem.getContainedValue().getDoubleValue();
+        double opacity = color.getAlpha() + factor * amount;
         opacity = Math.min(1, Math.max(0, opacity));
-        if (hsl || hsla) {
-            return ColorUtil.createHslaOrHslColor(ColorUtil.colorToHsl(color),
-                    opacity, function.getLineNumber(),
-                    function.getColumnNumber());
-        } else {
-            return ColorUtil.createRgbaOrHexColor(ColorUtil.colorToRgb(color),
-                    opacity, function.getLineNumber(),
-                    function.getColumnNumber());
-        }
+        return LexicalUnitImpl.createColor(null, function.getLineNumber(),
+                function.getColumnNumber(), color.withAlpha(opacity));
     }
 
-    private void checkParameters(LexicalUnitImpl function,
-            FormalArgumentList args) {
+    private static Color checkParameters(LexicalUnitImpl function,
+            SassListItem item, SassListItem amountItem) {
 
-        SassListItem color = getParam(args, 0);
-        if (!(color instanceof LexicalUnitImpl)
-                || (!ColorUtil.isColor(color.getContainedValue())
-                        && !ColorUtil.isRgba(color.getContainedValue()) && !ColorUtil
-                            .isHsla(color.getContainedValue()))) {
+        Color color = item instanceof LexicalUnitImpl ? item.getContainedValue().getColor() : null;
+        if (color == null) {
             throw new ParseException("The function "
                     + function.getFunctionName()
                     + " requires a valid color as its first parameter", function);
         }
-        SassListItem amountItem = getParam(args, 1);
         if (!(amountItem instanceof LexicalUnitImpl)
                 || !LexicalUnitImpl.checkLexicalUnitType(amountItem,
                         LexicalUnitImpl.SAC_INTEGER, LexicalUnitImpl.SAC_REAL)) {
@@ -97,9 +93,6 @@ class TransparencyModificationFunctionGenerator extends
                             + " requires a number in the range [0, 1] as its second parameter",
                     function);
         }
-    }
-
-    private double getDouble(ActualArgumentList params, int i) {
-        return params.get(i).getContainedValue().getDoubleValue();
+        return color;
     }
 }
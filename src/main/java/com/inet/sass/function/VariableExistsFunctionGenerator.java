@@ -27,6 +27,14 @@ class VariableExistsFunctionGenerator extends AbstractFunctionGenerator {
         super( createArgumentList( new String[] { "name" }, false ), "variable-exists" );
     }
 
+    /**
+     * The result depends on the current scope.
+     */
+    @Override
+    public boolean isPure() {
+        return false;
+    }
+
     @Override
     protected SassListItem computeForArgumentList( ScssContext context, LexicalUnitImpl function, FormalArgumentList actualArguments ) {
         SassListItem param = getParam( actualArguments, 0 );
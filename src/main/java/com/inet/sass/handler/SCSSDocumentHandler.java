@@ -164,8 +164,8 @@ public class SCSSDocumentHandler {
         nodeStack.pop();
     }
 
-    public void property( StringInterpolationSequence name, SassListItem value, boolean important, String comment ) {
-        RuleNode node = new RuleNode( name, value, important, comment );
+    public void property( String uri, int line, int column, StringInterpolationSequence name, SassListItem value, boolean important, String comment ) {
+        RuleNode node = new RuleNode( uri, line, column, name, value, important, comment );
         nodeStack.peek().appendChild( node );
     }
 
@@ -16,12 +16,14 @@
  */
 package com.inet.sass.parser;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
 import com.inet.sass.ScssContext;
 import com.inet.sass.parser.SassList.Separator;
+import com.inet.sass.tree.CssEmitter;
 import com.inet.sass.tree.Node.BuildStringStrategy;
 
 /**
@@ -171,6 +173,14 @@ public class ActualArgumentList {
         return variableArgument != null;
     }
 
+    /**
+     * Get the variable argument
+     * @return the argument or null
+     */
+    SassListItem getVariableArgument() {
+        return variableArgument;
+    }
+
     public String buildString(BuildStringStrategy strategy) {
         return arglist.buildString(strategy);
     }
@@ -179,6 +189,18 @@ public class ActualArgumentList {
         return arglist.printState();
     }
 
+    /**
+     * Write the unnamed arguments after compile.
+     * 
+     * @param out
+     *            the target
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public void write(CssEmitter out) throws IOException {
+        arglist.write(out);
+    }
+
     @Override
     public String toString() {
         String result = "Actual argument list [" + arglist.toString();
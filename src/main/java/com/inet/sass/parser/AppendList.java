@@ -0,0 +1,135 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass.parser;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * An immutable list with structural sharing for appending. All lists which are created by appending to the same list
+ * share one array. Appending to the longest list of an array writes into the free space of the array, so appending in
+ * a loop is amortized O(1) per item instead of copying the list. Only appending to a list which was already extended
+ * by another append copies the items.
+ */
+final class AppendList extends AbstractList<SassListItem> implements RandomAccess {
+
+    /**
+     * The shared array. Items below "used" are never changed.
+     */
+    private static final class Buffer {
+        private volatile SassListItem[] array;
+
+        private int            used;
+
+        private Buffer( SassListItem[] array, int used ) {
+            this.array = array;
+            this.used = used;
+        }
+    }
+
+    private final Buffer buffer;
+
+    private final int    size;
+
+    private AppendList( Buffer buffer, int size ) {
+        this.buffer = buffer;
+        this.size = size;
+    }
+
+    /**
+     * Create a list with the items of another list and some free space.
+     * 
+     * @param items the items
+     * @param additional the expected count of items that will be appended
+     * @return the new list
+     */
+    static AppendList copyOf( List<SassListItem> items, int additional ) {
+        int size = items.size();
+        SassListItem[] array = items.toArray( new SassListItem[Math.max( size + additional, size + (size >> 1) + 4 )] );
+        return new AppendList( new Buffer( array, size ), size );
+    }
+
+    /**
+     * Create a list with additional items. The list is not changed.
+     * 
+     * @param list the original items
+     * @param items the items to append
+     * @return the new list
+     */
+    static AppendList append( List<SassListItem> list, List<SassListItem> items ) {
+        if( !(list instanceof AppendList) ) {
+            AppendList result = copyOf( list, items.size() );
+            return result.append( items );
+        }
+        return ((AppendList)list).append( items );
+    }
+
+    /**
+     * Create a list with additional items. This list is not changed.
+     * 
+     * @param items the items to append
+     * @return the new list
+     */
+    AppendList append( List<SassListItem> items ) {
+        int count = items.size();
+        Buffer buffer = this.buffer;
+        synchronized( buffer ) {
+            if( buffer.used == size ) {
+                // no other list has used the free space
+                SassListItem[] array = buffer.array;
+                int newSize = size + count;
+                if( newSize > array.length ) {
+                    // the prefix of the larger array is equals, all lists with this buffer can use it
+                    buffer.array = array = Arrays.copyOf( array, newSize + (newSize >> 1) );
+                }
+                for( int i = 0; i < count; i++ ) {
+                    array[size + i] = items.get( i );
+                }
+                buffer.used = newSize;
+                return new AppendList( buffer, newSize );
+            }
+        }
+        return copyOf( this, count ).append( items );
+    }
+
+    /**
+     * Check if the list was not extended by another list. Then an append is possible without a copy.
+     * 
+     * @return true, if this is the longest list of the buffer
+     */
+    boolean isLast() {
+        Buffer buffer = this.buffer;
+        synchronized( buffer ) {
+            return buffer.used == size;
+        }
+    }
+
+    @Override
+    public SassListItem get( int index ) {
+        if( index >= size ) {
+            throw new IndexOutOfBoundsException( "Index: " + index + ", Size: " + size );
+        }
+        return buffer.array[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
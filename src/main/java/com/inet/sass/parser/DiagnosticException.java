@@ -0,0 +1,41 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass.parser;
+
+import com.inet.sass.tree.SourceLocation;
+
+/**
+ * A {@link ParseException} without a stack trace. It is used for errors in the
+ * SCSS data which are found while compiling, like an unresolved variable,
+ * incompatible units, parameters that can not be bound to a function or a
+ * function without a @return. The message contains the location in the SCSS
+ * file, the Java stack would not help and filling it is expensive.
+ */
+public class DiagnosticException extends ParseException {
+
+    public DiagnosticException( String message, SourceLocation unit ) {
+        super( message, unit, null, false );
+    }
+
+    public DiagnosticException( String message, SourceLocation unit, Throwable cause ) {
+        super( message, unit, cause, false );
+    }
+
+    public DiagnosticException( String message, String uri, int line, int column ) {
+        super( message, uri, line, column, null, false );
+    }
+}
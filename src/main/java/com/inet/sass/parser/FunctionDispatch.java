@@ -0,0 +1,131 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass.parser;
+
+import com.inet.sass.ScssContext;
+import com.inet.sass.function.SCSSFunctionGenerator;
+import com.inet.sass.tree.FunctionDefNode;
+
+/**
+ * The cached dispatch decision of a function call site. The decision is made once with the lookups in the function
+ * registry, the scope chain and the list of well known CSS functions and reused as long as the registry and the
+ * function definitions in scope are unchanged.
+ */
+final class FunctionDispatch {
+
+    /** A built-in or registered custom function. */
+    static final int            BUILT_IN = 0;
+
+    /** A function defined with @function. */
+    static final int            USER     = 1;
+
+    /** A well known CSS function that is written as is. */
+    static final int            CSS      = 2;
+
+    /** An unknown function that is written as is with a warning. */
+    static final int            UNKNOWN  = 3;
+
+    final int                   kind;
+
+    final SCSSFunctionGenerator generator;
+
+    final FunctionDefNode       function;
+
+    private final int           registryVersion;
+
+    private final Object        scopeKey;
+
+    private final int           definitionVersion;
+
+    private FunctionDispatch( int kind, SCSSFunctionGenerator generator, FunctionDefNode function, int registryVersion, Object scopeKey, int definitionVersion ) {
+        this.kind = kind;
+        this.generator = generator;
+        this.function = function;
+        this.registryVersion = registryVersion;
+        this.scopeKey = scopeKey;
+        this.definitionVersion = definitionVersion;
+    }
+
+    /**
+     * Resolve a function name with all lookups.
+     * 
+     * @param context current compilation context
+     * @param name the function name
+     * @return the dispatch decision
+     */
+    static FunctionDispatch resolve( ScssContext context, String name ) {
+        int registryVersion = SCSSFunctionGenerator.getRegistryVersion();
+        SCSSFunctionGenerator generator = SCSSFunctionGenerator.getGenerator( name );
+        if( generator != null ) {
+            return new FunctionDispatch( BUILT_IN, generator, null, registryVersion, null, 0 );
+        }
+        Object scopeKey = context.getFunctionScopeKey();
+        int definitionVersion = context.getFunctionDefinitionVersion();
+        FunctionDefNode function = context.getFunctionDefinition( name );
+        if( function != null ) {
+            return new FunctionDispatch( USER, null, function, registryVersion, scopeKey, definitionVersion );
+        }
+        int kind = isWellKnownCssFunction( name ) ? CSS : UNKNOWN;
+        return new FunctionDispatch( kind, null, null, registryVersion, scopeKey, definitionVersion );
+    }
+
+    /**
+     * Check if the decision is still valid in the given context. Built-in functions depend only on the registry, all
+     * other decisions also on the function definitions in scope.
+     * 
+     * @param context current compilation context
+     * @return true, if valid
+     */
+    boolean isValid( ScssContext context ) {
+        if( registryVersion != SCSSFunctionGenerator.getRegistryVersion() ) {
+            return false;
+        }
+        return kind == BUILT_IN || (scopeKey == context.getFunctionScopeKey() && definitionVersion == context.getFunctionDefinitionVersion());
+    }
+
+    private static boolean isWellKnownCssFunction( String name ) {
+        switch( name.toLowerCase() ) {
+            case "blur":
+            case "brightness":
+            case "contrast":
+            case "counters":
+            case "hsl":
+            case "hsla":
+            case "linear-gradient":
+            case "not ":
+            case "radial-gradient":
+            case "rgba":
+            case "rotate":
+            case "rotatex":
+            case "rotatey":
+            case "perspective":
+            case "scale":
+            case "scalex":
+            case "scaley":
+            case "translate":
+            case "translate3d":
+            case "translatey":
+            case "translatex":
+            case "translatez":
+            case "url":
+            case "var":
+                return true;
+            default:
+                return false;
+        }
+    }
+}
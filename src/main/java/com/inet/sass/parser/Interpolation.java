@@ -86,6 +86,14 @@ public class Interpolation implements SassListItem {
         return new StringItem( str );
     }
 
+    /**
+     * Get the interpolated expression
+     * @return the expression
+     */
+    SassListItem getExpression() {
+        return expression;
+    }
+
     @Override
     public Interpolation updateUrl(String prefix) {
         return new Interpolation(expression.updateUrl(prefix), getLineNumber(),
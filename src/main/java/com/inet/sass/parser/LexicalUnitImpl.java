@@ -22,6 +22,7 @@
  */
 package com.inet.sass.parser;
 
+import java.io.IOException;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.util.ArrayList;
@@ -29,13 +30,14 @@ import java.util.List;
 import java.util.Locale;
 
 import com.inet.sass.ScssContext;
-import com.inet.sass.function.SCSSFunctionGenerator;
 import com.inet.sass.handler.SCSSErrorHandler;
 import com.inet.sass.tree.BlockNode;
+import com.inet.sass.tree.BuiltInFunctionCache;
+import com.inet.sass.tree.CssEmitter;
 import com.inet.sass.tree.FunctionCall;
-import com.inet.sass.tree.FunctionDefNode;
 import com.inet.sass.tree.Node;
 import com.inet.sass.tree.Node.BuildStringStrategy;
+import com.inet.sass.util.Color;
 import com.inet.sass.util.ColorUtil;
 import com.inet.sass.util.StringUtil;
 
@@ -43,6 +45,9 @@ public class LexicalUnitImpl implements SCSSLexicalUnit, SassListItem {
 
     public static final long PRECISION = 100000L;
 
+    /** Marker of a unit that is not a color, see {@link #getColor()}. */
+    private static final Color NO_COLOR = Color.rgb( 0, 0 );
+
     private static final ThreadLocal<DecimalFormat> CSS_FLOAT_FORMAT = new ThreadLocal<DecimalFormat>() {
         @Override
         protected DecimalFormat initialValue() {
@@ -66,6 +71,14 @@ public class LexicalUnitImpl implements SCSSLexicalUnit, SassListItem {
     private String printState;
     private boolean varNotResolved;
 
+    /** the resolved color, NO_COLOR if this unit is not a color, null if not resolved yet */
+    private volatile Color color;
+
+    /** the normalized key if this unit is used as key of a map, null if not created yet */
+    private MapKey mapKey;
+
+    private FunctionDispatch dispatch;
+
     LexicalUnitImpl( String uri, int line, int column, short type ) {
         this.uri = uri;
         this.line = line;
@@ -235,10 +248,55 @@ public class LexicalUnitImpl implements SCSSLexicalUnit, SassListItem {
         return s == null ? null : s.toString();
     }
 
+    /**
+     * Get the string value including the not evaluated interpolations
+     * @return the sequence or null
+     */
+    StringInterpolationSequence getStringInterpolationSequence() {
+        return s;
+    }
+
+    /**
+     * Check if an evaluation would return this unit unchanged because it
+     * does not reference variables, functions or the parent selector.
+     * 
+     * @return true, if constant
+     */
+    boolean isConstant() {
+        switch( type ) {
+            case SCSS_VARIABLE:
+            case SCSS_PARENT:
+            case SCSS_GET_FUNCTION:
+            case SAC_FUNCTION:
+                return false;
+            case SAC_RGBCOLOR:
+                return params == null;
+            default:
+                return s == null || !s.containsInterpolation();
+        }
+    }
+
     private void setStringValue(String str) {
         s = new StringInterpolationSequence(str);
     }
 
+    /**
+     * Get the color value of this unit. Hex colors, color names and calls of
+     * rgb(), rgba(), hsl() and hsla() are converted only once, the result is
+     * cached.
+     * 
+     * @return the color or null if this unit is not a color
+     */
+    public Color getColor() {
+        // a single field, so that a parallel print can never see a resolved flag without the color
+        Color color = this.color;
+        if( color == null ) {
+            color = ColorUtil.toColor( this );
+            this.color = color = color == null ? NO_COLOR : color;
+        }
+        return color == NO_COLOR ? null : color;
+    }
+
     public String getFunctionName() {
         return fname;
     }
@@ -268,13 +326,26 @@ public class LexicalUnitImpl implements SCSSLexicalUnit, SassListItem {
         if (printState == null) {
             if( varNotResolved ) {
                 // throw this exception only if there was already a failing try to resolve this variable
-                throw new ParseException( "Variable was not resolved: " + simpleAsString(), uri, line, column );
+                throw new DiagnosticException( "Variable was not resolved: " + simpleAsString(), uri, line, column );
             }
             printState = buildString(Node.PRINT_STRATEGY);
         }
         return printState;
     }
 
+    /**
+     * Get the normalized key if this unit is used as key of a map.
+     * 
+     * @return the key
+     */
+    MapKey getMapKey() {
+        MapKey key = mapKey;
+        if( key == null ) {
+            mapKey = key = MapKey.of( this );
+        }
+        return key;
+    }
+
     @Override
     public String toString() {
         String result = simpleAsString();
@@ -301,78 +372,179 @@ public class LexicalUnitImpl implements SCSSLexicalUnit, SassListItem {
     }
 
     public LexicalUnitImpl divide( LexicalUnitImpl denominator ) {
-        if( denominator.type != SAC_INTEGER && denominator.type != SAC_REAL && type != denominator.type ) {
-            // then this is not a numeric division
-            return new LexicalUnitImpl( uri, line, column, SAC_IDENT, printState()+'/'+denominator.printState() );
+        if( denominator.type == SAC_INTEGER || denominator.type == SAC_REAL ) {
+            return copyWithValue( getDoubleValue() / denominator.getDoubleValue() );
         }
-        LexicalUnitImpl copy = copyWithValue( getDoubleValue() / denominator.getDoubleValue() );
-        if( type == denominator.type ) {
-            copy.setLexicalUnitType( SAC_REAL );
+        if( !isUnitlessNumber() ) {
+            double factor = denominator.conversionFactor( this );
+            if( !Double.isNaN( factor ) ) {
+                LexicalUnitImpl copy = copyWithValue( getDoubleValue() / (denominator.getDoubleValue() * factor) );
+                copy.setLexicalUnitType( SAC_REAL );
+                copy.sdimension = null;
+                return copy;
+            }
+            if( isNumber() && denominator.isNumber() ) {
+                // like multiply, incompatible units create a compound unit like "px/s"
+                return combineUnits( denominator, true );
+            }
         }
-        return copy;
+        // then this is not a numeric division
+        return new LexicalUnitImpl( uri, line, column, SAC_IDENT, printState()+'/'+denominator.printState() );
+    }
+
+    /**
+     * Divide two numbers like math.div(). Unlike {@link #divide(LexicalUnitImpl)} the result is always a number, a
+     * unitless number divided by a number with unit has an inverted unit like "px^-1".
+     * 
+     * @param denominator the denominator
+     * @return the quotient
+     */
+    public LexicalUnitImpl quotient( LexicalUnitImpl denominator ) {
+        if( isUnitlessNumber() && !denominator.isUnitlessNumber() ) {
+            return combineUnits( denominator, true );
+        }
+        return divide( denominator );
     }
 
     public LexicalUnitImpl add(LexicalUnitImpl another) {
-        LexicalUnitImpl copy = copyWithValue(getDoubleValue()
-                + another.getDoubleValue());
-        copy.setLexicalUnitType(checkAndGetUnit(another));
-        return copy;
+        short unit = checkAndGetUnit( another );
+        return copyWithUnit( getDoubleValue() + another.convertValue( this ), unit, another );
     }
 
     public LexicalUnitImpl minus(LexicalUnitImpl another) {
-        LexicalUnitImpl copy = copyWithValue(getDoubleValue()
-                - another.getDoubleValue());
-        copy.setLexicalUnitType(checkAndGetUnit(another));
-        return copy;
+        short unit = checkAndGetUnit( another );
+        return copyWithUnit( getDoubleValue() - another.convertValue( this ), unit, another );
     }
 
     public LexicalUnitImpl multiply(LexicalUnitImpl another) {
-        LexicalUnitImpl copy = copyWithValue(getDoubleValue()
-                * another.getDoubleValue());
-        copy.setLexicalUnitType(checkAndGetUnit(another));
+        if( isNumber() && another.isNumber() && !isUnitlessNumber() && !another.isUnitlessNumber() ) {
+            return combineUnits( another, false );
+        }
+        short unit = checkAndGetUnit( another );
+        return copyWithUnit( getDoubleValue() * another.getDoubleValue(), unit, another );
+    }
+
+    /**
+     * Create a copy with the given value and unit.
+     * 
+     * @param value the new value
+     * @param unit the new unit type, the type of this or of another
+     * @param another the other operand
+     * @return the copy
+     */
+    private LexicalUnitImpl copyWithUnit( double value, short unit, LexicalUnitImpl another ) {
+        LexicalUnitImpl copy = copyWithValue( value );
+        if( unit != type ) {
+            copy.setLexicalUnitType( unit );
+            copy.sdimension = another.sdimension;
+        }
         return copy;
     }
 
+    /**
+     * Multiply or divide two numbers with units. The result can have a compound unit like "px*px". Compatible units
+     * of numerator and denominator are canceled.
+     * 
+     * @param another the other operand
+     * @param divide true, for a division
+     * @return the result
+     */
+    private LexicalUnitImpl combineUnits( LexicalUnitImpl another, boolean divide ) {
+        List<String> numerators = new ArrayList<>();
+        List<String> denominators = new ArrayList<>();
+        Units.parse( getDimensionUnitText(), numerators, denominators );
+        double value;
+        if( divide ) {
+            Units.parse( another.getDimensionUnitText(), denominators, numerators );
+            value = getDoubleValue() / another.getDoubleValue();
+        } else {
+            Units.parse( another.getDimensionUnitText(), numerators, denominators );
+            value = getDoubleValue() * another.getDoubleValue();
+        }
+        value *= Units.cancel( numerators, denominators );
+        String unit = Units.format( numerators, denominators );
+        if( unit.isEmpty() ) {
+            return createNumber( uri, line, column, value );
+        }
+        LexicalUnitImpl copy = copyWithValue( value );
+        copy.setLexicalUnitType( Units.typeOf( unit ) );
+        copy.sdimension = copy.type == SAC_DIMENSION ? unit : null;
+        return copy;
+    }
+
+    /**
+     * Get the factor to convert the value of this number into the unit of the target. This does not allocate any
+     * objects.
+     * 
+     * @param target the number with the target unit
+     * @return the factor or NaN if the units are not convertible
+     */
+    private double conversionFactor( LexicalUnitImpl target ) {
+        if( type == target.type && (type != SAC_DIMENSION || (sdimension != null && sdimension.equals( target.sdimension ))) ) {
+            return 1;
+        }
+        return Units.factor( Units.indexOf( type, sdimension ), Units.indexOf( target.type, target.sdimension ) );
+    }
+
+    /**
+     * Get the value of this number converted into the unit of the target, for example 1in in cm is 2.54. If the units
+     * are not convertible or one of the numbers is unitless then the value is returned unchanged.
+     * 
+     * @param target the number with the target unit
+     * @return the converted value
+     */
+    public double convertValue( LexicalUnitImpl target ) {
+        double factor = conversionFactor( target );
+        return Double.isNaN( factor ) ? f : f * factor;
+    }
+
+    /**
+     * Check if two numbers can be used together in additions, subtractions and comparisons. Unitless numbers are
+     * comparable with all numbers. This does not allocate any objects.
+     * 
+     * @param another the other number
+     * @return true, if comparable
+     */
+    public boolean isComparable( LexicalUnitImpl another ) {
+        if( !isNumber() || !another.isNumber() ) {
+            return false;
+        }
+        if( isUnitlessNumber() || another.isUnitlessNumber() ) {
+            return true;
+        }
+        return !Double.isNaN( conversionFactor( another ) );
+    }
+
     private ParseException createIncompatibleUnitsException( LexicalUnitImpl another ) {
         String msg = "Incompatible units found in: '" + printState() + "' <> '" + another.printState() + "'\n" //
-            + new ParseException( "", this ).getMessage() + '\n';
-        return new ParseException( msg, another );
+            + ParseException.formatPosition( this ) + '\n';
+        return new DiagnosticException( msg, another );
     }
 
     public short checkAndGetUnit( LexicalUnitImpl another ) {
         short thisType = this.type;
         short otherType = another.type;
-        if( thisType == otherType ) {
-            return thisType;
-        }
         switch( otherType ) {
             case SAC_INTEGER:
             case SAC_REAL:
                 return thisType == SAC_INTEGER ? otherType : thisType ;
-
-            case SAC_CENTIMETER:
-            case SAC_MILLIMETER:
-            case SAC_INCH:
-                switch( thisType ) {
-                    case SAC_CENTIMETER:
-                    case SAC_MILLIMETER:
-                    case SAC_INCH:
-                        return thisType;
-                }
         }
         switch( thisType ) {
             case SAC_INTEGER:
             case SAC_REAL:
                 return otherType;
         }
+        if( (thisType == otherType && thisType != SAC_DIMENSION) || !Double.isNaN( another.conversionFactor( this ) ) ) {
+            return thisType;
+        }
         throw createIncompatibleUnitsException( another );
     }
 
     public LexicalUnitImpl modulo(LexicalUnitImpl another) {
-        if( !checkLexicalUnitType( another, type, SAC_INTEGER, SAC_REAL ) ) {
+        if( !checkLexicalUnitType( another, SAC_INTEGER, SAC_REAL ) && Double.isNaN( another.conversionFactor( this ) ) ) {
             throw createIncompatibleUnitsException( another );
         }
-        return copyWithValue( (int)getIntegerValue() % (int)another.getIntegerValue() );
+        return copyWithValue( (int)getIntegerValue() % (int)another.convertValue( this ) );
     }
 
     /**
@@ -389,6 +561,25 @@ public class LexicalUnitImpl implements SCSSLexicalUnit, SassListItem {
         copy.fname = fname;
         copy.sdimension = sdimension;
         copy.params = params;
+        copy.dispatch = dispatch;
+        if( type == SAC_RGBCOLOR && params == null ) {
+            copy.color = color;
+        }
+        return copy;
+    }
+
+    /**
+     * Create a copy of this unit at the source position of another item, for
+     * example a cached function result for a new call.
+     * 
+     * @param location the item with the new position
+     * @return the copy
+     */
+    public LexicalUnitImpl copyAt( SassListItem location ) {
+        LexicalUnitImpl copy = copy();
+        copy.uri = location.getUri();
+        copy.line = location.getLineNumber();
+        copy.column = location.getColumnNumber();
         return copy;
     }
 
@@ -550,6 +741,26 @@ public class LexicalUnitImpl implements SCSSLexicalUnit, SassListItem {
         return new LexicalUnitImpl( uri, SAC_RGBCOLOR, line, column, "rgb", params );
     }
 
+    /**
+     * Create a unit for a computed color. It is not evaluated again and
+     * printed as color name, hex color or rgba().
+     * 
+     * @param uri
+     *            the source uri
+     * @param line
+     *            the line number
+     * @param column
+     *            the column number
+     * @param color
+     *            the color value
+     * @return the unit
+     */
+    public static LexicalUnitImpl createColor( String uri, int line, int column, Color color ) {
+        LexicalUnitImpl unit = new LexicalUnitImpl( uri, line, column, SAC_RGBCOLOR );
+        unit.color = color;
+        return unit;
+    }
+
     public static LexicalUnitImpl createRect( String uri, int line, int column, ActualArgumentList params ) {
         return new LexicalUnitImpl( uri, SAC_RECT_FUNCTION, line, column, "rect", params );
     }
@@ -659,58 +870,38 @@ public class LexicalUnitImpl implements SCSSLexicalUnit, SassListItem {
                 BlockNode parentBlock = context.getParentBlock();
                 return parentBlock != null ? new StringItem( parentBlock.getSelectors() ) : createNull( uri, line, column );
 
-            case SAC_FUNCTION:
             case SAC_RGBCOLOR:
+                if( params == null ) {
+                    // computed color value
+                    return this;
+                }
+                //$FALL-THROUGH$
+            case SAC_FUNCTION:
                 String functionName = fname;
                 if( "calc".equals( functionName ) ) {
                     return createFunction( uri, line, column, functionName, params.evaluateFunctionsAndExpressions( context, false ) );
                 }
-                SCSSFunctionGenerator generator = SCSSFunctionGenerator.getGenerator( functionName );
+                FunctionDispatch dispatch = getFunctionDispatch( context );
                 LexicalUnitImpl copy = this;
                 if( !"if".equals( functionName ) ) {
                     copy = createFunction( uri, line, column, functionName, params.evaluateFunctionsAndExpressions( context, true ) );
                 }
-                if( generator == null ) {
-                    SassListItem result = copy.replaceCustomFunctions( context );
-                    if( result != null ) {
-                        return result;
-                    }
-                }
-                if( generator == null ) {
-                    // log unknown functions
-                    switch( functionName.toLowerCase() ) {
-                        case "blur":
-                        case "brightness":
-                        case "contrast":
-                        case "counters":
-                        case "hsl":
-                        case "hsla":
-                        case "linear-gradient":
-                        case "not ":
-                        case "radial-gradient":
-                        case "rgba":
-                        case "rotate":
-                        case "rotatex":
-                        case "rotatey":
-                        case "perspective":
-                        case "scale":
-                        case "scalex":
-                        case "scaley":
-                        case "translate":
-                        case "translate3d":
-                        case "translatey":
-                        case "translatex":
-                        case "translatez":
-                        case "url":
-                        case "var":
-                            // ignore well known CSS functions
-                            break;
-                        default:
-                            SCSSErrorHandler.get().warning( "Unknown function: " + functionName );
-                    }
-                    return copy;
+                switch( dispatch.kind ) {
+                    case FunctionDispatch.BUILT_IN:
+                        BuiltInFunctionCache cache = context.getBuiltInFunctionCache();
+                        if( cache != null ) {
+                            return cache.compute( context, dispatch.generator, copy );
+                        }
+                        return dispatch.generator.compute( context, copy );
+                    case FunctionDispatch.USER:
+                        return FunctionCall.evaluate( context, dispatch.function, copy );
+                    case FunctionDispatch.UNKNOWN:
+                        SCSSErrorHandler.get().warning( "Unknown function: " + functionName );
+                        return copy;
+                    default:
+                        // well known CSS function
+                        return copy;
                 }
-                return generator.compute( context, copy );
 
             default:
                 StringInterpolationSequence s = this.s;
@@ -726,13 +917,20 @@ public class LexicalUnitImpl implements SCSSLexicalUnit, SassListItem {
         return this;
     }
 
-    private SassListItem replaceCustomFunctions(ScssContext context) {
-        FunctionDefNode functionDef = context
-                .getFunctionDefinition(getFunctionName());
-        if (functionDef != null) {
-            return FunctionCall.evaluate(context, functionDef, this);
+    /**
+     * Get the dispatch decision of this function call site. The lookups are
+     * only repeated if the cached decision is no longer valid.
+     * 
+     * @param context
+     *            current compilation context
+     * @return the decision
+     */
+    private FunctionDispatch getFunctionDispatch(ScssContext context) {
+        FunctionDispatch dispatch = this.dispatch;
+        if (dispatch == null || !dispatch.isValid(context)) {
+            this.dispatch = dispatch = FunctionDispatch.resolve(context, fname);
         }
-        return null;
+        return dispatch;
     }
 
     private String simpleAsString() {
@@ -836,9 +1034,8 @@ public class LexicalUnitImpl implements SCSSLexicalUnit, SassListItem {
                 text = "url(" + getStringValue() + ")";
                 break;
             case SAC_RGBCOLOR:
-                int[] rgb = getRgb();
-                if (rgb != null) {
-                    text = ColorUtil.rgbToColorString(rgb);
+                if( params == null ) {
+                    text = colorToString( color );
                     break;
                 }
                 //$FALL-THROUGH$ else fall through to the function branch
@@ -847,24 +1044,13 @@ public class LexicalUnitImpl implements SCSSLexicalUnit, SassListItem {
             case SAC_RECT_FUNCTION:
             case SAC_FUNCTION:
                 if( ColorUtil.isColor( this ) ) {
-                    text = ColorUtil.rgbToColorString( ColorUtil.colorToRgb( this ) );
+                    text = ColorUtil.rgbToColorString( getColor().getRgb() );
+                    break;
+                }
+                Color color = getFunctionColor();
+                if( color != null ) {
+                    text = colorToString( color );
                     break;
-                } else if( ColorUtil.isRgba( this ) || ColorUtil.isHsla( this ) ) {
-                    double alpha = params.get( params.size() - 1 ).getContainedValue().getDoubleValue();
-                    rgb = ColorUtil.colorToRgb( this );
-                    if( rgb != null ) {
-                        if( alpha == 0.0f && rgb[0] == 0 && rgb[1] == 0 && rgb[2] == 0 ) {
-                            text = "transparent";
-                            break;
-                        } else if( alpha == 1.0f ) {
-                            text = ColorUtil.rgbToColorString( rgb );
-                            break;
-                        } else if( params.size() == 2 || ColorUtil.isHsla( this ) ) {
-                            String alphaText = alpha == 0.0f ? "0" : CSS_FLOAT_FORMAT.get().format( alpha );
-                            text = "rgba(" + rgb[0] + ", " + rgb[1] + ", " + rgb[2] + ", " + alphaText + ")";
-                            break;
-                        }
-                    }
                 }
                 text = fname + "(" + params.buildString( strategy ) + ")";
                 break;
@@ -892,17 +1078,157 @@ public class LexicalUnitImpl implements SCSSLexicalUnit, SassListItem {
         return text;
     }
 
-    private int[] getRgb() {
-        if (params.size() != 3
-                || !checkLexicalUnitType(params.get(0), SAC_INTEGER)
-                || !checkLexicalUnitType(params.get(1), SAC_INTEGER)
-                || !checkLexicalUnitType(params.get(2), SAC_INTEGER)) {
-            return null;
+    /**
+     * The color of a rgba() or hsla() function call if it is printed as color
+     * value instead of the function call.
+     * 
+     * @return the color or null
+     */
+    private Color getFunctionColor() {
+        if( ColorUtil.isRgba( this ) || ColorUtil.isHsla( this ) ) {
+            Color color = getColor();
+            if( color != null && ((color.getAlpha() == 0 && color.getRgb() == 0) || color.getAlpha() == 1 || params.size() == 2 || ColorUtil.isHsla( this )) ) {
+                return color;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void write( CssEmitter out ) throws IOException {
+        if( !out.isCompressed() ) {
+            out.append( printState() );
+            return;
+        }
+        switch( type ) {
+            case SAC_INTEGER:
+            case SAC_REAL:
+            case SAC_PERCENTAGE:
+            case SAC_DEGREE:
+            case SAC_GRADIAN:
+            case SAC_RADIAN:
+            case SAC_MILLISECOND:
+            case SAC_SECOND:
+            case SAC_HERTZ:
+            case SAC_KILOHERTZ:
+            case SAC_DIMENSION:
+                out.append( compressNumber( getDoubleOrInteger() ) ).append( getDimensionUnitText() );
+                return;
+            case SAC_EM:
+            case SAC_REM:
+            case SAC_EX:
+            case SAC_PIXEL:
+            case SAC_INCH:
+            case SAC_CENTIMETER:
+            case SAC_MILLIMETER:
+            case SAC_POINT:
+            case SAC_PICA:
+                String number = compressNumber( getDoubleOrInteger() );
+                out.append( number );
+                // the unit of a zero length is optional but not inside of functions like calc()
+                if( !"0".equals( number ) || out.isInFunction() ) {
+                    out.append( getDimensionUnitText() );
+                }
+                return;
+            case SAC_IDENT:
+                if( ColorUtil.isHexColor( this ) ) {
+                    out.append( ColorUtil.rgbToShortestColorString( getColor().getRgb() ) );
+                    return;
+                }
+                if( ColorUtil.isColorName( this ) ) {
+                    // a color name like "white" can have a shorter hex form
+                    Color named = getColor();
+                    if( named != null && named.getAlpha() == 1 ) {
+                        out.append( ColorUtil.rgbToShortestColorString( named.getRgb() ) );
+                        return;
+                    }
+                }
+                break;
+            case SAC_RGBCOLOR:
+                if( params == null ) {
+                    out.append( colorToCompressedString( getColor() ) );
+                    return;
+                }
+                //$FALL-THROUGH$ else fall through to the function branch
+            case SAC_FUNCTION:
+                if( ColorUtil.isColor( this ) ) {
+                    out.append( ColorUtil.rgbToShortestColorString( getColor().getRgb() ) );
+                    return;
+                }
+                Color color = getFunctionColor();
+                if( color != null ) {
+                    out.append( colorToCompressedString( color ) );
+                    return;
+                }
+                out.append( fname ).append( '(' );
+                out.enterFunction();
+                params.write( out );
+                out.exitFunction();
+                out.append( ')' );
+                return;
+            case SAC_SUB_EXPRESSION:
+                getParameterList().write( out );
+                return;
+        }
+        out.append( printState() );
+    }
+
+    /**
+     * Remove the leading zero of a formatted number like 0.5.
+     * 
+     * @param text
+     *            the formatted number
+     * @return the shorter number
+     */
+    private static String compressNumber( String text ) {
+        if( text.startsWith( "0." ) ) {
+            return text.substring( 1 );
+        }
+        if( text.startsWith( "-0." ) ) {
+            return '-' + text.substring( 2 );
+        }
+        return text;
+    }
+
+    /**
+     * The shortest CSS text of a color for the compressed output style.
+     * 
+     * @param color
+     *            the color
+     * @return the text
+     */
+    private static String colorToCompressedString( Color color ) {
+        double alpha = color.getAlpha();
+        int rgb = color.getRgb();
+        if( alpha == 0 && rgb == 0 ) {
+            return "transparent";
+        }
+        if( alpha >= 1 ) {
+            return ColorUtil.rgbToShortestColorString( rgb );
+        }
+        String alphaText = alpha == 0 ? "0" : compressNumber( CSS_FLOAT_FORMAT.get().format( alpha ) );
+        return "rgba(" + color.getRed() + ',' + color.getGreen() + ',' + color.getBlue() + ',' + alphaText + ')';
+    }
+
+    /**
+     * The CSS text of a color: "transparent", the color name or hex color if
+     * opaque, else rgba().
+     * 
+     * @param color
+     *            the color
+     * @return the text
+     */
+    private static String colorToString( Color color ) {
+        double alpha = color.getAlpha();
+        int rgb = color.getRgb();
+        if( alpha == 0 && rgb == 0 ) {
+            return "transparent";
+        }
+        if( alpha >= 1 ) {
+            return ColorUtil.rgbToColorString( rgb );
         }
-        int red = ((LexicalUnitImpl) params.get(0)).getIntegerValue();
-        int green = ((LexicalUnitImpl) params.get(1)).getIntegerValue();
-        int blue = ((LexicalUnitImpl) params.get(2)).getIntegerValue();
-        return new int[] { red, green, blue };
+        String alphaText = alpha == 0 ? "0" : CSS_FLOAT_FORMAT.get().format( alpha );
+        return "rgba(" + color.getRed() + ", " + color.getGreen() + ", " + color.getBlue() + ", " + alphaText + ")";
     }
 
     @Override
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass.parser;
+
+import java.util.Objects;
+
+/**
+ * The normalized key of a map entry. Numbers are compared by the exact value and unit, quoted and unquoted strings by
+ * the text. All other values are compared by the unquoted output.
+ */
+final class MapKey {
+
+    private static final int NUMBER = 0;
+
+    private static final int STRING = 1;
+
+    private static final int OTHER  = 2;
+
+    private final int    type;
+
+    private final double value;
+
+    private final String unit;
+
+    private final String text;
+
+    private final int    hash;
+
+    private MapKey( int type, double value, String unit, String text ) {
+        this.type = type;
+        // -0.0 and 0.0 are the same key
+        this.value = value + 0.0;
+        this.unit = unit;
+        this.text = text;
+        this.hash = Objects.hash( type, this.value, unit, text );
+    }
+
+    /**
+     * Create the key for a single value.
+     * 
+     * @param unit the value
+     * @return the key
+     */
+    static MapKey of( LexicalUnitImpl unit ) {
+        if( unit.isNumber() ) {
+            return new MapKey( NUMBER, unit.getDoubleValue(), unit.getDimensionUnitText(), null );
+        }
+        switch( unit.getItemType() ) {
+            case SCSSLexicalUnit.SAC_IDENT:
+            case SCSSLexicalUnit.SAC_STRING_VALUE:
+                return new MapKey( STRING, 0, null, unit.getStringValue() );
+            default:
+                return new MapKey( OTHER, 0, null, unit.unquotedString() );
+        }
+    }
+
+    /**
+     * Create the key for any item.
+     * 
+     * @param item the value
+     * @return the key
+     */
+    static MapKey of( SassListItem item ) {
+        if( item instanceof LexicalUnitImpl ) {
+            return ((LexicalUnitImpl)item).getMapKey();
+        }
+        return new MapKey( OTHER, 0, null, item.unquotedString() );
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals( Object obj ) {
+        if( this == obj ) {
+            return true;
+        }
+        if( !(obj instanceof MapKey) ) {
+            return false;
+        }
+        MapKey other = (MapKey)obj;
+        return type == other.type && value == other.value && Objects.equals( unit, other.unit ) && Objects.equals( text, other.text );
+    }
+}
@@ -56,7 +56,52 @@ public class ParseException extends RuntimeException {
     }
 
     public ParseException(String message, String uri, int line, int column) {
-        super(message + " in line " + line + ", column " + column + getLocation( uri ) );
+        super(message);
+        this.uri = uri;
+        this.line = line;
+        this.column = column;
+        hasPosition = true;
+    }
+
+    /**
+     * Constructor for subclasses which can disable the stack trace.
+     * 
+     * @param message
+     *            the message without location
+     * @param unit
+     *            the location or null
+     * @param cause
+     *            the cause or null
+     * @param writableStackTrace
+     *            false, to skip the filling of the stack trace
+     */
+    protected ParseException(String message, SourceLocation unit, Throwable cause, boolean writableStackTrace) {
+        super(message, cause, true, writableStackTrace);
+        currentUnit = unit;
+    }
+
+    /**
+     * Constructor for subclasses which can disable the stack trace.
+     * 
+     * @param message
+     *            the message without location
+     * @param uri
+     *            the file or null
+     * @param line
+     *            the line in the file
+     * @param column
+     *            the column in the line
+     * @param cause
+     *            the cause or null
+     * @param writableStackTrace
+     *            false, to skip the filling of the stack trace
+     */
+    protected ParseException(String message, String uri, int line, int column, Throwable cause, boolean writableStackTrace) {
+        super(message, cause, true, writableStackTrace);
+        this.uri = uri;
+        this.line = line;
+        this.column = column;
+        hasPosition = true;
     }
 
     /**
@@ -65,6 +110,18 @@ public class ParseException extends RuntimeException {
      */
     private SourceLocation currentUnit;
 
+    /**
+     * The location of the constructor with line and column. The message is
+     * only formatted in getMessage().
+     */
+    private boolean hasPosition;
+
+    private String uri;
+
+    private int line;
+
+    private int column;
+
     /**
      * This method has the standard behavior when this object has been created
      * using the standard constructors. Otherwise, it uses "currentToken" and
@@ -77,19 +134,29 @@ public class ParseException extends RuntimeException {
     @Override
     public String getMessage() {
         String message = super.getMessage();
-        if (currentUnit != null) {
-            message = message + " at line " + currentUnit.getLineNumber() + ", column " + currentUnit.getColumnNumber() + getLocation();
+        if (hasPosition) {
+            message = message + " in line " + line + ", column " + column + getLocation( uri );
+        } else if (currentUnit != null) {
+            message = message + formatPosition( currentUnit );
         }
         return message;
     }
 
-    private String getLocation() {
-        if( currentUnit == null ) {
-            return "";
-        }
-        String fileName = currentUnit.getUri();
-        if( fileName == null && currentUnit instanceof Node ) {
-            Node node = (Node)currentUnit;
+    /**
+     * Format the position of a unit like it is appended to the messages.
+     * 
+     * @param unit
+     *            the location
+     * @return the position text starting with a space
+     */
+    public static String formatPosition( SourceLocation unit ) {
+        return " at line " + unit.getLineNumber() + ", column " + unit.getColumnNumber() + getLocation( unit );
+    }
+
+    private static String getLocation( SourceLocation unit ) {
+        String fileName = unit.getUri();
+        if( fileName == null && unit instanceof Node ) {
+            Node node = (Node)unit;
             while( fileName == null && node != null ) {
                 node = node.getParentNode();
                 fileName = node.getUri();
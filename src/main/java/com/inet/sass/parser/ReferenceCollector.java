@@ -0,0 +1,138 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass.parser;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Collects the names of the variables and functions which are referenced by not evaluated expressions. This is used
+ * to analyze the body of a function definition.
+ */
+public class ReferenceCollector {
+
+    private final Set<String> variables = new LinkedHashSet<>();
+
+    private final Set<String> functions = new LinkedHashSet<>();
+
+    private boolean           contextDependent;
+
+    /**
+     * Collect the references of an expression.
+     * 
+     * @param item the expression, can be null
+     */
+    public void collect( SassListItem item ) {
+        if( item == null ) {
+            return;
+        }
+        if( item instanceof LexicalUnitImpl ) {
+            collect( (LexicalUnitImpl)item );
+        } else if( item instanceof SassList ) {
+            collect( ((SassList)item).getItems() );
+            if( item instanceof ArgumentList ) {
+                for( Variable named : ((ArgumentList)item).getNamedVariables() ) {
+                    collect( named.getExpr() );
+                }
+            }
+        } else if( item instanceof SassExpression ) {
+            collect( ((SassExpression)item).getItems() );
+        } else if( item instanceof Interpolation ) {
+            collect( ((Interpolation)item).getExpression() );
+        } else if( !(item instanceof StringItem) ) {
+            // unknown item type
+            contextDependent = true;
+        }
+    }
+
+    /**
+     * Collect the references of a function argument list.
+     * 
+     * @param arguments the arguments, can be null
+     */
+    public void collect( ActualArgumentList arguments ) {
+        if( arguments == null ) {
+            return;
+        }
+        for( int i = 0; i < arguments.size(); i++ ) {
+            collect( arguments.get( i ) );
+        }
+        for( Variable named : arguments.getNamedVariables() ) {
+            collect( named.getExpr() );
+        }
+        collect( arguments.getVariableArgument() );
+    }
+
+    private void collect( Collection<SassListItem> items ) {
+        for( SassListItem item : items ) {
+            collect( item );
+        }
+    }
+
+    private void collect( LexicalUnitImpl unit ) {
+        switch( unit.getItemType() ) {
+            case SCSSLexicalUnit.SCSS_VARIABLE:
+                variables.add( unit.getStringValue() );
+                return;
+            case SCSSLexicalUnit.SCSS_PARENT:
+            case SCSSLexicalUnit.SCSS_GET_FUNCTION:
+                contextDependent = true;
+                return;
+            case SCSSLexicalUnit.SAC_FUNCTION:
+            case SCSSLexicalUnit.SAC_RGBCOLOR:
+                if( unit.getFunctionName() != null ) {
+                    functions.add( unit.getFunctionName() );
+                }
+                break;
+            default:
+        }
+        collect( unit.getParameterList() );
+        StringInterpolationSequence s = unit.getStringInterpolationSequence();
+        if( s != null && s.containsInterpolation() ) {
+            collect( s.getItems() );
+        }
+    }
+
+    /**
+     * The names of the referenced variables without the "$".
+     * 
+     * @return the names in the order of the first occurrence
+     */
+    public Set<String> getVariables() {
+        return variables;
+    }
+
+    /**
+     * The names of the called functions. This can be built-in, user defined or plain CSS functions.
+     * 
+     * @return the names in the order of the first occurrence
+     */
+    public Set<String> getFunctions() {
+        return functions;
+    }
+
+    /**
+     * True, if an expression depends on something else than variables and functions like the parent selector "&amp;"
+     * or a dynamic function reference.
+     * 
+     * @return true, if context dependent
+     */
+    public boolean isContextDependent() {
+        return contextDependent;
+    }
+}
@@ -208,6 +208,14 @@ public class SassExpression implements SassListItem {
         return list.size();
     }
 
+    /**
+     * Get the operands and operators of the expression
+     * @return the items, not a copy
+     */
+    List<SassListItem> getItems() {
+        return items;
+    }
+
     @Override
     public SassListItem evaluateFunctionsAndExpressions( ScssContext context, boolean evaluateArithmetics ) {
         if( evaluateArithmetics && !items.isEmpty() ) {
@@ -17,12 +17,14 @@
 package com.inet.sass.parser;
 import static com.inet.sass.parser.SCSSLexicalUnit.SCSS_LIST;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 
 import com.inet.sass.ScssContext;
+import com.inet.sass.tree.CssEmitter;
 import com.inet.sass.tree.Node;
 import com.inet.sass.tree.Node.BuildStringStrategy;
 
@@ -56,6 +58,9 @@ public class SassList implements SassListItem, Iterable<SassListItem> {
 
     private final List<SassListItem> items;
 
+    /** Cache of isConstant(): 0 - not calculated, 1 - constant, 2 - not constant */
+    private byte constant;
+
     public SassList() {
         this(Separator.SPACE);
     }
@@ -155,12 +160,117 @@ public class SassList implements SassListItem, Iterable<SassListItem> {
     @Override
     public SassList evaluateFunctionsAndExpressions(ScssContext context,
             boolean evaluateArithmetics) {
-        List<SassListItem> list = new ArrayList<SassListItem>();
-        for (SassListItem item : this) {
-            list.add(item.evaluateFunctionsAndExpressions(context,
-                    evaluateArithmetics));
+        List<SassListItem> list = evaluateItems(context, evaluateArithmetics);
+        return list == null ? this : new SassList(getSeparator(), list);
+    }
+
+    /**
+     * Evaluate all items of the list.
+     * 
+     * @param context
+     *            current compilation context
+     * @param evaluateArithmetics
+     *            true, if arithmetic operations should be evaluated
+     * @return the evaluated items or null if no item was changed
+     */
+    protected List<SassListItem> evaluateItems(ScssContext context,
+            boolean evaluateArithmetics) {
+        if (isConstant()) {
+            return null;
         }
-        return new SassList(getSeparator(), list);
+        List<SassListItem> items = this.items;
+        int size = items.size();
+        List<SassListItem> list = null;
+        for (int i = 0; i < size; i++) {
+            SassListItem item = items.get(i);
+            SassListItem evaluated = item.evaluateFunctionsAndExpressions(
+                    context, evaluateArithmetics);
+            if (list == null && evaluated != item) {
+                list = new ArrayList<SassListItem>(size);
+                list.addAll(items.subList(0, i));
+            }
+            if (list != null) {
+                list.add(evaluated);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Check if the evaluation would not change any item. The result is
+     * cached, so that a list in a variable is not scanned on every access.
+     * 
+     * @return true, if all items are constant
+     */
+    boolean isConstant() {
+        byte constant = this.constant;
+        if (constant == 0) {
+            constant = 1;
+            for (SassListItem item : items) {
+                if (!isConstant(item)) {
+                    constant = 2;
+                    break;
+                }
+            }
+            this.constant = constant;
+        }
+        return constant == 1;
+    }
+
+    private static boolean isConstant(SassListItem item) {
+        if (item instanceof LexicalUnitImpl) {
+            return ((LexicalUnitImpl) item).isConstant();
+        }
+        if (item.getClass() == SassList.class || item.getClass() == SassMap.class) {
+            return ((SassList) item).isConstant();
+        }
+        return item instanceof StringItem;
+    }
+
+    /**
+     * Create a new list with additional items at the end. This list is not
+     * changed. The new list shares the items with this list, so appending in
+     * a loop does not copy the list every time.
+     * 
+     * @param sep
+     *            the separator of the new list
+     * @param newItems
+     *            the items to append
+     * @return the new list
+     */
+    public SassList append(Separator sep, List<SassListItem> newItems) {
+        SassList result = new SassList(sep, AppendList.append(items, newItems));
+        boolean constant = isConstant();
+        for (int i = 0; constant && i < newItems.size(); i++) {
+            constant = isConstant(newItems.get(i));
+        }
+        result.setConstant(constant);
+        return result;
+    }
+
+    /**
+     * Set the cached value of isConstant() for a list that is built from
+     * lists with a known value.
+     * 
+     * @param constant
+     *            true, if all items are constant
+     */
+    void setConstant(boolean constant) {
+        this.constant = constant ? (byte) 1 : (byte) 2;
+    }
+
+    /**
+     * Create a new list with the items of this and another list. This list is
+     * not changed and shares its items with the new list.
+     * 
+     * @param sep
+     *            the separator of the new list
+     * @param other
+     *            the list with the items to append
+     * @return the new list
+     */
+    public SassList join(Separator sep, SassList other) {
+        return append(sep, other.items);
     }
 
     static List<SassListItem> replaceVariables( ScssContext context, List<SassListItem> items ) {
@@ -206,6 +316,49 @@ public class SassList implements SassListItem, Iterable<SassListItem> {
         return buildString(Node.PRINT_STRATEGY);
     }
 
+    /**
+     * {@inheritDoc}
+     * 
+     * Same output as {@link #buildString(BuildStringStrategy)}, the separator
+     * is only written if an item follows that is not empty.
+     */
+    @Override
+    public void write( CssEmitter out ) throws IOException {
+        List<SassListItem> items = this.items;
+        int size = items.size();
+        boolean first = true;
+        boolean isMap = false;
+        String separator = out.isCompressed() && this.separator == Separator.COMMA ? "," : this.separator.toString();
+        for( int i = 0; i < size; i++ ) {
+            SassListItem itemValue = items.get( i );
+            boolean colon = first && itemValue.getClass() == SassList.class && ((SassList)itemValue).separator == Separator.COLON;
+            int mark = out.pending( first ? (colon ? "(" : "") : isImportant( out, itemValue ) ? "" : separator );
+            long length = out.length();
+            itemValue.write( out );
+            out.discardPending( mark );
+            if( out.length() != length ) {
+                if( first ) {
+                    isMap = colon;
+                }
+                first = false;
+            }
+        }
+        if( isMap ) {
+            out.append( ')' );
+        }
+    }
+
+    /**
+     * Check if the item is a trailing !important flag that needs no space before it in the compressed style.
+     *
+     * @param out the target
+     * @param item the list item
+     * @return true, if compressed and the item is !important
+     */
+    private static boolean isImportant( CssEmitter out, SassListItem item ) {
+        return out.isCompressed() && item instanceof LexicalUnitImpl && item.getItemType() == SCSSLexicalUnit.SAC_IDENT && "!important".equals( ((LexicalUnitImpl)item).getStringValue() );
+    }
+
     @Override
     public String toString() {
         return "SassList [" + getStringWithNesting() + "]";
@@ -16,7 +16,10 @@
  */
 package com.inet.sass.parser;
 
+import java.io.IOException;
+
 import com.inet.sass.ScssContext;
+import com.inet.sass.tree.CssEmitter;
 import com.inet.sass.tree.SourceLocation;
 import com.inet.sass.tree.Node.BuildStringStrategy;
 
@@ -108,6 +111,19 @@ public interface SassListItem extends SourceLocation {
      */
     public String buildString(BuildStringStrategy strategy);
 
+    /**
+     * Write the CSS representation of this item, the same as
+     * {@link #printState()}.
+     * 
+     * @param out
+     *            the target
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public default void write(CssEmitter out) throws IOException {
+        out.append(printState());
+    }
+
     /**
      * Returns a string representation of this item with surrounding quotation
      * marks of the same type (" or ') removed. Quotation marks are only removed
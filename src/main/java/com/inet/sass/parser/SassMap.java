@@ -0,0 +1,274 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass.parser;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map.Entry;
+
+import com.inet.sass.ScssContext;
+
+/**
+ * An immutable Sass map. Like before it is a COMMA separated list of COLON separated pairs, so it can be used
+ * everywhere a list is expected. Additional it has an insertion ordered hash index of the normalized keys, which is
+ * created on the first lookup. Maps which are created by merging new keys share the entries and the index with the
+ * original map.
+ */
+public class SassMap extends SassList {
+
+    /**
+     * Position of every normalized key. The index can be shared with maps that were created by appending to this map,
+     * only positions lower than the size belong to this map.
+     */
+    private HashMap<MapKey, Integer> index;
+
+    /**
+     * Create a map.
+     * 
+     * @param entries the entries, every entry is a COLON separated list with key and value
+     */
+    public SassMap( List<SassListItem> entries ) {
+        super( Separator.COMMA, entries );
+    }
+
+    private SassMap( List<SassListItem> entries, HashMap<MapKey, Integer> index ) {
+        this( entries );
+        this.index = index;
+    }
+
+    /**
+     * Check if the item is a map entry.
+     * 
+     * @param item the item
+     * @return true, if a COLON separated key value pair
+     */
+    public static boolean isEntry( SassListItem item ) {
+        return item.getClass() == SassList.class && ((SassList)item).getSeparator() == Separator.COLON;
+    }
+
+    /**
+     * Get the value as map. A list of map entries is converted.
+     * 
+     * @param item the value
+     * @return the map or null if the value is not a map
+     */
+    public static SassMap valueOf( SassListItem item ) {
+        if( item instanceof SassMap ) {
+            return (SassMap)item;
+        }
+        if( isEntry( item ) ) {
+            List<SassListItem> entries = new ArrayList<>( 1 );
+            entries.add( item );
+            return new SassMap( entries );
+        }
+        if( item instanceof SassList ) {
+            SassList list = (SassList)item;
+            if( list.size() == 0 ) {
+                return new SassMap( new ArrayList<>() );
+            }
+            // we need only to check the first entry, the other has the parser already checked
+            if( isEntry( list.get( 0 ) ) ) {
+                return new SassMap( list.getItems() );
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Normalize a key of a map. Quoted and unquoted strings are equals keys, numbers are compared by the exact value.
+     * 
+     * @param key the key
+     * @return the normalized key
+     */
+    private static MapKey normalizeKey( SassListItem key ) {
+        return MapKey.of( key );
+    }
+
+    private HashMap<MapKey, Integer> getIndex() {
+        HashMap<MapKey, Integer> index = this.index;
+        if( index == null ) {
+            int size = size();
+            index = new HashMap<>( size * 4 / 3 + 1 );
+            for( int i = 0; i < size; i++ ) {
+                // if a key occur multiple times then the first is used
+                index.putIfAbsent( normalizeKey( getKey( i ) ), i );
+            }
+            this.index = index;
+        }
+        return index;
+    }
+
+    /**
+     * Get the key of an entry.
+     * 
+     * @param i the position of the entry
+     * @return the key
+     */
+    public SassListItem getKey( int i ) {
+        return ((SassList)get( i )).get( 0 );
+    }
+
+    /**
+     * Get the value of an entry.
+     * 
+     * @param i the position of the entry
+     * @return the value
+     */
+    public SassListItem getValue( int i ) {
+        return ((SassList)get( i )).get( 1 );
+    }
+
+    /**
+     * Get the value for a key.
+     * 
+     * @param key the key
+     * @return the value or null if the map does not contain the key
+     */
+    public SassListItem getValue( SassListItem key ) {
+        int i = indexOf( normalizeKey( key ) );
+        return i < 0 ? null : getValue( i );
+    }
+
+    /**
+     * Check if the map contains the key.
+     * 
+     * @param key the key
+     * @return true, if the key exists
+     */
+    public boolean containsKey( SassListItem key ) {
+        return indexOf( normalizeKey( key ) ) >= 0;
+    }
+
+    private int indexOf( MapKey key ) {
+        Integer i = getIndex().get( key );
+        return i != null && i < size() ? i : -1;
+    }
+
+    /**
+     * Create a new map with the entries of this and another map. Entries of the other map replace entries with the
+     * same key, but the order of the first map is preserved.
+     * 
+     * @param other the other map
+     * @return the new map
+     */
+    public SassMap merge( SassMap other ) {
+        if( other.size() == 0 ) {
+            return this;
+        }
+        if( size() == 0 ) {
+            return other;
+        }
+        if( hasOnlyNewKeys( other ) ) {
+            return append( other );
+        }
+        List<SassListItem> entries = new ArrayList<>( size() + other.size() );
+        HashMap<MapKey, Integer> index = new HashMap<>();
+        // copy the entries at its index position, the entries of duplicate keys are removed
+        for( int i = 0; i < size(); i++ ) {
+            MapKey key = normalizeKey( getKey( i ) );
+            if( indexOf( key ) == i ) {
+                index.put( key, entries.size() );
+                entries.add( get( i ) );
+            }
+        }
+        int size = other.size();
+        for( int i = 0; i < size; i++ ) {
+            SassListItem entry = other.get( i );
+            MapKey key = normalizeKey( other.getKey( i ) );
+            Integer pos = index.get( key );
+            if( pos == null ) {
+                index.put( key, entries.size() );
+                entries.add( entry );
+            } else {
+                entries.set( pos, entry );
+            }
+        }
+        return new SassMap( AppendList.copyOf( entries, 0 ), index );
+    }
+
+    private boolean hasOnlyNewKeys( SassMap other ) {
+        int size = other.size();
+        if( other.getIndex().size() != size ) {
+            // duplicate keys
+            return false;
+        }
+        for( int i = 0; i < size; i++ ) {
+            if( indexOf( normalizeKey( other.getKey( i ) ) ) >= 0 ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Append the entries of a map without common keys. If no other map was appended to this map before then the new
+     * map shares the entries and the index with this map.
+     * 
+     * @param other the other map
+     * @return the new map
+     */
+    private SassMap append( SassMap other ) {
+        List<SassListItem> items = getItems();
+        HashMap<MapKey, Integer> index = getIndex();
+        int size = size();
+        synchronized( index ) {
+            if( items instanceof AppendList && ((AppendList)items).isLast() ) {
+                AppendList entries = ((AppendList)items).append( other.getItems() );
+                addKeys( index, other, size );
+                return newMap( entries, index, other );
+            }
+        }
+        HashMap<MapKey, Integer> newIndex = new HashMap<>( (size + other.size()) * 4 / 3 + 1 );
+        for( Entry<MapKey, Integer> entry : index.entrySet() ) {
+            if( entry.getValue() < size ) {
+                newIndex.put( entry.getKey(), entry.getValue() );
+            }
+        }
+        addKeys( newIndex, other, size );
+        return newMap( AppendList.append( items, other.getItems() ), newIndex, other );
+    }
+
+    private SassMap newMap( List<SassListItem> entries, HashMap<MapKey, Integer> index, SassMap other ) {
+        SassMap map = new SassMap( entries, index );
+        map.setConstant( isConstant() && other.isConstant() );
+        return map;
+    }
+
+    private static void addKeys( HashMap<MapKey, Integer> index, SassMap map, int offset ) {
+        int size = map.size();
+        for( int i = 0; i < size; i++ ) {
+            index.put( normalizeKey( map.getKey( i ) ), offset + i );
+        }
+    }
+
+    @Override
+    public SassMap evaluateFunctionsAndExpressions( ScssContext context, boolean evaluateArithmetics ) {
+        List<SassListItem> list = evaluateItems( context, evaluateArithmetics );
+        // an unchanged map keeps its index
+        return list == null ? this : new SassMap( list );
+    }
+
+    @Override
+    public SassMap updateUrl( String prefix ) {
+        if( size() > 0 ) {
+            return new SassMap( updateUrl( getItems(), prefix ) );
+        } else {
+            return this;
+        }
+    }
+}
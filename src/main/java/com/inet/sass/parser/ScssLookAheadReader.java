@@ -181,13 +181,27 @@ public class ScssLookAheadReader {
     }
 
     char read() {
+        int ch = readOrEnd();
+        if( ch == -1 ) {
+            throw createException( "Unexpected end of Scss data" );
+        }
+        return (char)ch;
+    }
+
+    /**
+     * Read the next character like {@link #read()} but report the end of the data with a result instead of an
+     * exception. The parser uses it where the end of the data is expected.
+     * 
+     * @return the character or -1 at the end of the data
+     */
+    int readOrEnd() {
         try {
             if( cachePos < cache.length() ) {
                 return incLineColumn( cache.charAt( cachePos++ ) );
             }
             int ch = reader.read();
             if( ch == -1 ) {
-                throw createException( "Unexpected end of Scss data" );
+                return -1;
             }
             if( ch == '/' ) {
                 int ch2 = reader.read();
@@ -128,12 +128,9 @@ public final class ScssParser {
         StringBuilder builder = cachesBuilder;
 
         LOOP: for( ;; ) {
-            char ch;
-            try {
-                ch = reader.read();
-            } catch( Exception e ) {
-                ch = ';'; // a not terminated line is like a lime with semicolon
-            }
+            int next = reader.readOrEnd();
+            // a not terminated line is like a lime with semicolon
+            char ch = next == -1 ? ';' : (char)next;
 
             if( isWhitespace( ch ) ) {
                 if( builder.length() == 0 ) {
@@ -156,10 +153,13 @@ public final class ScssParser {
                         SassListItem exp = parseExpressionOrList();
                         documentHandler.variable( name, exp, wasDefault );
                     } else {
+                        // the position of the first character of the name, the colon was already read
+                        int line = reader.getLine();
+                        int column = Math.max( 1, reader.getColumn() - 1 - builder.length() );
                         StringInterpolationSequence name = createStringInterpolationSequence( trim( builder ) );
                         SassListItem exp = parseExpressionOrList();
                         boolean important = false; //the old JavaCC based parser has also use ever false
-                        documentHandler.property( name, exp, important, null );
+                        documentHandler.property( uri, line, column, name, exp, important, null );
                     }
                     if( consumeMarkers( ';', '}' ) == '}' ) { //last line in a block does not need a semicolon
                         reader.back( '}' );
@@ -224,9 +224,11 @@ public final class ScssParser {
             reader.back( ch );
             break;
         }
+        int line = reader.getLine();
+        int column = reader.getColumn();
         List<Selector> selectorList = parseSelectorList( false );
         consumeMarker( '{' );
-        documentHandler.startSelector( source.getURI(), reader.getLine(), reader.getColumn(), selectorList );
+        documentHandler.startSelector( source.getURI(), line, column, selectorList );
         parse( false );
         documentHandler.endSelector();
     }
@@ -617,12 +619,9 @@ public final class ScssParser {
 
                     // Look Ahead for @else
                     ELSE: for( ;; ) {
-                        try {
-                            ch = readNonWhitespace();
-                        } catch( ParseException e ) {
-                            // End of file?
-                            ch = ' ';
-                        }
+                        int next = readNonWhitespaceOrEnd();
+                        // End of file?
+                        ch = next == -1 ? ' ' : (char)next;
                         if( ch != '@' ) {
                             reader.back( ch ); // '@'
                         } else {
@@ -724,9 +723,11 @@ public final class ScssParser {
                 default:
                     if( block ) {
                         reader.back( rule );
+                        int line = reader.getLine();
+                        int column = reader.getColumn();
                         selectorList = parseSelectorList( false );
                         consumeMarker( '{' );
-                        documentHandler.startSelector( source.getURI(), reader.getLine(), reader.getColumn(), selectorList );
+                        documentHandler.startSelector( source.getURI(), line, column, selectorList );
                         parse( false );
                         documentHandler.endSelector();
                     } else {
@@ -862,9 +863,11 @@ public final class ScssParser {
      * Parse @media rule
      */
     private void media() {
+        int line = reader.getLine();
+        int column = reader.getColumn();
         MediaList media = mediaStatement();
         consumeMarker( '{' );
-        documentHandler.startMedia( uri, reader.getLine(), reader.getColumn(), media );
+        documentHandler.startMedia( uri, line, column, media );
         parse( false );
         documentHandler.endMedia();
     }
@@ -928,12 +931,11 @@ public final class ScssParser {
 
         int braceCount = 0;
         LOOP: for( ;; ) {
-            char ch;
-            try {
-                ch = reader.read();
-            } catch( Exception e ) {
+            int next = reader.readOrEnd();
+            if( next == -1 ) {
                 break;
             }
+            char ch = (char)next;
             switch( ch ) {
                 case '}':
                     builder.append( ch );
@@ -1044,6 +1046,11 @@ public final class ScssParser {
 
             switch( ch ) {
                 case '.':
+                    if( isNamespace( builder ) ) {
+                        // module function like math.div()
+                        builder.append( ch );
+                        continue LOOP;
+                    }
                     if( !isNextDigit( false ) ) {
                         reader.back( ch );
                         break LOOP;
@@ -1224,9 +1231,9 @@ public final class ScssParser {
                             break;
                         case "":
                             right = parseExpressionOrList();
-                            if( right.getClass() == SassList.class && ((SassList)right).getSeparator() == Separator.COLON ) {
+                            if( SassMap.isEntry( right ) || (right.getClass() == SassList.class && ((SassList)right).size() > 0 && SassMap.isEntry( ((SassList)right).get( 0 ) )) ) {
                                 // map item required a Comma separated list on top
-                                right = new SassList( Separator.COMMA, right );
+                                right = SassMap.valueOf( right );
                             }
                             left = concat( left, right );
                             consumeMarker( ')' );
@@ -1370,6 +1377,29 @@ public final class ScssParser {
         return (SassListItem)left;
     }
 
+    /**
+     * Check if the builder contains a module namespace like "math" and the
+     * next character starts the member name.
+     * 
+     * @param builder the current identifier
+     * @return true, if a namespace
+     */
+    private boolean isNamespace( StringBuilder builder ) {
+        int length = builder.length();
+        if( length == 0 || !Character.isLetter( builder.charAt( 0 ) ) ) {
+            return false;
+        }
+        for( int i = 1; i < length; i++ ) {
+            char ch = builder.charAt( i );
+            if( !Character.isLetterOrDigit( ch ) && ch != '-' && ch != '_' ) {
+                return false;
+            }
+        }
+        char ch = reader.read();
+        reader.back( ch );
+        return Character.isLetter( ch );
+    }
+
     /**
      * If the next character is a digit
      * @param orPoint true, if point '.' is also valid
@@ -1962,6 +1992,28 @@ public final class ScssParser {
         }
     }
 
+    /**
+     * Read the next character that is not a whitespace or comment like {@link #readNonWhitespace()} but report the
+     * end of the data with a result instead of an exception.
+     * 
+     * @return the character or -1 at the end of the data
+     */
+    private int readNonWhitespaceOrEnd() {
+        for( ;; ) {
+            int ch = reader.readOrEnd();
+            if( ch == -1 ) {
+                return -1;
+            }
+            if( isWhitespace( (char)ch ) ) {
+                continue;
+            }
+            if( ch == '/' && comment() ) {
+                continue;
+            }
+            return ch;
+        }
+    }
+
     /**
      * Fast check if a character is a whitespace
      * @param ch the character
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass.parser;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Table driven unit system. Every known unit has an index into a precomputed conversion matrix. Units of the same
+ * dimension (length, angle, time, frequency, resolution) can be converted into each other, all other pairs are
+ * incompatible. The lookups do not allocate any objects.
+ */
+final class Units {
+
+    /** The unit index of unitless numbers and unknown units. */
+    static final int          UNKNOWN        = -1;
+
+    private static final int  LENGTH         = 0;
+
+    private static final int  ANGLE          = 1;
+
+    private static final int  TIME           = 2;
+
+    private static final int  FREQUENCY      = 3;
+
+    private static final int  RESOLUTION     = 4;
+
+    /** Units without a conversion, every one is its own dimension. */
+    private static final int  SINGLE         = 5;
+
+    private static final String[] NAMES      = { "px", "cm", "mm", "q", "in", "pt", "pc", //
+                    "deg", "grad", "rad", "turn", //
+                    "ms", "s", //
+                    "Hz", "kHz", //
+                    "dppx", "dpi", "dpcm", //
+                    "%", "em", "rem", "lem", "ex" };
+
+    private static final short[]  TYPES      = { SCSSLexicalUnit.SAC_PIXEL, SCSSLexicalUnit.SAC_CENTIMETER, SCSSLexicalUnit.SAC_MILLIMETER, SCSSLexicalUnit.SAC_DIMENSION, SCSSLexicalUnit.SAC_INCH, SCSSLexicalUnit.SAC_POINT, SCSSLexicalUnit.SAC_PICA, //
+                    SCSSLexicalUnit.SAC_DEGREE, SCSSLexicalUnit.SAC_GRADIAN, SCSSLexicalUnit.SAC_RADIAN, SCSSLexicalUnit.SAC_DIMENSION, //
+                    SCSSLexicalUnit.SAC_MILLISECOND, SCSSLexicalUnit.SAC_SECOND, //
+                    SCSSLexicalUnit.SAC_HERTZ, SCSSLexicalUnit.SAC_KILOHERTZ, //
+                    SCSSLexicalUnit.SAC_DIMENSION, SCSSLexicalUnit.SAC_DIMENSION, SCSSLexicalUnit.SAC_DIMENSION, //
+                    SCSSLexicalUnit.SAC_PERCENTAGE, SCSSLexicalUnit.SAC_EM, SCSSLexicalUnit.SAC_REM, SCSSLexicalUnit.SAC_LEM, SCSSLexicalUnit.SAC_EX };
+
+    private static final int[]    DIMENSIONS = { LENGTH, LENGTH, LENGTH, LENGTH, LENGTH, LENGTH, LENGTH, //
+                    ANGLE, ANGLE, ANGLE, ANGLE, //
+                    TIME, TIME, //
+                    FREQUENCY, FREQUENCY, //
+                    RESOLUTION, RESOLUTION, RESOLUTION, //
+                    SINGLE, SINGLE + 1, SINGLE + 2, SINGLE + 3, SINGLE + 4 };
+
+    /** The size of every unit in the base unit of its dimension: px, deg, ms, Hz and dppx. */
+    private static final double[] BASE_SIZES = { 1, 96 / 2.54, 96 / 25.4, 96 / 101.6, 96, 96 / 72.0, 96 / 6.0, //
+                    1, 360 / 400.0, 180 / Math.PI, 360, //
+                    1, 1000, //
+                    1, 1000, //
+                    1, 1 / 96.0, 2.54 / 96, //
+                    1, 1, 1, 1, 1 };
+
+    /** CONVERSIONS[from][to] is the count of "to" units in one "from" unit or NaN if the units are incompatible. */
+    private static final double[][] CONVERSIONS;
+
+    /** Unit index for the lexical unit types, the type is the array index. */
+    private static final byte[]   TYPE_INDEX;
+
+    private static final HashMap<String, Integer> NAME_INDEX = new HashMap<>();
+
+    static {
+        int count = NAMES.length;
+        CONVERSIONS = new double[count][count];
+        for( int from = 0; from < count; from++ ) {
+            for( int to = 0; to < count; to++ ) {
+                if( from == to ) {
+                    CONVERSIONS[from][to] = 1;
+                } else if( DIMENSIONS[from] == DIMENSIONS[to] ) {
+                    CONVERSIONS[from][to] = BASE_SIZES[from] / BASE_SIZES[to];
+                } else {
+                    CONVERSIONS[from][to] = Double.NaN;
+                }
+            }
+        }
+
+        TYPE_INDEX = new byte[SCSSLexicalUnit.SAC_REM + 1];
+        Arrays.fill( TYPE_INDEX, (byte)UNKNOWN );
+        for( int i = 0; i < count; i++ ) {
+            NAME_INDEX.put( NAMES[i], i );
+            if( TYPES[i] != SCSSLexicalUnit.SAC_DIMENSION ) {
+                TYPE_INDEX[TYPES[i]] = (byte)i;
+            }
+        }
+        NAME_INDEX.put( "Q", NAME_INDEX.get( "q" ) );
+        NAME_INDEX.put( "x", NAME_INDEX.get( "dppx" ) );
+    }
+
+    private Units() {
+        // static helper
+    }
+
+    /**
+     * Get the unit index of a lexical unit.
+     *
+     * @param type the lexical unit type
+     * @param dimension the unit text if the type is SAC_DIMENSION
+     * @return the index or UNKNOWN
+     */
+    static int indexOf( short type, String dimension ) {
+        if( type == SCSSLexicalUnit.SAC_DIMENSION ) {
+            return indexOf( dimension );
+        }
+        return type >= 0 && type < TYPE_INDEX.length ? TYPE_INDEX[type] : UNKNOWN;
+    }
+
+    /**
+     * Get the unit index of a unit text like "px".
+     *
+     * @param name the unit text
+     * @return the index or UNKNOWN
+     */
+    static int indexOf( String name ) {
+        Integer index = name == null ? null : NAME_INDEX.get( name );
+        return index == null ? UNKNOWN : index;
+    }
+
+    /**
+     * Get the factor to convert a value from one unit into another.
+     *
+     * @param from the unit index of the value
+     * @param to the unit index of the result
+     * @return the factor or NaN if the units are incompatible or unknown
+     */
+    static double factor( int from, int to ) {
+        if( from == UNKNOWN || to == UNKNOWN ) {
+            return Double.NaN;
+        }
+        return CONVERSIONS[from][to];
+    }
+
+    /**
+     * Get the lexical unit type for a unit text.
+     *
+     * @param name the unit text
+     * @return the type, SAC_DIMENSION for all units without its own type
+     */
+    static short typeOf( String name ) {
+        int index = indexOf( name );
+        return index == UNKNOWN ? SCSSLexicalUnit.SAC_DIMENSION : TYPES[index];
+    }
+
+    /**
+     * Check if the unit text describes a compound unit like "px*px" or "px/s".
+     *
+     * @param unit the unit text
+     * @return true, if compound
+     */
+    static boolean isCompound( String unit ) {
+        return unit != null && (unit.indexOf( '*' ) >= 0 || unit.indexOf( '/' ) >= 0 || unit.endsWith( "^-1" ));
+    }
+
+    /**
+     * Split a unit text into its numerator and denominator units.
+     *
+     * @param unit the unit text, the format of {@link #format(List, List)}
+     * @param numerators receive the numerator units
+     * @param denominators receive the denominator units
+     */
+    static void parse( String unit, List<String> numerators, List<String> denominators ) {
+        if( unit.isEmpty() ) {
+            return;
+        }
+        if( unit.endsWith( "^-1" ) ) {
+            unit = unit.substring( 0, unit.length() - 3 );
+            if( unit.startsWith( "(" ) && unit.endsWith( ")" ) ) {
+                unit = unit.substring( 1, unit.length() - 1 );
+            }
+            split( unit, denominators );
+            return;
+        }
+        int slash = unit.indexOf( '/' );
+        if( slash < 0 ) {
+            split( unit, numerators );
+        } else {
+            split( unit.substring( 0, slash ), numerators );
+            split( unit.substring( slash + 1 ), denominators );
+        }
+    }
+
+    private static void split( String units, List<String> list ) {
+        int start = 0;
+        for( int idx; (idx = units.indexOf( '*', start )) >= 0; start = idx + 1 ) {
+            list.add( units.substring( start, idx ) );
+        }
+        list.add( units.substring( start ) );
+    }
+
+    /**
+     * Cancel compatible pairs of numerator and denominator units.
+     *
+     * @param numerators the numerator units, will be modified
+     * @param denominators the denominator units, will be modified
+     * @return the factor with which the value must be multiplied
+     */
+    static double cancel( List<String> numerators, List<String> denominators ) {
+        double value = 1;
+        for( int n = 0; n < numerators.size(); n++ ) {
+            String numerator = numerators.get( n );
+            for( int d = 0; d < denominators.size(); d++ ) {
+                String denominator = denominators.get( d );
+                double factor = numerator.equals( denominator ) ? 1 : factor( indexOf( numerator ), indexOf( denominator ) );
+                if( !Double.isNaN( factor ) ) {
+                    value *= factor;
+                    numerators.remove( n-- );
+                    denominators.remove( d );
+                    break;
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Create the unit text of a compound unit the same way like sass-lang.
+     *
+     * @param numerators the numerator units
+     * @param denominators the denominator units
+     * @return the unit text, empty for a unitless number
+     */
+    static String format( List<String> numerators, List<String> denominators ) {
+        if( denominators.isEmpty() ) {
+            return String.join( "*", numerators );
+        }
+        if( numerators.isEmpty() ) {
+            return denominators.size() == 1 ? denominators.get( 0 ) + "^-1" : '(' + String.join( "*", denominators ) + ")^-1";
+        }
+        return String.join( "*", numerators ) + '/' + String.join( "*", denominators );
+    }
+}
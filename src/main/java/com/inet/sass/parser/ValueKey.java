@@ -0,0 +1,168 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass.parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.inet.sass.parser.SassList.Separator;
+import com.inet.sass.util.Color;
+
+/**
+ * Structural key of evaluated function arguments for memo tables. Two keys are equal only if the arguments have the
+ * same types, the exact same double values, units, quoting and list structure. The rendered text is not used because
+ * it rounds numbers.
+ */
+public final class ValueKey {
+
+    /** Marks the start of a nested list in the flattened values. */
+    private static final Object LIST_START = new Object();
+
+    /** Marks the end of a nested list in the flattened values. */
+    private static final Object LIST_END   = new Object();
+
+    private final Object[]      values;
+
+    private final int           hashCode;
+
+    private ValueKey( Object[] values ) {
+        this.values = values;
+        this.hashCode = Arrays.hashCode( values );
+    }
+
+    /**
+     * Create the key for the evaluated arguments of a function call.
+     *
+     * @param arguments the arguments
+     * @return the key or null if the arguments contain not evaluated parts
+     */
+    public static ValueKey of( ActualArgumentList arguments ) {
+        if( arguments.hasVariableArguments() ) {
+            return null;
+        }
+        List<Object> values = new ArrayList<>();
+        if( !appendArguments( values, arguments ) ) {
+            return null;
+        }
+        return new ValueKey( values.toArray() );
+    }
+
+    private static boolean appendArguments( List<Object> values, ActualArgumentList arguments ) {
+        values.add( arguments.getSeparator() );
+        values.add( LIST_START );
+        for( int i = 0; i < arguments.size(); i++ ) {
+            if( !append( values, arguments.get( i ) ) ) {
+                return false;
+            }
+        }
+        for( Variable named : arguments.getNamedVariables() ) {
+            values.add( named.getName() );
+            if( !append( values, named.getExpr() ) ) {
+                return false;
+            }
+        }
+        values.add( LIST_END );
+        return true;
+    }
+
+    private static boolean append( List<Object> values, SassListItem item ) {
+        if( item == null ) {
+            values.add( null );
+            return true;
+        }
+        if( item instanceof LexicalUnitImpl ) {
+            LexicalUnitImpl unit = (LexicalUnitImpl)item;
+            short type = unit.getItemType();
+            switch( type ) {
+                case SCSSLexicalUnit.SCSS_VARIABLE:
+                case SCSSLexicalUnit.SCSS_PARENT:
+                case SCSSLexicalUnit.SCSS_GET_FUNCTION:
+                    return false;
+                default:
+            }
+            if( unit.getStringInterpolationSequence() != null && unit.getStringInterpolationSequence().containsInterpolation() ) {
+                return false;
+            }
+            values.add( type );
+            // Double.equals compares the exact bits, so 0.1 and 0.1000001 and also 0 and -0 are different
+            values.add( unit.getDoubleValue() );
+            values.add( unit.getSdimension() );
+            values.add( unit.getStringValue() );
+            values.add( unit.getFunctionName() );
+            ActualArgumentList params = unit.getParameterList();
+            if( params != null ) {
+                return !params.hasVariableArguments() && appendArguments( values, params );
+            }
+            values.add( null );
+            Color color = type == SCSSLexicalUnit.SAC_RGBCOLOR ? unit.getColor() : null;
+            if( color != null ) {
+                // a computed color has no text, the HSL components of a color from hsl() are not rounded
+                values.add( color.getRgb() );
+                values.add( color.getAlpha() );
+                for( double component : color.toHsl() ) {
+                    values.add( component );
+                }
+            }
+            return true;
+        }
+        if( item instanceof SassList ) {
+            SassList list = (SassList)item;
+            values.add( list.getClass() );
+            Separator separator = list.getSeparator();
+            values.add( separator );
+            values.add( LIST_START );
+            for( SassListItem child : list ) {
+                if( !append( values, child ) ) {
+                    return false;
+                }
+            }
+            if( list instanceof ArgumentList ) {
+                for( Variable named : ((ArgumentList)list).getNamedVariables() ) {
+                    values.add( named.getName() );
+                    if( !append( values, named.getExpr() ) ) {
+                        return false;
+                    }
+                }
+            }
+            values.add( LIST_END );
+            return true;
+        }
+        if( item instanceof StringItem ) {
+            values.add( StringItem.class );
+            values.add( ((StringItem)item).value );
+            return true;
+        }
+        // interpolations and expressions are not evaluated
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals( Object obj ) {
+        return obj instanceof ValueKey && hashCode == ((ValueKey)obj).hashCode && Arrays.equals( values, ((ValueKey)obj).values );
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString( values );
+    }
+}
@@ -29,4 +29,14 @@ public enum Combinator implements SelectorSegment {
     public String toString() {
         return symbol;
     }
+
+    /**
+     * The symbol without surrounding spaces, only the descendant combinator
+     * keeps its single space.
+     * 
+     * @return the symbol
+     */
+    public String getCompressedSymbol() {
+        return this == DESCENDANT ? symbol : symbol.trim();
+    }
 }
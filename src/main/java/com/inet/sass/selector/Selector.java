@@ -17,13 +17,19 @@
 package com.inet.sass.selector;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import com.inet.sass.ScssContext;
 import com.inet.sass.visitor.Extension;
 
-// note: a Selector is effectively immutable - only methods creating a new selector can modify its parts directly
+/**
+ * A complex selector. Instances are immutable, so the hash code and the
+ * printed forms are computed only once. Equal selectors of a compilation can
+ * be shared with a {@link SelectorTable}.
+ */
 public class Selector {
 
     /*
@@ -42,36 +48,34 @@ public class Selector {
      * elimination (see https://github.com/nex3/sass/issues/324).
      */
 
-    private List<SelectorSegment> parts = new ArrayList<SelectorSegment>();
+    private final List<SelectorSegment> parts;
 
-    private Selector() {
-        /*
-         * Initializes selector in an illegal state (simpleSeqs empty), hence
-         * private.
-         */
-    }
+    private int hash;
+
+    private String text;
+
+    private String compressedText;
 
     public Selector(Selector source) {
         this(source.parts);
     }
 
     protected Selector(List<SelectorSegment> parts) {
-        this.parts.addAll(parts);
+        this.parts = Collections.unmodifiableList(new ArrayList<SelectorSegment>(parts));
     }
 
     /**
      * Non-nested selector
      */
     public Selector(SimpleSelectorSequence simple) {
-        parts.add(simple);
+        this.parts = Collections.<SelectorSegment> singletonList(simple);
     }
 
     /**
      * Selector with a leading combinator ("&gt; foo")
      */
     public Selector(Combinator comb, SimpleSelectorSequence simpl) {
-        parts.add(comb);
-        parts.add(simpl);
+        this.parts = Collections.unmodifiableList(Arrays.asList(comb, simpl));
     }
 
     /**
@@ -82,14 +86,16 @@ public class Selector {
         assert (comb == null && first == null)
                 || (comb != null && first != null);
 
+        List<SelectorSegment> parts = new ArrayList<SelectorSegment>();
         if (first != null) {
             parts.addAll(first.parts);
             parts.add(comb);
         }
         parts.addAll(second.parts);
+        this.parts = Collections.unmodifiableList(parts);
     }
 
-    private boolean hasLeadingCombinator() {
+    boolean hasLeadingCombinator() {
         return parts.size() > 0 && parts.get(0) instanceof Combinator;
     }
 
@@ -106,6 +112,21 @@ public class Selector {
         return null;
     }
 
+    /**
+     * Add the simple selectors of all sequences of this selector to the
+     * collection.
+     * 
+     * @param result
+     *            receives the simple selectors
+     */
+    public void addSimpleSelectors(Collection<SimpleSelector> result) {
+        for (SelectorSegment segment : parts) {
+            if (segment instanceof SimpleSelectorSequence) {
+                result.addAll(((SimpleSelectorSequence) segment).getSelectors());
+            }
+        }
+    }
+
     SimpleSelectorSequence lastSimple() {
 //        if( parts.size() == 0 || !(parts.get( parts.size() - 1 ) instanceof SimpleSelectorSequence) ) {
 //            throw new ParseException( "Invalid last part of selector: " + toString() );
@@ -175,7 +196,7 @@ public class Selector {
      */
     public Selector replaceParentReference( Selector replacement ) {
         boolean foundParentReference = false;
-        Selector sel = new Selector();
+        List<SelectorSegment> sel = new ArrayList<SelectorSegment>();
         for (int i = 0; i < parts.size(); i++) {
             SelectorSegment segment = parts.get(i);
             if (segment instanceof SimpleSelectorSequence) {
@@ -187,21 +208,21 @@ public class Selector {
                         List<SelectorSegment> replacemnetParts = replacement.parts;
                         int count = replacemnetParts.size() - 1;
                         for( int j = 0; j < count; j++ ) {
-                            sel.parts.add(replacemnetParts.get( j ));
+                            sel.add(replacemnetParts.get( j ));
                         }
                     }
-                    sel.parts.add( replacedSimple );
+                    sel.add( replacedSimple );
                 } else {
                     // no parent to replace
-                    sel.parts.add(simple);
+                    sel.add(simple);
                 }
             } else {
-                sel.parts.add(segment);
+                sel.add(segment);
             }
         }
 
         if (foundParentReference) {
-            return sel;
+            return new Selector(sel);
         } else if (replacement != null) {
             // no explicit parent reference selector, simply prepend parent
             return new Selector(replacement, Combinator.DESCENDANT, this);
@@ -216,17 +237,17 @@ public class Selector {
      */
     public Selector replaceVariables(ScssContext context) {
         // It would be sensible to rethink the whole handling of interpolations
-        Selector sel = new Selector();
+        List<SelectorSegment> sel = new ArrayList<SelectorSegment>();
         for (SelectorSegment segment : parts) {
             if (segment instanceof SimpleSelectorSequence) {
                 SimpleSelectorSequence seq = (SimpleSelectorSequence) segment;
                 seq = seq.replaceVariables(context);
-                sel.parts.add(seq);
+                sel.add(seq);
             } else {
-                sel.parts.add(segment);
+                sel.add(segment);
             }
         }
-        return sel;
+        return new Selector(sel);
     }
 
     /**
@@ -234,11 +255,10 @@ public class Selector {
      * combinator c.
      */
     public Selector createNested(Combinator c, SimpleSelectorSequence s) {
-        Selector ext = new Selector();
-        ext.parts.addAll(parts);
-        ext.parts.add(c);
-        ext.parts.add(s);
-        return ext;
+        List<SelectorSegment> ext = new ArrayList<SelectorSegment>(parts);
+        ext.add(c);
+        ext.add(s);
+        return new Selector(ext);
     }
 
     /**
@@ -252,7 +272,7 @@ public class Selector {
      * @return new selector replacing this
      */
     public Selector replace(Extension extension) {
-        Selector sel = new Selector();
+        List<SelectorSegment> sel = new ArrayList<SelectorSegment>();
         List<SelectorSegment> previousSegments = new ArrayList<SelectorSegment>();
         for (SelectorSegment segment : parts) {
             if (segment instanceof SimpleSelectorSequence
@@ -264,7 +284,7 @@ public class Selector {
                     newExtending = newExtending.removePrefix(extension.context);
                 }
                 // simply replace the whole part
-                sel.parts.addAll(newExtending.parts);
+                sel.addAll(newExtending.parts);
                 // stop keeping track of previous segments to avoid
                 // multiple removal
                 previousSegments = null;
@@ -272,26 +292,26 @@ public class Selector {
                 if (previousSegments != null) {
                     previousSegments.add(segment);
                 }
-                sel.parts.add(segment);
+                sel.add(segment);
             }
         }
-        if (sel.parts.size() == 0) {
-            return sel;
+        if (sel.size() == 0) {
+            return new Selector(sel);
         }
-        assert (sel.parts.get(sel.parts.size() - 1) instanceof SimpleSelectorSequence);
+        assert (sel.get(sel.size() - 1) instanceof SimpleSelectorSequence);
         // if last part of result is a partial match, use SSS.unify()
         // TODO this is limited/broken
-        SimpleSelectorSequence seq = sel.lastSimple();
+        SimpleSelectorSequence seq = (SimpleSelectorSequence) sel.get(sel.size() - 1);
         SimpleSelectorSequence lastUnified = seq.unify(
                 extension.extendSelector,
                 extension.replacingSelector.lastSimple());
         if (lastUnified != null) {
-            sel.parts.remove(sel.parts.size() - 1);
-            sel.parts.addAll(extension.replacingSelector.parts);
-            sel.parts.set(sel.parts.size() - 1, lastUnified);
+            sel.remove(sel.size() - 1);
+            sel.addAll(extension.replacingSelector.parts);
+            sel.set(sel.size() - 1, lastUnified);
         }
 
-        return sel;
+        return new Selector(sel);
     }
 
     /**
@@ -347,26 +367,59 @@ public class Selector {
 
     @Override
     public String toString() {
-        StringBuilder sb = new StringBuilder();
-        for (SelectorSegment segment : parts) {
-            sb.append(segment.toString());
+        String text = this.text;
+        if (text == null) {
+            StringBuilder sb = new StringBuilder();
+            for (SelectorSegment segment : parts) {
+                sb.append(segment.toString());
+            }
+            this.text = text = sb.toString();
+        }
+        return text;
+    }
+
+    /**
+     * Returns the selector without the spaces around the combinators, used
+     * for the compressed output style.
+     * 
+     * @return the selector text
+     */
+    public String toCompressedString() {
+        String text = compressedText;
+        if (text == null) {
+            StringBuilder sb = new StringBuilder();
+            for (SelectorSegment segment : parts) {
+                if (segment instanceof Combinator) {
+                    sb.append(((Combinator) segment).getCompressedSymbol());
+                } else {
+                    sb.append(segment.toString());
+                }
+            }
+            compressedText = text = sb.toString();
         }
-        return sb.toString();
+        return text;
     }
 
     @Override
     public boolean equals(Object that) {
+        if (this == that) {
+            return true;
+        }
         if (!(that instanceof Selector)) {
             return false;
         }
         Selector thatSelector = (Selector) that;
-        return parts.equals(thatSelector.parts);
-
+        return hashCode() == thatSelector.hashCode()
+                && parts.equals(thatSelector.parts);
     }
 
     @Override
     public int hashCode() {
-        return parts.hashCode();
+        int hash = this.hash;
+        if (hash == 0) {
+            this.hash = hash = parts.hashCode();
+        }
+        return hash;
     }
 
     /**
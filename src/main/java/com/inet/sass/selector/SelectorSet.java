@@ -16,7 +16,9 @@
  */
 package com.inet.sass.selector;
 
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 
 public class SelectorSet extends LinkedHashSet<Selector> {
@@ -35,19 +37,110 @@ public class SelectorSet extends LinkedHashSet<Selector> {
 
     /**
      * Removes each selector which is subsumed by another selector.
+     * <p>
+     * A selector can only subsume another one if its last simple selector
+     * sequence subsumes the last sequence of the other. The selectors are
+     * bucketed by the rarest simple selector of their last sequence which the
+     * other selector must contain, so only the candidates of a few buckets
+     * are compared instead of all pairs.
      */
     public SelectorSet eliminateRedundantSelectors() {
+        Selector[] selectors = toArray(new Selector[size()]);
+        HashMap<SimpleSelector, Integer> frequencies = new HashMap<SimpleSelector, Integer>();
+        for (Selector selector : selectors) {
+            if (!selector.hasLeadingCombinator()) {
+                for (SimpleSelector simple : selector.lastSimple().getSelectors()) {
+                    frequencies.merge(simple, 1, Integer::sum);
+                }
+            }
+        }
+        HashMap<SimpleSelector, BitSet> buckets = new HashMap<SimpleSelector, BitSet>();
+        BitSet always = new BitSet();
+        for (int i = 0; i < selectors.length; i++) {
+            Selector selector = selectors[i];
+            if (selector.hasLeadingCombinator()) {
+                // can only subsume an equal selector
+                continue;
+            }
+            SimpleSelector key = getKey(selector.lastSimple(), frequencies);
+            if (key == null) {
+                always.set(i);
+            } else {
+                BitSet bucket = buckets.get(key);
+                if (bucket == null) {
+                    buckets.put(key, bucket = new BitSet());
+                }
+                bucket.set(i);
+            }
+        }
+
         SelectorSet filtered = new SelectorSet();
-        for (Selector s1 : this) {
-            // Find most general selector matching s1
+        for (Selector s1 : selectors) {
+            // Find most general selector matching s1, in the same order as
+            // a comparison with every selector
             Selector s = s1;
-            for (Selector s2 : this) {
-                if (s2.subsumes(s)) {
+            BitSet candidates = getCandidates(s, buckets, always);
+            for (int j = candidates.nextSetBit(0); j >= 0; j = candidates
+                    .nextSetBit(j + 1)) {
+                Selector s2 = selectors[j];
+                if (s2 != s && s2.subsumes(s)) {
                     s = s2;
+                    candidates = getCandidates(s, buckets, always);
                 }
             }
             filtered.add(s);
         }
         return filtered;
     }
+
+    /**
+     * The simple selector that the last sequence of every subsumed selector
+     * must contain. This is the rarest non-type selector or the type selector
+     * if there is no other. A universal selector does not restrict the
+     * subsumed selectors.
+     * 
+     * @param sequence
+     *            the last sequence of a selector
+     * @param frequencies
+     *            the count of sequences which contain a simple selector
+     * @return the key or null if the sequence can subsume any other
+     */
+    private static SimpleSelector getKey(SimpleSelectorSequence sequence,
+            HashMap<SimpleSelector, Integer> frequencies) {
+        SimpleSelector key = null;
+        int keyFrequency = Integer.MAX_VALUE;
+        TypeSelector type = sequence.getTypeSelector();
+        for (SimpleSelector simple : sequence.getSelectors()) {
+            if (simple != type) {
+                int frequency = frequencies.get(simple);
+                if (frequency < keyFrequency) {
+                    key = simple;
+                    keyFrequency = frequency;
+                }
+            }
+        }
+        if (key == null && type != null && !type.equals(UniversalSelector.it)) {
+            return type;
+        }
+        return key;
+    }
+
+    /**
+     * The positions of the selectors that can subsume the selector.
+     */
+    private static BitSet getCandidates(Selector selector,
+            HashMap<SimpleSelector, BitSet> buckets, BitSet always) {
+        if (selector.hasLeadingCombinator()) {
+            // can only be subsumed by an equal selector
+            return new BitSet();
+        }
+        BitSet candidates = (BitSet) always.clone();
+        for (SimpleSelector simple : selector.lastSimple().getSelectors()) {
+            BitSet bucket = buckets.get(simple);
+            if (bucket != null) {
+                candidates.or(bucket);
+            }
+        }
+        return candidates;
+    }
 }
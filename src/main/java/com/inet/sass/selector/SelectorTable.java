@@ -0,0 +1,75 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass.selector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interning table for the selectors of one compilation. Equal selectors are
+ * mapped to the same instance, so their cached hash code and printed form are
+ * shared and comparisons of interned selectors are mostly identity checks.
+ */
+public class SelectorTable {
+
+    private final ConcurrentHashMap<Selector, Selector> selectors = new ConcurrentHashMap<>();
+
+    /**
+     * Get the canonical instance for a selector.
+     * 
+     * @param selector
+     *            the selector
+     * @return the first added selector which is equal to the given selector
+     */
+    public Selector intern( Selector selector ) {
+        Selector existing = selectors.putIfAbsent( selector, selector );
+        return existing != null ? existing : selector;
+    }
+
+    /**
+     * Get the canonical instances for a list of selectors.
+     * 
+     * @param list
+     *            the selectors
+     * @return the given list if all selectors are already canonical, else a
+     *         new list
+     */
+    public List<Selector> intern( List<Selector> list ) {
+        List<Selector> result = null;
+        for( int i = 0; i < list.size(); i++ ) {
+            Selector selector = list.get( i );
+            Selector interned = intern( selector );
+            if( interned != selector && result == null ) {
+                result = new ArrayList<>( list );
+            }
+            if( result != null ) {
+                result.set( i, interned );
+            }
+        }
+        return result != null ? result : list;
+    }
+
+    /**
+     * Get the count of distinct selectors.
+     * 
+     * @return the size
+     */
+    public int size() {
+        return selectors.size();
+    }
+}
@@ -31,19 +31,36 @@ import com.inet.sass.ScssContext;
  */
 public abstract class SimpleSelector  {
 
+    private String text;
+
     public SimpleSelector replaceVariables(ScssContext context) {
         return this;
     }
 
+    /**
+     * Returns the cached result of {@link #toString()}, which is used for
+     * comparison and is stable because the selector is immutable.
+     */
+    private String text() {
+        String text = this.text;
+        if (text == null) {
+            this.text = text = toString();
+        }
+        return text;
+    }
+
     @Override
     public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
         return obj != null && getClass().equals(obj.getClass())
-                && toString().equals(obj.toString());
+                && text().equals(((SimpleSelector) obj).text());
     }
 
     @Override
     public int hashCode() {
-        return toString().hashCode();
+        return text().hashCode();
     }
 
 }
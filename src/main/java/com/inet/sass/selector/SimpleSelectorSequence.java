@@ -31,17 +31,21 @@ import com.inet.sass.ScssContext;
  */
 public class SimpleSelectorSequence implements SelectorSegment {
 
-    private List<SimpleSelector> selectors;
+    private final List<SimpleSelector> selectors;
+
+    private int hash;
+
+    private String text;
 
     /**
      * Constructs a {@link SimpleSelectorSequence} from a list of simple
      * selectors.
      * 
      * @param seq
-     *            list of simple selectors, should not change after creating
+     *            list of simple selectors, the sequence keeps a copy
      */
     public SimpleSelectorSequence( List<SimpleSelector> seq ) {
-        selectors = seq;
+        selectors = Collections.unmodifiableList( new ArrayList<>( seq ) );
     }
 
     /**
@@ -196,6 +200,15 @@ public class SimpleSelectorSequence implements SelectorSegment {
         return this;
     }
 
+    /**
+     * Returns the simple selectors of this sequence.
+     * 
+     * @return an unmodifiable list
+     */
+    public List<SimpleSelector> getSelectors() {
+        return selectors;
+    }
+
     public TypeSelector getTypeSelector() {
         SimpleSelector head = selectors.get( 0 );
         return head instanceof TypeSelector ? (TypeSelector)head : null;
@@ -236,11 +249,15 @@ public class SimpleSelectorSequence implements SelectorSegment {
 
     @Override
     public String toString() {
-        StringBuilder sb = new StringBuilder();
-        for( SimpleSelector s : selectors ) {
-            sb.append( s.toString() );
+        String text = this.text;
+        if( text == null ) {
+            StringBuilder sb = new StringBuilder();
+            for( SimpleSelector s : selectors ) {
+                sb.append( s.toString() );
+            }
+            this.text = text = sb.toString();
         }
-        return sb.toString();
+        return text;
     }
 
     /**
@@ -257,15 +274,23 @@ public class SimpleSelectorSequence implements SelectorSegment {
 
     @Override
     public boolean equals( Object obj ) {
+        if( this == obj ) {
+            return true;
+        }
         if( obj == null || !obj.getClass().equals( getClass() ) ) {
             return false;
         }
-        return selectors.equals( ((SimpleSelectorSequence)obj).selectors );
+        SimpleSelectorSequence that = (SimpleSelectorSequence)obj;
+        return hashCode() == that.hashCode() && selectors.equals( that.selectors );
     }
 
     @Override
     public int hashCode() {
-        return selectors.hashCode();
+        int hash = this.hash;
+        if( hash == 0 ) {
+            this.hash = hash = selectors.hashCode();
+        }
+        return hash;
     }
 
 }
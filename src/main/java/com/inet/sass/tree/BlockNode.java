@@ -17,6 +17,7 @@
 
 package com.inet.sass.tree;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -31,6 +32,9 @@ public class BlockNode extends Node {
 
     private List<Selector> selectorList;
 
+    // cached result of getSelectors()
+    private String selectors;
+
     // combined selectors of the parent node, used to handle @extends
     private List<Selector> parentSelectors;
 
@@ -74,6 +78,7 @@ public class BlockNode extends Node {
      */
     public void setSelectorList(List<Selector> selectorList) {
         this.selectorList = selectorList;
+        this.selectors = null;
     }
 
     public String buildString(boolean indent) {
@@ -82,7 +87,52 @@ public class BlockNode extends Node {
 
     @Override
     public String printState() {
-        return buildString(false);
+        return CssEmitter.toString(this);
+    }
+
+    @Override
+    public void write(CssEmitter out) throws IOException {
+        write(out, false);
+    }
+
+    /**
+     * Write the CSS of this block.
+     * 
+     * @param out
+     *            the target
+     * @param indent
+     *            true, if nested in a directive like @media
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public void write(CssEmitter out, boolean indent) throws IOException {
+        out.mark(this);
+        List<Selector> selectorList = this.selectorList;
+        boolean compressed = out.isCompressed();
+        for (int i = 0; i < selectorList.size(); i++) {
+            if (i > 0) {
+                out.append(compressed ? "," : ", ");
+            }
+            Selector selector = selectorList.get(i);
+            out.append(compressed ? selector.toCompressedString() : selector);
+        }
+        if (out.getStyle() != CssEmitter.OutputStyle.EXPANDED) {
+            out.writeBlock(getChildren());
+            return;
+        }
+        out.append(" {\n");
+        for (Node child : getChildren()) {
+            if (indent) {
+                out.append('\t');
+            }
+            out.append('\t');
+            child.write(out);
+            out.append('\n');
+        }
+        if (indent) {
+            out.append('\t');
+        }
+        out.append('}');
     }
 
     @Override
@@ -103,12 +153,15 @@ public class BlockNode extends Node {
     }
 
     public String getSelectors() {
-        StringBuilder b = new StringBuilder();
-        for (final Selector s : selectorList) {
-            b.append(s);
+        String selectors = this.selectors;
+        if (selectors == null) {
+            StringBuilder b = new StringBuilder();
+            for (final Selector s : selectorList) {
+                b.append(s);
+            }
+            this.selectors = selectors = b.toString();
         }
-
-        return b.toString();
+        return selectors;
     }
 
     @Override
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass.tree;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.inet.sass.ScssContext;
+import com.inet.sass.function.SCSSFunctionGenerator;
+import com.inet.sass.parser.LexicalUnitImpl;
+import com.inet.sass.parser.SassListItem;
+import com.inet.sass.parser.ValueKey;
+
+/**
+ * Bounded memo table for the results of built-in functions that declare themselves
+ * {@link SCSSFunctionGenerator#isMemoizable() memoizable}. The key is the function name and the exact evaluated
+ * arguments, the least recently used result is evicted if the table is full. The cached values are never handed out,
+ * every call gets a copy at the position of the call.
+ * 
+ * The cache is opt-in with {@link com.inet.sass.ScssStylesheet#setBuiltInFunctionCache(BuiltInFunctionCache)}. It
+ * can be shared by multiple stylesheets and compiles, for example by all variants of a themed build, and is thread
+ * safe.
+ */
+public class BuiltInFunctionCache {
+
+    private final int                                 maxSize;
+
+    private final LinkedHashMap<Key, LexicalUnitImpl> results;
+
+    private int                                       hits;
+
+    private int                                       misses;
+
+    private int                                       evictions;
+
+    /**
+     * Create a cache.
+     * 
+     * @param maxSize the maximum count of cached results
+     */
+    public BuiltInFunctionCache( int maxSize ) {
+        if( maxSize <= 0 ) {
+            throw new IllegalArgumentException( "maxSize must be positive: " + maxSize );
+        }
+        this.maxSize = maxSize;
+        results = new LinkedHashMap<Key, LexicalUnitImpl>( 16, 0.75f, true ) {
+            @Override
+            protected boolean removeEldestEntry( Map.Entry<Key, LexicalUnitImpl> eldest ) {
+                if( size() > BuiltInFunctionCache.this.maxSize ) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Compute the value of a built-in function or return the cached result of an earlier call with the same
+     * arguments.
+     * 
+     * @param context current compilation context
+     * @param generator the implementation of the function
+     * @param function the call with the evaluated arguments
+     * @return the value of the function
+     */
+    public SassListItem compute( ScssContext context, SCSSFunctionGenerator generator, LexicalUnitImpl function ) {
+        if( !generator.isMemoizable() ) {
+            return generator.compute( context, function );
+        }
+        ValueKey arguments = ValueKey.of( function.getParameterList() );
+        if( arguments == null ) {
+            return generator.compute( context, function );
+        }
+        Key key = new Key( generator, function.getFunctionName(), arguments );
+        synchronized( this ) {
+            LexicalUnitImpl result = results.get( key );
+            if( result != null ) {
+                hits++;
+                return result.copyAt( function );
+            }
+            misses++;
+        }
+        SassListItem result = generator.compute( context, function );
+        if( isCacheable( result ) ) {
+            // store a private copy, the caller can change the lazy fields of the result
+            LexicalUnitImpl value = ((LexicalUnitImpl)result).copy();
+            synchronized( this ) {
+                results.put( key, value );
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Check if a result can be shared by multiple compiles. Only simple values are cached, lists and values with
+     * parameters contain other items that can not be copied cheaply.
+     * 
+     * @param result the result of a function
+     * @return true, if the result can be cached
+     */
+    private static boolean isCacheable( SassListItem result ) {
+        return result instanceof LexicalUnitImpl && ((LexicalUnitImpl)result).getParameterList() == null;
+    }
+
+    /**
+     * Count of calls that returned a cached result.
+     * 
+     * @return the count
+     */
+    public synchronized int getHits() {
+        return hits;
+    }
+
+    /**
+     * Count of calls that must be evaluated because there was no cached result.
+     * 
+     * @return the count
+     */
+    public synchronized int getMisses() {
+        return misses;
+    }
+
+    /**
+     * Count of results that were removed because the cache was full.
+     * 
+     * @return the count
+     */
+    public synchronized int getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Count of cached results.
+     * 
+     * @return the count
+     */
+    public synchronized int size() {
+        return results.size();
+    }
+
+    /**
+     * The maximum count of cached results.
+     * 
+     * @return the count
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "BuiltInFunctionCache [hits=" + hits + ", misses=" + misses + ", evictions=" + evictions + ", size=" + results.size() + "]";
+    }
+
+    /**
+     * The key of a cached function result.
+     */
+    private static class Key {
+
+        private final SCSSFunctionGenerator generator;
+
+        private final String                name;
+
+        private final ValueKey              arguments;
+
+        private final int                   hashCode;
+
+        Key( SCSSFunctionGenerator generator, String name, ValueKey arguments ) {
+            this.generator = generator;
+            this.name = name;
+            this.arguments = arguments;
+            hashCode = name.hashCode() * 31 + arguments.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals( Object obj ) {
+            if( !(obj instanceof Key) ) {
+                return false;
+            }
+            Key other = (Key)obj;
+            return generator == other.generator && name.equals( other.name ) && arguments.equals( other.arguments );
+        }
+    }
+}
@@ -17,6 +17,7 @@
 
 package com.inet.sass.tree;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
 
@@ -38,6 +39,14 @@ public class CommentNode extends Node {
         return comment;
     }
 
+    @Override
+    public void write(CssEmitter out) throws IOException {
+        // the compressed style keeps only the comments marked with /*!
+        if (!out.isCompressed() || comment.startsWith("/*!")) {
+            out.append(comment);
+        }
+    }
+
     @Override
     public String toString() {
         return "Comment node [" + comment + "]";
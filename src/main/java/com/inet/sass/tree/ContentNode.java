@@ -17,7 +17,9 @@
 
 package com.inet.sass.tree;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 
 import com.inet.sass.Scope;
 import com.inet.sass.ScssContext;
@@ -28,26 +30,14 @@ import com.inet.sass.tree.controldirective.TemporaryNode;
  */
 public class ContentNode extends Node {
 
-    MixinNode     mixinNode;
-    private Scope scope;
+    private Binding binding;
 
     public ContentNode() {
     }
 
     private ContentNode( ContentNode nodeToCopy ) {
         super( nodeToCopy );
-        this.mixinNode = nodeToCopy.mixinNode;
-        this.scope = nodeToCopy.scope;
-    }
-
-    /**
-     * Bind this placeholder (@content rule) with the block and scope of the caller (@include rule).
-     * @param mixinNode the caller (@include rule)
-     * @param scope the state of the variables of the caller
-     */
-    void bind( MixinNode mixinNode, Scope scope ) {
-        this.mixinNode = mixinNode;
-        this.scope = scope;
+        this.binding = nodeToCopy.binding;
     }
 
     /**
@@ -55,12 +45,24 @@ public class ContentNode extends Node {
      */
     @Override
     public Collection<Node> traverse( ScssContext context ) {
-        // evaluate the @content rule with the variables of the @include rule
-        Scope previousScope = context.openVariableScope( scope );
+        Binding binding = this.binding;
+        if( binding == null ) {
+            return Collections.emptyList();
+        }
+        // evaluate the @content rule with the variables of the @include rule,
+        // a @content rule inside of the block belongs to the enclosing @include rule
+        Binding previousBinding = context.getContentBinding();
+        Scope previousScope = context.openVariableScope( binding.scope );
+        context.setContentBinding( binding.outer );
         try {
-            Node tempParent = new TemporaryNode( getParentNode(), mixinNode.copyChildren() );
-            return tempParent.traverse( context );
+            TemporaryNode tempParent = new TemporaryNode( getParentNode() );
+            for( Node child : binding.mixinNode.getChildren() ) {
+                child.instantiate( context, tempParent );
+            }
+            // detach the result from the child list of the temporary node
+            return new ArrayList<>( tempParent.getChildren() );
         } finally {
+            context.setContentBinding( previousBinding );
             context.closeVariableScope( previousScope );
         }
     }
@@ -69,4 +71,46 @@ public class ContentNode extends Node {
     public ContentNode copy() {
         return new ContentNode( this );
     }
+
+    /**
+     * The block and scope of the caller (@include rule) for the placeholders (@content rule) of the mixin that is
+     * currently expanded.
+     */
+    public static class Binding {
+
+        private final MixinNode mixinNode;
+
+        private final Scope     scope;
+
+        private final Binding   outer;
+
+        /**
+         * Create a binding.
+         * @param mixinNode the caller (@include rule)
+         * @param scope the state of the variables of the caller
+         * @param outer the binding of the caller itself, can be null
+         */
+        public Binding( MixinNode mixinNode, Scope scope, Binding outer ) {
+            this.mixinNode = mixinNode;
+            this.scope = scope;
+            this.outer = outer;
+        }
+
+        /**
+         * Bind all unbound placeholders (@content rule) in a copy of a part of the mixin. The copy can be traversed
+         * after the mixin was expanded, e.g. if a @media rule bubbles up.
+         * @param node the copy
+         */
+        public void bind( Node node ) {
+            if( node instanceof ContentNode ) {
+                ContentNode content = (ContentNode)node;
+                if( content.binding == null ) {
+                    content.binding = this;
+                }
+            }
+            for( Node child : node.getChildren() ) {
+                bind( child );
+            }
+        }
+    }
 }
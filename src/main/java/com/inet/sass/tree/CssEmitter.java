@@ -0,0 +1,427 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass.tree;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Writes the CSS of a compiled node tree. The nodes append their parts directly to the underlying writer, there are
+ * no intermediate strings per node.
+ * <p>
+ * A separator can be registered as pending. It is written only if some output follows. This way the separators of
+ * nodes and list items which print nothing are skipped without knowing the output in advance.
+ */
+public class CssEmitter {
+
+    /**
+     * The layout of the written CSS.
+     */
+    public static enum OutputStyle {
+        /** One declaration per line, indented with tabs. This is the default. */
+        EXPANDED,
+        /** Every rule on a single line. */
+        COMPACT,
+        /** No whitespace, no comments and the shortest form of colors and numbers. */
+        COMPRESSED;
+    }
+
+    private final Writer        writer;
+
+    private final OutputStyle   style;
+
+    private final StringBuilder pending = new StringBuilder();
+
+    private long                length;
+
+    private int                 functionDepth;
+
+    private final SourceMapGenerator sourceMap;
+
+    /** the 0-based position in the output, only tracked with a source map */
+    private int                 generatedLine;
+
+    private int                 generatedColumn;
+
+    /** whitespace only text is added to the pending text */
+    private boolean             blankPending;
+
+    /** the node of the next mapping and its offset in the pending text */
+    private SourceLocation      mappingSource;
+
+    private int                 mappingOffset;
+
+    /**
+     * Create an emitter. The writer should be buffered.
+     *
+     * @param writer the target
+     */
+    public CssEmitter( Writer writer ) {
+        this( writer, OutputStyle.EXPANDED );
+    }
+
+    /**
+     * Create an emitter. The writer should be buffered.
+     *
+     * @param writer the target
+     * @param style the output style
+     */
+    public CssEmitter( Writer writer, OutputStyle style ) {
+        this( writer, style, null );
+    }
+
+    /**
+     * Create an emitter that also records the source positions of the written nodes. The writer should be buffered.
+     *
+     * @param writer the target
+     * @param style the output style
+     * @param sourceMap receives the mappings or null
+     */
+    public CssEmitter( Writer writer, OutputStyle style, SourceMapGenerator sourceMap ) {
+        this.writer = writer;
+        this.style = style;
+        this.sourceMap = sourceMap;
+    }
+
+    /**
+     * Print a node into a string.
+     *
+     * @param node the node
+     * @return the CSS
+     */
+    public static String toString( Node node ) {
+        return toString( node, OutputStyle.EXPANDED );
+    }
+
+    /**
+     * Print a node into a string.
+     *
+     * @param node the node
+     * @param style the output style
+     * @return the CSS
+     */
+    public static String toString( Node node, OutputStyle style ) {
+        StringWriter writer = new StringWriter();
+        try {
+            node.write( new CssEmitter( writer, style ) );
+        } catch( IOException e ) {
+            // a StringWriter does not throw
+            throw new UncheckedIOException( e );
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Print nodes of a compiled tree into separate strings on the common fork-join pool. The nodes are only read, so
+     * they can be printed concurrently.
+     *
+     * @param nodes the nodes
+     * @param style the output style
+     * @return the CSS of every node in the order of the nodes
+     */
+    public static String[] toStrings( List<Node> nodes, OutputStyle style ) {
+        String[] result = new String[nodes.size()];
+        ForkJoinPool.commonPool().invoke( new PrintTask( nodes, style, result, 0, result.length ) );
+        return result;
+    }
+
+    /**
+     * The output style.
+     *
+     * @return the style
+     */
+    public OutputStyle getStyle() {
+        return style;
+    }
+
+    /**
+     * Shortcut for the compressed output style.
+     *
+     * @return true, if compressed
+     */
+    public boolean isCompressed() {
+        return style == OutputStyle.COMPRESSED;
+    }
+
+    /**
+     * Check if the output positions are recorded in a source map.
+     *
+     * @return true, if there is a source map
+     */
+    public boolean hasSourceMap() {
+        return sourceMap != null;
+    }
+
+    /**
+     * Map the next output to the source position of the node. The mapping is added when the next text is written
+     * after the currently pending text, it is dropped if that text is discarded.
+     *
+     * @param node the node which is written next
+     */
+    public void mark( SourceLocation node ) {
+        if( sourceMap != null && node.getUri() != null && node.getLineNumber() > 0 ) {
+            mappingSource = node;
+            mappingOffset = pending.length();
+        }
+    }
+
+    /**
+     * Mark the start of the parameters of a function. Inside of functions like calc() the units of zero values are
+     * required.
+     */
+    public void enterFunction() {
+        functionDepth++;
+    }
+
+    /**
+     * Mark the end of the parameters of a function.
+     */
+    public void exitFunction() {
+        functionDepth--;
+    }
+
+    /**
+     * Check if the current output is a parameter of a function.
+     *
+     * @return true, if inside of a function
+     */
+    public boolean isInFunction() {
+        return functionDepth > 0;
+    }
+
+    /**
+     * Write the children of a block in the compact or compressed style including the braces. The compressed style
+     * separates declarations with a semicolon but omits it after the last one.
+     *
+     * @param children the child nodes
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeBlock( List<Node> children ) throws IOException {
+        boolean compact = style == OutputStyle.COMPACT;
+        append( compact ? " { " : "{" );
+        boolean first = true;
+        boolean declaration = false;
+        for( Node child : children ) {
+            long len = length;
+            int mark = pending( first ? "" : compact ? " " : declaration ? ";" : "" );
+            child.write( this );
+            discardPending( mark );
+            if( length != len ) {
+                first = false;
+                declaration = child instanceof RuleNode;
+            }
+        }
+        append( compact ? " }" : "}" );
+    }
+
+    /**
+     * Append text. An empty text is ignored and does not write a pending separator.
+     *
+     * @param str the text
+     * @return this
+     * @throws IOException if an I/O error occurs
+     */
+    public CssEmitter append( String str ) throws IOException {
+        int len = str.length();
+        if( len > 0 ) {
+            if( blankPending && str.trim().isEmpty() ) {
+                pending.append( str );
+                return this;
+            }
+            writePending();
+            writer.write( str );
+            length += len;
+            if( sourceMap != null ) {
+                for( int i = 0; i < len; i++ ) {
+                    advance( str.charAt( i ) );
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Append a single character.
+     *
+     * @param ch the character
+     * @return this
+     * @throws IOException if an I/O error occurs
+     */
+    public CssEmitter append( char ch ) throws IOException {
+        if( blankPending && ch <= ' ' ) {
+            pending.append( ch );
+            return this;
+        }
+        writePending();
+        writer.write( ch );
+        length++;
+        if( sourceMap != null ) {
+            advance( ch );
+        }
+        return this;
+    }
+
+    /**
+     * Append the string value of an object like a selector.
+     *
+     * @param obj the object
+     * @return this
+     * @throws IOException if an I/O error occurs
+     */
+    public CssEmitter append( Object obj ) throws IOException {
+        return append( String.valueOf( obj ) );
+    }
+
+    /**
+     * Add text that is written before the next output.
+     *
+     * @param str the text
+     * @return the mark for {@link #discardPending(int)}
+     */
+    public int pending( String str ) {
+        int mark = pending.length();
+        pending.append( str );
+        return mark;
+    }
+
+    /**
+     * Handle appended text that contains only whitespace like a pending separator. It is written only if some other
+     * output follows, so a value that prints only whitespace writes nothing.
+     *
+     * @param blankPending the new state
+     * @return the previous state
+     */
+    public boolean setBlankPending( boolean blankPending ) {
+        boolean previous = this.blankPending;
+        this.blankPending = blankPending;
+        return previous;
+    }
+
+    /**
+     * Discard the pending text that was added after the mark if it was not written yet.
+     *
+     * @param mark the value returned by {@link #pending(String)}
+     */
+    public void discardPending( int mark ) {
+        if( pending.length() > mark ) {
+            pending.setLength( mark );
+        }
+        if( mappingSource != null && mappingOffset >= mark ) {
+            mappingSource = null;
+        }
+    }
+
+    /**
+     * The count of written characters. Comparing the value before and after writing a node shows if the node has
+     * written anything.
+     *
+     * @return the length
+     */
+    public long length() {
+        return length;
+    }
+
+    /**
+     * Flush the underlying writer.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    private void writePending() throws IOException {
+        int len = pending.length();
+        if( len > 0 ) {
+            for( int i = 0; i < len; i++ ) {
+                char ch = pending.charAt( i );
+                if( sourceMap != null ) {
+                    if( i == mappingOffset ) {
+                        addMapping();
+                    }
+                    advance( ch );
+                }
+                writer.write( ch );
+            }
+            length += len;
+            pending.setLength( 0 );
+        }
+        if( mappingSource != null ) {
+            addMapping();
+        }
+    }
+
+    private void addMapping() throws IOException {
+        SourceLocation source = mappingSource;
+        if( source != null ) {
+            mappingSource = null;
+            sourceMap.addMapping( generatedLine, generatedColumn, source.getUri(), source.getLineNumber() - 1, Math.max( 0, source.getColumnNumber() - 1 ) );
+        }
+    }
+
+    private void advance( char ch ) {
+        if( ch == '\n' ) {
+            generatedLine++;
+            generatedColumn = 0;
+        } else {
+            generatedColumn++;
+        }
+    }
+
+    /**
+     * Prints a range of nodes, splitting it until it is small enough.
+     */
+    private static class PrintTask extends RecursiveAction {
+
+        private static final int  THRESHOLD = 8;
+
+        private final List<Node>  nodes;
+
+        private final OutputStyle style;
+
+        private final String[]    result;
+
+        private final int         from;
+
+        private final int         to;
+
+        PrintTask( List<Node> nodes, OutputStyle style, String[] result, int from, int to ) {
+            this.nodes = nodes;
+            this.style = style;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if( to - from <= THRESHOLD ) {
+                for( int i = from; i < to; i++ ) {
+                    result[i] = CssEmitter.toString( nodes.get( i ), style );
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll( new PrintTask( nodes, style, result, from, middle ), new PrintTask( nodes, style, result, middle, to ) );
+            }
+        }
+    }
+}
@@ -16,6 +16,7 @@
  */
 package com.inet.sass.tree;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
 
@@ -32,7 +33,23 @@ public class FontFaceNode extends Node {
 
     @Override
     public String printState() {
-        return buildString(PRINT_STRATEGY);
+        return CssEmitter.toString(this);
+    }
+
+    @Override
+    public void write(CssEmitter out) throws IOException {
+        out.append("@font-face");
+        if (out.getStyle() != CssEmitter.OutputStyle.EXPANDED) {
+            out.writeBlock(getChildren());
+            return;
+        }
+        out.append(" {\n");
+        for (Node child : getChildren()) {
+            out.append('\t');
+            child.write(out);
+            out.append('\n');
+        }
+        out.append('}');
     }
 
     @Override
@@ -17,17 +17,29 @@
 
 package com.inet.sass.tree;
 
-import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import com.inet.sass.Scope;
 import com.inet.sass.ScssContext;
+import com.inet.sass.function.SCSSFunctionGenerator;
 import com.inet.sass.handler.SCSSErrorHandler;
 import com.inet.sass.parser.ActualArgumentList;
+import com.inet.sass.parser.DiagnosticException;
 import com.inet.sass.parser.FormalArgumentList;
 import com.inet.sass.parser.LexicalUnitImpl;
 import com.inet.sass.parser.ParseException;
 import com.inet.sass.parser.SassListItem;
 import com.inet.sass.parser.Variable;
+import com.inet.sass.tree.controldirective.EachDefNode;
+import com.inet.sass.tree.controldirective.ForNode;
+import com.inet.sass.tree.controldirective.IfElseDefNode;
+import com.inet.sass.tree.controldirective.TemporaryNode;
+import com.inet.sass.tree.controldirective.WhileNode;
+import com.inet.sass.visitor.EachNodeHandler;
+import com.inet.sass.visitor.ForNodeHandler;
+import com.inet.sass.visitor.IfElseNodeHandler;
+import com.inet.sass.visitor.WhileNodeHandler;
 
 /**
  * Transient class representing a function call to a custom (user-defined)
@@ -38,59 +50,149 @@ public class FunctionCall {
 
     public static SassListItem evaluate(ScssContext context,
             FunctionDefNode def, LexicalUnitImpl invocation) {
+        SCSSFunctionGenerator intrinsic = def.getIntrinsic();
+        if( intrinsic != null ) {
+            // native replacement, evaluated in the scope of the definition like the body
+            Scope previousScope = context.openVariableScope( def.getDefinitionScope() );
+            try {
+                SassListItem value = intrinsic.compute( context, invocation );
+                if( value != null ) {
+                    return value;
+                }
+            } finally {
+                context.closeVariableScope( previousScope );
+            }
+        }
         ActualArgumentList invocationArglist = invocation.getParameterList()
                 .expandVariableArguments();
-        SassListItem value = null;
-        Exception cause = null;
+        FunctionCallCache cache = context.getFunctionCallCache();
+        FunctionCallCache.Key key = cache.createKey( context, def, invocationArglist );
+        if( key != null ) {
+            SassListItem cached = cache.get( key );
+            if( cached != null ) {
+                return cached;
+            }
+        }
+        SassListItem value;
         // only parameters are evaluated in current scope, body in
         // top-level scope
+        FormalArgumentList arglist = def.getArglist();
+        arglist = arglist.replaceFormalArguments(invocationArglist, true);
+
+        // limit variable scope to the scope where the function was defined
+        Scope previousScope = context.openVariableScope(def
+                .getDefinitionScope());
         try {
-            FormalArgumentList arglist = def.getArglist();
-            arglist = arglist.replaceFormalArguments(invocationArglist, true);
+            // replace variables in default values of parameters
+            for (Variable arg : arglist) {
+                SassListItem expr = arg.getExpr();
+                if (expr != null) {
+                    expr = expr.evaluateFunctionsAndExpressions( context, true );
+                }
+                context.addVariable(new Variable(arg.getName(), expr));
+            }
 
-            // copying is necessary as traversal modifies the parent of the
-            // node
-            // TODO in the long term, should avoid full copy
-            FunctionDefNode defCopy = def.copy();
+            // only contains variable nodes, return nodes and control
+            // structures
+            value = execute(context, def.getChildren());
+        } finally {
+            context.closeVariableScope(previousScope);
+        }
+        if (value == null) {
+            // errors of the arguments and the body are thrown unchanged, only the missing @return is reported here
+            throw new DiagnosticException( "Function " + invocation.getFunctionName() + " did not return a value", invocation );
+        }
+        if( key != null ) {
+            cache.put( key, value );
+        }
+        return value;
+    }
 
-            // limit variable scope to the scope where the function was defined
-            Scope previousScope = context.openVariableScope(def
-                    .getDefinitionScope());
-            try {
-                // replace variables in default values of parameters
-                for (Variable arg : arglist) {
-                    SassListItem expr = arg.getExpr();
-                    if (expr != null) {
-                        expr = expr.evaluateFunctionsAndExpressions( context, true );
-                    }
-                    context.addVariable(new Variable(arg.getName(), expr));
+    /**
+     * Execute the statements of a function body. The nodes are neither copied
+     * nor modified, so the definition can be used for any count of calls.
+     * 
+     * @param context
+     *            current compilation context
+     * @param statements
+     *            the statements
+     * @return the value of the first reached @return or null
+     */
+    private static SassListItem execute(ScssContext context,
+            List<Node> statements) {
+        for (Node statement : statements) {
+            SassListItem value = execute(context, statement);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private static SassListItem execute(ScssContext context, Node statement) {
+        if (statement instanceof ReturnNode) {
+            return ((ReturnNode) statement).evaluate(context);
+        } else if (statement instanceof VariableNode) {
+            ((VariableNode) statement).assign(context);
+        } else if (statement instanceof IfElseDefNode) {
+            Node branch = IfElseNodeHandler.getBranch(context,
+                    (IfElseDefNode) statement);
+            if (branch != null) {
+                return execute(context, branch.getChildren());
+            }
+        } else if (statement instanceof EachDefNode) {
+            return loop(context, statement.getChildren(), EachNodeHandler
+                    .getLoopVariables(context, (EachDefNode) statement));
+        } else if (statement instanceof ForNode) {
+            return loop(context, statement.getChildren(), ForNodeHandler
+                    .getLoopVariables(context, (ForNode) statement));
+        } else if (statement instanceof WhileNode) {
+            WhileNode whileNode = (WhileNode) statement;
+            while (WhileNodeHandler.evaluateCondition(context, whileNode)) {
+                if (whileNode.getChildren().isEmpty()) {
+                    SCSSErrorHandler.get().error(new ParseException(
+                            "@while loop iteration did nothing, infinite loop",
+                            whileNode));
+                    break;
+                }
+                SassListItem value = loop(context, whileNode.getChildren(),
+                        Collections.singleton(Collections.<Variable> emptyList()));
+                if (value != null) {
+                    return value;
+                }
+            }
+        } else if (statement instanceof MessageNode) {
+            ((MessageNode) statement).report(context);
+        } else {
+            // not expected in a function, use the normal traversal on a copy
+            TemporaryNode tempParent = new TemporaryNode(statement.getParentNode());
+            tempParent.appendAndTraverse(context, statement.copy());
+            for (Node node : tempParent.getChildren()) {
+                if (node instanceof ReturnNode) {
+                    return ((ReturnNode) node).getExpr();
                 }
+            }
+        }
+        return null;
+    }
 
-                // only contains variable nodes, return nodes and control
-                // structures
-                while (defCopy.getChildren().size() > 0) {
-                    Node firstChild = defCopy.getChildren().get(0);
-                    if (firstChild instanceof ReturnNode) {
-                        ReturnNode returnNode = ((ReturnNode) firstChild);
-                        value = returnNode.evaluate(context);
-                        break;
-                    }
-                    defCopy.replaceNode(firstChild, new ArrayList<Node>(
-                            firstChild.traverse(context)));
+    private static SassListItem loop(ScssContext context, List<Node> body,
+            Iterable<List<Variable>> loopVariables) {
+        for (List<Variable> variables : loopVariables) {
+            context.openVariableScope();
+            try {
+                for (Variable variable : variables) {
+                    context.addVariable(variable);
+                }
+                SassListItem value = execute(context, body);
+                if (value != null) {
+                    return value;
                 }
             } finally {
-                context.closeVariableScope(previousScope);
+                context.closeVariableScope();
             }
-        } catch( Exception ex ) {
-            cause = ex;
-            SCSSErrorHandler.get().warning( ex );
-        }
-        if (value == null) {
-            ParseException pex = new ParseException( "Function " + invocation.getFunctionName() + " did not return a value", invocation );
-            pex.initCause( cause );
-            throw pex;
         }
-        return value;
+        return null;
     }
 
 }
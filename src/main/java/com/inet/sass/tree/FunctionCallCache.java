@@ -0,0 +1,409 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass.tree;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.inet.sass.Scope;
+import com.inet.sass.ScssContext;
+import com.inet.sass.function.SCSSFunctionGenerator;
+import com.inet.sass.parser.ActualArgumentList;
+import com.inet.sass.parser.ReferenceCollector;
+import com.inet.sass.parser.SassListItem;
+import com.inet.sass.parser.ValueKey;
+import com.inet.sass.parser.Variable;
+import com.inet.sass.tree.controldirective.EachDefNode;
+import com.inet.sass.tree.controldirective.ElseNode;
+import com.inet.sass.tree.controldirective.ForNode;
+import com.inet.sass.tree.controldirective.IfElseDefNode;
+import com.inet.sass.tree.controldirective.IfNode;
+import com.inet.sass.tree.controldirective.WhileNode;
+
+/**
+ * Memo table for the results of pure user defined functions. It is valid for a single compile.
+ * 
+ * A function is pure if its body contains only variable assignments, control directives and return statements, does
+ * not write to variables outside of the function and calls only pure functions. The key of a cached result is the
+ * function definition, the exact evaluated arguments, the called functions and the current values of all outer
+ * variables which are read by the function or the functions it calls.
+ */
+public class FunctionCallCache {
+
+    private final HashMap<FunctionDefNode, Purity>     purities    = new HashMap<>();
+
+    private final HashMap<FunctionDefNode, Resolution> resolutions = new HashMap<>();
+
+    private final HashMap<Key, SassListItem>           results     = new HashMap<>();
+
+    private int                                        hits;
+
+    private int                                        misses;
+
+    private int                                        uncached;
+
+    /**
+     * Count of calls that returned a cached result.
+     * 
+     * @return the count
+     */
+    public int getHits() {
+        return hits;
+    }
+
+    /**
+     * Count of calls of pure functions that must be evaluated because there was no cached result.
+     * 
+     * @return the count
+     */
+    public int getMisses() {
+        return misses;
+    }
+
+    /**
+     * Count of calls that can not be cached because the function is not pure.
+     * 
+     * @return the count
+     */
+    public int getUncached() {
+        return uncached;
+    }
+
+    /**
+     * Count of cached results.
+     * 
+     * @return the count
+     */
+    public int size() {
+        return results.size();
+    }
+
+    @Override
+    public String toString() {
+        return "FunctionCallCache [hits=" + hits + ", misses=" + misses + ", uncached=" + uncached + ", size=" + results.size() + "]";
+    }
+
+    /**
+     * Create the key for a function call.
+     * 
+     * @param context current compilation context
+     * @param def the called function
+     * @param arguments the evaluated arguments of the call
+     * @return the key or null if the call can not be cached
+     */
+    Key createKey( ScssContext context, FunctionDefNode def, ActualArgumentList arguments ) {
+        Resolution resolution = resolutions.get( def );
+        if( resolution == null || !resolution.isValid( context ) ) {
+            resolutions.put( def, resolution = new Resolution( context, def ) );
+        }
+        Object[] outerValues = resolution.getOuterValues();
+        ValueKey argumentKey = outerValues == null ? null : ValueKey.of( arguments );
+        if( argumentKey == null ) {
+            uncached++;
+            return null;
+        }
+        return new Key( def, argumentKey, outerValues );
+    }
+
+    /**
+     * Get a cached result.
+     * 
+     * @param key the key from {@link #createKey(ScssContext, FunctionDefNode, ActualArgumentList)}
+     * @return the result or null
+     */
+    SassListItem get( Key key ) {
+        SassListItem result = results.get( key );
+        if( result != null ) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return result;
+    }
+
+    /**
+     * Cache the result of a function call.
+     * 
+     * @param key the key from {@link #createKey(ScssContext, FunctionDefNode, ActualArgumentList)}
+     * @param result the return value of the call
+     */
+    void put( Key key, SassListItem result ) {
+        results.put( key, result );
+    }
+
+    /**
+     * Get the analysis of a function body.
+     * 
+     * @param def the function
+     * @return the analysis
+     */
+    private Purity getPurity( FunctionDefNode def ) {
+        Purity purity = purities.get( def );
+        if( purity == null ) {
+            purities.put( def, purity = new Purity( def ) );
+        }
+        return purity;
+    }
+
+    /**
+     * The purity of a function and the outer variables read by it and its callees, resolved for the current
+     * definition scopes. It is reused for all calls until a function definition or a definition scope changes, so a
+     * call only looks up the current values of the outer variables.
+     */
+    private class Resolution {
+
+        private final int                   registryVersion;
+
+        private final int                   definitionVersion;
+
+        private final List<FunctionDefNode> functions   = new ArrayList<>();
+
+        private final List<Scope>           scopes      = new ArrayList<>();
+
+        private final List<Scope>           localScopes = new ArrayList<>();
+
+        private final List<String>          localNames  = new ArrayList<>();
+
+        private final List<Scope>           outerScopes = new ArrayList<>();
+
+        private final List<String>          outerNames  = new ArrayList<>();
+
+        private final boolean               pure;
+
+        Resolution( ScssContext context, FunctionDefNode def ) {
+            registryVersion = SCSSFunctionGenerator.getRegistryVersion();
+            definitionVersion = context.getFunctionDefinitionVersion();
+            pure = resolve( def );
+        }
+
+        /**
+         * Check if the function and all functions called by it are pure and collect the variables to look up.
+         * 
+         * @param def the function
+         * @return true, if pure
+         */
+        private boolean resolve( FunctionDefNode def ) {
+            if( functions.contains( def ) ) {
+                // recursion
+                return true;
+            }
+            Scope scope = def.getDefinitionScope();
+            functions.add( def );
+            scopes.add( scope );
+            Purity purity = getPurity( def );
+            if( !purity.pure || scope == null ) {
+                return false;
+            }
+            for( String name : purity.locals ) {
+                localScopes.add( scope );
+                localNames.add( name );
+            }
+            for( String name : purity.outerVariables ) {
+                outerScopes.add( scope );
+                outerNames.add( name );
+            }
+            for( String name : purity.functions ) {
+                SCSSFunctionGenerator generator = SCSSFunctionGenerator.getGenerator( name );
+                if( generator != null ) {
+                    if( !generator.isPure() ) {
+                        return false;
+                    }
+                    continue;
+                }
+                FunctionDefNode called = scope.getFunctionDefinition( name );
+                if( called != null && !resolve( called ) ) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Check if this resolution is still valid for the function definitions of the compile.
+         * 
+         * @param context current compilation context
+         * @return true, if valid
+         */
+        boolean isValid( ScssContext context ) {
+            if( registryVersion != SCSSFunctionGenerator.getRegistryVersion() || definitionVersion != context.getFunctionDefinitionVersion() ) {
+                return false;
+            }
+            for( int i = 0; i < functions.size(); i++ ) {
+                if( functions.get( i ).getDefinitionScope() != scopes.get( i ) ) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Get the called functions and the current values of the outer variables. A redefinition of a called function
+         * or a new assignment of an outer variable creates a new instance, so the identities are a valid key.
+         * 
+         * @return the instances or null if the call can not be cached
+         */
+        Object[] getOuterValues() {
+            if( !pure ) {
+                return null;
+            }
+            for( int i = 0; i < localNames.size(); i++ ) {
+                if( localScopes.get( i ).getVariable( localNames.get( i ) ) != null ) {
+                    // an assignment would change the outer variable
+                    return null;
+                }
+            }
+            int count = functions.size();
+            Object[] values = functions.toArray( new Object[count + outerNames.size()] );
+            for( int i = 0; i < outerNames.size(); i++ ) {
+                Variable variable = outerScopes.get( i ).getVariable( outerNames.get( i ) );
+                values[count + i] = variable == null ? null : variable.getExpr();
+            }
+            return values;
+        }
+    }
+
+    /**
+     * The result of the analysis of a function body. It does not depend on the state of the compile.
+     */
+    private static class Purity {
+
+        private boolean           pure = true;
+
+        private final Set<String> locals         = new LinkedHashSet<>();
+
+        private final Set<String> outerVariables = new LinkedHashSet<>();
+
+        private final Set<String> functions;
+
+        Purity( FunctionDefNode def ) {
+            ReferenceCollector collector = new ReferenceCollector();
+            Set<String> innerVariables = new HashSet<>();
+            for( Variable param : def.getArglist() ) {
+                innerVariables.add( unifiedName( param.getName() ) );
+                collector.collect( param.getExpr() );
+            }
+            analyze( def.getChildren(), collector, innerVariables );
+            if( collector.isContextDependent() ) {
+                pure = false;
+            }
+            for( String name : collector.getVariables() ) {
+                if( !innerVariables.contains( unifiedName( name ) ) && !locals.contains( unifiedName( name ) ) ) {
+                    outerVariables.add( name );
+                }
+            }
+            functions = collector.getFunctions();
+        }
+
+        private void analyze( List<Node> nodes, ReferenceCollector collector, Set<String> innerVariables ) {
+            for( Node node : nodes ) {
+                if( node instanceof VariableNode ) {
+                    VariableNode variable = (VariableNode)node;
+                    String name = unifiedName( variable.getName() );
+                    if( !innerVariables.contains( name ) ) {
+                        locals.add( name );
+                    }
+                    collector.collect( variable.getExpr() );
+                } else if( node instanceof ReturnNode ) {
+                    collector.collect( ((ReturnNode)node).getExpr() );
+                } else if( node instanceof IfElseDefNode ) {
+                    analyze( node.getChildren(), collector, innerVariables );
+                } else if( node instanceof IfNode ) {
+                    collector.collect( ((IfNode)node).getExpression() );
+                    analyze( node.getChildren(), collector, innerVariables );
+                } else if( node instanceof ElseNode ) {
+                    collector.collect( ((ElseNode)node).getExpression() );
+                    analyze( node.getChildren(), collector, innerVariables );
+                } else if( node instanceof EachDefNode ) {
+                    EachDefNode each = (EachDefNode)node;
+                    for( String name : each.getVariableNames() ) {
+                        innerVariables.add( unifiedName( name ) );
+                    }
+                    collector.collect( each.getVariables() );
+                    analyze( node.getChildren(), collector, innerVariables );
+                } else if( node instanceof ForNode ) {
+                    ForNode forNode = (ForNode)node;
+                    innerVariables.add( unifiedName( forNode.getVariableName() ) );
+                    collector.collect( forNode.getFrom() );
+                    collector.collect( forNode.getTo() );
+                    analyze( node.getChildren(), collector, innerVariables );
+                } else if( node instanceof WhileNode ) {
+                    collector.collect( ((WhileNode)node).getCondition() );
+                    analyze( node.getChildren(), collector, innerVariables );
+                } else {
+                    // @debug, @warn, nested definitions and all other
+                    pure = false;
+                }
+            }
+        }
+
+        private static String unifiedName( String name ) {
+            return name.replace( '_', '-' );
+        }
+    }
+
+    /**
+     * The key of a cached function result.
+     */
+    static class Key {
+
+        private final FunctionDefNode def;
+
+        private final ValueKey        arguments;
+
+        private final Object[]        outerValues;
+
+        private final int             hashCode;
+
+        Key( FunctionDefNode def, ValueKey arguments, Object[] outerValues ) {
+            this.def = def;
+            this.arguments = arguments;
+            this.outerValues = outerValues;
+            int hash = System.identityHashCode( def ) * 31 + arguments.hashCode();
+            for( Object value : outerValues ) {
+                hash = hash * 31 + System.identityHashCode( value );
+            }
+            hashCode = hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals( Object obj ) {
+            if( !(obj instanceof Key) ) {
+                return false;
+            }
+            Key other = (Key)obj;
+            if( def != other.def || !arguments.equals( other.arguments ) || outerValues.length != other.outerValues.length ) {
+                return false;
+            }
+            for( int i = 0; i < outerValues.length; i++ ) {
+                // the functions and values are immutable, a redefinition or new assignment creates a new instance
+                if( outerValues[i] != other.outerValues[i] ) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
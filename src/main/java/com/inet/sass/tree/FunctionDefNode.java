@@ -20,9 +20,14 @@ import java.util.Collection;
 import java.util.Collections;
 
 import com.inet.sass.ScssContext;
+import com.inet.sass.function.Intrinsics;
+import com.inet.sass.function.SCSSFunctionGenerator;
 import com.inet.sass.parser.FormalArgumentList;
 
 public class FunctionDefNode extends DefNode {
+
+    private SCSSFunctionGenerator intrinsic;
+
     public FunctionDefNode( String name, FormalArgumentList args ) {
         super( name, args );
     }
@@ -38,9 +43,19 @@ public class FunctionDefNode extends DefNode {
 
     @Override
     public Collection<Node> traverse(ScssContext context) {
+        intrinsic = context.isIntrinsics() ? Intrinsics.find(getName(), getArglist(), getChildren()) : null;
         context.defineFunction(this);
         setDefinitionScope(context.getCurrentScope());
         return Collections.emptyList();
     }
 
+    /**
+     * Get the native replacement of this function.
+     * 
+     * @return the intrinsic or null if the SCSS code is interpreted
+     */
+    public SCSSFunctionGenerator getIntrinsic() {
+        return intrinsic;
+    }
+
 }
@@ -17,6 +17,7 @@
 
 package com.inet.sass.tree;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
 
@@ -41,7 +42,23 @@ public class KeyframesNode extends Node {
 
     @Override
     public String printState() {
-        return buildString(PRINT_STRATEGY);
+        return CssEmitter.toString(this);
+    }
+
+    @Override
+    public void write(CssEmitter out) throws IOException {
+        out.append(keyframeName).append(' ').append(animationName);
+        if (out.getStyle() != CssEmitter.OutputStyle.EXPANDED) {
+            out.writeBlock(getChildren());
+            return;
+        }
+        out.append(" {\n");
+        for (Node child : getChildren()) {
+            out.append("\t\t");
+            child.write(out);
+            out.append('\n');
+        }
+        out.append("\t}");
     }
 
     @Override
@@ -20,6 +20,7 @@ package com.inet.sass.tree;
 import com.inet.sass.ScssContext;
 import com.inet.sass.parser.StringInterpolationSequence;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
 
@@ -46,7 +47,27 @@ public class LayerNode extends Node {
 
     @Override
     public String printState() {
-        return buildString(PRINT_STRATEGY, true);
+        return CssEmitter.toString(this);
+    }
+
+    @Override
+    public void write(CssEmitter out) throws IOException {
+        out.append("@layer ").append(layerName);
+        if (out.getStyle() != CssEmitter.OutputStyle.EXPANDED) {
+            out.writeBlock(getChildren());
+            return;
+        }
+        out.append(" {\n");
+        for (Node child : getChildren()) {
+            out.append('\t');
+            if (child instanceof BlockNode) {
+                ((BlockNode) child).write(out, true);
+            } else {
+                child.write(out);
+            }
+            out.append('\n');
+        }
+        out.append('}');
     }
 
     @Override
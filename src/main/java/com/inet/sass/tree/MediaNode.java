@@ -17,6 +17,7 @@
 
 package com.inet.sass.tree;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -49,7 +50,40 @@ public class MediaNode extends Node {
 
     @Override
     public String printState() {
-        return buildString(PRINT_STRATEGY, true);
+        return CssEmitter.toString(this);
+    }
+
+    @Override
+    public void write(CssEmitter out) throws IOException {
+        out.mark(this);
+        out.append("@media ");
+        if (media != null) {
+            for (int i = 0; i < media.getLength(); i++) {
+                if (i > 0) {
+                    out.append(out.isCompressed() ? "," : ", ");
+                }
+                String item = media.item(i);
+                if (out.isCompressed()) {
+                    item = item.replace(", ", ",").replace(": ", ":");
+                }
+                out.append(item);
+            }
+        }
+        if (out.getStyle() != CssEmitter.OutputStyle.EXPANDED) {
+            out.writeBlock(getChildren());
+            return;
+        }
+        out.append(" {\n");
+        for (Node child : getChildren()) {
+            out.append('\t');
+            if (child instanceof BlockNode) {
+                ((BlockNode) child).write(out, true);
+            } else {
+                child.write(out);
+            }
+            out.append('\n');
+        }
+        out.append('}');
     }
 
     @Override
@@ -22,6 +22,7 @@ import java.util.Collections;
 import com.inet.sass.ScssContext;
 import com.inet.sass.handler.SCSSErrorHandler;
 import com.inet.sass.parser.SassListItem;
+import com.inet.sass.tree.controldirective.TemporaryNode;
 
 public class MessageNode extends Node {
 
@@ -49,8 +50,23 @@ public class MessageNode extends Node {
 
     @Override
     public Collection<Node> traverse( ScssContext context ) {
-        SCSSErrorHandler handler = SCSSErrorHandler.get();
         message = message.evaluateFunctionsAndExpressions( context, true );
+        report( context );
+        return Collections.emptyList();
+    }
+
+    @Override
+    public void instantiate( ScssContext context, TemporaryNode parent ) {
+        report( context );
+    }
+
+    /**
+     * Evaluate the message and pass it to the error handler. The node is not modified.
+     * 
+     * @param context current compilation context
+     */
+    public void report( ScssContext context ) {
+        SCSSErrorHandler handler = SCSSErrorHandler.get();
         String msg = message.evaluateFunctionsAndExpressions( context, true ).unquotedString();
         switch( level ) {
             case debug:
@@ -63,7 +79,6 @@ public class MessageNode extends Node {
                 handler.error( msg );
                 break;
         }
-        return Collections.emptyList();
     }
 
     @Override
@@ -17,7 +17,6 @@
 
 package com.inet.sass.tree;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 
@@ -43,27 +42,6 @@ public class MixinDefNode extends DefNode {
                 + getArglist().size() + "}";
     }
 
-    /**
-     * This should only happen on a cloned MixinDefNode, since it changes the
-     * Node itself.
-     * 
-     * @param context context with variables of the caller scope where it is defined
-     * @param mixinNode
-     */
-    public void replaceContentDirective( ScssContext context, MixinNode mixinNode) {
-        findAndReplaceContentNodeInChildren( context, this, mixinNode);
-    }
-
-    private static void findAndReplaceContentNodeInChildren( ScssContext context, Node node, MixinNode mixinNode ) {
-        for( Node child : new ArrayList<Node>( node.getChildren() ) ) {
-            if( child instanceof ContentNode ) {
-                ((ContentNode)child).bind( mixinNode, context.getCurrentScope() );
-            } else {
-                findAndReplaceContentNodeInChildren( context, child, mixinNode );
-            }
-        }
-    }
-
     @Override
     public MixinDefNode copy() {
         return new MixinDefNode(this);
@@ -23,6 +23,7 @@ import java.util.Collections;
 import com.inet.sass.ScssContext;
 import com.inet.sass.handler.SCSSErrorHandler;
 import com.inet.sass.parser.ActualArgumentList;
+import com.inet.sass.tree.controldirective.TemporaryNode;
 import com.inet.sass.visitor.MixinNodeHandler;
 
 /**
@@ -58,10 +59,6 @@ public class MixinNode extends Node implements NodeWithUrlContent {
         return arglist;
     }
 
-    protected void expandVariableArguments() {
-        arglist = arglist.expandVariableArguments();
-    }
-
     public String getName() {
         return name;
     }
@@ -78,11 +75,26 @@ public class MixinNode extends Node implements NodeWithUrlContent {
 
     @Override
     public Collection<Node> traverse( ScssContext context ) {
+        return expand( context, getParentNode() );
+    }
+
+    @Override
+    public void instantiate( ScssContext context, TemporaryNode parent ) {
+        parent.appendTraversed( expand( context, parent ) );
+    }
+
+    /**
+     * Expand the mixin. This node is not modified.
+     * 
+     * @param context current compilation context
+     * @param parent the parent of the created nodes
+     * @return the created nodes
+     */
+    private Collection<Node> expand( ScssContext context, Node parent ) {
         try {
-            arglist = arglist.evaluateFunctionsAndExpressions(context, true);
-            expandVariableArguments();
+            ActualArgumentList args = arglist.evaluateFunctionsAndExpressions( context, true ).expandVariableArguments();
             // inner scope is managed by MixinNodeHandler
-            return MixinNodeHandler.traverse( context, this );
+            return MixinNodeHandler.traverse( context, this, args, parent );
         } catch( Exception ex ) {
             SCSSErrorHandler.get().error( ex );
             // TODO is ignoring this exception appropriate?
@@ -64,8 +64,9 @@ public class NestPropertiesNode extends Node {
         StringInterpolationSequence newName = name
                 .append(new StringInterpolationSequence("-"));
         newName = newName.append(child.getVariable());
-        RuleNode newRuleNode = new RuleNode(newName, child.getValue(),
-                child.isImportant(), null);
+        RuleNode newRuleNode = new RuleNode(child.getUri(),
+                child.getLineNumber(), child.getColumnNumber(), newName,
+                child.getValue(), child.isImportant(), null);
         return newRuleNode;
     }
 
@@ -17,6 +17,7 @@
 
 package com.inet.sass.tree;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -179,6 +180,26 @@ public abstract class Node implements SourceLocation {
      */
     public abstract Collection<Node> traverse(ScssContext context);
 
+    /**
+     * Expand this node as part of a template like the body of a mixin that
+     * can be expanded many times. This node and its children are not
+     * modified. The default implementation traverses a copy of this node.
+     * Nodes which only evaluate expressions override it to avoid the copy.
+     *
+     * @param context
+     *            current compilation context
+     * @param parent
+     *            receives the created nodes, they are already traversed
+     */
+    public void instantiate(ScssContext context, TemporaryNode parent) {
+        Node copy = copy();
+        ContentNode.Binding binding = context.getContentBinding();
+        if (binding != null) {
+            binding.bind(copy);
+        }
+        parent.appendAndTraverse(context, copy);
+    }
+
     /**
      * Prints out the current state of the node tree. Will return SCSS before
      * compile and CSS after.
@@ -191,6 +212,22 @@ public abstract class Node implements SourceLocation {
         return null;
     }
 
+    /**
+     * Write the CSS of this node after compile. The default implementation
+     * writes the result of {@link #printState()} if it is not null.
+     * 
+     * @param out
+     *            the target
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public void write(CssEmitter out) throws IOException {
+        String state = printState();
+        if (state != null) {
+            out.append(state);
+        }
+    }
+
     public Node getParentNode() {
         return parentNode;
     }
@@ -17,6 +17,7 @@
 
 package com.inet.sass.tree;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
 
@@ -32,6 +33,11 @@ public class RuleNode extends Node implements NodeWithUrlContent {
     private boolean important;
 
     public RuleNode( StringInterpolationSequence variable, SassListItem value, boolean important, String comment ) {
+        this( null, 0, 0, variable, value, important, comment );
+    }
+
+    public RuleNode( String uri, int line, int column, StringInterpolationSequence variable, SassListItem value, boolean important, String comment ) {
+        super( uri, line, column );
         this.variable = variable;
         this.value = value;
         this.important = important;
@@ -60,7 +66,38 @@ public class RuleNode extends Node implements NodeWithUrlContent {
 
     @Override
     public String printState() {
-        return buildString(PRINT_STRATEGY);
+        return CssEmitter.toString(this);
+    }
+
+    @Override
+    public void write(CssEmitter out) throws IOException {
+        // the name is only written if the value is not empty
+        boolean compressed = out.isCompressed();
+        String name = variable.toString();
+        out.mark(this);
+        int mark = out.pending(name);
+        out.pending(compressed ? ":" : ": ");
+        long length = out.length();
+        // a value that prints only whitespace is handled like an empty value
+        boolean blankPending = out.setBlankPending(true);
+        if (name.startsWith("--")) {
+            // the value of a custom property is written unchanged
+            out.append(value.printState());
+        } else {
+            value.write(out);
+        }
+        out.setBlankPending(blankPending);
+        if (important) {
+            out.append(compressed ? "!important" : " !important");
+        }
+        if (!compressed && out.length() != length) {
+            // the compressed style adds the semicolon only between declarations
+            out.append(';');
+        }
+        out.discardPending(mark);
+        if (comment != null && !compressed) {
+            out.append(comment);
+        }
     }
 
     @Override
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass.tree;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Writes a source map in the version 3 format. The mappings are encoded as base64 VLQ and written directly to the
+ * target while the CSS is written, only the list of the source files is kept until {@link #finish()}.
+ */
+public class SourceMapGenerator {
+
+    private static final char[]            BASE64  = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+
+    private final Writer                   writer;
+
+    private final ArrayList<String>        sources = new ArrayList<>();
+
+    private final HashMap<String, Integer> sourceIndex = new HashMap<>();
+
+    /** the generated line of the last mapping, the mappings of every line are separated with a semicolon */
+    private int                            line;
+
+    private boolean                        lineHasMapping;
+
+    /** the previous values, all fields except the generated column are relative over the whole map */
+    private int                            previousColumn;
+
+    private int                            previousSource;
+
+    private int                            previousSourceLine;
+
+    private int                            previousSourceColumn;
+
+    /**
+     * Create a generator and write the start of the map.
+     *
+     * @param writer the target of the JSON, should be buffered
+     * @param file the name of the generated CSS file or null
+     * @throws IOException if an I/O error occurs
+     */
+    public SourceMapGenerator( Writer writer, String file ) throws IOException {
+        if( !(writer instanceof BufferedWriter || writer instanceof StringWriter) ) {
+            writer = new BufferedWriter( writer );
+        }
+        this.writer = writer;
+        writer.write( "{\"version\":3," );
+        if( file != null ) {
+            writer.write( "\"file\":" );
+            writeString( file );
+            writer.write( ',' );
+        }
+        writer.write( "\"mappings\":\"" );
+    }
+
+    /**
+     * Add a mapping. The mappings must be added in the order of the generated positions.
+     *
+     * @param generatedLine the 0-based line in the CSS
+     * @param generatedColumn the 0-based column in the CSS
+     * @param source the uri of the source file
+     * @param sourceLine the 0-based line in the source
+     * @param sourceColumn the 0-based column in the source
+     * @throws IOException if an I/O error occurs
+     */
+    public void addMapping( int generatedLine, int generatedColumn, String source, int sourceLine, int sourceColumn ) throws IOException {
+        while( line < generatedLine ) {
+            writer.write( ';' );
+            line++;
+            lineHasMapping = false;
+            previousColumn = 0;
+        }
+        if( lineHasMapping ) {
+            if( generatedColumn == previousColumn ) {
+                // an outer node and its first child start at the same position
+                return;
+            }
+            writer.write( ',' );
+        }
+        Integer index = sourceIndex.get( source );
+        if( index == null ) {
+            index = sources.size();
+            sources.add( source );
+            sourceIndex.put( source, index );
+        }
+        writeVLQ( generatedColumn - previousColumn );
+        writeVLQ( index - previousSource );
+        writeVLQ( sourceLine - previousSourceLine );
+        writeVLQ( sourceColumn - previousSourceColumn );
+        lineHasMapping = true;
+        previousColumn = generatedColumn;
+        previousSource = index;
+        previousSourceLine = sourceLine;
+        previousSourceColumn = sourceColumn;
+    }
+
+    /**
+     * Write the end of the map with the list of the sources and flush the writer.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public void finish() throws IOException {
+        writer.write( "\",\"sources\":[" );
+        for( int i = 0; i < sources.size(); i++ ) {
+            if( i > 0 ) {
+                writer.write( ',' );
+            }
+            writeString( sources.get( i ) );
+        }
+        writer.write( "],\"names\":[]}" );
+        writer.flush();
+    }
+
+    /**
+     * Write a signed value as base64 VLQ. The sign is the lowest bit, every digit holds 5 bits and a continuation bit.
+     *
+     * @param value the value
+     * @throws IOException if an I/O error occurs
+     */
+    private void writeVLQ( int value ) throws IOException {
+        int vlq = value < 0 ? ((-value) << 1) | 1 : value << 1;
+        do {
+            int digit = vlq & 31;
+            vlq >>>= 5;
+            if( vlq != 0 ) {
+                digit |= 32;
+            }
+            writer.write( BASE64[digit] );
+        } while( vlq != 0 );
+    }
+
+    private void writeString( String str ) throws IOException {
+        writer.write( '"' );
+        for( int i = 0; i < str.length(); i++ ) {
+            char ch = str.charAt( i );
+            switch( ch ) {
+                case '"':
+                case '\\':
+                    writer.write( '\\' );
+                    writer.write( ch );
+                    break;
+                case '\n':
+                    writer.write( "\\n" );
+                    break;
+                case '\r':
+                    writer.write( "\\r" );
+                    break;
+                case '\t':
+                    writer.write( "\\t" );
+                    break;
+                default:
+                    if( ch < 0x20 ) {
+                        writer.write( String.format( "\\u%04x", (int)ch ) );
+                    } else {
+                        writer.write( ch );
+                    }
+            }
+        }
+        writer.write( '"' );
+    }
+}
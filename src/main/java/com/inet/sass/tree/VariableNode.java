@@ -24,6 +24,7 @@ import com.inet.sass.Definition;
 import com.inet.sass.ScssContext;
 import com.inet.sass.parser.SassListItem;
 import com.inet.sass.parser.Variable;
+import com.inet.sass.tree.controldirective.TemporaryNode;
 import com.inet.sass.visitor.VariableNodeHandler;
 
 public class VariableNode extends Node implements Definition, NodeWithUrlContent {
@@ -80,6 +81,26 @@ public class VariableNode extends Node implements Definition, NodeWithUrlContent
         return Collections.emptyList();
     }
 
+    /**
+     * Evaluate the expression and set the variable without modifying this
+     * node.
+     * 
+     * @param context
+     *            current compilation context
+     */
+    public void assign(ScssContext context) {
+        SassListItem expr = getExpr();
+        expr = expr.evaluateFunctionsAndExpressions(context,
+                expr.containsArithmeticalOperator());
+        VariableNodeHandler.assign(context,
+                new Variable(getName(), expr, isGuarded()));
+    }
+
+    @Override
+    public void instantiate(ScssContext context, TemporaryNode parent) {
+        assign(context);
+    }
+
     private String buildString(BuildStringStrategy strategy) {
         StringBuilder builder = new StringBuilder("$");
         builder.append(getName()).append(": ")
@@ -25,6 +25,7 @@ import com.inet.sass.parser.SassListItem;
 import com.inet.sass.tree.Node;
 import com.inet.sass.tree.NodeWithUrlContent;
 import com.inet.sass.visitor.EachNodeHandler;
+import com.inet.sass.visitor.LoopNodeHandler;
 
 public class EachDefNode extends Node implements NodeWithUrlContent {
 
@@ -62,6 +63,11 @@ public class EachDefNode extends Node implements NodeWithUrlContent {
         return EachNodeHandler.traverse(context, this);
     }
 
+    @Override
+    public void instantiate(ScssContext context, TemporaryNode parent) {
+        LoopNodeHandler.expandLoop(context, getChildren(), parent, EachNodeHandler.getLoopVariables(context, this));
+    }
+
     @Override
     public EachDefNode copy() {
         return new EachDefNode(this);
@@ -23,6 +23,7 @@ import com.inet.sass.ScssContext;
 import com.inet.sass.parser.SassListItem;
 import com.inet.sass.tree.Node;
 import com.inet.sass.visitor.ForNodeHandler;
+import com.inet.sass.visitor.LoopNodeHandler;
 
 public class ForNode extends Node {
 
@@ -75,6 +76,11 @@ public class ForNode extends Node {
         return ForNodeHandler.traverse(context, this);
     }
 
+    @Override
+    public void instantiate(ScssContext context, TemporaryNode parent) {
+        LoopNodeHandler.expandLoop(context, getChildren(), parent, ForNodeHandler.getLoopVariables(context, this));
+    }
+
     @Override
     public ForNode copy() {
         return new ForNode(this);
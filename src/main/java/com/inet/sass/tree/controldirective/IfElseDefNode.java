@@ -53,6 +53,20 @@ public class IfElseDefNode extends Node {
         }
     }
 
+    @Override
+    public void instantiate(ScssContext context, TemporaryNode parent) {
+        try {
+            Node branch = IfElseNodeHandler.getBranch(context, this);
+            if (branch != null) {
+                for (Node child : branch.getChildren()) {
+                    child.instantiate(context, parent);
+                }
+            }
+        } catch (Exception e) {
+            SCSSErrorHandler.get().error( e );
+        }
+    }
+
     private String buildString(BuildStringStrategy strategy) {
         StringBuilder b = new StringBuilder();
         for (final Node child : getChildren()) {
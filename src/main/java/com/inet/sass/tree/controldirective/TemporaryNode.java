@@ -62,6 +62,18 @@ public class TemporaryNode extends Node {
         replaceNode(node, node.traverse(context) );
     }
 
+    /**
+     * Append nodes that have already been traversed.
+     *
+     * @param nodes
+     *            the traversed nodes
+     */
+    public void appendTraversed(Collection<Node> nodes) {
+        for (Node node : nodes) {
+            appendChild(node);
+        }
+    }
+
     @Override
     public Collection<Node> traverse(ScssContext context) {
         // this is like traverseChildren(false) except that this does not modify
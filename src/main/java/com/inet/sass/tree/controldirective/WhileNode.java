@@ -51,6 +51,11 @@ public class WhileNode extends Node {
         return WhileNodeHandler.traverse(context, this);
     }
 
+    @Override
+    public void instantiate(ScssContext context, TemporaryNode parent) {
+        WhileNodeHandler.expand(context, this, parent);
+    }
+
     @Override
     public WhileNode copy() {
         return new WhileNode(this);
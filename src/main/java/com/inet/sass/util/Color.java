@@ -0,0 +1,232 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass.util;
+
+/**
+ * An immutable color value. The RGB channels are packed into a single int, the alpha value is kept with full double
+ * precision because stylesheets calculate with opacity(). The HSL components are computed on first use and cached.
+ * Colors that are created from HSL values keep these values exactly so that consecutive HSL adjustments do not
+ * accumulate rounding errors.
+ */
+public final class Color {
+
+    /** The RGB channels like 0xRRGGBB. */
+    private final int         rgb;
+
+    private final double      alpha;
+
+    private volatile double[] hsl;
+
+    private Color( int rgb, double alpha, double[] hsl ) {
+        this.rgb = rgb & 0xFFFFFF;
+        this.alpha = alpha;
+        this.hsl = hsl;
+    }
+
+    /**
+     * Create a color from RGB channels. The channels are clamped to the range 0 to 255.
+     *
+     * @param red the red channel
+     * @param green the green channel
+     * @param blue the blue channel
+     * @param alpha the alpha value, 1 for an opaque color
+     * @return the color
+     */
+    public static Color rgb( int red, int green, int blue, double alpha ) {
+        return new Color( (clamp( red ) << 16) | (clamp( green ) << 8) | clamp( blue ), alpha, null );
+    }
+
+    /**
+     * Create a color from packed RGB channels like 0xRRGGBB.
+     *
+     * @param rgb the RGB channels
+     * @param alpha the alpha value, 1 for an opaque color
+     * @return the color
+     */
+    public static Color rgb( int rgb, double alpha ) {
+        return new Color( rgb, alpha, null );
+    }
+
+    /**
+     * Create a color from HSL components.
+     *
+     * @param hue the hue in degrees
+     * @param saturation the saturation in percent
+     * @param lightness the lightness in percent
+     * @param alpha the alpha value, 1 for an opaque color
+     * @return the color
+     */
+    public static Color hsl( double hue, double saturation, double lightness, double alpha ) {
+        double h = ((hue % 360) + 360) % 360 / 360.0;
+        double s = saturation / 100;
+        double l = lightness / 100;
+        double m2 = l <= 0.5 ? l * (s + 1) : l + s - l * s;
+        double m1 = l * 2 - m2;
+        int red = clamp( (int)Math.round( hueToRgb( m1, m2, h + 1f / 3 ) * 255 ) );
+        int green = clamp( (int)Math.round( hueToRgb( m1, m2, h ) * 255 ) );
+        int blue = clamp( (int)Math.round( hueToRgb( m1, m2, h - 1f / 3 ) * 255 ) );
+        return new Color( (red << 16) | (green << 8) | blue, alpha, new double[] { hue, saturation, lightness } );
+    }
+
+    /**
+     * Create a copy of this color with another alpha value.
+     *
+     * @param alpha the new alpha value
+     * @return the color
+     */
+    public Color withAlpha( double alpha ) {
+        return new Color( getRgb(), alpha, hsl );
+    }
+
+    /**
+     * Get the packed RGB channels.
+     *
+     * @return the channels like 0xRRGGBB
+     */
+    public int getRgb() {
+        return rgb;
+    }
+
+    public int getRed() {
+        return (rgb >> 16) & 0xFF;
+    }
+
+    public int getGreen() {
+        return (rgb >> 8) & 0xFF;
+    }
+
+    public int getBlue() {
+        return rgb & 0xFF;
+    }
+
+    public double getAlpha() {
+        return alpha;
+    }
+
+    public double getHue() {
+        return getHsl()[0];
+    }
+
+    public double getSaturation() {
+        return getHsl()[1];
+    }
+
+    public double getLightness() {
+        return getHsl()[2];
+    }
+
+    /**
+     * Get the RGB channels as a new array.
+     *
+     * @return red, green and blue
+     */
+    public int[] toRgb() {
+        return new int[] { getRed(), getGreen(), getBlue() };
+    }
+
+    /**
+     * Get the HSL components as a new array.
+     *
+     * @return hue, saturation and lightness
+     */
+    public double[] toHsl() {
+        return getHsl().clone();
+    }
+
+    private double[] getHsl() {
+        double[] hsl = this.hsl;
+        if( hsl == null ) {
+            this.hsl = hsl = calculateHsl( getRed(), getGreen(), getBlue() );
+        }
+        return hsl;
+    }
+
+    private static int clamp( int channel ) {
+        return Math.min( 255, Math.max( 0, channel ) );
+    }
+
+    private static double[] calculateHsl( int red, int green, int blue ) {
+        double r = red / 255.0;
+        double g = green / 255.0;
+        double b = blue / 255.0;
+
+        double max = Math.max( Math.max( r, g ), b );
+        double min = Math.min( Math.min( r, g ), b );
+        double d = max - min;
+
+        double h = 0;
+        if( max == r ) {
+            h = 60 * (g - b) / d;
+        } else if( max == g ) {
+            h = 60 * (b - r) / d + 120;
+        } else if( max == b ) {
+            h = 60 * (r - g) / d + 240;
+        }
+
+        double l = (max + min) / 2.0;
+
+        double s;
+        if( max == min ) {
+            s = 0;
+        } else if( l < 0.5 ) {
+            s = d / (2 * l);
+        } else {
+            s = d / (2 - 2 * l);
+        }
+
+        // If saturation is 0, the hue is not well defined. Use hue 0 in this case.
+        return new double[] { s == 0 ? 0 : h % 360, s * 100, l * 100 };
+    }
+
+    private static double hueToRgb( double m1, double m2, double h ) {
+        if( h < 0 ) {
+            h = h + 1;
+        }
+        if( h > 1 ) {
+            h = h - 1;
+        }
+        if( h * 6 < 1 ) {
+            return m1 + (m2 - m1) * h * 6;
+        }
+        if( h * 2 < 1 ) {
+            return m2;
+        }
+        if( h * 3 < 2 ) {
+            return m1 + (m2 - m1) * (2f / 3 - h) * 6;
+        }
+        return m1;
+    }
+
+    @Override
+    public boolean equals( Object obj ) {
+        if( !(obj instanceof Color) ) {
+            return false;
+        }
+        Color other = (Color)obj;
+        return other.rgb == rgb && Double.compare( other.alpha, alpha ) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * rgb + Double.hashCode( alpha );
+    }
+
+    @Override
+    public String toString() {
+        return "Color [#" + Integer.toHexString( 0x1000000 | getRgb() ).substring( 1 ) + ", alpha=" + getAlpha() + "]";
+    }
+}
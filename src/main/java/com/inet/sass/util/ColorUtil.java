@@ -25,13 +25,14 @@ import com.inet.sass.parser.ActualArgumentList;
 import com.inet.sass.parser.LexicalUnitImpl;
 import com.inet.sass.parser.ParseException;
 import com.inet.sass.parser.SCSSLexicalUnit;
-import com.inet.sass.parser.SassList;
-import com.inet.sass.parser.SassList.Separator;
+import com.inet.sass.parser.SassListItem;
 
 public class ColorUtil {
 
     private static Map<String, String> colorNameToHex = new HashMap<String, String>();
     private static Map<String, String> hexToColorName = new HashMap<String, String>();
+    private static Map<String, Color> namedColors = new HashMap<String, Color>();
+    private static Map<Integer, String> rgbToColorName = new HashMap<Integer, String>();
 
     static {
         colorNameToHex.put("aliceblue", "#f0f8ff");
@@ -188,6 +189,13 @@ public class ColorUtil {
         colorNameToHex.put("lightgrey", "#d3d3d3");
         colorNameToHex.put("lightslategrey", "#778899");
         colorNameToHex.put("slategrey", "#708090");
+
+        for (Entry<String, String> entry : colorNameToHex.entrySet()) {
+            namedColors.put(entry.getKey(), parseHexColor(entry.getValue()));
+        }
+        for (Entry<String, String> entry : hexToColorName.entrySet()) {
+            rgbToColorName.put(parseHexColor(entry.getKey()).getRgb(), entry.getValue());
+        }
     }
 
     /**
@@ -207,8 +215,8 @@ public class ColorUtil {
     }
 
     /**
-     * Returns true if the lexical unit represents a valid rgb() method call ,
-     * false otherwise.
+     * Returns true if the lexical unit represents a valid rgb() method call or
+     * an opaque color value, false otherwise.
      * 
      * @param unit
      *            lexical unit
@@ -218,6 +226,9 @@ public class ColorUtil {
         if( !LexicalUnitImpl.checkLexicalUnitType( unit, SCSSLexicalUnit.SAC_FUNCTION, SCSSLexicalUnit.SAC_RGBCOLOR ) ) {
             return false;
         }
+        if( isColorValue( unit ) ) {
+            return unit.getColor().getAlpha() >= 1;
+        }
         if (unit.getParameterList().size() != 3
                 || !"rgb".equals(unit.getFunctionName())) {
             return false;
@@ -234,6 +245,9 @@ public class ColorUtil {
      * @return true if unit represents an RGBA value
      */
     public static boolean isRgba(LexicalUnitImpl unit) {
+        if( isColorValue( unit ) ) {
+            return unit.getColor().getAlpha() < 1;
+        }
         return unit.getItemType() == SCSSLexicalUnit.SAC_FUNCTION
                 && "rgba".equals(unit.getFunctionName())
                 && (unit.getParameterList().size() == 2 || unit
@@ -254,6 +268,19 @@ public class ColorUtil {
                 && unit.getParameterList().size() == 4;
     }
 
+    /**
+     * Returns true if the lexical unit is a color value created with
+     * {@link LexicalUnitImpl#createColor(String, int, int, Color)}.
+     * 
+     * @param unit
+     *            lexical unit
+     * @return true if unit is a computed color
+     */
+    private static boolean isColorValue(LexicalUnitImpl unit) {
+        return unit.getItemType() == SCSSLexicalUnit.SAC_RGBCOLOR
+                && unit.getParameterList() == null;
+    }
+
     /**
      * Returns true if the lexical unit represents a valid color in the
      * hexadecimal form (three or six digits), false otherwise.
@@ -339,15 +366,12 @@ public class ColorUtil {
      * @return The alpha component of color.
      */
     public static double getAlpha(LexicalUnitImpl color) {
-        if (isHsla(color) || isRgba(color)) {
-            ActualArgumentList params = color.getParameterList();
-            return params.get(params.size() - 1).getContainedValue()
-                    .getDoubleValue();
-        } else if (isColor(color)) {
-            return 1;
+        Color value = color.getColor();
+        if (value == null) {
+            throw new ParseException("The parameter is not a valid color: "
+                    + color.toString(), color);
         }
-        throw new ParseException("The parameter is not a valid color: "
-                + color.toString(), color);
+        return value.getAlpha();
     }
 
     /**
@@ -360,335 +384,233 @@ public class ColorUtil {
      * @return RGB components or null if not a color
      */
     public static int[] colorToRgb(LexicalUnitImpl color) {
-        if (isRgba(color)) {
-            if (color.getParameterList().size() == 2
-                    && color.getParameterList().get(0) instanceof LexicalUnitImpl) {
-                return colorToRgb((LexicalUnitImpl) color.getParameterList()
-                        .get(0));
-            } else {
-                int red = color.getParameterList().get(0).getContainedValue()
-                        .getIntegerValue();
-                int green = color.getParameterList().get(1).getContainedValue()
-                        .getIntegerValue();
-                int blue = color.getParameterList().get(2).getContainedValue()
-                        .getIntegerValue();
-                return new int[] { red, green, blue };
-            }
-        } else if (isHsla(color)) {
-            return hslToRgb(color);
-        } else if (isHexColor(color)) {
-            return hexColorToRgb(color);
-        } else if (isHslColor(color)) {
-            return hslToRgb(color);
-        } else if (isRgbFunction(color)) {
-            return rgbFunctionToRgb(color);
-        } else if (isColorName(color)) {
-            return colorNameToRgb(color);
-        }
-        return null;
+        Color value = color.getColor();
+        return value == null ? null : value.toRgb();
     }
 
     /**
-     * Converts an array of RGB components to a string representing the color.
+     * Get the color value of a function parameter.
      * 
-     * @param rgb
-     *            the RGB components of a color
-     * @return a valid string representation of the color
+     * @param item
+     *            the parameter value
+     * @return the color or null if the item is not a color
      */
-    public static String rgbToColorString(int[] rgb) {
-        String colorString = rgbToHexColor(rgb, 6);
-        if (hexToColorName.containsKey(colorString)) {
-            colorString = hexToColorName.get(colorString);
-        }
-        return colorString;
+    public static Color getColor(SassListItem item) {
+        return item instanceof LexicalUnitImpl ? ((LexicalUnitImpl)item).getColor() : null;
     }
 
     /**
-     * Converts an array of HSL components to a string representing the color.
+     * Converts a lexical unit into a color value. This is used by
+     * {@link LexicalUnitImpl#getColor()} which caches the result.
      * 
-     * @param hsl
-     *            the HSL components of a color
-     * @return a valid string representation of the color
+     * @param unit
+     *            a lexical unit like a hex color, a color name or a call of
+     *            rgb(), rgba(), hsl() or hsla()
+     * @return the color or null if not a color
      */
-    public static int[] hslToRgb(double[] hsl) {
-        double h = ((hsl[0] % 360) + 360) % 360 / 360.0;
-        double s = hsl[1] / 100;
-        double l = hsl[2] / 100;
-        double m2, m1;
-        int[] rgb = new int[3];
-        m2 = l <= 0.5 ? l * (s + 1) : l + s - l * s;
-        m1 = l * 2 - m2;
-        rgb[0] = (int)Math.round(hueToRgb(m1, m2, h + 1f / 3) * 255);
-        rgb[1] = (int)Math.round(hueToRgb(m1, m2, h) * 255);
-        rgb[2] = (int)Math.round(hueToRgb(m1, m2, h - 1f / 3) * 255);
-        return rgb;
+    public static Color toColor(LexicalUnitImpl unit) {
+        switch( unit.getItemType() ) {
+            case SCSSLexicalUnit.SAC_IDENT:
+                String str = unit.getStringValue();
+                if( isHexColor( str ) ) {
+                    return parseHexColor( str );
+                }
+                return namedColors.get( str );
+            case SCSSLexicalUnit.SAC_FUNCTION:
+            case SCSSLexicalUnit.SAC_RGBCOLOR:
+                ActualArgumentList params = unit.getParameterList();
+                String name = unit.getFunctionName();
+                if( params == null || name == null ) {
+                    return null;
+                }
+                switch( name ) {
+                    case "rgb":
+                        if( params.size() == 3 ) {
+                            return Color.rgb( getInt( params, 0 ), getInt( params, 1 ), getInt( params, 2 ), 1 );
+                        }
+                        break;
+                    case "rgba":
+                        if( params.size() == 2 ) {
+                            if( params.get( 0 ) instanceof LexicalUnitImpl ) {
+                                Color color = ((LexicalUnitImpl)params.get( 0 )).getColor();
+                                return color == null ? null : color.withAlpha( getDouble( params, 1 ) );
+                            }
+                        } else if( params.size() == 4 ) {
+                            return Color.rgb( getInt( params, 0 ), getInt( params, 1 ), getInt( params, 2 ), getDouble( params, 3 ) );
+                        }
+                        break;
+                    case "hsl":
+                        if( params.size() == 3 ) {
+                            return Color.hsl( getDouble( params, 0 ), getDouble( params, 1 ), getDouble( params, 2 ), 1 );
+                        }
+                        break;
+                    case "hsla":
+                        if( params.size() == 4 ) {
+                            return Color.hsl( getDouble( params, 0 ), getDouble( params, 1 ), getDouble( params, 2 ), getDouble( params, 3 ) );
+                        }
+                        break;
+                }
+                return null;
+            default:
+                return null;
+        }
+    }
+
+    private static int getInt( ActualArgumentList params, int i ) {
+        return params.get( i ).getContainedValue().getIntegerValue();
+    }
+
+    private static double getDouble( ActualArgumentList params, int i ) {
+        return params.get( i ).getContainedValue().getDoubleValue();
     }
 
     /**
-     * Converts a color into an array of its HSL (hue, saturation, lightness)
-     * components.
+     * Converts an array of RGB components to a string representing the color.
      * 
-     * @param color
-     *            a lexical unit that represents a color
-     * @return HSL components or null if not a color
+     * @param rgb
+     *            the RGB components of a color
+     * @return a valid string representation of the color
      */
-    public static double[] colorToHsl(LexicalUnitImpl color) {
-        if (isHslColor(color) || isHsla(color)) {
-            ActualArgumentList params = color.getParameterList();
-            double hue = params.get( 0 ).getContainedValue().getDoubleValue();
-            double saturation = params.get( 1 ).getContainedValue().getDoubleValue();
-            double lightness = params.get( 2 ).getContainedValue().getDoubleValue();
-            return new double[] { hue, saturation, lightness };
-        }
-        // TODO shortcut path for hsl()? need to take percent vs. integer vs.
-        // real into account
-        // TODO int[] loses precision
-        int[] rgb = colorToRgb(color);
-        if (rgb == null) {
-            return null;
-        }
-        double hsl[] = calculateHsl(rgb[0], rgb[1], rgb[2]);
-        return hsl;
+    public static String rgbToColorString(int[] rgb) {
+        return rgbToColorString( (rgb[0] << 16) | (rgb[1] << 8) | rgb[2] );
     }
 
     /**
-     * Converts an rgb() function call into an array of its RGB components. The
-     * caller must ensure that isRgbFunction(color) returns true for the
-     * parameter.
+     * Converts packed RGB components to a string representing the color. This
+     * is the color name if there is one, otherwise the six digit hex form.
      * 
-     * @param color
-     *            a lexical unit that represents a function call for rgb()
-     * @return RGB components
+     * @param rgb
+     *            the RGB components of a color like 0xRRGGBB
+     * @return a valid string representation of the color
      */
-    private static int[] rgbFunctionToRgb(LexicalUnitImpl color) {
-        int red = color.getParameterList().get(0).getContainedValue()
-                .getIntegerValue();
-        int green = color.getParameterList().get(1).getContainedValue()
-                .getIntegerValue();
-        int blue = color.getParameterList().get(2).getContainedValue()
-                .getIntegerValue();
-        return new int[] { red, green, blue };
+    public static String rgbToColorString(int rgb) {
+        String name = rgbToColorName.get( rgb );
+        if( name != null ) {
+            return name;
+        }
+        return toHex( rgb );
+    }
+
+    private static String toHex( int rgb ) {
+        char[] chars = new char[7];
+        chars[0] = '#';
+        for( int i = 6; i > 0; i-- ) {
+            chars[i] = Character.forDigit( rgb & 0xF, 16 );
+            rgb >>= 4;
+        }
+        return new String( chars );
     }
 
     /**
-     * Converts a hex color (with three or six hex characters) into an array of
-     * its RGB components. The caller must ensure that isHexColor(hexColor)
-     * returns true for the parameter.
+     * Converts packed RGB components to the shortest string representing the
+     * color: the color name, the three digit or the six digit hex form.
      * 
-     * @param hexColor
-     *            a hexadecimal representation for a color (in CSS and HTML
-     *            color specification format)
-     * @return RGB components
+     * @param rgb
+     *            the RGB components of a color like 0xRRGGBB
+     * @return the shortest representation of the color
      */
-    private static int[] hexColorToRgb(String hexColor) {
-        String s = hexColor.substring(1);
-        int r = 0, g = 0, b = 0;
-        if (s.length() == 3) {
-            String sh = s.substring(0, 1);
-            r = Integer.parseInt(sh + sh, 16);
-            sh = s.substring(1, 2);
-            g = Integer.parseInt(sh + sh, 16);
-            sh = s.substring(2, 3);
-            b = Integer.parseInt(sh + sh, 16);
-        } else if (s.length() == 6) {
-            r = Integer.parseInt(s.substring(0, 2), 16);
-            g = Integer.parseInt(s.substring(2, 4), 16);
-            b = Integer.parseInt(s.substring(4, 6), 16);
+    public static String rgbToShortestColorString(int rgb) {
+        String hex;
+        if( ((rgb >> 4) & 0x0F0F0F) == (rgb & 0x0F0F0F) ) {
+            char[] chars = new char[4];
+            chars[0] = '#';
+            chars[1] = Character.forDigit( (rgb >> 16) & 0xF, 16 );
+            chars[2] = Character.forDigit( (rgb >> 8) & 0xF, 16 );
+            chars[3] = Character.forDigit( rgb & 0xF, 16 );
+            hex = new String( chars );
+        } else {
+            hex = toHex( rgb );
         }
-        return new int[] { r, g, b };
-
+        String name = rgbToColorName.get( rgb );
+        return name != null && name.length() < hex.length() ? name : hex;
     }
 
     /**
-     * Converts a hex color (with three or six hex characters) into an array of
-     * its RGB components. The caller must ensure that isHexColor(hexColor)
-     * returns true for the parameter.
+     * Converts an array of HSL components to an array of RGB components.
      * 
-     * @param hexColor
-     *            a lexical unit containing an identifier that represents a
-     *            hexadecimal representation for a color (in CSS and HTML color
-     *            specification format)
-     * @return RGB components
+     * @param hsl
+     *            the HSL components of a color
+     * @return the RGB components
      */
-    private static int[] hexColorToRgb(LexicalUnitImpl hexColor) {
-        return hexColorToRgb(hexColor.getStringValue());
+    public static int[] hslToRgb(double[] hsl) {
+        return Color.hsl( hsl[0], hsl[1], hsl[2], 1 ).toRgb();
     }
 
     /**
-     * Converts a color name into an array of its RGB components. The caller
-     * must ensure that isColorName(color) returns true for the parameter.
+     * Converts a color into an array of its HSL (hue, saturation, lightness)
+     * components.
      * 
      * @param color
      *            a lexical unit that represents a color
-     * @return RGB components
+     * @return HSL components or null if not a color
      */
-    private static int[] colorNameToRgb(LexicalUnitImpl color) {
-        return hexColorToRgb(colorNameToHex.get(color.getStringValue()));
+    public static double[] colorToHsl(LexicalUnitImpl color) {
+        Color value = color.getColor();
+        return value == null ? null : value.toHsl();
     }
 
-    private static String rgbToHexColor(int[] rgb, int length) {
-        StringBuilder builder = new StringBuilder("#");
-        for (int i = 0; i < 3; i++) {
-            String color = Integer.toHexString(rgb[i]);
-            if (length == 6) {
-                if (color.length() == 1) {
-                    color = "0" + color;
-                }
-            }
-            if (length == 3) {
-                color = color.substring(0, 1);
+    /**
+     * Converts a hex color (with three or six hex characters) into a color
+     * value. The caller must ensure that isHexColor(hexColor) returns true for
+     * the parameter.
+     * 
+     * @param hexColor
+     *            a hexadecimal representation for a color (in CSS and HTML
+     *            color specification format)
+     * @return the color
+     */
+    private static Color parseHexColor(String hexColor) {
+        int rgb = 0;
+        if( hexColor.length() == 4 ) {
+            for( int i = 1; i < 4; i++ ) {
+                int digit = Character.digit( hexColor.charAt( i ), 16 );
+                rgb = (rgb << 8) | (digit << 4) | digit;
             }
-            builder.append(color);
-        }
-        return builder.toString();
-    }
-
-    private static int[] hslToRgb(LexicalUnitImpl hsl) {
-        ActualArgumentList hslParam = hsl.getParameterList();
-        if (hslParam.size() != 3 && hslParam.size() != 4) {
-            throw new ParseException(
-                    "The function hsl() requires exactly three parameters", hsl);
-        }
-
-        double hue = hslParam.get(0).getContainedValue().getDoubleValue();
-        double saturation = hslParam.get(1).getContainedValue().getDoubleValue();
-        double lightness = hslParam.get(2).getContainedValue().getDoubleValue();
-
-        return hslToRgb(new double[] { hue, saturation, lightness });
-    }
-
-    private static double[] calculateHsl(int red, int green, int blue) {
-        double[] hsl = new double[3];
-
-        double r = red / 255.0;
-        double g = green / 255.0;
-        double b = blue / 255.0;
-
-        double max = Math.max(Math.max(r, g), b);
-        double min = Math.min(Math.min(r, g), b);
-        double d = max - min;
-
-        double h = 0, s = 0, l = 0;
-
-        if (max == min) {
-            h = 0;
-        }
-        if (max == r) {
-            h = 60 * (g - b) / d;
-        } else if (max == g) {
-            h = 60 * (b - r) / d + 120;
-        } else if (max == b) {
-            h = 60 * (r - g) / d + 240;
-        }
-
-        l = (max + min) / 2.0;
-
-        if (max == min) {
-            s = 0;
-        } else if (l < 0.5) {
-            s = d / (2 * l);
         } else {
-            s = d / (2 - 2 * l);
+            rgb = Integer.parseInt( hexColor.substring( 1 ), 16 );
         }
-
-        hsl[0] = h % 360;
-        hsl[1] = s * 100;
-        hsl[2] = l * 100;
-        // If saturation is 0, the hue is not well defined. Use hue 0 in this
-        // case.
-        if (hsl[1] == 0) {
-            hsl[0] = 0;
-        }
-
-        return hsl;
-    }
-
-    private static double hueToRgb(double m1, double m2, double h) {
-        if (h < 0) {
-            h = h + 1;
-        }
-        if (h > 1) {
-            h = h - 1;
-        }
-        if (h * 6 < 1) {
-            return m1 + (m2 - m1) * h * 6;
-        }
-        if (h * 2 < 1) {
-            return m2;
-        }
-        if (h * 3 < 2) {
-            return m1 + (m2 - m1) * (2f / 3 - h) * 6;
-        }
-        return m1;
+        return Color.rgb( rgb, 1 );
     }
 
     public static LexicalUnitImpl createHexColor( String uri, int line, int column, int[] rgb ) {
-        return LexicalUnitImpl.createIdent( uri, line, column, rgbToColorString( rgb ) );
+        return LexicalUnitImpl.createColor( uri, line, column, Color.rgb( rgb[0], rgb[1], rgb[2], 1 ) );
     }
 
     public static LexicalUnitImpl createRgbaColor( String uri, int line, int column, int red, int green, int blue, double alpha ) {
-        LexicalUnitImpl redUnit = LexicalUnitImpl.createNumber( null, line, column, red );
-        LexicalUnitImpl greenUnit = LexicalUnitImpl.createNumber( null, line, column, green );
-        LexicalUnitImpl blueUnit = LexicalUnitImpl.createNumber( null, line, column, blue );
-        LexicalUnitImpl alphaUnit = LexicalUnitImpl.createNumber( null, line, column, alpha );
-        ActualArgumentList args = new ActualArgumentList( SassList.Separator.COMMA, redUnit, greenUnit, blueUnit, alphaUnit );
-        return LexicalUnitImpl.createFunction( uri, line, column, "rgba", args );
+        return LexicalUnitImpl.createColor( uri, line, column, Color.rgb( red, green, blue, alpha ) );
     }
 
     public static LexicalUnitImpl createHslaColor( double hue, double saturation, double lightness, double alpha, int line, int column ) {
-        LexicalUnitImpl hueUnit = LexicalUnitImpl.createNumber( null, line, column, hue );
-        LexicalUnitImpl saturationUnit = LexicalUnitImpl.createPercentage( null, line, column, saturation );
-        LexicalUnitImpl lightnessUnit = LexicalUnitImpl.createPercentage( null, line, column, lightness );
-        LexicalUnitImpl alphaUnit = LexicalUnitImpl.createNumber( null, line, column, alpha );
-        ActualArgumentList args = new ActualArgumentList( SassList.Separator.COMMA, hueUnit, saturationUnit, lightnessUnit, alphaUnit );
-        return LexicalUnitImpl.createFunction( null, line, column, "hsla", args );
+        return LexicalUnitImpl.createColor( null, line, column, Color.hsl( hue, saturation, lightness, alpha ) );
     }
 
     public static LexicalUnitImpl createHslaOrHslColor( double[] hsl, double alpha, int line, int column ) {
-        if (alpha < 1.0f) {
-            return createHslaColor(hsl[0], hsl[1], hsl[2], alpha, line, column);
-        } else {
-            return createHslFunction(hsl[0], hsl[1], hsl[2], line, column);
-        }
+        return createHslaColor( hsl[0], hsl[1], hsl[2], alpha, line, column );
     }
 
     /**
-     * Creates a hex color if alpha is equal to one. Otherwise creates an RGBA
-     * color.
+     * Creates a color value. It is printed as a hex color if alpha is equal to
+     * one, otherwise as an RGBA color.
      * 
      * @return An object representing a color.
      */
     public static LexicalUnitImpl createRgbaOrHexColor( int[] rgb, double alpha, int line, int column ) {
-        if( alpha < 1.0f ) {
-            return createRgbaColor( null, line, column, rgb[0], rgb[1], rgb[2], alpha );
-        } else {
-            return createHexColor( null, line, column, rgb );
-        }
-    }
-
-    private static LexicalUnitImpl createHslFunction( double hue, double saturation, double lightness, int ln, int cn ) {
-        LexicalUnitImpl hueUnit = LexicalUnitImpl.createNumber( null, ln, cn, hue );
-        LexicalUnitImpl saturationUnit = LexicalUnitImpl.createPercentage( null, ln, cn, saturation );
-        LexicalUnitImpl lightnessUnit = LexicalUnitImpl.createPercentage( null, ln, cn, lightness );
-        ActualArgumentList hslParams = new ActualArgumentList( Separator.COMMA, hueUnit, saturationUnit, lightnessUnit );
-        return LexicalUnitImpl.createFunction( null, ln, cn, "hsl", hslParams );
+        return createRgbaColor( null, line, column, rgb[0], rgb[1], rgb[2], alpha );
     }
 
     private static LexicalUnitImpl adjust(LexicalUnitImpl color, double amountByPercent, ColorOperation op) {
-
-        double[] hsl = colorToHsl(color);
-        if( hsl == null ) {
+        Color value = color.getColor();
+        if( value == null ) {
             throw new ParseException( "The function " + op + " requires a color", color );
         }
+        double lightness = value.getLightness();
         if (op == ColorOperation.Darken) {
-            hsl[2] = hsl[2] - amountByPercent;
-            hsl[2] = hsl[2] < 0 ? 0 : hsl[2];
+            lightness = Math.max( 0, lightness - amountByPercent );
         } else if (op == ColorOperation.Lighten) {
-            hsl[2] = hsl[2] + amountByPercent;
-            hsl[2] = hsl[2] > 100 ? 100 : hsl[2];
+            lightness = Math.min( 100, lightness + amountByPercent );
         }
-        double alpha = getAlpha(color);
-        return createHslaOrHslColor( hsl, alpha, color.getLineNumber(), color.getColumnNumber() );
+        Color result = Color.hsl( value.getHue(), value.getSaturation(), lightness, value.getAlpha() );
+        return LexicalUnitImpl.createColor( null, color.getLineNumber(), color.getColumnNumber(), result );
     }
 
     public static LexicalUnitImpl darken(LexicalUnitImpl color, double amount) {
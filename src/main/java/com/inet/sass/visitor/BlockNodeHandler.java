@@ -25,6 +25,7 @@ import java.util.List;
 import com.inet.sass.ScssContext;
 import com.inet.sass.ScssStylesheet;
 import com.inet.sass.selector.Selector;
+import com.inet.sass.selector.SelectorTable;
 import com.inet.sass.tree.BlockNode;
 import com.inet.sass.tree.MediaNode;
 import com.inet.sass.tree.NestPropertiesNode;
@@ -58,7 +59,7 @@ public class BlockNodeHandler {
         }
 
         ArrayList<Node> result = new ArrayList<Node>();
-        updateSelectors( node );
+        updateSelectors( context.getSelectorTable(), node );
 
         List<Node> children = node.getChildren();
         if( !children.isEmpty() ) {
@@ -137,16 +138,22 @@ public class BlockNodeHandler {
         result.addAll( media.traverse( context ) );
     }
 
-    private static void updateSelectors( BlockNode node ) {
+    /**
+     * Resolve the parent references of the selectors. The resulting selectors
+     * are interned, so the @extend phase compares them mostly by identity.
+     */
+    private static void updateSelectors( SelectorTable table, BlockNode node ) {
         Node parentBlock = node.getNormalParentNode();
         if( parentBlock instanceof BlockNode ) {
-            replaceParentSelectors( (BlockNode)parentBlock, node );
+            replaceParentSelectors( table, (BlockNode)parentBlock, node );
 
         } else if( node.getSelectors().contains( "&" ) ) {
             ScssStylesheet.warning("Base-level rule contains"
                     + " the parent-selector-referencing character '&';"
                     + " the character will be removed:\n" + node);
-            removeParentReference(node);
+            removeParentReference(table, node);
+        } else {
+            node.setSelectorList( table.intern( node.getSelectorList() ) );
         }
     }
 
@@ -156,22 +163,22 @@ public class BlockNodeHandler {
      * 
      * @param node
      */
-    private static void removeParentReference(BlockNode node) {
+    private static void removeParentReference(SelectorTable table, BlockNode node) {
         ArrayList<Selector> newSelectors = new ArrayList<Selector>();
 
         for( Selector sel : node.getSelectorList() ) {
-            newSelectors.add( sel.replaceParentReference( null ) );
+            newSelectors.add( table.intern( sel.replaceParentReference( null ) ) );
         }
 
         node.setSelectorList(newSelectors);
     }
 
-    private static void replaceParentSelectors( BlockNode parentBlock, BlockNode node ) {
+    private static void replaceParentSelectors( SelectorTable table, BlockNode parentBlock, BlockNode node ) {
         ArrayList<Selector> newSelectors = new ArrayList<Selector>();
 
         for (Selector parentSel : parentBlock.getSelectorList()) {
             for( Selector sel : node.getSelectorList() ) {
-                newSelectors.add( sel.replaceParentReference( parentSel ) );
+                newSelectors.add( table.intern( sel.replaceParentReference( parentSel ) ) );
             }
         }
 
@@ -19,6 +19,7 @@ package com.inet.sass.visitor;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 
 import com.inet.sass.ScssContext;
@@ -33,35 +34,63 @@ import com.inet.sass.tree.controldirective.EachDefNode;
 public class EachNodeHandler extends LoopNodeHandler {
 
     public static Collection<Node> traverse( ScssContext context, EachDefNode eachNode ) {
+        return replaceLoopNode( context, eachNode, getLoopVariables( context, eachNode ) );
+    }
+
+    /**
+     * Evaluate the list of the loop. The variables of every iteration are created lazily while iterating. The node is
+     * not modified.
+     * 
+     * @param context current compilation context
+     * @param eachNode the loop
+     * @return the variables of every iteration
+     */
+    public static Iterable<List<Variable>> getLoopVariables( ScssContext context, EachDefNode eachNode ) {
         List<String> names = eachNode.getVariableNames();
-        int size = names.size();
-        Collection<List<Variable>> loopVariables = new ArrayList<>();
 
         SassListItem variables = eachNode.getVariables();
         variables = variables.evaluateFunctionsAndExpressions( context, true );
         SassList list = variables instanceof SassList ? (SassList) variables : new SassList(variables);
 
-        for( final SassListItem var : list ) {
-            if( size == 1 ) {
-                loopVariables.add( Collections.singletonList( new Variable( names.get( 0 ), var ) ) );
-            } else {
-                List<Variable> eachVars = new ArrayList<>();
-                loopVariables.add( eachVars );
-                SassList varList;
-                try {
-                    varList = (SassList)var;
-                } catch( Exception e ) {
-                    throw new ParseException( "Each item is not a list and can't expand to multiple variables " + names, var );
-                }
-                int count = varList.size();
-                for( int i = 0; i < size; i++ ) {
-                    SassListItem value = count > i ? //
-                        varList.get( i ) : // 
-                        LexicalUnitImpl.createNull( var.getUri(), var.getLineNumber(), var.getColumnNumber() );
-                    eachVars.add( new Variable( names.get( i ), value ) );
-                }
+        return () -> new Iterator<List<Variable>>() {
+            private final Iterator<SassListItem> items = list.iterator();
+
+            @Override
+            public boolean hasNext() {
+                return items.hasNext();
+            }
+
+            @Override
+            public List<Variable> next() {
+                return createVariables( names, items.next() );
             }
+        };
+    }
+
+    /**
+     * Create the loop variables for a single item of the list.
+     * 
+     * @param names the names of the loop variables
+     * @param var the item
+     * @return the variables
+     */
+    private static List<Variable> createVariables( List<String> names, SassListItem var ) {
+        int size = names.size();
+        if( size == 1 ) {
+            return Collections.singletonList( new Variable( names.get( 0 ), var ) );
+        }
+        if( !(var instanceof SassList) ) {
+            throw new ParseException( "Each item is not a list and can't expand to multiple variables " + names, var );
+        }
+        SassList varList = (SassList)var;
+        List<Variable> eachVars = new ArrayList<>( size );
+        int count = varList.size();
+        for( int i = 0; i < size; i++ ) {
+            SassListItem value = count > i ? //
+                varList.get( i ) : // 
+                LexicalUnitImpl.createNull( var.getUri(), var.getLineNumber(), var.getColumnNumber() );
+            eachVars.add( new Variable( names.get( i ), value ) );
         }
-        return replaceLoopNode( context, eachNode, loopVariables );
+        return eachVars;
     }
 }
@@ -18,14 +18,19 @@
 package com.inet.sass.visitor;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import com.inet.sass.ScssContext;
 import com.inet.sass.parser.ParseException;
 import com.inet.sass.selector.Selector;
 import com.inet.sass.selector.SelectorSet;
+import com.inet.sass.selector.SelectorTable;
 import com.inet.sass.selector.SimpleSelectorSequence;
 import com.inet.sass.tree.BlockNode;
 import com.inet.sass.tree.ExtendNode;
@@ -62,42 +67,167 @@ public class ExtendNodeHandler {
     }
 
     public static void modifyTree(ScssContext context, Node node) {
-        Iterable<Extension> extensions = context.getExtensions();
+        modifyTree( context, node, false );
+    }
+
+    /**
+     * Apply the collected extensions to the selectors of all blocks.
+     * 
+     * @param context
+     *            current compilation context with the extensions
+     * @param node
+     *            the root node
+     * @param parallel
+     *            true, to rewrite the selector lists of the blocks
+     *            concurrently on the common fork-join pool
+     */
+    public static void modifyTree(ScssContext context, Node node, boolean parallel) {
+        ExtensionIndex extensions = new ExtensionIndex( context.getExtensions() );
+        SelectorTable table = context.getSelectorTable();
+        if( !parallel || extensions.size() == 0 ) {
+            modifyTree( extensions, table, node );
+            return;
+        }
+        ArrayList<BlockNode> blocks = new ArrayList<BlockNode>();
+        collectBlocks( node, blocks );
+        @SuppressWarnings( "unchecked" )
+        List<Selector>[] results = new List[blocks.size()];
+        ForkJoinPool.commonPool().invoke( new RewriteTask( extensions, table, blocks, results, 0, blocks.size() ) );
+        // apply the results and the removals in tree order
+        applyResults( node, Arrays.asList( results ).iterator() );
+    }
 
+    private static void modifyTree(ExtensionIndex extensions, SelectorTable table, Node node) {
         for( Iterator<Node> nodeIt = node.getChildren().iterator(); nodeIt.hasNext(); ) {
             Node child = nodeIt.next();
 
             Class<?> clazz = child.getClass();
             if( clazz == BlockNode.class ) {
                 BlockNode blockNode = (BlockNode)child;
-                // need a copy as the selector list is modified below
-                SelectorSet newSelectors = new SelectorSet();
-                for( Selector selector : blockNode.getSelectorList() ) {
-                    // keep order while avoiding duplicates
-                    newSelectors.add( selector );
-                    newSelectors.addAll( createSelectorsForExtensions( selector, extensions ) );
+                List<Selector> newSelectors = rewriteSelectors( extensions, table, blockNode );
+                // remove block if selector list is empty
+                if( newSelectors == null ) {
+                    nodeIt.remove();
+                } else {
+                    blockNode.setSelectorList( newSelectors );
                 }
+            } else if( clazz == MediaNode.class ) {
+                modifyTree( extensions, table, child );
+            }
+        }
 
-                // remove all placeholder selectors
-                Iterator<Selector> it = newSelectors.iterator();
-                while( it.hasNext() ) {
-                    Selector s = it.next();
-                    if( s.isPlaceholder() ) {
-                        it.remove();
-                    }
-                }
+    }
 
-                // remove block if selector list is empty
-                if( newSelectors.isEmpty() ) {
+    /**
+     * Create the selector list of a block with the extensions applied and the
+     * placeholder selectors removed.
+     * 
+     * @param extensions
+     *            the extensions
+     * @param table
+     *            the table that interns the created selectors
+     * @param blockNode
+     *            the block, is not modified
+     * @return the new selectors or null if the block must be removed
+     */
+    private static List<Selector> rewriteSelectors(ExtensionIndex extensions, SelectorTable table, BlockNode blockNode) {
+        // need a copy as the selector list is modified below
+        SelectorSet newSelectors = new SelectorSet();
+        for( Selector selector : blockNode.getSelectorList() ) {
+            selector = table.intern( selector );
+            // keep order while avoiding duplicates
+            newSelectors.add( selector );
+            newSelectors.addAll( createSelectorsForExtensions( selector, extensions, table ) );
+        }
+
+        // remove all placeholder selectors
+        Iterator<Selector> it = newSelectors.iterator();
+        while( it.hasNext() ) {
+            Selector s = it.next();
+            if( s.isPlaceholder() ) {
+                it.remove();
+            }
+        }
+
+        return newSelectors.isEmpty() ? null : new ArrayList<Selector>( newSelectors );
+    }
+
+    /**
+     * Collect the blocks in the same order in which modifyTree visits them.
+     */
+    private static void collectBlocks(Node node, List<BlockNode> blocks) {
+        for( Node child : node.getChildren() ) {
+            Class<?> clazz = child.getClass();
+            if( clazz == BlockNode.class ) {
+                blocks.add( (BlockNode)child );
+            } else if( clazz == MediaNode.class ) {
+                collectBlocks( child, blocks );
+            }
+        }
+    }
+
+    /**
+     * Set the rewritten selector lists in the order of collectBlocks and
+     * remove the blocks without selectors.
+     */
+    private static void applyResults(Node node, Iterator<List<Selector>> results) {
+        for( Iterator<Node> nodeIt = node.getChildren().iterator(); nodeIt.hasNext(); ) {
+            Node child = nodeIt.next();
+            Class<?> clazz = child.getClass();
+            if( clazz == BlockNode.class ) {
+                List<Selector> newSelectors = results.next();
+                if( newSelectors == null ) {
                     nodeIt.remove();
                 } else {
-                    blockNode.setSelectorList( new ArrayList<Selector>( newSelectors ) );
+                    ((BlockNode)child).setSelectorList( newSelectors );
                 }
             } else if( clazz == MediaNode.class ) {
-                modifyTree( context, child );
+                applyResults( child, results );
             }
         }
+    }
+
+    /**
+     * Rewrites a range of blocks, splitting it until it is small enough. The
+     * tasks only read the tree and the extensions and write to their own
+     * range of the result array.
+     */
+    private static class RewriteTask extends RecursiveAction {
+
+        private static final int THRESHOLD = 16;
+
+        private final ExtensionIndex extensions;
+
+        private final SelectorTable table;
+
+        private final List<BlockNode> blocks;
+
+        private final List<Selector>[] results;
+
+        private final int from;
+
+        private final int to;
+
+        RewriteTask( ExtensionIndex extensions, SelectorTable table, List<BlockNode> blocks, List<Selector>[] results, int from, int to ) {
+            this.extensions = extensions;
+            this.table = table;
+            this.blocks = blocks;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
 
+        @Override
+        protected void compute() {
+            if( to - from <= THRESHOLD ) {
+                for( int i = from; i < to; i++ ) {
+                    results[i] = rewriteSelectors( extensions, table, blocks.get( i ) );
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll( new RewriteTask( extensions, table, blocks, results, from, middle ), new RewriteTask( extensions, table, blocks, results, middle, to ) );
+            }
+        }
     }
 
     /**
@@ -123,23 +253,37 @@ public class ExtendNodeHandler {
      */
     public static SelectorSet createSelectorsForExtensions(Selector target,
             Iterable<Extension> extendsMap) {
+        return createSelectorsForExtensions(target,
+                new ExtensionIndex(extendsMap), new SelectorTable());
+    }
+
+    private static SelectorSet createSelectorsForExtensions(Selector target,
+            ExtensionIndex extendsMap, SelectorTable table) {
         SelectorSet newSelectors = new SelectorSet();
         createSelectorsForExtensionsRecursively(target, newSelectors,
-                extendsMap);
+                extendsMap, table);
         return newSelectors.eliminateRedundantSelectors();
     }
 
     /**
      * Create all selector extensions matching target. Mutable collection for
-     * efficiency. Recursively applied to generated selectors.
+     * efficiency. Recursively applied to generated selectors. The generated
+     * selectors are interned when they are created, so the duplicate checks
+     * compare them mostly by identity.
      */
     private static void createSelectorsForExtensionsRecursively(
-            Selector target, SelectorSet current, Iterable<Extension> extendsMap) {
+            Selector target, SelectorSet current, ExtensionIndex extendsMap,
+            SelectorTable table) {
 
         SelectorSet newSelectors = new SelectorSet();
 
-        for (Extension extension : extendsMap) {
-            Selector replaced = target.replace(extension);
+        List<Extension> candidates = extendsMap.getCandidates(target);
+        if (candidates.size() < extendsMap.size()) {
+            // the other extensions return the target unchanged
+            current.add(target);
+        }
+        for (Extension extension : candidates) {
+            Selector replaced = table.intern(target.replace(extension));
             boolean newSelector = current.add(replaced);
             if (newSelector && !replaced.equals(target)) {
                 newSelectors.add(replaced);
@@ -148,7 +292,7 @@ public class ExtendNodeHandler {
 
         for (Selector newSelector : newSelectors) {
             createSelectorsForExtensionsRecursively(newSelector, current,
-                    extendsMap);
+                    extendsMap, table);
         }
 
     }
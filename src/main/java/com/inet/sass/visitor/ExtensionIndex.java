@@ -0,0 +1,121 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.inet.sass.visitor;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+import com.inet.sass.selector.Selector;
+import com.inet.sass.selector.SimpleSelector;
+import com.inet.sass.selector.TypeSelector;
+import com.inet.sass.selector.UniversalSelector;
+
+/**
+ * Index of the @extend declarations by one simple selector of their extend selector. A selector can only be changed
+ * by an extension if it contains all simple selectors of the extend selector. So only the extensions in the buckets
+ * of its own simple selectors must be tested.
+ */
+class ExtensionIndex {
+
+    private final Extension[]                         extensions;
+
+    /** the ordinals of the extensions by the key of the extend selector */
+    private final HashMap<SimpleSelector, BitSet> buckets = new HashMap<>();
+
+    /** the ordinals of the extensions without a key, for example "@extend *" */
+    private final BitSet                              always  = new BitSet();
+
+    /**
+     * Create the index.
+     *
+     * @param extensions all extensions in declaration order
+     */
+    ExtensionIndex( Iterable<Extension> extensions ) {
+        ArrayList<Extension> list = new ArrayList<>();
+        for( Extension extension : extensions ) {
+            int ordinal = list.size();
+            list.add( extension );
+            SimpleSelector key = getKey( extension );
+            if( key == null ) {
+                always.set( ordinal );
+            } else {
+                buckets.computeIfAbsent( key, k -> new BitSet() ).set( ordinal );
+            }
+        }
+        this.extensions = list.toArray( new Extension[list.size()] );
+    }
+
+    /**
+     * The simple selector that a selector must contain to be changed by the extension. A type selector is only used
+     * if there is no other simple selector because it is the least selective one.
+     *
+     * @param extension the extension
+     * @return the key or null if every selector can match
+     */
+    private static SimpleSelector getKey( Extension extension ) {
+        SimpleSelector key = null;
+        for( SimpleSelector simple : extension.extendSelector.getSelectors() ) {
+            if( !(simple instanceof TypeSelector) ) {
+                return simple;
+            }
+            if( !simple.equals( UniversalSelector.it ) ) {
+                key = simple;
+            }
+        }
+        return key;
+    }
+
+    /**
+     * The count of all extensions.
+     *
+     * @return the size
+     */
+    int size() {
+        return extensions.length;
+    }
+
+    /**
+     * Get the extensions that can change the target selector.
+     *
+     * @param target the selector
+     * @return the extensions in declaration order
+     */
+    List<Extension> getCandidates( Selector target ) {
+        if( extensions.length == 0 ) {
+            return Collections.emptyList();
+        }
+        HashSet<SimpleSelector> simpleSelectors = new HashSet<>();
+        target.addSimpleSelectors( simpleSelectors );
+        BitSet ordinals = (BitSet)always.clone();
+        for( SimpleSelector simple : simpleSelectors ) {
+            BitSet bucket = buckets.get( simple );
+            if( bucket != null ) {
+                ordinals.or( bucket );
+            }
+        }
+        ArrayList<Extension> result = new ArrayList<>( ordinals.cardinality() );
+        for( int i = ordinals.nextSetBit( 0 ); i >= 0; i = ordinals.nextSetBit( i + 1 ) ) {
+            result.add( extensions[i] );
+        }
+        return result;
+    }
+}
@@ -16,10 +16,11 @@
  */
 package com.inet.sass.visitor;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 import com.inet.sass.ScssContext;
 import com.inet.sass.parser.LexicalUnitImpl;
@@ -32,21 +33,48 @@ import com.inet.sass.tree.controldirective.ForNode;
 public class ForNodeHandler extends LoopNodeHandler {
 
     public static Collection<Node> traverse(ScssContext context, ForNode forNode) {
+        return replaceLoopNode( context, forNode, getLoopVariables( context, forNode ) );
+    }
+
+    /**
+     * Evaluate the bounds of the loop. The loop variable of every iteration
+     * is created lazily while iterating. The node is not modified.
+     * 
+     * @param context
+     *            current compilation context
+     * @param forNode
+     *            the loop
+     * @return the variables of every iteration
+     */
+    public static Iterable<List<Variable>> getLoopVariables(ScssContext context, ForNode forNode) {
         int fromInt = getInt(context, forNode.getFrom());
         int toInt = getInt(context, forNode.getTo());
         if (forNode.isExclusive()) {
             toInt = toInt - 1;
         }
-        Collection<List<Variable>> indices = new ArrayList<>();
-        for( int idx = fromInt; idx <= toInt; ++idx ) {
-            SassListItem from = forNode.getFrom();
-            LexicalUnitImpl idxUnit = LexicalUnitImpl.createInteger( from.getUri(), //
-                                                                     from.getLineNumber(), //
-                                                                     from.getColumnNumber(), //
-                                                                     idx );
-            indices.add( Collections.singletonList( new Variable( forNode.getVariableName(), idxUnit ) ) );
-        }
-        return replaceLoopNode( context, forNode, indices );
+        int last = toInt;
+        SassListItem from = forNode.getFrom();
+        String name = forNode.getVariableName();
+        return () -> new Iterator<List<Variable>>() {
+            private int idx = fromInt;
+
+            @Override
+            public boolean hasNext() {
+                return idx <= last;
+            }
+
+            @Override
+            public List<Variable> next() {
+                if( idx > last ) {
+                    throw new NoSuchElementException();
+                }
+                LexicalUnitImpl idxUnit = LexicalUnitImpl.createInteger( from.getUri(), //
+                                                                         from.getLineNumber(), //
+                                                                         from.getColumnNumber(), //
+                                                                         idx++ );
+                return Collections.singletonList( new Variable( name, idxUnit ) );
+            }
+        };
     }
 
     private static int getInt(ScssContext context, SassListItem item) {
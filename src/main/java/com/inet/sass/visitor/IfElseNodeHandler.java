@@ -33,6 +33,25 @@ public class IfElseNodeHandler {
 
     public static Collection<Node> traverse(ScssContext context,
             IfElseDefNode node) throws Exception {
+        Node branch = getBranch(context, node);
+        if (branch != null) {
+            return traverseChild(context, node.getParentNode(), branch);
+        }
+        // no matching branch
+        return Collections.emptyList();
+    }
+
+    /**
+     * Evaluate the conditions and find the branch which should be used. The
+     * node is not modified.
+     * 
+     * @param context
+     *            current compilation context
+     * @param node
+     *            the @if/@else node
+     * @return the matching branch or null
+     */
+    public static Node getBranch(ScssContext context, IfElseDefNode node) {
         for (final Node child : node.getChildren()) {
             if (child instanceof IfNode) {
                 SassListItem expression = ((IfNode) child).getExpression();
@@ -40,7 +59,7 @@ public class IfElseNodeHandler {
                         context, true);
 
                 if (BinaryOperator.isTrue(expression)) {
-                    return traverseChild(context, node.getParentNode(), child);
+                    return child;
                 }
             } else {
                 if (!(child instanceof ElseNode)
@@ -48,12 +67,11 @@ public class IfElseNodeHandler {
                                 .getChildren().size() - 1) {
                     throw new ParseException( "Invalid @if/@else in scss file for " + node, node );
                 } else {
-                    return traverseChild(context, node.getParentNode(), child);
+                    return child;
                 }
             }
         }
-        // no matching branch
-        return Collections.emptyList();
+        return null;
     }
 
     private static Collection<Node> traverseChild(ScssContext context,
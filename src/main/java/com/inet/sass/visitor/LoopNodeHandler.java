@@ -16,6 +16,7 @@
  */
 package com.inet.sass.visitor;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
@@ -44,12 +45,28 @@ public abstract class LoopNodeHandler {
         // the type of this node does not matter much as long as it can have
         // children that can be traversed
         TemporaryNode tempParent = new TemporaryNode( loopNode.getParentNode() );
-        List<Node> children = loopNode.getChildren();
+        expandLoop( context, loopNode.getChildren(), tempParent, loopVariables );
+        // the newly created nodes have already been traversed
+        // detach the result from the child list of the temporary node
+        return new ArrayList<>( tempParent.getChildren() );
+    }
+
+    /**
+     * Expand the body of a loop for every iteration. The body is a shared template and is not modified.
+     * 
+     * @param context
+     *            current compilation context
+     * @param loopChildren
+     *            the body of the loop
+     * @param newParent
+     *            receives the created nodes
+     * @param loopVariables
+     *            iterable of the loop variables instances for each iteration
+     */
+    public static void expandLoop( ScssContext context, List<Node> loopChildren, TemporaryNode newParent, Iterable<List<Variable>> loopVariables ) {
         for( final List<Variable> vars : loopVariables ) {
-            iteration( context, children, tempParent, vars );
+            iteration( context, loopChildren, newParent, vars );
         }
-        // the newly created nodes have already been traversed
-        return tempParent.getChildren();
     }
 
     static void iteration( ScssContext context, List<Node> loopChildren, TemporaryNode newParent, List<Variable> loopVariables ) {
@@ -59,8 +76,7 @@ public abstract class LoopNodeHandler {
                 context.addVariable( loopVar );
             }
             for( final Node child : loopChildren ) {
-                Node copy = child.copy();
-                newParent.appendAndTraverse( context, copy );
+                child.instantiate( context, newParent );
             }
         } finally {
             context.closeVariableScope();
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.inet.sass.visitor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import com.inet.sass.tree.BlockNode;
+import com.inet.sass.tree.CommentNode;
+import com.inet.sass.tree.FontFaceNode;
+import com.inet.sass.tree.KeyframesNode;
+import com.inet.sass.tree.MediaNode;
+import com.inet.sass.tree.Node;
+import com.inet.sass.tree.RuleNode;
+
+/**
+ * Optional grouping of @media nodes after compile. Every nested @media rule produces its own @media node. This pass
+ * moves the content of a @media node into an earlier @media node with the same media list.
+ * <p>
+ * Moving rules changes their position in the cascade. The content is only moved if no rule between the two @media
+ * nodes sets a property of the same family, for example "margin" and "margin-top" or the shorthand "inset" and
+ * "top". Custom properties and values with var() are in conflict with everything.
+ */
+public class MediaGroupHandler {
+
+    /** The property family that conflicts with all others. */
+    private static final String                    ANY        = "*";
+
+    /** Additional families of shorthands which set properties with another first name part, like "inset" and "top". */
+    private static final HashMap<String, String[]> SHORTHANDS = new HashMap<>();
+
+    static {
+        String[] inset = { "top", "right", "bottom", "left" };
+        for( String name : new String[] { "inset", "inset-block", "inset-block-start", "inset-block-end", "inset-inline", "inset-inline-start", "inset-inline-end" } ) {
+            SHORTHANDS.put( name, inset );
+        }
+        SHORTHANDS.put( "font", new String[] { "line" } );
+        SHORTHANDS.put( "gap", new String[] { "row", "column", "grid" } );
+        SHORTHANDS.put( "grid-gap", new String[] { "row", "column", "gap" } );
+        SHORTHANDS.put( "columns", new String[] { "column" } );
+        for( String name : new String[] { "place-content", "place-items", "place-self" } ) {
+            SHORTHANDS.put( name, new String[] { "align", "justify" } );
+        }
+        SHORTHANDS.put( "white-space", new String[] { "text" } );
+        // logical properties set the physical properties
+        SHORTHANDS.put( "block-size", new String[] { "height", "width" } );
+        SHORTHANDS.put( "inline-size", new String[] { "height", "width" } );
+    }
+
+    private MediaGroupHandler() {
+        // static helper
+    }
+
+    /**
+     * Group the @media nodes in the children of the style sheet.
+     *
+     * @param node the compiled style sheet
+     */
+    public static void modifyTree( Node node ) {
+        // the last @media node of every media list and the property families that are written after it
+        HashMap<String, Group> groups = new HashMap<>();
+        for( Iterator<Node> nodeIt = node.getChildren().iterator(); nodeIt.hasNext(); ) {
+            Node child = nodeIt.next();
+            Class<?> clazz = child.getClass();
+            if( clazz == CommentNode.class || clazz == KeyframesNode.class || clazz == FontFaceNode.class ) {
+                // do not take part in the cascade
+                continue;
+            }
+            Set<String> families = new HashSet<>();
+            addFamilies( child, families );
+            Group group = null;
+            if( clazz == MediaNode.class ) {
+                String key = String.valueOf( ((MediaNode)child).getMedia() );
+                group = groups.get( key );
+                if( group != null && !conflicts( families, group.after ) ) {
+                    for( Node mediaChild : new ArrayList<>( child.getChildren() ) ) {
+                        group.node.appendChild( mediaChild );
+                    }
+                    nodeIt.remove();
+                } else {
+                    group = new Group( (MediaNode)child );
+                    groups.put( key, group );
+                }
+            }
+            // the content follows all other groups, moved content is handled the same way to be conservative
+            for( Group other : groups.values() ) {
+                if( other != group ) {
+                    other.after.addAll( families );
+                }
+            }
+        }
+    }
+
+    private static boolean conflicts( Set<String> families, Set<String> after ) {
+        if( families.isEmpty() || after.isEmpty() ) {
+            return false;
+        }
+        if( families.contains( ANY ) || after.contains( ANY ) ) {
+            return true;
+        }
+        for( String family : families ) {
+            if( after.contains( family ) ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Collect the property families of all declarations in a node.
+     *
+     * @param node the node
+     * @param families receives the families
+     */
+    private static void addFamilies( Node node, Set<String> families ) {
+        Class<?> clazz = node.getClass();
+        if( clazz == RuleNode.class ) {
+            RuleNode rule = (RuleNode)node;
+            addFamilies( rule.getVariable().toString(), rule.getValue().printState(), families );
+        } else if( clazz == BlockNode.class || clazz == MediaNode.class ) {
+            for( Node child : node.getChildren() ) {
+                addFamilies( child, families );
+            }
+        } else if( clazz != CommentNode.class ) {
+            // unknown content, for example @layer
+            families.add( ANY );
+        }
+    }
+
+    /**
+     * Collect the families of a property. A shorthand which sets properties of other families, like "inset" for
+     * "top", belongs to all of these families.
+     *
+     * @param name the property name
+     * @param value the printed value
+     * @param families receives the families
+     */
+    static void addFamilies( String name, String value, Set<String> families ) {
+        String family = getFamily( name, value );
+        families.add( family );
+        if( family != ANY ) {
+            String[] longhands = SHORTHANDS.get( withoutVendorPrefix( name ) );
+            if( longhands != null ) {
+                Collections.addAll( families, longhands );
+            }
+        }
+    }
+
+    /**
+     * The family of a property is the first part of its name without a vendor prefix. Properties of the same
+     * family can override each other like "border-color" and "border-top".
+     *
+     * @param name the property name
+     * @param value the printed value
+     * @return the family
+     */
+    static String getFamily( String name, String value ) {
+        if( name.startsWith( "--" ) || value.contains( "var(" ) || name.equals( "all" ) ) {
+            return ANY;
+        }
+        name = withoutVendorPrefix( name );
+        int end = name.indexOf( '-' );
+        return end < 0 ? name : name.substring( 0, end );
+    }
+
+    private static String withoutVendorPrefix( String name ) {
+        if( name.startsWith( "-" ) ) {
+            int idx = name.indexOf( '-', 1 );
+            if( idx > 0 ) {
+                return name.substring( idx + 1 );
+            }
+        }
+        return name;
+    }
+
+    /**
+     * The last @media node of a media list.
+     */
+    private static class Group {
+
+        private final MediaNode   node;
+
+        /** the property families of all rules after the node */
+        private final Set<String> after = new HashSet<>();
+
+        private Group( MediaNode node ) {
+            this.node = node;
+        }
+    }
+}
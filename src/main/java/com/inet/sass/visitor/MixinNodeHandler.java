@@ -17,14 +17,18 @@
 
 package com.inet.sass.visitor;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 
 import com.inet.sass.Scope;
 import com.inet.sass.ScssContext;
 import com.inet.sass.handler.SCSSErrorHandler;
+import com.inet.sass.parser.ActualArgumentList;
+import com.inet.sass.parser.FormalArgumentList;
 import com.inet.sass.parser.ParseException;
 import com.inet.sass.parser.Variable;
+import com.inet.sass.tree.ContentNode;
 import com.inet.sass.tree.MixinDefNode;
 import com.inet.sass.tree.MixinNode;
 import com.inet.sass.tree.Node;
@@ -32,45 +36,55 @@ import com.inet.sass.tree.controldirective.TemporaryNode;
 
 public class MixinNodeHandler {
 
-    public static Collection<Node> traverse(ScssContext context, MixinNode node) {
-        return replaceMixins(context, node);
-    }
-
-    private static Collection<Node> replaceMixins(ScssContext context,
-            MixinNode node) {
-        MixinDefNode mixinDef = context.getMixinDefinition(node.getName());
-        if (mixinDef == null) {
+    /**
+     * Expand an @include rule. Neither the node nor the mixin definition are modified, the body of the definition is
+     * instantiated as a shared template.
+     * 
+     * @param context current compilation context
+     * @param node the @include rule
+     * @param args the evaluated arguments of the @include rule
+     * @param parent the parent of the created nodes
+     * @return the created nodes, already traversed
+     */
+    public static Collection<Node> traverse( ScssContext context, MixinNode node, ActualArgumentList args, Node parent ) {
+        MixinDefNode mixinDef = context.getMixinDefinition( node.getName() );
+        if( mixinDef == null ) {
             SCSSErrorHandler.get().error( new ParseException( "Mixin Definition: " + node.getName() + " not found", node ) );
             return Collections.emptyList();
         }
-        return replaceMixinNode(context, node, mixinDef);
+        return replaceMixinNode( context, node, args, parent, mixinDef );
     }
 
-    private static Collection<Node> replaceMixinNode( ScssContext context, MixinNode mixinNode, MixinDefNode mixinDef ) {
-        MixinDefNode defClone = mixinDef.copy();
-
-        defClone.replaceContentDirective( context, mixinNode );
-
-        if( !mixinDef.getArglist().isEmpty() ) {
-            defClone.replacePossibleArguments( mixinNode.getArglist() );
+    private static Collection<Node> replaceMixinNode( ScssContext context, MixinNode mixinNode, ActualArgumentList args, Node parent, MixinDefNode mixinDef ) {
+        FormalArgumentList arglist = mixinDef.getArglist();
+        if( !arglist.isEmpty() ) {
+            arglist = arglist.replaceFormalArguments( args, true );
         }
 
+        ContentNode.Binding previousBinding = context.getContentBinding();
+        context.setContentBinding( new ContentNode.Binding( mixinNode, context.getCurrentScope(), previousBinding ) );
+
         // parameters have been evaluated in parent scope, rest should be
         // in the scope where the mixin was defined
         // every evaluated parameter can also be input for evaluating the next parameters
-        Scope previousScope = context.openVariableScope( defClone.getDefinitionScope() );
+        Scope previousScope = context.openVariableScope( mixinDef.getDefinitionScope() );
         try {
             // add variables from argList
-            for( Variable var : defClone.getArglist().getArguments() ) {
+            for( Variable var : arglist.getArguments() ) {
                 Variable evaluated = new Variable( var.getName(), var.getExpr().evaluateFunctionsAndExpressions( context, true ) );
                 context.addVariable( evaluated );
             }
-            // traverse child nodes in this scope
+            // instantiate child nodes in this scope
             // use correct parent with intermediate TemporaryNode
-            Node tempParent = new TemporaryNode( mixinNode.getParentNode(), defClone.getChildren() );
-            return tempParent.traverse( context );
+            TemporaryNode tempParent = new TemporaryNode( parent );
+            for( Node child : mixinDef.getChildren() ) {
+                child.instantiate( context, tempParent );
+            }
+            // detach the result from the child list of the temporary node
+            return new ArrayList<>( tempParent.getChildren() );
         } finally {
             context.closeVariableScope( previousScope );
+            context.setContentBinding( previousBinding );
         }
     }
 }
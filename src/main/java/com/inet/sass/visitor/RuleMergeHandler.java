@@ -0,0 +1,179 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.inet.sass.visitor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import com.inet.sass.selector.Selector;
+import com.inet.sass.selector.SelectorSet;
+import com.inet.sass.tree.BlockNode;
+import com.inet.sass.tree.MediaNode;
+import com.inet.sass.tree.Node;
+import com.inet.sass.tree.RuleNode;
+
+/**
+ * Optional optimization of the compiled tree. It runs after the @extend handling and removes redundant output:
+ * <ul>
+ * <li>adjacent @media nodes with the same media list are merged</li>
+ * <li>declarations that are repeated later in the same block with the same value are removed</li>
+ * <li>adjacent blocks with identical declarations are merged into one block with both selector lists, except
+ * blocks with vendor prefixed pseudo classes or elements</li>
+ * </ul>
+ * Only adjacent nodes are merged, so the cascade order is not changed.
+ */
+public class RuleMergeHandler {
+
+    /** A vendor specific pseudo class or element like "::-webkit-input-placeholder" or ":-ms-fullscreen". */
+    private static final Pattern VENDOR_PSEUDO = Pattern.compile( ":-[a-zA-Z]" );
+
+    private RuleMergeHandler() {
+        // static helper
+    }
+
+    /**
+     * Optimize the children of the node.
+     *
+     * @param node the compiled style sheet or a @media node
+     */
+    public static void modifyTree( Node node ) {
+        mergeMediaNodes( node );
+
+        BlockNode previous = null;
+        String previousKey = null;
+        for( Iterator<Node> nodeIt = node.getChildren().iterator(); nodeIt.hasNext(); ) {
+            Node child = nodeIt.next();
+
+            Class<?> clazz = child.getClass();
+            if( clazz == BlockNode.class ) {
+                BlockNode blockNode = (BlockNode)child;
+                removeOverriddenDeclarations( blockNode );
+                String key = declarationKey( blockNode );
+                if( previous != null && key.equals( previousKey ) && !hasVendorPseudo( previous ) && !hasVendorPseudo( blockNode ) ) {
+                    SelectorSet selectors = new SelectorSet( previous.getSelectorList() );
+                    selectors.addAll( blockNode.getSelectorList() );
+                    previous.setSelectorList( new ArrayList<>( selectors ) );
+                    nodeIt.remove();
+                } else {
+                    previous = blockNode;
+                    previousKey = key;
+                }
+                continue;
+            } else if( clazz == MediaNode.class ) {
+                modifyTree( child );
+            }
+            previous = null;
+        }
+    }
+
+    /**
+     * Merge adjacent @media nodes with the same media list.
+     *
+     * @param node the parent node
+     */
+    private static void mergeMediaNodes( Node node ) {
+        MediaNode previous = null;
+        for( Iterator<Node> nodeIt = node.getChildren().iterator(); nodeIt.hasNext(); ) {
+            Node child = nodeIt.next();
+            if( child.getClass() != MediaNode.class ) {
+                previous = null;
+                continue;
+            }
+            MediaNode mediaNode = (MediaNode)child;
+            if( previous != null && String.valueOf( previous.getMedia() ).equals( String.valueOf( mediaNode.getMedia() ) ) ) {
+                for( Node mediaChild : new ArrayList<>( mediaNode.getChildren() ) ) {
+                    previous.appendChild( mediaChild );
+                }
+                nodeIt.remove();
+            } else {
+                previous = mediaNode;
+            }
+        }
+    }
+
+    /**
+     * Remove declarations of a block that are repeated by a later declaration of the same property with the same
+     * value. A declaration with another value is always kept because it can be a fallback for older browsers, for
+     * example "font-size: 16px; font-size: 1rem".
+     *
+     * @param blockNode the block
+     */
+    private static void removeOverriddenDeclarations( BlockNode blockNode ) {
+        List<Node> children = blockNode.getChildren();
+        HashMap<String, RuleNode> later = new HashMap<>();
+        for( int i = children.size() - 1; i >= 0; i-- ) {
+            Node child = children.get( i );
+            if( child.getClass() != RuleNode.class ) {
+                continue;
+            }
+            RuleNode rule = (RuleNode)child;
+            String name = rule.getVariable().toString();
+            RuleNode override = later.get( name );
+            if( override != null && isOverriddenBy( rule, override ) ) {
+                children.remove( i );
+            } else {
+                later.put( name, rule );
+            }
+        }
+    }
+
+    private static boolean isOverriddenBy( RuleNode rule, RuleNode override ) {
+        if( rule.getComment() != null || (rule.isImportant() && !override.isImportant()) ) {
+            return false;
+        }
+        String overrideValue = override.getValue().printState();
+        if( overrideValue.trim().isEmpty() ) {
+            // an empty declaration is not written
+            return false;
+        }
+        return rule.getValue().printState().equals( overrideValue );
+    }
+
+    /**
+     * Check if the selector list of a block contains a vendor specific pseudo class or element. A browser drops the
+     * complete rule if it does not know one of the selectors, so such a block must not be merged with others.
+     *
+     * @param blockNode the block
+     * @return true, if a selector contains a vendor prefixed pseudo
+     */
+    private static boolean hasVendorPseudo( BlockNode blockNode ) {
+        for( Selector selector : blockNode.getSelectorList() ) {
+            if( VENDOR_PSEUDO.matcher( selector.toString() ).find() ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The text of all declarations of a block, blocks with the same key can be merged.
+     *
+     * @param blockNode the block
+     * @return the key
+     */
+    private static String declarationKey( BlockNode blockNode ) {
+        StringBuilder key = new StringBuilder();
+        for( Node child : blockNode.getChildren() ) {
+            key.append( child.printState() ).append( '\n' );
+        }
+        return key.toString();
+    }
+}
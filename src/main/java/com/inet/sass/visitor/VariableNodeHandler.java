@@ -26,17 +26,27 @@ import com.inet.sass.tree.VariableNode;
 public class VariableNodeHandler {
 
     public static void traverse( ScssContext context, VariableNode node ) {
+        assign( context, node.getVariable() );
+    }
+
+    /**
+     * Set an evaluated variable in the current scope, respecting the !default flag.
+     * 
+     * @param context current compilation context
+     * @param node the variable with the evaluated value
+     */
+    public static void assign( ScssContext context, Variable node ) {
         if( !node.isGuarded() ) {
-            context.setVariable( node.getVariable() );
+            context.setVariable( node );
             return;
         }
         Variable variable = context.getVariable( node.getName() );
         if( variable == null || variable.getExpr() == null ) {
-            context.setVariable( node.getVariable() );
+            context.setVariable( node );
         } else { // Handle the case where a variable has the value SCSS_NULL
             SassListItem value = variable.getExpr();
             if( value.getItemType() == SCSSLexicalUnit.SCSS_NULL ) {
-                context.setVariable( node.getVariable() );
+                context.setVariable( node );
             }
         }
     }
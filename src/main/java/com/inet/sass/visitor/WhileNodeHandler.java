@@ -16,6 +16,7 @@
  */
 package com.inet.sass.visitor;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -41,18 +42,42 @@ public class WhileNodeHandler {
      */
     public static Collection<Node> traverse( ScssContext context, WhileNode whileNode ) {
         TemporaryNode tempParent = new TemporaryNode( whileNode.getParentNode() );
+        expand( context, whileNode, tempParent );
+        // detach the result from the child list of the temporary node
+        return new ArrayList<>( tempParent.getChildren() );
+    }
+
+    /**
+     * Expand the body of the loop while the condition is true. The node is not modified.
+     * 
+     * @param context
+     *            current compilation context
+     * @param whileNode
+     *            the loop
+     * @param parent
+     *            receives the created nodes
+     */
+    public static void expand( ScssContext context, WhileNode whileNode, TemporaryNode parent ) {
         List<Node> children = whileNode.getChildren();
         while( evaluateCondition( context, whileNode ) ) {
             if( children.size() == 0 ) {
                 SCSSErrorHandler.get().error( new ParseException( "@while loop iteration did nothing, infinite loop", whileNode ) );
-                return children;
+                return;
             }
-            LoopNodeHandler.iteration( context, children, tempParent, Collections.emptyList() );
+            LoopNodeHandler.iteration( context, children, parent, Collections.emptyList() );
         }
-        return tempParent.getChildren();
     }
 
-    private static boolean evaluateCondition( ScssContext context, WhileNode whileNode ) {
+    /**
+     * Evaluate the condition of the loop. The node is not modified.
+     * 
+     * @param context
+     *            current compilation context
+     * @param whileNode
+     *            the loop
+     * @return true, if the loop should run another iteration
+     */
+    public static boolean evaluateCondition( ScssContext context, WhileNode whileNode ) {
         SassListItem condition = whileNode.getCondition();
         condition = condition.evaluateFunctionsAndExpressions( context, true );
         return BinaryOperator.isTrue( condition );
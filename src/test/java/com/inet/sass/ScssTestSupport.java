@@ -0,0 +1,97 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.inet.sass.testcases.scss.AssertErrorHandler;
+import com.inet.sass.tree.Node;
+
+/**
+ * Shared fixtures for the unit tests that compile inline SCSS.
+ */
+public class ScssTestSupport {
+
+    private ScssTestSupport() {
+    }
+
+    /**
+     * Parse a stylesheet from a string. Every reported error fails the test.
+     *
+     * @param scss the SCSS text
+     * @return the not compiled stylesheet
+     * @throws IOException if parsing fails
+     */
+    public static ScssStylesheet parse( String scss ) throws IOException {
+        return ScssStylesheet.get( "", new AssertErrorHandler(), ( parent, identifier ) -> new InputSource( new StringReader( scss ) ) );
+    }
+
+    /**
+     * Parse and compile a stylesheet from a string.
+     *
+     * @param scss the SCSS text
+     * @return the compiled stylesheet
+     * @throws Exception if parsing or compiling fails
+     */
+    public static ScssStylesheet compile( String scss ) throws Exception {
+        ScssStylesheet stylesheet = parse( scss );
+        stylesheet.compile();
+        return stylesheet;
+    }
+
+    /**
+     * Compile a stylesheet from a string to CSS.
+     *
+     * @param scss the SCSS text
+     * @return the CSS in the default output style
+     * @throws Exception if parsing or compiling fails
+     */
+    public static String compileToCss( String scss ) throws Exception {
+        return compile( scss ).printState();
+    }
+
+    /**
+     * Compile a stylesheet from a string to CSS with other options.
+     *
+     * @param scss the SCSS text
+     * @param options sets the options of the stylesheet before it is compiled
+     * @return the CSS in the default output style
+     * @throws Exception if parsing or compiling fails
+     */
+    public static String compileToCss( String scss, Consumer<ScssStylesheet> options ) throws Exception {
+        ScssStylesheet stylesheet = parse( scss );
+        options.accept( stylesheet );
+        stylesheet.compile();
+        return stylesheet.printState();
+    }
+
+    /**
+     * Add a node and all its descendants in document order.
+     *
+     * @param node the root node
+     * @param nodes receives the nodes
+     */
+    public static void collect( Node node, List<Node> nodes ) {
+        nodes.add( node );
+        for( Node child : node.getChildren() ) {
+            collect( child, nodes );
+        }
+    }
+}
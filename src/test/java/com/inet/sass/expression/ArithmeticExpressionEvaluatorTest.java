@@ -48,6 +48,7 @@ public class ArithmeticExpressionEvaluatorTest {
     private final LexicalUnitImpl operand3px       = LexicalUnitImpl.createPX( null, 0, 0, 3 );
     private final LexicalUnitImpl operand3cm       = LexicalUnitImpl.createCM( null, 0, 0, 3 );
     private final LexicalUnitImpl operand4cm       = LexicalUnitImpl.createCM( null, 0, 0, 4 );
+    private final LexicalUnitImpl operand90deg     = LexicalUnitImpl.createDEG( null, 0, 0, 90 );
     private final LexicalUnitImpl operatorDivide   = LexicalUnitImpl.createSlash( null, 0, 0 );
     private final LexicalUnitImpl operatorComma    = LexicalUnitImpl.createComma( null, 2, 3 );
 
@@ -69,8 +70,43 @@ public class ArithmeticExpressionEvaluatorTest {
 
     @Test(expected = ParseException.class)
     public void testIncompatibleUnit() {
-        // 2cm - 3px
-        evaluate(operand2cm, operatorMinus, operand3px);
+        // 2cm - 90deg
+        evaluate(operand2cm, operatorMinus, operand90deg);
+    }
+
+    @Test
+    public void testConvertCompatibleUnit() {
+        // 2cm - 3px = 1.92063cm
+        LexicalUnitImpl result = evaluate(operand2cm, operatorMinus, operand3px);
+        Assert.assertEquals(2 - 3 * 2.54 / 96, result.getDoubleValue(), 1e-9);
+        Assert.assertEquals(SCSSLexicalUnit.SAC_CENTIMETER, result.getItemType());
+    }
+
+    @Test
+    public void testDivideWithCompatibleUnit() {
+        // 3cm / 3px = 37.79528
+        LexicalUnitImpl result = evaluate(operand3cm, operatorDivide, operand3px);
+        Assert.assertEquals(96 / 2.54, result.getDoubleValue(), 1e-9);
+        Assert.assertEquals(SCSSLexicalUnit.SAC_REAL, result.getItemType());
+    }
+
+    @Test
+    public void testCompoundUnit() {
+        // 2cm * 3px = 6cm*px
+        LexicalUnitImpl result = evaluate(operand2cm, operatorMultiply, operand3px);
+        Assert.assertEquals("cm*px", result.getDimensionUnitText());
+
+        // 2cm * 3cm / 4cm = 1.5cm
+        result = evaluate(operand2cm, operatorMultiply, operand3cm, operatorDivide, operand4cm);
+        Assert.assertEquals(1.5, result.getDoubleValue(), 1e-9);
+        Assert.assertEquals(SCSSLexicalUnit.SAC_CENTIMETER, result.getItemType());
+    }
+
+    @Test
+    public void testComparable() {
+        Assert.assertTrue(operand2cm.isComparable(operand3px));
+        Assert.assertTrue(operand2cm.isComparable(operand2));
+        Assert.assertFalse(operand2cm.isComparable(operand90deg));
     }
 
     @Test
@@ -111,6 +147,22 @@ public class ArithmeticExpressionEvaluatorTest {
                 result.getItemType());
     }
 
+    @Test
+    public void testShortCircuitAndBeforeOr() {
+        // false and 2 or 3 and 4 = 4
+        LexicalUnitImpl result = evaluate( LexicalUnitImpl.createIdent( "false" ), LexicalUnitImpl.createAnd( null, 0, 0 ), operand2, LexicalUnitImpl.createOr( null, 0, 0 ), operand3,
+                        LexicalUnitImpl.createAnd( null, 0, 0 ), operand4 );
+        Assert.assertEquals( 4, result.getIntegerValue() );
+    }
+
+    @Test
+    public void testShortCircuitSkipsStrongerOperators() {
+        // false and 2 * 3 or 4 - 2 = 2
+        LexicalUnitImpl result = evaluate( LexicalUnitImpl.createIdent( "false" ), LexicalUnitImpl.createAnd( null, 0, 0 ), operand2, operatorMultiply, operand3,
+                        LexicalUnitImpl.createOr( null, 0, 0 ), operand4, operatorMinus, operand2 );
+        Assert.assertEquals( 2, result.getIntegerValue() );
+    }
+
     @Test(expected = ParseException.class)
     public void testNonExistingSignal() {
         LexicalUnitImpl result = evaluate(operand2, operatorComma, operand3);
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass.function;
+
+import static com.inet.sass.ScssTestSupport.compileToCss;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.inet.sass.parser.ActualArgumentList;
+import com.inet.sass.parser.FormalArgumentList;
+import com.inet.sass.parser.LexicalUnitImpl;
+import com.inet.sass.parser.SassList.Separator;
+import com.inet.sass.parser.SassListItem;
+import com.inet.sass.parser.Variable;
+
+public class ArgumentBindingTest {
+
+    private static final SassListItem ONE   = LexicalUnitImpl.createNumber( null, 0, 0, 1 );
+
+    private static final SassListItem TWO   = LexicalUnitImpl.createNumber( null, 0, 0, 2 );
+
+    private static final SassListItem THREE = LexicalUnitImpl.createNumber( null, 0, 0, 3 );
+
+    private static final FormalArgumentList FORMAL = AbstractFunctionGenerator.createArgumentList( new String[] { "a", "b", "c" }, new SassListItem[] { null, null, THREE } );
+
+    private static ActualArgumentList args( List<SassListItem> unnamed, Variable... named ) {
+        return new ActualArgumentList( Separator.COMMA, unnamed, Arrays.asList( named ), null );
+    }
+
+    private static void assertSameBinding( ActualArgumentList actual ) {
+        SassListItem[] values = new ArgumentBinding( FORMAL ).bind( actual, true );
+        FormalArgumentList expected = FORMAL.replaceFormalArguments( actual, true );
+        Assert.assertEquals( expected.size(), values.length );
+        for( int i = 0; i < values.length; i++ ) {
+            Assert.assertSame( expected.get( i ).getExpr(), values[i] );
+        }
+    }
+
+    @Test
+    public void testBind() {
+        assertSameBinding( args( Arrays.asList( ONE, TWO ) ) );
+        assertSameBinding( args( Arrays.asList( ONE, TWO, ONE ) ) );
+        assertSameBinding( args( Arrays.asList( TWO ), new Variable( "a", ONE ) ) );
+        assertSameBinding( args( Collections.singletonList( ONE ), new Variable( "c", TWO ), new Variable( "b", ONE ) ) );
+        assertSameBinding( args( Arrays.asList( ONE, TWO ), new Variable( "b", ONE ) ) );
+    }
+
+    @Test
+    public void testFallback() {
+        ArgumentBinding binding = new ArgumentBinding( FORMAL );
+        Assert.assertEquals( 1, binding.indexOf( "b" ) );
+        Assert.assertEquals( -1, binding.indexOf( "x" ) );
+        // missing value, too many values, unknown and duplicate names are reported by the general algorithm
+        Assert.assertNull( binding.bind( args( Arrays.asList( ONE ) ), true ) );
+        Assert.assertNotNull( binding.bind( args( Arrays.asList( ONE ) ), false ) );
+        Assert.assertNull( binding.bind( args( Arrays.asList( ONE, TWO, THREE, ONE ) ), true ) );
+        Assert.assertNull( binding.bind( args( Arrays.asList( ONE, TWO ), new Variable( "x", ONE ) ), true ) );
+        Assert.assertNull( binding.bind( args( Arrays.asList( ONE ), new Variable( "b", ONE ), new Variable( "b", TWO ) ), true ) );
+        Assert.assertNull( binding.bind( new ActualArgumentList( Separator.COMMA, Arrays.asList( ONE ), Collections.<Variable> emptyList(), TWO ), true ) );
+    }
+
+    @Test
+    public void testColorFunctions() throws Exception {
+        // the same calls with bound values and with variable arguments, which use the argument list
+        String[] calls = { "darken(#336699, 10%)", "lighten(#336699, 10%)", "mix(#336699, #ff0000)", "mix(#336699, #ff0000, 25%)", //
+                        "rgb(10, 20, 30)", "saturate(#336699, 10%)", "desaturate(#336699, 10%)", "transparentize(#336699, 0.5)", //
+                        "opacify(rgba(0, 0, 0, 0.5), 0.25)" };
+        for( String call : calls ) {
+            int paren = call.indexOf( '(' );
+            String varargs = call.substring( 0, paren ) + "($args...)";
+            String scss = "$args: " + call.substring( paren + 1, call.length() - 1 ) + ";\n.x { a: " + call + "; b: " + varargs + "; }";
+            String[] lines = compileToCss( scss ).split( "\n" );
+            Assert.assertEquals( call, lines[1].substring( lines[1].indexOf( ':' ) ), lines[2].substring( lines[2].indexOf( ':' ) ) );
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass.function;
+
+import static com.inet.sass.ScssTestSupport.compileToCss;
+import static com.inet.sass.ScssTestSupport.parse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.inet.sass.tree.FunctionDefNode;
+import com.inet.sass.tree.Node;
+
+public class IntrinsicsTest {
+
+    /** The polyfills of Bootstrap 5.2 */
+    private static final String FUNCTIONS = "@function divide($dividend, $divisor, $precision: 10) {\n" //
+                    + "  $sign: if($dividend > 0 and $divisor > 0 or $dividend < 0 and $divisor < 0, 1, -1);\n" //
+                    + "  $dividend: abs($dividend);\n" //
+                    + "  $divisor: abs($divisor);\n" //
+                    + "  @if $dividend == 0 { @return 0; }\n" //
+                    + "  @if $divisor == 0 { @error \"Cannot divide by 0\"; }\n" //
+                    + "  $remainder: $dividend;\n" //
+                    + "  $result: 0;\n" //
+                    + "  $factor: 10;\n" //
+                    + "  @while ($remainder > 0 and $precision >= 0) {\n" //
+                    + "    $quotient: 0;\n" //
+                    + "    @while ($remainder >= $divisor) {\n" //
+                    + "      $remainder: $remainder - $divisor;\n" //
+                    + "      $quotient: $quotient + 1;\n" //
+                    + "    }\n" //
+                    + "    $result: $result * 10 + $quotient;\n" //
+                    + "    $factor: $factor * .1;\n" //
+                    + "    $remainder: $remainder * 10;\n" //
+                    + "    $precision: $precision - 1;\n" //
+                    + "    @if ($precision < 0 and $remainder >= $divisor * 5) {\n" //
+                    + "      $result: $result + 1;\n" //
+                    + "    }\n" //
+                    + "  }\n" //
+                    + "  $result: $result * $factor * $sign;\n" //
+                    + "  $dividend-unit: unit($dividend);\n" //
+                    + "  $divisor-unit: unit($divisor);\n" //
+                    + "  $unit-map: (\"px\": 1px, \"rem\": 1rem, \"em\": 1em, \"%\": 1%);\n" //
+                    + "  @if ($dividend-unit != $divisor-unit and map-has-key($unit-map, $dividend-unit)) {\n" //
+                    + "    $result: $result * map-get($unit-map, $dividend-unit);\n" //
+                    + "  }\n" //
+                    + "  @return $result;\n" //
+                    + "}\n" //
+                    + "$_luminance-list: " + luminanceList() + ";\n" //
+                    + "@function luminance($color) {\n" //
+                    + "  $rgb: (\"r\": red($color), \"g\": green($color), \"b\": blue($color));\n" //
+                    + "  @each $name, $value in $rgb {\n" //
+                    + "    $value: if(divide($value, 255) < .03928, divide(divide($value, 255), 12.92), nth($_luminance-list, $value + 1));\n" //
+                    + "    $rgb: map-merge($rgb, ($name: $value));\n" //
+                    + "  }\n" //
+                    + "  @return (map-get($rgb, \"r\") * .2126) + (map-get($rgb, \"g\") * .7152) + (map-get($rgb, \"b\") * .0722);\n" //
+                    + "}\n" //
+                    + "@function contrast-ratio($background, $foreground: #fff) {\n" //
+                    + "  $l1: luminance($background);\n" //
+                    + "  $l2: luminance($foreground);\n" //
+                    + "  @return if($l1 > $l2, divide($l1 + .05, $l2 + .05), divide($l2 + .05, $l1 + .05));\n" //
+                    + "}\n";
+
+    private static String luminanceList() {
+        StringBuilder builder = new StringBuilder();
+        for( int i = 0; i < 256; i++ ) {
+            builder.append( i == 0 ? "" : " " ).append( String.format( Locale.ROOT, "%.4f", Math.pow( (i / 255.0 + .055) / 1.055, 2.4 ) ) );
+        }
+        return builder.toString();
+    }
+
+    private static String bootstrap( String path ) throws IOException {
+        try( InputStream input = IntrinsicsTest.class.getResourceAsStream( "/bootstrap/5.2.3/scss/" + path ) ) {
+            return IOUtils.toString( input, "UTF-8" );
+        }
+    }
+
+    private static String compile( String scss, boolean intrinsics ) throws Exception {
+        return compileToCss( scss, stylesheet -> stylesheet.setIntrinsics( intrinsics ) );
+    }
+
+    private static void assertIdentical( String scss ) throws Exception {
+        String expected = compile( scss, false );
+        Assert.assertEquals( expected, compile( scss, true ) );
+    }
+
+    @Test
+    public void testDivide() throws Exception {
+        StringBuilder scss = new StringBuilder( FUNCTIONS ).append( "a {\n" );
+        String[] dividends = { "0", "0px", "1", "-1", "3", "7.5", "10px", "-10px", "1rem", "2.5em", "50%", "1.2345678px", "100vh", "16", "1000", "0.001" };
+        String[] divisors = { "1", "-1", "3", "7.5", "16", "1000", "0.001", "3px", "-2px", "0.3rem" };
+        int i = 0;
+        for( String dividend : dividends ) {
+            for( String divisor : divisors ) {
+                if( divisor.matches( "[-0-9.]*" ) || dividend.matches( "[-0-9.]*" ) || dividend.endsWith( divisor.replaceAll( "[-0-9.]", "" ) ) ) {
+                    scss.append( "  x" ).append( i++ ).append( ": divide(" ).append( dividend ).append( ", " ).append( divisor ).append( ") divide(" ).append( dividend ).append( ", " ).append( divisor ).append( ", 3);\n" );
+                }
+            }
+        }
+        assertIdentical( scss.append( "}" ).toString() );
+    }
+
+    @Test
+    public void testDivideSign() throws Exception {
+        String scss = FUNCTIONS + "a { x: divide(-4, -2) divide(-4, 2) divide(4, -2) divide(4, 2); }";
+        Assert.assertEquals( "a {\n\tx: 2 -2 -2 2;\n}", compile( scss, false ) );
+        Assert.assertEquals( "a {\n\tx: 2 -2 -2 2;\n}", compile( scss, true ) );
+    }
+
+    @Test
+    public void testLuminance() throws Exception {
+        StringBuilder scss = new StringBuilder( FUNCTIONS ).append( "a {\n" );
+        for( int i = 0; i < 256; i += 3 ) {
+            String color = String.format( "#%02x%02x%02x", i, 255 - i, (i * 7) & 0xFF );
+            scss.append( "  x" ).append( i ).append( ": luminance(" ).append( color ).append( ") contrast-ratio(" ).append( color ).append( ");\n" );
+        }
+        assertIdentical( scss.append( "}" ).toString() );
+    }
+
+    @Test
+    public void testSignature() throws Exception {
+        String scss = "@function divide($a, $b) { @return polyfill; }\n" //
+                        + "@function luminance($color) { @return polyfill; }\n" //
+                        + "a { x: divide(1, 2) luminance(red); }";
+        Assert.assertEquals( "a {\n\tx: polyfill polyfill;\n}", compile( scss, true ) );
+    }
+
+    @Test
+    public void testBodyDiffers() throws Exception {
+        String scss = "@function divide($dividend, $divisor, $precision: 10) { @return $dividend * $divisor; }\n" //
+                        + "@function luminance($color) { @return polyfill; }\n" //
+                        + "a { x: divide(6, 3) luminance(red); }";
+        Assert.assertEquals( "a {\n\tx: 18 polyfill;\n}", compile( scss, true ) );
+    }
+
+    @Test
+    public void testBootstrapBodies() throws Exception {
+        for( String scss : new String[] { bootstrap( "vendor/_rfs.scss" ), bootstrap( "_functions.scss" ), FUNCTIONS } ) {
+            for( Node node : parse( scss ).getChildren() ) {
+                if( node instanceof FunctionDefNode ) {
+                    FunctionDefNode def = (FunctionDefNode)node;
+                    SCSSFunctionGenerator intrinsic = Intrinsics.find( def.getName(), def.getArglist(), def.getChildren() );
+                    boolean expected = def.getName().equals( "divide" ) || def.getName().equals( "luminance" );
+                    Assert.assertEquals( def.getName(), expected, intrinsic != null );
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMathModuleUnits() throws Exception {
+        for( String call : new String[] { "math.pow(2px, 2)", "math.pow(2, 2px)", "math.sqrt(16px)" } ) {
+            Throwable error = null;
+            try {
+                compile( "a { x: " + call + "; }", false );
+            } catch( Throwable ex ) {
+                error = ex;
+            }
+            Assert.assertNotNull( call, error );
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass.function;
+
+import static com.inet.sass.ScssTestSupport.compileToCss;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.inet.sass.ScssContext;
+import com.inet.sass.parser.LexicalUnitImpl;
+import com.inet.sass.parser.SassListItem;
+import com.inet.sass.util.Color;
+
+public class SassFunctionTest {
+
+    public static class Functions {
+
+        private final String prefix;
+
+        public Functions( String prefix ) {
+            this.prefix = prefix;
+        }
+
+        @SassFunction( "test-asset-hash" )
+        public String hash( String path ) {
+            return prefix + path.length();
+        }
+
+        @SassFunction( "test-twice" )
+        public static double twice( double value ) {
+            return value * 2;
+        }
+
+        @SassFunction( "test-repeat" )
+        public static SassListItem repeat( ScssContext context, LexicalUnitImpl unit, int count ) {
+            StringBuilder builder = new StringBuilder();
+            for( int i = 0; i < count; i++ ) {
+                builder.append( unit.unquotedString() );
+            }
+            return LexicalUnitImpl.createIdent( builder.toString() );
+        }
+
+        @SassFunction( "test-dark" )
+        public static boolean isDark( Color color ) {
+            return color.getRed() + color.getGreen() + color.getBlue() < 384;
+        }
+
+        @SassFunction( "test-nothing" )
+        public static Integer nothing() {
+            return null;
+        }
+
+        @SassFunction( value = "test-scale", parameters = { "value", "factor" } )
+        public static double scale( double value, double factor ) {
+            return value * factor;
+        }
+
+        @SassFunction( "test-fail" )
+        public static String fail() {
+            throw new AssertionError( "test-fail" );
+        }
+    }
+
+    @BeforeClass
+    public static void register() {
+        SCSSFunctionGenerator.registerCustomFunctions( new Functions( "v" ) );
+    }
+
+    @Test
+    public void testConversions() throws Exception {
+        String scss = "a {\n" //
+                        + "  a: test-asset-hash(\"img/logo.png\");\n" //
+                        + "  b: test-twice(1.5);\n" //
+                        + "  c: test-repeat(ab, 3);\n" //
+                        + "  d: test-dark(#101010) test-dark(white);\n" //
+                        + "  e: test-nothing() or 1;\n" //
+                        + "}";
+        Assert.assertEquals( "a {\n\ta: \"v12\";\n\tb: 3;\n\tc: ababab;\n\td: true false;\n\te: 1;\n}", compileToCss( scss ) );
+    }
+
+    @Test
+    public void testWrongType() throws Exception {
+        Throwable error = null;
+        try {
+            compileToCss( "a { b: test-twice(x); }" );
+        } catch( Throwable ex ) {
+            error = ex;
+        }
+        Assert.assertNotNull( error );
+        Assert.assertTrue( error.getMessage(), error.getMessage().contains( "Expected a number" ) );
+    }
+
+    @Test
+    public void testParameterNames() throws Exception {
+        Assert.assertEquals( "a {\n\tb: 6;\n\tc: 6;\n}", compileToCss( "a { b: test-scale($factor: 3, $value: 2); c: test-scale(2, $factor: 3); }" ) );
+    }
+
+    @Test
+    public void testNumberWithUnit() throws Exception {
+        Throwable error = null;
+        try {
+            compileToCss( "a { b: test-twice(2px); }" );
+        } catch( Throwable ex ) {
+            error = ex;
+        }
+        Assert.assertNotNull( error );
+        Assert.assertTrue( error.getMessage(), error.getMessage().contains( "Expected a number without unit" ) );
+    }
+
+    @Test
+    public void testErrorNotWrapped() throws Exception {
+        try {
+            compileToCss( "a { b: test-fail(); }" );
+            Assert.fail( "AssertionError expected" );
+        } catch( AssertionError ex ) {
+            Assert.assertEquals( "test-fail", ex.getMessage() );
+        }
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void testWrongParameterNames() {
+        SCSSFunctionGenerator.registerCustomFunctions( new Object() {
+            @SassFunction( parameters = { "a", "b" } )
+            public String names( String value ) {
+                return value;
+            }
+        } );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void testUnsupportedType() {
+        SCSSFunctionGenerator.registerCustomFunctions( new Object() {
+            @SassFunction
+            public Object unsupported( Object value ) {
+                return value;
+            }
+        } );
+    }
+}
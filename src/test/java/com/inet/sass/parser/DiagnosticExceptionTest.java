@@ -0,0 +1,68 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass.parser;
+
+import static com.inet.sass.ScssTestSupport.parse;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DiagnosticExceptionTest {
+
+    @Test
+    public void testMessage() {
+        ParseException full = new ParseException( "x", "a/b.scss", 2, 3 );
+        ParseException diagnostic = new DiagnosticException( "x", "a/b.scss", 2, 3 );
+        Assert.assertEquals( "x in line 2, column 3, in file b.scss", full.getMessage() );
+        Assert.assertEquals( full.getMessage(), diagnostic.getMessage() );
+        Assert.assertTrue( full.getStackTrace().length > 0 );
+        Assert.assertEquals( 0, diagnostic.getStackTrace().length );
+    }
+
+    @Test
+    public void testIncompatibleUnits() {
+        LexicalUnitImpl px = LexicalUnitImpl.createPX( "a.scss", 1, 5, 1 );
+        LexicalUnitImpl deg = LexicalUnitImpl.createDEG( "a.scss", 1, 11, 2 );
+        try {
+            px.checkAndGetUnit( deg );
+            Assert.fail();
+        } catch( DiagnosticException ex ) {
+            Assert.assertEquals( "Incompatible units found in: '1px' <> '2deg'\n at line 1, column 5, in file a.scss\n at line 1, column 11, in file a.scss", ex.getMessage() );
+            Assert.assertEquals( 0, ex.getStackTrace().length );
+        }
+    }
+
+    @Test
+    public void testSyntaxErrorHasStackTrace() throws Exception {
+        ParseException error = null;
+        try {
+            parse( ".a { b: c; } /* not closed" );
+        } catch( ParseException ex ) {
+            error = ex;
+        }
+        Assert.assertNotNull( error );
+        Assert.assertFalse( error instanceof DiagnosticException );
+        Assert.assertTrue( error.getStackTrace().length > 0 );
+    }
+
+    @Test
+    public void testEndOfDataIsNoError() throws Exception {
+        // the look ahead for @else reaches the end of the data
+        parse( "@if true { .a { b: c; } }" );
+        parse( "@if true { .a { b: c; } } @else { .d { e: f; } }" );
+    }
+}
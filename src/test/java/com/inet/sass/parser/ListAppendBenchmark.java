@@ -0,0 +1,52 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass.parser;
+
+import static com.inet.sass.ScssTestSupport.parse;
+
+import com.inet.sass.ScssStylesheet;
+
+/**
+ * Benchmark which accumulates a list with append() and a map with map-merge() in a loop. This is not a unit test, run
+ * it with the main method.
+ */
+public class ListAppendBenchmark {
+
+    private static final int SIZE = 10_000;
+
+    public static void main( String[] args ) throws Exception {
+        String list = "$list: ();\n" //
+                        + "@for $i from 1 through " + SIZE + " { $list: append($list, $i, comma); }\n" //
+                        + ".a { b: length($list); c: nth($list, " + SIZE + "); }";
+        String map = "$map: ();\n" //
+                        + "@for $i from 1 through " + SIZE + " { $map: map-merge($map, (k#{$i}: $i)); }\n" //
+                        + ".a { b: length($map); c: map-get($map, k" + SIZE + "); }";
+        for( int round = 0; round < 5; round++ ) {
+            run( "append", list );
+            run( "map-merge", map );
+        }
+    }
+
+    private static void run( String name, String scss ) throws Exception {
+        long start = System.nanoTime();
+        ScssStylesheet stylesheet = parse( scss );
+        stylesheet.compile();
+        String css = stylesheet.printState();
+        long time = System.nanoTime() - start;
+        System.out.println( name + ": " + (time / 1_000_000) + " ms " + css.replace( '\n', ' ' ) );
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass.parser;
+
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.inet.sass.ScssContext;
+import com.inet.sass.ScssContext.UrlMode;
+import com.inet.sass.parser.SassList.Separator;
+
+public class SassListTest {
+
+    private static LexicalUnitImpl number( int value ) {
+        return LexicalUnitImpl.createInteger( null, 0, 0, value );
+    }
+
+    @Test
+    public void testAppendSharesItems() {
+        SassList list = new SassList( Separator.COMMA, number( 1 ) );
+        SassList a = list.append( Separator.COMMA, Collections.singletonList( number( 2 ) ) );
+        SassList b = a.append( Separator.COMMA, Collections.singletonList( number( 3 ) ) );
+        // append to an older version must not change the newer list
+        SassList c = a.append( Separator.SPACE, Collections.singletonList( number( 4 ) ) );
+
+        Assert.assertEquals( "1", list.printState() );
+        Assert.assertEquals( "1, 2", a.printState() );
+        Assert.assertEquals( "1, 2, 3", b.printState() );
+        Assert.assertEquals( "1 2 4", c.printState() );
+    }
+
+    @Test
+    public void testJoin() {
+        SassList a = new SassList( Separator.SPACE, number( 1 ), number( 2 ) );
+        SassList b = new SassList( Separator.SPACE, number( 3 ) );
+        Assert.assertEquals( "1, 2, 3", a.join( Separator.COMMA, b ).printState() );
+        Assert.assertEquals( "1 2", a.printState() );
+    }
+
+    @Test
+    public void testConstant() {
+        ScssContext context = new ScssContext( UrlMode.MIXED, null );
+        SassList list = new SassList( Separator.COMMA, number( 1 ), LexicalUnitImpl.createIdent( "a" ) );
+        Assert.assertSame( list, list.evaluateFunctionsAndExpressions( context, true ) );
+        SassList appended = list.append( Separator.COMMA, Collections.singletonList( number( 2 ) ) );
+        Assert.assertSame( appended, appended.evaluateFunctionsAndExpressions( context, true ) );
+
+        LexicalUnitImpl variable = LexicalUnitImpl.createVariable( null, 0, 0, "x" );
+        SassList withVariable = list.append( Separator.COMMA, Collections.singletonList( variable ) );
+        Assert.assertFalse( withVariable.isConstant() );
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass.parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.inet.sass.ScssContext;
+import com.inet.sass.ScssContext.UrlMode;
+import com.inet.sass.parser.SassList.Separator;
+
+public class SassMapTest {
+
+    private static SassList entry( String key, int value ) {
+        return new SassList( Separator.COLON, LexicalUnitImpl.createIdent( key ), LexicalUnitImpl.createInteger( null, 0, 0, value ) );
+    }
+
+    private static SassMap map( SassList... entries ) {
+        return new SassMap( new ArrayList<>( Arrays.asList( entries ) ) );
+    }
+
+    @Test
+    public void testLookup() {
+        SassMap map = map( entry( "a", 1 ), entry( "b", 2 ) );
+        Assert.assertEquals( "2", map.getValue( LexicalUnitImpl.createIdent( "b" ) ).printState() );
+        Assert.assertEquals( "1", map.getValue( LexicalUnitImpl.createString( null, 0, 0, "a" ) ).printState() );
+        Assert.assertNull( map.getValue( LexicalUnitImpl.createIdent( "c" ) ) );
+        Assert.assertTrue( map.containsKey( LexicalUnitImpl.createIdent( "a" ) ) );
+        Assert.assertFalse( map.containsKey( LexicalUnitImpl.createIdent( "c" ) ) );
+    }
+
+    @Test
+    public void testNumberKeys() {
+        SassMap map = map( new SassList( Separator.COLON, LexicalUnitImpl.createNumber( null, 0, 0, 1 ), LexicalUnitImpl.createIdent( "one" ) ), //
+                        new SassList( Separator.COLON, LexicalUnitImpl.createNumber( null, 0, 0, 1.0000000001 ), LexicalUnitImpl.createIdent( "near" ) ), //
+                        new SassList( Separator.COLON, LexicalUnitImpl.createPX( null, 0, 0, 1 ), LexicalUnitImpl.createIdent( "px" ) ) );
+        // keys which print equals are different keys
+        Assert.assertEquals( "one", map.getValue( LexicalUnitImpl.createNumber( null, 0, 0, 1.0 ) ).printState() );
+        Assert.assertEquals( "near", map.getValue( LexicalUnitImpl.createNumber( null, 0, 0, 1.0000000001 ) ).printState() );
+        Assert.assertEquals( "px", map.getValue( LexicalUnitImpl.createPX( null, 0, 0, 1 ) ).printState() );
+        Assert.assertNull( map.getValue( LexicalUnitImpl.createString( null, 0, 0, "1" ) ) );
+    }
+
+    @Test
+    public void testMerge() {
+        SassMap map = map( entry( "a", 1 ), entry( "b", 2 ) ).merge( map( entry( "c", 3 ), entry( "a", 4 ) ) );
+        Assert.assertEquals( "(a:4, b:2, c:3)", map.printState() );
+        Assert.assertEquals( "3", map.getValue( LexicalUnitImpl.createIdent( "c" ) ).printState() );
+    }
+
+    @Test
+    public void testMergeSharesEntries() {
+        SassMap map = map( entry( "a", 1 ) );
+        SassMap b = map.merge( map( entry( "b", 2 ) ) );
+        SassMap c = b.merge( map( entry( "c", 3 ) ) );
+        // merge into an older version must not change the newer map
+        SassMap d = b.merge( map( entry( "d", 4 ) ) );
+
+        Assert.assertEquals( "(a:1, b:2)", b.printState() );
+        Assert.assertEquals( "(a:1, b:2, c:3)", c.printState() );
+        Assert.assertEquals( "(a:1, b:2, d:4)", d.printState() );
+        Assert.assertNull( b.getValue( LexicalUnitImpl.createIdent( "c" ) ) );
+        Assert.assertNull( d.getValue( LexicalUnitImpl.createIdent( "c" ) ) );
+        Assert.assertFalse( c.containsKey( LexicalUnitImpl.createIdent( "d" ) ) );
+        Assert.assertEquals( "4", d.getValue( LexicalUnitImpl.createIdent( "d" ) ).printState() );
+        Assert.assertEquals( "(a:5, b:2, c:3)", c.merge( map( entry( "a", 5 ) ) ).printState() );
+    }
+
+    @Test
+    public void testValueOf() {
+        SassList list = new SassList( Separator.COMMA, entry( "a", 1 ), entry( "b", 2 ) );
+        SassMap map = SassMap.valueOf( list );
+        Assert.assertEquals( list, map );
+        Assert.assertSame( map, SassMap.valueOf( map ) );
+        Assert.assertEquals( 1, SassMap.valueOf( entry( "x", 1 ) ).size() );
+        Assert.assertEquals( 0, SassMap.valueOf( new SassList() ).size() );
+        Assert.assertNull( SassMap.valueOf( LexicalUnitImpl.createIdent( "a" ) ) );
+    }
+
+    @Test
+    public void testEvaluateKeepsInstance() {
+        SassMap map = map( entry( "a", 1 ) );
+        Assert.assertSame( map, map.evaluateFunctionsAndExpressions( new ScssContext( UrlMode.MIXED, null ), true ) );
+    }
+}
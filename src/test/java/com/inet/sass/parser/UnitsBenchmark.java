@@ -0,0 +1,56 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass.parser;
+
+/**
+ * Micro benchmark for the unit checks and conversions of numbers. This is not a unit test, run it with the main
+ * method.
+ */
+public class UnitsBenchmark {
+
+    private static final int ITERATIONS = 5_000_000;
+
+    public static void main( String[] args ) {
+        LexicalUnitImpl[] units = { LexicalUnitImpl.createPX( null, 0, 0, 3 ), LexicalUnitImpl.createCM( null, 0, 0, 2 ), LexicalUnitImpl.createIN( null, 0, 0, 1 ), LexicalUnitImpl.createDEG( null, 0, 0, 90 ), LexicalUnitImpl.createS( null, 0, 0, 2 ), LexicalUnitImpl.createDimen( null, 0, 0, 96, "dpi" ), LexicalUnitImpl.createInteger( null, 0, 0, 5 ) };
+        for( int round = 0; round < 5; round++ ) {
+            long start = System.nanoTime();
+            int comparable = 0;
+            double sum = 0;
+            for( int i = 0; i < ITERATIONS; i++ ) {
+                LexicalUnitImpl x = units[i % units.length];
+                LexicalUnitImpl y = units[(i / units.length) % units.length];
+                if( x.isComparable( y ) ) {
+                    comparable++;
+                    sum += y.convertValue( x );
+                }
+            }
+            long time = System.nanoTime() - start;
+            System.out.println( "comparable+convert: " + (time / ITERATIONS) + " ns/op (" + comparable + ", " + sum + ")" );
+
+            start = System.nanoTime();
+            for( int i = 0; i < ITERATIONS / 10; i++ ) {
+                LexicalUnitImpl x = units[i % units.length];
+                LexicalUnitImpl y = units[(i / units.length) % units.length];
+                if( x.isComparable( y ) ) {
+                    sum += x.add( y ).getDoubleValue();
+                }
+            }
+            time = System.nanoTime() - start;
+            System.out.println( "add: " + (time / (ITERATIONS / 10)) + " ns/op (" + sum + ")" );
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass.parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class UnitsTest {
+
+    @Test
+    public void testFactor() {
+        Assert.assertEquals( 2.54, Units.factor( Units.indexOf( "in" ), Units.indexOf( "cm" ) ), 1e-9 );
+        Assert.assertEquals( 0.001, Units.factor( Units.indexOf( "ms" ), Units.indexOf( "s" ) ), 1e-9 );
+        Assert.assertEquals( 400, Units.factor( Units.indexOf( "turn" ), Units.indexOf( "grad" ) ), 1e-9 );
+        Assert.assertEquals( 96, Units.factor( Units.indexOf( "dppx" ), Units.indexOf( "dpi" ) ), 1e-9 );
+        Assert.assertEquals( 1000, Units.factor( Units.indexOf( "kHz" ), Units.indexOf( "Hz" ) ), 1e-9 );
+        Assert.assertTrue( Double.isNaN( Units.factor( Units.indexOf( "px" ), Units.indexOf( "deg" ) ) ) );
+        Assert.assertTrue( Double.isNaN( Units.factor( Units.indexOf( "em" ), Units.indexOf( "rem" ) ) ) );
+        Assert.assertTrue( Double.isNaN( Units.factor( Units.indexOf( "foo" ), Units.indexOf( "px" ) ) ) );
+    }
+
+    @Test
+    public void testCompoundUnits() {
+        List<String> numerators = new ArrayList<>();
+        List<String> denominators = new ArrayList<>();
+        Units.parse( "px*in/s*ms", numerators, denominators );
+        Assert.assertEquals( Arrays.asList( "px", "in" ), numerators );
+        Assert.assertEquals( Arrays.asList( "s", "ms" ), denominators );
+        Assert.assertEquals( "px*in/s*ms", Units.format( numerators, denominators ) );
+
+        denominators.add( "cm" );
+        Assert.assertEquals( 2.54 / 96, Units.cancel( numerators, denominators ), 1e-9 );
+        Assert.assertEquals( "in/s*ms", Units.format( numerators, denominators ) );
+
+        numerators.clear();
+        Assert.assertEquals( "(s*ms)^-1", Units.format( numerators, denominators ) );
+        List<String> parsed = new ArrayList<>();
+        Units.parse( "(s*ms)^-1", numerators, parsed );
+        Assert.assertEquals( denominators, parsed );
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.inet.sass.selector;
+
+import static com.inet.sass.ScssTestSupport.parse;
+
+import java.util.List;
+
+import com.inet.sass.ScssStylesheet;
+import com.inet.sass.tree.BlockNode;
+
+/**
+ * Benchmark for {@link SelectorSet#eliminateRedundantSelectors()} with large generated @extend sets. It compares the
+ * indexed implementation with the pairwise comparison of all selectors. This is not a unit test, run it with the main
+ * method.
+ */
+public class SelectorSetBenchmark {
+
+    public static void main( String[] args ) throws Exception {
+        for( int round = 0; round < 3; round++ ) {
+            for( int size = 250; size <= 4000; size *= 2 ) {
+                run( size );
+            }
+        }
+    }
+
+    /**
+     * Generate a style sheet where every selector of the first block is extended by size selectors.
+     *
+     * @param size the count of extending blocks
+     * @return the SCSS
+     */
+    static String generate( int size ) {
+        StringBuilder scss = new StringBuilder( ".base, .base.mod, .outer .base { x: 1; }\n" );
+        for( int i = 0; i < size; i++ ) {
+            switch( i % 4 ) {
+                case 0:
+                    scss.append( ".c" ).append( i ).append( " { @extend .base; }\n" );
+                    break;
+                case 1:
+                    scss.append( ".c" ).append( i ).append( ".mod { @extend .base; }\n" );
+                    break;
+                case 2:
+                    scss.append( "div.c" ).append( i ).append( " { @extend .base; }\n" );
+                    break;
+                default:
+                    scss.append( ".p" ).append( i ).append( " > .c" ).append( i ).append( " { @extend .base; }\n" );
+            }
+        }
+        return scss.toString();
+    }
+
+    /**
+     * Compile the generated style sheet and return the selectors of the extended block.
+     *
+     * @param size the count of extending blocks
+     * @return the selectors
+     * @throws Exception if any error occur
+     */
+    static List<Selector> selectors( int size ) throws Exception {
+        String scss = generate( size );
+        ScssStylesheet stylesheet = parse( scss );
+        stylesheet.compile();
+        return ((BlockNode)stylesheet.getChildren().get( 0 )).getSelectorList();
+    }
+
+    /**
+     * The former implementation which compares all pairs.
+     *
+     * @param set the selectors
+     * @return the filtered selectors
+     */
+    static SelectorSet eliminatePairwise( SelectorSet set ) {
+        SelectorSet filtered = new SelectorSet();
+        for( Selector s1 : set ) {
+            Selector s = s1;
+            for( Selector s2 : set ) {
+                if( s2.subsumes( s ) ) {
+                    s = s2;
+                }
+            }
+            filtered.add( s );
+        }
+        return filtered;
+    }
+
+    private static void run( int size ) throws Exception {
+        long start = System.nanoTime();
+        List<Selector> list = selectors( size );
+        long compile = System.nanoTime() - start;
+
+        SelectorSet set = new SelectorSet( list );
+
+        start = System.nanoTime();
+        int indexed = set.eliminateRedundantSelectors().size();
+        long indexedTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        int pairwise = eliminatePairwise( set ).size();
+        long pairwiseTime = System.nanoTime() - start;
+
+        System.out.println( "extends: " + size + ", compile: " + (compile / 1_000_000) + " ms, selectors: " + set.size() //
+                        + ", indexed: " + (indexedTime / 1_000_000) + " ms (" + indexed + ")" //
+                        + ", pairwise: " + (pairwiseTime / 1_000_000) + " ms (" + pairwise + ")" );
+    }
+}
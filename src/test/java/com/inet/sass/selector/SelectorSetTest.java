@@ -0,0 +1,41 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.inet.sass.selector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SelectorSetTest {
+
+    @Test
+    public void testSameResultAsPairwise() throws Exception {
+        List<Selector> selectors = SelectorSetBenchmark.selectors( 64 );
+        Random random = new Random( 42 );
+        for( int i = 0; i < 20; i++ ) {
+            List<Selector> shuffled = new ArrayList<>( selectors );
+            Collections.shuffle( shuffled, random );
+            SelectorSet set = new SelectorSet( shuffled );
+            Assert.assertEquals( new ArrayList<>( SelectorSetBenchmark.eliminatePairwise( set ) ), new ArrayList<>( set.eliminateRedundantSelectors() ) );
+        }
+    }
+}
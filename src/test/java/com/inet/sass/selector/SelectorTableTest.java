@@ -0,0 +1,86 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass.selector;
+
+import static com.inet.sass.ScssTestSupport.parse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.inet.sass.ScssStylesheet;
+import com.inet.sass.tree.BlockNode;
+import com.inet.sass.tree.Node;
+
+public class SelectorTableTest {
+
+    @Test
+    public void testIntern() throws Exception {
+        Selector a = SelectorSetBenchmark.selectors( 4 ).get( 1 );
+        Selector b = new Selector( a );
+        Assert.assertNotSame( a, b );
+        Assert.assertEquals( a, b );
+        Assert.assertEquals( a.hashCode(), b.hashCode() );
+
+        SelectorTable table = new SelectorTable();
+        Assert.assertSame( a, table.intern( a ) );
+        Assert.assertSame( a, table.intern( b ) );
+        Assert.assertEquals( 1, table.size() );
+
+        List<Selector> list = new ArrayList<>();
+        list.add( a );
+        Assert.assertSame( list, table.intern( list ) );
+        list.set( 0, b );
+        Assert.assertSame( a, table.intern( list ).get( 0 ) );
+    }
+
+    @Test
+    public void testCompiledSelectorsAreShared() throws Exception {
+        String scss = ".a { .b { c: 1; } }\n" //
+                        + ".a .b { d: 2; }\n" //
+                        + ".x { e: 3; }\n" //
+                        + ".a { .b { f: 4; } }";
+        ScssStylesheet sheet = parse( scss );
+        sheet.compile();
+        Assert.assertEquals( ".a .b {\n\tc: 1;\n}\n\n.a .b {\n\td: 2;\n}\n\n.x {\n\te: 3;\n}\n\n.a .b {\n\tf: 4;\n}", sheet.printState() );
+
+        List<Selector> selectors = new ArrayList<>();
+        for( Node node : sheet.getChildren() ) {
+            selectors.addAll( ((BlockNode)node).getSelectorList() );
+        }
+        Assert.assertEquals( 4, selectors.size() );
+        Assert.assertSame( selectors.get( 0 ), selectors.get( 1 ) );
+        Assert.assertSame( selectors.get( 0 ), selectors.get( 3 ) );
+    }
+
+    @Test
+    public void testExtendedSelectorsAreShared() throws Exception {
+        String scss = ".x .a { c: 1; }\n" //
+                        + ".b { @extend .a; }\n" //
+                        + ".x .b { d: 2; }";
+        ScssStylesheet sheet = parse( scss );
+        sheet.compile();
+        Assert.assertEquals( ".x .a, .x .b {\n\tc: 1;\n}\n\n.x .b {\n\td: 2;\n}", sheet.printState() );
+
+        List<Selector> first = ((BlockNode)sheet.getChildren().get( 0 )).getSelectorList();
+        List<Selector> last = ((BlockNode)sheet.getChildren().get( sheet.getChildren().size() - 1 )).getSelectorList();
+        // the selector created by the @extend is the instance of the selector from the nesting resolution
+        Assert.assertSame( last.get( 0 ), first.get( 1 ) );
+    }
+}
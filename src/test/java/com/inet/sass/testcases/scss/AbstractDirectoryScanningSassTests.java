@@ -93,7 +93,7 @@ public abstract class AbstractDirectoryScanningSassTests {
 
         ScssStylesheet scssStylesheet = ScssStylesheet.get( scssFile.getCanonicalPath(), errorHandler, getResolver( scssResourceName ) );
         scssStylesheet.compile();
-        String parsedCss = scssStylesheet.printState();
+        String parsedCss = printState( scssStylesheet, scssResourceName );
 
         if (getCssFile(scssFile) != null) {
             String referenceCss = IOUtils.toString( new FileInputStream( getCssFile( scssFile ) ), "UTF-8" );
@@ -105,6 +105,17 @@ public abstract class AbstractDirectoryScanningSassTests {
         }
     }
 
+    /**
+     * Print the compiled stylesheet that is compared with the CSS file.
+     * 
+     * @param stylesheet the compiled stylesheet
+     * @param scssResourceName the relative name of the SCSS file
+     * @return the CSS
+     */
+    protected String printState( ScssStylesheet stylesheet, String scssResourceName ) {
+        return stylesheet.printState();
+    }
+
     private String normalize(String css) {
         // one space after comma, no whitespace before comma
         css = css.replaceAll("[\n\r\t ]*,[\n\r\t ]*", ", ");
@@ -43,6 +43,7 @@ import com.inet.sass.parser.ParseException;
 import com.inet.sass.parser.SassListItem;
 import com.inet.sass.parser.StringInterpolationSequence;
 import com.inet.sass.testcases.scss.SassTestRunner.TestFactory;
+import com.inet.sass.tree.CssEmitter;
 import com.inet.sass.util.ColorUtil;
 
 @RunWith( SassTestRunner.class )
@@ -63,12 +64,27 @@ public class CustomTests extends AbstractDirectoryScanningSassTests {
         return getScssResourceNames( getResourceURLInternal( "" ) );
     }
 
+    /**
+     * The files in the directory "compressed" are printed in the compressed output style.
+     */
+    @Override
+    protected String printState( ScssStylesheet stylesheet, String scssResourceName ) {
+        if( scssResourceName.startsWith( "compressed" + File.separatorChar ) ) {
+            return stylesheet.printState( CssEmitter.OutputStyle.COMPRESSED );
+        }
+        return super.printState( stylesheet, scssResourceName );
+    }
+
      @Override
     protected File getCssFile( File scssFile ) throws IOException {
         File cssFile = super.getCssFile( scssFile );
         String javaVersion = System.getProperty( "java.vm.specification.version" );
         if( "1.8".equals( javaVersion ) ) {
-            cssFile = new File( cssFile.getPath().replace( ".css", "_1-8.css" ) );
+            // only some results differ with Java 8, for example the PNG encoding
+            File java8File = new File( cssFile.getPath().replace( ".css", "_1-8.css" ) );
+            if( java8File.exists() ) {
+                cssFile = java8File;
+            }
         }
         return cssFile;
     }
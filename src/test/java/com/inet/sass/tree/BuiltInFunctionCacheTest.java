@@ -0,0 +1,96 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass.tree;
+
+import static com.inet.sass.ScssTestSupport.compileToCss;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.inet.sass.ScssContext;
+import com.inet.sass.ScssContext.UrlMode;
+import com.inet.sass.function.SCSSFunctionGenerator;
+import com.inet.sass.parser.ActualArgumentList;
+import com.inet.sass.parser.LexicalUnitImpl;
+import com.inet.sass.parser.SassList.Separator;
+import com.inet.sass.parser.SassListItem;
+
+public class BuiltInFunctionCacheTest {
+
+    private static String compile( String scss, BuiltInFunctionCache cache ) throws Exception {
+        return compileToCss( scss, stylesheet -> stylesheet.setBuiltInFunctionCache( cache ) );
+    }
+
+    @Test
+    public void testHitsAndMisses() throws Exception {
+        String scss = ".a { b: darken(#808080, 10%) darken(#808080, 10%) lighten(#808080, 10%); c: darken(#808080, 20%); d: length(1 2); }";
+        String expected = compile( scss, null );
+        BuiltInFunctionCache cache = new BuiltInFunctionCache( 100 );
+        Assert.assertEquals( expected, compile( scss, cache ) );
+        Assert.assertEquals( 1, cache.getHits() );
+        Assert.assertEquals( 3, cache.getMisses() );
+        Assert.assertEquals( 3, cache.size() );
+
+        // a second variant uses the same cache
+        Assert.assertEquals( expected, compile( scss, cache ) );
+        Assert.assertEquals( 5, cache.getHits() );
+        Assert.assertEquals( 3, cache.getMisses() );
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        BuiltInFunctionCache cache = new BuiltInFunctionCache( 2 );
+        String scss = ".a { b: percentage(0.1) percentage(0.2) percentage(0.1) percentage(0.3) percentage(0.2); }";
+        Assert.assertEquals( ".a {\n\tb: 10% 20% 10% 30% 20%;\n}", compile( scss, cache ) );
+        // 0.1 is used again before 0.3 is added, so 0.2 is the least recently used
+        Assert.assertEquals( 1, cache.getHits() );
+        Assert.assertEquals( 4, cache.getMisses() );
+        Assert.assertEquals( 2, cache.getEvictions() );
+        Assert.assertEquals( 2, cache.size() );
+    }
+
+    @Test
+    public void testNearEqualNumbers() throws Exception {
+        BuiltInFunctionCache cache = new BuiltInFunctionCache( 100 );
+        String scss = ".a { b: percentage(0.0000001) * 100000 percentage(0.0000004) * 100000; }";
+        Assert.assertEquals( ".a {\n\tb: 1% 4%;\n}", compile( scss, cache ) );
+        Assert.assertEquals( 0, cache.getHits() );
+        Assert.assertEquals( 2, cache.size() );
+    }
+
+    @Test
+    public void testResultAtCallPosition() {
+        BuiltInFunctionCache cache = new BuiltInFunctionCache( 100 );
+        ScssContext context = new ScssContext( UrlMode.MIXED, null );
+        SCSSFunctionGenerator generator = SCSSFunctionGenerator.getGenerator( "percentage" );
+        LexicalUnitImpl first = LexicalUnitImpl.createFunction( "a.scss", 1, 2, "percentage", new ActualArgumentList( Separator.COMMA, LexicalUnitImpl.createNumber( "a.scss", 1, 13, 0.5 ) ) );
+        LexicalUnitImpl second = LexicalUnitImpl.createFunction( "b.scss", 7, 8, "percentage", new ActualArgumentList( Separator.COMMA, LexicalUnitImpl.createNumber( "b.scss", 7, 19, 0.5 ) ) );
+        SassListItem value1 = cache.compute( context, generator, first );
+        SassListItem value2 = cache.compute( context, generator, second );
+        Assert.assertEquals( 1, cache.getHits() );
+        Assert.assertNotSame( value1, value2 );
+        Assert.assertEquals( "50%", value2.printState() );
+        Assert.assertEquals( "b.scss", value2.getUri() );
+        Assert.assertEquals( 7, value2.getLineNumber() );
+        Assert.assertEquals( 8, value2.getColumnNumber() );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void testInvalidSize() {
+        new BuiltInFunctionCache( 0 );
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass.tree;
+
+import static com.inet.sass.ScssTestSupport.compile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.inet.sass.ScssStylesheet;
+
+public class CssEmitterTest {
+
+    private static final String SCSS = "@charset \"UTF-8\";\n" //
+                    + "$empty: null;\n" //
+                    + ".a { b: 1px solid; c: $empty; d: (1, 2) !important; content: \"ä\"; }\n" //
+                    + "@media print { .e { f: g; } }\n" //
+                    + "@font-face { font-family: x; }";
+
+    private static final String CSS = "@charset \"UTF-8\";\n\n" //
+                    + ".a {\n\tb: 1px solid;\n\t\n\td: 1, 2 !important;\n\tcontent: \"ä\";\n}\n\n" //
+                    + "@media print {\n\t.e {\n\t\tf: g;\n\t}\n}\n\n" //
+                    + "@font-face {\n\tfont-family: x;\n}";
+
+    @Test
+    public void testWriter() throws Exception {
+        ScssStylesheet stylesheet = compile( SCSS );
+        StringWriter writer = new StringWriter();
+        stylesheet.write( writer );
+        Assert.assertEquals( stylesheet.printState(), writer.toString() );
+    }
+
+    @Test
+    public void testOutputStream() throws Exception {
+        ScssStylesheet stylesheet = compile( SCSS );
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        stylesheet.write( stream );
+        Assert.assertEquals( stylesheet.printState(), new String( stream.toByteArray(), StandardCharsets.UTF_8 ) );
+    }
+
+    @Test
+    public void testPendingSeparator() throws Exception {
+        Assert.assertEquals( CSS, compile( SCSS ).printState() );
+    }
+
+    @Test
+    public void testBlankValue() throws Exception {
+        ScssStylesheet stylesheet = compile( ".a { b: unquote(\" \"); c: #{\" \"}; d: x unquote(\" \"); }" );
+        Assert.assertEquals( ".a {\n\t\n\t\n\td: x;\n}", stylesheet.printState() );
+        Assert.assertEquals( ".a{d:x}", stylesheet.printState( CssEmitter.OutputStyle.COMPRESSED ) );
+    }
+
+    @Test
+    public void testCompact() throws Exception {
+        ScssStylesheet stylesheet = compile( ".a, .b > .c { b: 1px solid; d: e; }\n" //
+                        + "/** doc */\n" //
+                        + "@media print { .e { f: g; } }" );
+        Assert.assertEquals( ".a, .b > .c { b: 1px solid; d: e; }\n" //
+                        + "/** doc */\n" //
+                        + "@media print { .e { f: g; } }", stylesheet.printState( CssEmitter.OutputStyle.COMPACT ) );
+    }
+
+    @Test
+    public void testParallel() throws Exception {
+        // all blocks share the unit of $color, the compressed output resolves its color in parallel
+        StringBuilder scss = new StringBuilder( SCSS ).append( "\n$color: #FFFFFF;" );
+        for( int i = 0; i < 100; i++ ) {
+            scss.append( "\n.x" ).append( i ).append( " { y: " ).append( i ).append( "px; z: $empty; color: $color; }" );
+            scss.append( "\n.empty" ).append( i ).append( " { }" );
+            scss.append( "\n@media print { .m" ).append( i ).append( " { y: 0.5em; } }" );
+        }
+        ScssStylesheet stylesheet = compile( scss.toString() );
+        for( CssEmitter.OutputStyle style : CssEmitter.OutputStyle.values() ) {
+            stylesheet.setParallel( false );
+            String expected = stylesheet.printState( style );
+            stylesheet.setParallel( true );
+            Assert.assertEquals( expected, stylesheet.printState( style ) );
+            Assert.assertEquals( expected, new String( stylesheet.toByteArray( style ), StandardCharsets.UTF_8 ) );
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass.tree;
+
+import static com.inet.sass.ScssTestSupport.compile;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.inet.sass.ScssStylesheet;
+
+public class FunctionCallCacheTest {
+
+    @Test
+    public void testPureFunction() throws Exception {
+        ScssStylesheet stylesheet = compile( "@function double($x) { $result: $x * 2; @return $result; }\n" //
+                        + ".a { b: double(1px) double(1px) double(2px); }" );
+        Assert.assertEquals( ".a {\n\tb: 2px 2px 4px;\n}", stylesheet.printState() );
+        FunctionCallCache cache = stylesheet.getFunctionCallCache();
+        Assert.assertEquals( 1, cache.getHits() );
+        Assert.assertEquals( 2, cache.getMisses() );
+        Assert.assertEquals( 2, cache.size() );
+    }
+
+    @Test
+    public void testOuterVariableChanged() throws Exception {
+        ScssStylesheet stylesheet = compile( "$factor: 2;\n" //
+                        + "@function scale($x) { @return $x * $factor; }\n" //
+                        + ".a { b: scale(1px) scale(1px); }\n" //
+                        + "$factor: 3;\n" //
+                        + ".c { d: scale(1px); }" );
+        Assert.assertEquals( ".a {\n\tb: 2px 2px;\n}\n\n.c {\n\td: 3px;\n}", stylesheet.printState() );
+        Assert.assertEquals( 1, stylesheet.getFunctionCallCache().getHits() );
+    }
+
+    @Test
+    public void testCalledFunctionReadsOuterVariable() throws Exception {
+        ScssStylesheet stylesheet = compile( "$factor: 2;\n" //
+                        + "@function factor() { @return $factor; }\n" //
+                        + "@function scale($x) { @return $x * factor(); }\n" //
+                        + ".a { b: scale(1px); }\n" //
+                        + "$factor: 3;\n" //
+                        + ".c { d: scale(1px); }" );
+        Assert.assertEquals( ".a {\n\tb: 2px;\n}\n\n.c {\n\td: 3px;\n}", stylesheet.printState() );
+    }
+
+    @Test
+    public void testOuterAssignment() throws Exception {
+        ScssStylesheet stylesheet = compile( "$count: 0;\n" //
+                        + "@function next() { $count: $count + 1; @return $count; }\n" //
+                        + ".a { b: next() next(); }" );
+        Assert.assertEquals( ".a {\n\tb: 1 2;\n}", stylesheet.printState() );
+        Assert.assertEquals( 0, stylesheet.getFunctionCallCache().getHits() );
+        Assert.assertEquals( 2, stylesheet.getFunctionCallCache().getUncached() );
+    }
+
+    @Test
+    public void testWarning() throws Exception {
+        ScssStylesheet stylesheet = compile( "@function f($x) { @debug $x; @return $x; }\n" //
+                        + ".a { b: f(1) f(1); }" );
+        Assert.assertEquals( ".a {\n\tb: 1 1;\n}", stylesheet.printState() );
+        Assert.assertEquals( 0, stylesheet.getFunctionCallCache().getHits() );
+        Assert.assertEquals( 2, stylesheet.getFunctionCallCache().getUncached() );
+    }
+
+    @Test
+    public void testNearEqualNumbers() throws Exception {
+        ScssStylesheet stylesheet = compile( "@function g($x) { @return $x * 1000000; }\n" //
+                        + ".a { b: g(0.0000001) g(0.0000004) g(0.0000001); }" );
+        Assert.assertEquals( ".a {\n\tb: 0.1 0.4 0.1;\n}", stylesheet.printState() );
+        Assert.assertEquals( 1, stylesheet.getFunctionCallCache().getHits() );
+        Assert.assertEquals( 2, stylesheet.getFunctionCallCache().size() );
+    }
+
+    @Test
+    public void testQuotedAndUnquoted() throws Exception {
+        ScssStylesheet stylesheet = compile( "@function q($x) { @return quote($x) + unquote($x); }\n" //
+                        + ".a { b: q(\"x\") q(x); }" );
+        Assert.assertEquals( 2, stylesheet.getFunctionCallCache().size() );
+    }
+
+    @Test
+    public void testCalledFunctionRedefined() throws Exception {
+        ScssStylesheet stylesheet = compile( "@function factor() { @return 2; }\n" //
+                        + "@function scale($x) { @return $x * factor(); }\n" //
+                        + ".a { b: scale(1px); }\n" //
+                        + "@function factor() { @return 3; }\n" //
+                        + ".c { d: scale(1px); }" );
+        Assert.assertEquals( ".a {\n\tb: 2px;\n}\n\n.c {\n\td: 3px;\n}", stylesheet.printState() );
+    }
+}
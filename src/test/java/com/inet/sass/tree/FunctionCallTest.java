@@ -0,0 +1,57 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass.tree;
+
+import static com.inet.sass.ScssTestSupport.collect;
+import static com.inet.sass.ScssTestSupport.parse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.inet.sass.ScssStylesheet;
+
+public class FunctionCallTest {
+
+    @Test
+    public void testBodyIsNotModified() throws Exception {
+        String scss = "@function f($n) {\n" //
+                        + "  $sum: 0;\n" //
+                        + "  @for $i from 1 through $n { $sum: $sum + $i; }\n" //
+                        + "  @each $x in a, b { @if $x == b { $sum: $sum * 2; } @else { $sum: $sum + 1; } }\n" //
+                        + "  @while $sum < 100 { $sum: $sum * 10; }\n" //
+                        + "  @if $n > 2 { @return $sum; }\n" //
+                        + "  @return -$sum;\n" //
+                        + "}\n" //
+                        + ".a { b: f(1) f(2) f(3); }";
+        ScssStylesheet stylesheet = parse( scss );
+        Node def = stylesheet.getChildren().get( 0 );
+        List<Node> before = new ArrayList<>();
+        collect( def, before );
+        String text = def.toString();
+
+        stylesheet.compile();
+        Assert.assertEquals( ".a {\n\tb: -400 -800 140;\n}", stylesheet.printState() );
+
+        List<Node> after = new ArrayList<>();
+        collect( def, after );
+        Assert.assertEquals( before, after );
+        Assert.assertEquals( text, def.toString() );
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass.tree;
+
+import static com.inet.sass.ScssTestSupport.collect;
+import static com.inet.sass.ScssTestSupport.compile;
+import static com.inet.sass.ScssTestSupport.parse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.inet.sass.ScssContext;
+import com.inet.sass.ScssContext.UrlMode;
+import com.inet.sass.ScssStylesheet;
+import com.inet.sass.parser.ActualArgumentList;
+import com.inet.sass.parser.SassList.Separator;
+
+public class MixinNodeTest {
+
+    @Test
+    public void testDefinitionIsNotModified() throws Exception {
+        String scss = "@mixin m($a, $b: 2) {\n" //
+                        + "  $c: $a * $b;\n" //
+                        + "  @if $c > 4 { width: $c; } @else { height: $c; }\n" //
+                        + "  .x { top: $a; @content; }\n" //
+                        + "}\n" //
+                        + ".a { @include m(1) { color: red; } }\n" //
+                        + ".b { @include m(3, $b: 3) { color: blue; } }";
+        ScssStylesheet stylesheet = parse( scss );
+        Node def = stylesheet.getChildren().get( 0 );
+        List<Node> before = new ArrayList<>();
+        collect( def, before );
+        String text = def.toString();
+        String children = before.toString();
+
+        stylesheet.compile();
+        Assert.assertEquals( ".a {\n\theight: 2;\n}\n\n.a .x {\n\ttop: 1;\n\tcolor: red;\n}\n\n" //
+                        + ".b {\n\twidth: 9;\n}\n\n.b .x {\n\ttop: 3;\n\tcolor: blue;\n}", stylesheet.printState() );
+
+        List<Node> after = new ArrayList<>();
+        collect( def, after );
+        Assert.assertEquals( before, after );
+        Assert.assertEquals( text, def.toString() );
+        Assert.assertEquals( children, after.toString() );
+    }
+
+    @Test
+    public void testContentOfEnclosingInclude() throws Exception {
+        String scss = "@mixin inner { .inner { @content; } }\n" //
+                        + "@mixin outer($v) { @include inner { a: $v; @content; } }\n" //
+                        + "$v: caller;\n" //
+                        + ".a { @include outer(mixin) { b: $v; } }";
+        Assert.assertEquals( ".a .inner {\n\ta: mixin;\n\tb: caller;\n}", compile( scss ).printState() );
+    }
+
+    @Test
+    public void testContentWithoutBlock() throws Exception {
+        String scss = "@mixin m { c: d; @content; }\n" //
+                        + ".a { @include m; }";
+        Assert.assertEquals( ".a {\n\tc: d;\n}", compile( scss ).printState() );
+    }
+
+    @Test
+    public void testContentRestoresBinding() {
+        ScssContext context = new ScssContext( UrlMode.MIXED, null );
+        ContentNode.Binding current = new ContentNode.Binding( new MixinNode( "", 1, 1, "a", new ActualArgumentList( Separator.COMMA ) ), context.getCurrentScope(), null );
+        ContentNode.Binding other = new ContentNode.Binding( new MixinNode( "", 2, 1, "b", new ActualArgumentList( Separator.COMMA ) ), context.getCurrentScope(), null );
+        ContentNode content = new ContentNode();
+        // a copy that is traversed after its mixin was expanded, for example a bubbling @media rule
+        other.bind( content );
+        context.setContentBinding( current );
+        content.traverse( context );
+        Assert.assertSame( current, context.getContentBinding() );
+    }
+}
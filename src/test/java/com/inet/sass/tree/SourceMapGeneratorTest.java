@@ -0,0 +1,59 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass.tree;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.inet.sass.InputSource;
+import com.inet.sass.ScssStylesheet;
+import com.inet.sass.testcases.scss.AssertErrorHandler;
+
+public class SourceMapGeneratorTest {
+
+    @Test
+    public void testVLQ() throws Exception {
+        StringWriter writer = new StringWriter();
+        SourceMapGenerator map = new SourceMapGenerator( writer, "a.css" );
+        map.addMapping( 0, 0, "a.scss", 0, 0 );
+        map.addMapping( 0, 16, "a.scss", 3, 4 );
+        map.addMapping( 2, 2, "b\"c.scss", 1, 0 );
+        map.finish();
+        Assert.assertEquals( "{\"version\":3,\"file\":\"a.css\",\"mappings\":\"AAAA,gBAGI;;ECFJ\",\"sources\":[\"a.scss\",\"b\\\"c.scss\"],\"names\":[]}", writer.toString() );
+    }
+
+    @Test
+    public void testStylesheet() throws Exception {
+        String scss = ".a {\n  b: 1px;\n  .c { d: e; }\n}\n@media print {\n  .f { g: h; }\n}";
+        ScssStylesheet stylesheet = ScssStylesheet.get( "a.scss", new AssertErrorHandler(), ( parent, identifier ) -> {
+            InputSource source = new InputSource( new StringReader( scss ) );
+            source.setURI( identifier );
+            return source;
+        } );
+        stylesheet.compile();
+
+        StringWriter css = new StringWriter();
+        StringWriter json = new StringWriter();
+        stylesheet.write( css, CssEmitter.OutputStyle.COMPRESSED, new SourceMapGenerator( json, "out.css" ) );
+        Assert.assertEquals( ".a{b:1px}.a .c{d:e}@media print{.f{g:h}}", css.toString() );
+        Assert.assertEquals( "{\"version\":3,\"file\":\"out.css\",\"mappings\":\"AAAA,GACE,MACA,MAAK,IAED,aACJ,GAAK\",\"sources\":[\"a.scss\"],\"names\":[]}", json.toString() );
+        Assert.assertEquals( stylesheet.printState( CssEmitter.OutputStyle.COMPRESSED ), css.toString() );
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.inet.sass.parser.LexicalUnitImpl;
+
+public class ColorTest {
+
+    @Test
+    public void testLiterals() {
+        LexicalUnitImpl hex = LexicalUnitImpl.createIdent( "#1a2B3c" );
+        Color color = hex.getColor();
+        Assert.assertEquals( 0x1a2b3c, color.getRgb() );
+        Assert.assertSame( color, hex.getColor() );
+        Assert.assertEquals( 0x112233, LexicalUnitImpl.createIdent( "#123" ).getColor().getRgb() );
+        Assert.assertEquals( 0xff0000, LexicalUnitImpl.createIdent( "red" ).getColor().getRgb() );
+        Assert.assertNull( LexicalUnitImpl.createIdent( "foo" ).getColor() );
+    }
+
+    @Test
+    public void testHsl() {
+        Color color = Color.rgb( 0x197de1, 1 );
+        Assert.assertEquals( 210, color.getHue(), 0.5 );
+        Assert.assertEquals( 80, color.getSaturation(), 0.5 );
+        Assert.assertEquals( 49, color.getLightness(), 0.5 );
+
+        Color hsl = Color.hsl( 123.456, 50, 25, 0.5 );
+        Assert.assertEquals( 123.456, hsl.getHue(), 0 );
+        Assert.assertEquals( 0.5, hsl.withAlpha( 0.5 ).getAlpha(), 0 );
+        Assert.assertEquals( 123.456, hsl.withAlpha( 1 ).getHue(), 0 );
+        Assert.assertEquals( 0x808080, Color.hsl( 0, 0, 50.2, 1 ).getRgb() );
+    }
+}
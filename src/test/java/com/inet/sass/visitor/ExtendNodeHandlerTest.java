@@ -0,0 +1,70 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.inet.sass.visitor;
+
+import static com.inet.sass.ScssTestSupport.compileToCss;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ExtendNodeHandlerTest {
+
+    private static String compile( String scss ) throws Exception {
+        return compile( scss, false );
+    }
+
+    private static String compile( String scss, boolean parallel ) throws Exception {
+        return compileToCss( scss, stylesheet -> stylesheet.setParallel( parallel ) );
+    }
+
+    @Test
+    public void testIndexedExtensions() throws Exception {
+        String scss = ".a { x: 1; }\n" //
+                        + "a.b, .c:hover { x: 2; }\n" //
+                        + "#d .a { x: 3; }\n" //
+                        + "%e { x: 4; }\n" //
+                        + "span { x: 5; }\n" //
+                        + ".f { @extend .a; }\n" //
+                        + ".g { @extend a.b; }\n" //
+                        + ".h { @extend %e; }\n" //
+                        + ".i { @extend span; }\n" //
+                        + ".j { @extend .c:hover; }\n" //
+                        + ".k { @extend #d; }";
+        Assert.assertEquals( ".a, .f {\n\tx: 1;\n}\n\n" //
+                        + "a.b, .g, .c:hover {\n\tx: 2;\n}\n\n" //
+                        + "#d .a, #d .f, .k .a, .k .f {\n\tx: 3;\n}\n\n" //
+                        + ".h {\n\tx: 4;\n}\n\n" //
+                        + "span, .i {\n\tx: 5;\n}", compile( scss ) );
+    }
+
+    @Test
+    public void testParallel() throws Exception {
+        StringBuilder scss = new StringBuilder();
+        for( int i = 0; i < 200; i++ ) {
+            scss.append( ".m" ).append( i ).append( " .a { x: " ).append( i ).append( "; }\n" );
+            scss.append( "%p" ).append( i ).append( " { y: " ).append( i ).append( "; }\n" );
+            if( i % 3 == 0 ) {
+                scss.append( "@media print { .m" ).append( i ).append( " .b, %p" ).append( i ).append( " { z: 1; } }\n" );
+            }
+            scss.append( ".e" ).append( i ).append( " { @extend .a; @extend .b; @extend %p" ).append( i % 7 ).append( "; }\n" );
+        }
+        String expected = compile( scss.toString() );
+        Assert.assertTrue( expected.contains( ".m199 .a, .m199 .e0" ) );
+        Assert.assertEquals( expected, compile( scss.toString(), true ) );
+    }
+}
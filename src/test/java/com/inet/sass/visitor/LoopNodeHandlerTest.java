@@ -0,0 +1,114 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.inet.sass.visitor;
+
+import static com.inet.sass.ScssTestSupport.collect;
+import static com.inet.sass.ScssTestSupport.parse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.inet.sass.ScssContext;
+import com.inet.sass.ScssContext.UrlMode;
+import com.inet.sass.ScssStylesheet;
+import com.inet.sass.parser.LexicalUnitImpl;
+import com.inet.sass.parser.ParseException;
+import com.inet.sass.parser.SassList;
+import com.inet.sass.parser.Variable;
+import com.inet.sass.tree.Node;
+import com.inet.sass.tree.controldirective.EachDefNode;
+import com.inet.sass.tree.controldirective.ForNode;
+
+public class LoopNodeHandlerTest {
+
+    @Test
+    public void testBodyIsNotModified() throws Exception {
+        String scss = "@mixin m($names) {\n" //
+                        + "  @each $name, $value in $names {\n" //
+                        + "    $i: 0;\n" //
+                        + "    @while $i < $value { $i: $i + 1; }\n" //
+                        + "    @for $j from 1 through 2 {\n" //
+                        + "      @if $j == 2 { .#{$name}-#{$j} { a: $i; @content; } }\n" //
+                        + "    }\n" //
+                        + "  }\n" //
+                        + "}\n" //
+                        + ".a { @include m((x: 1, y: 3)) { b: c; } }";
+        ScssStylesheet stylesheet = parse( scss );
+        Node def = stylesheet.getChildren().get( 0 );
+        List<Node> before = new ArrayList<>();
+        collect( def, before );
+        String text = before.toString();
+
+        stylesheet.compile();
+        Assert.assertEquals( ".a .x-2 {\n\ta: 1;\n\tb: c;\n}\n\n.a .y-2 {\n\ta: 3;\n\tb: c;\n}", stylesheet.printState() );
+
+        List<Node> after = new ArrayList<>();
+        collect( def, after );
+        Assert.assertEquals( before, after );
+        Assert.assertEquals( text, after.toString() );
+    }
+
+    @Test
+    public void testTopLevelLoop() throws Exception {
+        String scss = "@each $i in 1, 2 { .a-#{$i} { b: $i; } }";
+        ScssStylesheet stylesheet = parse( scss );
+        Node loop = stylesheet.getChildren().get( 0 );
+        String text = loop.getChildren().toString();
+
+        stylesheet.compile();
+        Assert.assertEquals( ".a-1 {\n\tb: 1;\n}\n\n.a-2 {\n\tb: 2;\n}", stylesheet.printState() );
+        Assert.assertEquals( text, loop.getChildren().toString() );
+    }
+
+    @Test
+    public void testLazyForVariables() {
+        ScssContext context = new ScssContext( UrlMode.MIXED, null );
+        ForNode node = new ForNode( "i", LexicalUnitImpl.createInteger( null, 0, 0, 1 ), LexicalUnitImpl.createInteger( null, 0, 0, Integer.MAX_VALUE ), true );
+        Iterator<List<Variable>> iterator = ForNodeHandler.getLoopVariables( context, node ).iterator();
+        for( int i = 1; i <= 3; i++ ) {
+            Assert.assertTrue( iterator.hasNext() );
+            List<Variable> vars = iterator.next();
+            Assert.assertEquals( 1, vars.size() );
+            Assert.assertEquals( "i", vars.get( 0 ).getName() );
+            Assert.assertEquals( String.valueOf( i ), vars.get( 0 ).getExpr().printState() );
+        }
+    }
+
+    @Test
+    public void testEachDestructuring() {
+        ScssContext context = new ScssContext( UrlMode.MIXED, null );
+        SassList list = new SassList( new SassList( LexicalUnitImpl.createInteger( null, 0, 0, 1 ), LexicalUnitImpl.createInteger( null, 0, 0, 2 ) ), LexicalUnitImpl.createInteger( null, 0, 0, 3 ) );
+        EachDefNode node = new EachDefNode( Arrays.asList( "a", "b" ), list );
+        Iterator<List<Variable>> iterator = EachNodeHandler.getLoopVariables( context, node ).iterator();
+
+        List<Variable> vars = iterator.next();
+        Assert.assertEquals( "1", vars.get( 0 ).getExpr().printState() );
+        Assert.assertEquals( "2", vars.get( 1 ).getExpr().printState() );
+
+        try {
+            iterator.next();
+            Assert.fail( "ParseException expected" );
+        } catch( ParseException ex ) {
+            Assert.assertTrue( ex.getMessage(), ex.getMessage().contains( "can't expand to multiple variables" ) );
+        }
+    }
+}
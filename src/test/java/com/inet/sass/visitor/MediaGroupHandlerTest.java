@@ -0,0 +1,83 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.inet.sass.visitor;
+
+import static com.inet.sass.ScssTestSupport.compileToCss;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MediaGroupHandlerTest {
+
+    private static String compile( String scss ) throws Exception {
+        return compileToCss( scss, stylesheet -> stylesheet.setGroupMediaQueries( true ) );
+    }
+
+    @Test
+    public void testGroup() throws Exception {
+        String scss = ".a { color: red; @media print { margin: 0; } }\n" //
+                        + ".b { color: blue; @media print { padding: 0; } }\n" //
+                        + "@media screen { .c { margin: 0; } }";
+        Assert.assertEquals( ".a {\n\tcolor: red;\n}\n\n" //
+                        + "@media print {\n\t.a {\n\t\tmargin: 0;\n\t}\n\t.b {\n\t\tpadding: 0;\n\t}\n}\n\n" //
+                        + ".b {\n\tcolor: blue;\n}\n\n" //
+                        + "@media screen {\n\t.c {\n\t\tmargin: 0;\n\t}\n}", compile( scss ) );
+    }
+
+    @Test
+    public void testConflict() throws Exception {
+        String scss = ".a { @media print { margin: 0; } }\n" //
+                        + ".b { margin-top: 1px; }\n" //
+                        + ".c { @media print { margin-top: 0; } }";
+        Assert.assertEquals( "@media print {\n\t.a {\n\t\tmargin: 0;\n\t}\n}\n\n" //
+                        + ".b {\n\tmargin-top: 1px;\n}\n\n" //
+                        + "@media print {\n\t.c {\n\t\tmargin-top: 0;\n\t}\n}", compile( scss ) );
+    }
+
+    @Test
+    public void testShorthandConflict() throws Exception {
+        String scss = "@media(x){.a{top:1px}} .a{inset:0} @media(x){.a{top:5px}}";
+        Assert.assertEquals( "@media (x) {\n\t.a {\n\t\ttop: 1px;\n\t}\n}\n\n" //
+                        + ".a {\n\tinset: 0;\n}\n\n" //
+                        + "@media (x) {\n\t.a {\n\t\ttop: 5px;\n\t}\n}", compile( scss ) );
+    }
+
+    @Test
+    public void testShorthandFamilies() throws Exception {
+        String[][] pairs = { { "inset", "top" }, { "inset-inline-start", "left" }, { "font", "line-height" }, { "gap", "row-gap" }, { "gap", "column-gap" },
+                        { "grid-gap", "row-gap" }, { "place-items", "align-items" }, { "place-content", "justify-content" }, { "columns", "column-count" },
+                        { "-webkit-columns", "column-width" }, { "white-space", "text-wrap" }, { "block-size", "height" } };
+        for( String[] pair : pairs ) {
+            for( int i = 0; i < 2; i++ ) {
+                String shorthand = pair[i];
+                String longhand = pair[1 - i];
+                String scss = "@media(x){.a{" + longhand + ":1}} .a{" + shorthand + ":0} @media(x){.a{" + longhand + ":5}}";
+                // both @media nodes must be kept
+                Assert.assertEquals( scss, 2, compile( scss ).split( "@media", -1 ).length - 1 );
+            }
+        }
+    }
+
+    @Test
+    public void testFamily() {
+        Assert.assertEquals( "border", MediaGroupHandler.getFamily( "border-top-color", "red" ) );
+        Assert.assertEquals( "transition", MediaGroupHandler.getFamily( "-webkit-transition", "none" ) );
+        Assert.assertEquals( "*", MediaGroupHandler.getFamily( "--x", "0" ) );
+        Assert.assertEquals( "*", MediaGroupHandler.getFamily( "color", "var(--x)" ) );
+    }
+}
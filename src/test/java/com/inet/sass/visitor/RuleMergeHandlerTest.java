@@ -0,0 +1,72 @@
+/*
+ * Copyright 2023 i-net software
+ * Copyright 2000-2014 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.inet.sass.visitor;
+
+import static com.inet.sass.ScssTestSupport.compileToCss;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RuleMergeHandlerTest {
+
+    private static String compile( String scss, boolean mergeRules ) throws Exception {
+        return compileToCss( scss, stylesheet -> stylesheet.setMergeRules( mergeRules ) );
+    }
+
+    @Test
+    public void testMergeBlocks() throws Exception {
+        String scss = ".a { b: c; d: e; }\n" //
+                        + ".b { b: c; d: e; }\n" //
+                        + ".c { b: c; }\n" //
+                        + ".d { b: c; d: e; }";
+        Assert.assertEquals( ".a {\n\tb: c;\n\td: e;\n}\n\n.b {\n\tb: c;\n\td: e;\n}\n\n.c {\n\tb: c;\n}\n\n.d {\n\tb: c;\n\td: e;\n}", compile( scss, false ) );
+        Assert.assertEquals( ".a, .b {\n\tb: c;\n\td: e;\n}\n\n.c {\n\tb: c;\n}\n\n.d {\n\tb: c;\n\td: e;\n}", compile( scss, true ) );
+    }
+
+    @Test
+    public void testOverriddenDeclarations() throws Exception {
+        String scss = ".a { color: red; margin: 0; color: red; margin: 1px; }\n" //
+                        + ".b { display: -webkit-box; display: flex; background: red; background: linear-gradient(red, blue); }\n" //
+                        + ".c { color: red !important; color: blue; }";
+        Assert.assertEquals( ".a {\n\tmargin: 0;\n\tcolor: red;\n\tmargin: 1px;\n}\n\n" //
+                        + ".b {\n\tdisplay: -webkit-box;\n\tdisplay: flex;\n\tbackground: red;\n\tbackground: linear-gradient(red, blue);\n}\n\n" //
+                        + ".c {\n\tcolor: red !important;\n\tcolor: blue;\n}", compile( scss, true ) );
+    }
+
+    @Test
+    public void testUnitFallbacks() throws Exception {
+        String scss = ".a { font-size: 16px; font-size: 1rem; width: 100%; width: 50vw; color: red; color: blue; }";
+        Assert.assertEquals( compile( scss, false ), compile( scss, true ) );
+    }
+
+    @Test
+    public void testVendorPseudo() throws Exception {
+        String scss = ".a::-webkit-input-placeholder { color: red; }\n" //
+                        + ".a:-ms-input-placeholder { color: red; }\n" //
+                        + ".a::placeholder { color: red; }";
+        Assert.assertEquals( compile( scss, false ), compile( scss, true ) );
+    }
+
+    @Test
+    public void testMergeMedia() throws Exception {
+        String scss = "@media print { .a { b: c; } }\n" //
+                        + "@media print { .b { b: c; } .c { d: e; } }\n" //
+                        + "@media screen { .d { b: c; } }";
+        Assert.assertEquals( "@media print {\n\t.a, .b {\n\t\tb: c;\n\t}\n\t.c {\n\t\td: e;\n\t}\n}\n\n@media screen {\n\t.d {\n\t\tb: c;\n\t}\n}", compile( scss, true ) );
+    }
+}